@@ -53,6 +53,11 @@ public interface PackageJson {
     boolean isAddArguments();
 
     String getLogger();
+
+    /**
+     * @return the weights of the cost model by engine or an empty map for the defaults
+     */
+    Map<String, Object> getCostProfile();
   }
 
   interface ExplainConfig {
@@ -68,6 +73,8 @@ public interface PackageJson {
     boolean isSorted();
 
     boolean isVisual();
+
+    boolean isCost();
   }
 
   interface ScriptConfig {
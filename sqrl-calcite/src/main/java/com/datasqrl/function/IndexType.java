@@ -18,6 +18,14 @@ public enum IndexType {
     return this == HASH || this==BTREE || this == PBTREE;
   }
 
+  /**
+   * An ordered index returns rows in the order of its columns.
+   * @return
+   */
+  public boolean isOrdered() {
+    return this == BTREE;
+  }
+
   public boolean isPartitioned() {
     return this == PBTREE;
   }
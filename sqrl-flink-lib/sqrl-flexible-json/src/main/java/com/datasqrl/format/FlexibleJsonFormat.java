@@ -38,7 +38,6 @@ import org.apache.flink.formats.common.TimestampFormat;
 import org.apache.flink.formats.json.JsonFormatFactory;
 import org.apache.flink.formats.json.JsonFormatOptions;
 import org.apache.flink.formats.json.JsonFormatOptionsUtil;
-import org.apache.flink.formats.json.JsonRowDataDeserializationSchema;
 import org.apache.flink.table.connector.ChangelogMode;
 import org.apache.flink.table.connector.Projection;
 import org.apache.flink.table.connector.format.DecodingFormat;
@@ -74,18 +73,7 @@ public class FlexibleJsonFormat implements DeserializationFormatFactory,
         final RowType rowType = (RowType) producedDataType.getLogicalType();
         final TypeInformation<RowData> rowDataTypeInfo = context.createTypeInformation(
             producedDataType);
-        JsonRowDataDeserializationSchema jsonRowDataDeserializationSchema = new JsonRowDataDeserializationSchema(
-            rowType, rowDataTypeInfo, false, false, TimestampFormat.ISO_8601);
-
-        SchemaAdjustmentSettings settings = SchemaAdjustmentSettings.DEFAULT;
-        RelationType relationType = createFlexibleTableSchema(rowType);
-        FlexibleTableSchema schema = new FlexibleTableSchema(Name.system("schema"),
-            SchemaElementDescription.NONE, null, false,relationType, List.of());
-        SchemaValidator validator = new FlexibleSchemaValidator(schema,
-            true, settings, NameCanonicalizer.SYSTEM,
-            new FlexibleTypeMatcher(settings));
-
-        return new JsonFlexibleSchemaDelegate(jsonRowDataDeserializationSchema, validator);
+        return createDeserializationSchema(rowType, rowDataTypeInfo);
       }
 
       @Override
@@ -95,6 +83,19 @@ public class FlexibleJsonFormat implements DeserializationFormatFactory,
     };
   }
 
+  JsonFlexibleSchemaDelegate createDeserializationSchema(RowType rowType,
+      TypeInformation<RowData> rowDataTypeInfo) {
+    SchemaAdjustmentSettings settings = SchemaAdjustmentSettings.DEFAULT;
+    RelationType relationType = createFlexibleTableSchema(rowType);
+    FlexibleTableSchema schema = new FlexibleTableSchema(Name.system("schema"),
+        SchemaElementDescription.NONE, null, false,relationType, List.of());
+    SchemaValidator validator = new FlexibleSchemaValidator(schema,
+        true, settings, NameCanonicalizer.SYSTEM,
+        new FlexibleTypeMatcher(settings));
+
+    return new JsonFlexibleSchemaDelegate(rowType, rowDataTypeInfo, validator);
+  }
+
   private RelationType createFlexibleTableSchema(RowType rowType) {
     List<SchemaField> types = new ArrayList<>();
     Builder builder = new Builder();
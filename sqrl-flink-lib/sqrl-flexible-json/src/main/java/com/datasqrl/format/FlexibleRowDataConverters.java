@@ -0,0 +1,157 @@
+package com.datasqrl.format;
+
+import com.datasqrl.canonicalizer.Name;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.types.logical.ArrayType;
+import org.apache.flink.table.types.logical.DecimalType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+/**
+ * Converts the data that {@link com.datasqrl.schema.input.FlexibleSchemaValidator} produces for a
+ * record (nested maps keyed by {@link Name}, lists, and the java values of the flexible basic
+ * types) directly into Flink's internal data structures. The conversion for each field is
+ * compiled once from the produced {@link RowType}.
+ */
+public class FlexibleRowDataConverters {
+
+  @FunctionalInterface
+  public interface FlexibleRowDataConverter extends Serializable {
+
+    Object convert(Object value);
+  }
+
+  public static FlexibleRowDataConverter createRowConverter(RowType rowType) {
+    List<RowType.RowField> fields = rowType.getFields();
+    Name[] names = new Name[fields.size()];
+    FlexibleRowDataConverter[] converters = new FlexibleRowDataConverter[fields.size()];
+    for (int i = 0; i < fields.size(); i++) {
+      names[i] = Name.system(fields.get(i).getName());
+      converters[i] = createConverter(fields.get(i).getType());
+    }
+    return value -> {
+      if (!(value instanceof Map)) {
+        throw new IllegalArgumentException("Expected a nested record but got: " + value);
+      }
+      Map<Name, Object> data = (Map<Name, Object>) value;
+      GenericRowData row = new GenericRowData(names.length);
+      for (int i = 0; i < names.length; i++) {
+        row.setField(i, converters[i].convert(data.get(names[i])));
+      }
+      return row;
+    };
+  }
+
+  private static FlexibleRowDataConverter createConverter(LogicalType type) {
+    FlexibleRowDataConverter converter = createNotNullConverter(type);
+    return value -> value == null ? null : converter.convert(value);
+  }
+
+  private static FlexibleRowDataConverter createNotNullConverter(LogicalType type) {
+    switch (type.getTypeRoot()) {
+      case CHAR:
+      case VARCHAR:
+        return value -> StringData.fromString(value.toString());
+      case BOOLEAN:
+        return value -> value instanceof Boolean ? value : Boolean.parseBoolean(value.toString());
+      case TINYINT:
+        return value -> toNumber(value).byteValue();
+      case SMALLINT:
+        return value -> toNumber(value).shortValue();
+      case INTEGER:
+      case INTERVAL_YEAR_MONTH:
+        return value -> toNumber(value).intValue();
+      case BIGINT:
+        return value -> toNumber(value).longValue();
+      case INTERVAL_DAY_TIME:
+        return value -> value instanceof Duration ? ((Duration) value).toMillis()
+            : toNumber(value).longValue();
+      case FLOAT:
+        return value -> toNumber(value).floatValue();
+      case DOUBLE:
+        return value -> toNumber(value).doubleValue();
+      case DECIMAL:
+        DecimalType decimalType = (DecimalType) type;
+        int precision = decimalType.getPrecision(), scale = decimalType.getScale();
+        return value -> DecimalData.fromBigDecimal(toBigDecimal(value), precision, scale);
+      case DATE:
+        return value -> value instanceof LocalDate ? (int) ((LocalDate) value).toEpochDay()
+            : (int) LocalDate.parse(value.toString()).toEpochDay();
+      case TIME_WITHOUT_TIME_ZONE:
+        return value -> (int) (toLocalTime(value).toNanoOfDay() / 1_000_000L);
+      case TIMESTAMP_WITHOUT_TIME_ZONE:
+      case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+        return value -> TimestampData.fromInstant(toInstant(value));
+      case ARRAY:
+        FlexibleRowDataConverter elementConverter = createConverter(
+            ((ArrayType) type).getElementType());
+        return value -> {
+          if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Expected an array but got: " + value);
+          }
+          List<Object> list = (List<Object>) value;
+          Object[] elements = new Object[list.size()];
+          for (int i = 0; i < elements.length; i++) {
+            elements[i] = elementConverter.convert(list.get(i));
+          }
+          return new GenericArrayData(elements);
+        };
+      case ROW:
+        return createRowConverter((RowType) type);
+      default:
+        return value -> {
+          throw new IllegalArgumentException(
+              "Cannot use flexible schema with type: " + type.getTypeRoot().name());
+        };
+    }
+  }
+
+  private static Number toNumber(Object value) {
+    if (value instanceof Number) {
+      return (Number) value;
+    } else if (value instanceof Boolean) {
+      return (Boolean) value ? 1 : 0;
+    }
+    return new BigDecimal(value.toString());
+  }
+
+  private static BigDecimal toBigDecimal(Object value) {
+    if (value instanceof BigDecimal) {
+      return (BigDecimal) value;
+    } else if (value instanceof Double || value instanceof Float) {
+      return BigDecimal.valueOf(((Number) value).doubleValue());
+    } else if (value instanceof Number) {
+      return BigDecimal.valueOf(((Number) value).longValue());
+    }
+    return new BigDecimal(value.toString());
+  }
+
+  private static Instant toInstant(Object value) {
+    if (value instanceof Instant) {
+      return (Instant) value;
+    } else if (value instanceof Number) {
+      return Instant.ofEpochSecond(((Number) value).longValue());
+    }
+    return Instant.parse(value.toString());
+  }
+
+  private static LocalTime toLocalTime(Object value) {
+    if (value instanceof Instant) {
+      return LocalTime.ofInstant((Instant) value, ZoneOffset.UTC);
+    }
+    return LocalTime.parse(value.toString());
+  }
+}
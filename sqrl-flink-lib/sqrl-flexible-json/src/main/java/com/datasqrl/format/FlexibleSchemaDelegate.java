@@ -1,43 +1,64 @@
 package com.datasqrl.format;
 
+import com.datasqrl.error.CollectedException;
 import com.datasqrl.error.ErrorCollector;
-import com.datasqrl.error.ErrorLabel;
 import com.datasqrl.error.ErrorPrefix;
 import com.datasqrl.error.ErrorPrinter;
+import com.datasqrl.format.FlexibleRowDataConverters.FlexibleRowDataConverter;
 import com.datasqrl.io.SourceRecord.Named;
 import com.datasqrl.io.SourceRecord.Raw;
 import com.datasqrl.io.tables.SchemaValidator;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Map;
+import java.util.UUID;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.flink.api.common.serialization.DeserializationSchema;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.metrics.Counter;
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.core.json.JsonReadFeature;
-import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.JsonNode;
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.util.jackson.JacksonMapperFactory;
 
-//@Slf4j
+/**
+ * Parses each message once, validates and adjusts the parsed data against the flexible schema and
+ * converts the result directly into {@link RowData}. Records that do not match the schema are
+ * dropped, logged, and counted in the {@link #INVALID_RECORDS_METRIC} metric.
+ */
+@Slf4j
 public abstract class FlexibleSchemaDelegate implements DeserializationSchema<RowData> {
-  protected DeserializationSchema schema;
+
+  public static final String INVALID_RECORDS_METRIC = "numInvalidRecords";
+
+  //The validator requires an id but the records it produces are not identified by it
+  private static final UUID RECORD_ID = new UUID(0, 0);
+
+  protected final RowType rowType;
+  protected final TypeInformation<RowData> producedType;
   protected final SchemaValidator validator;
   protected ObjectMapper objectMapper;
+  private transient FlexibleRowDataConverter converter;
+  private transient Counter invalidRecords;
 
-  public FlexibleSchemaDelegate(DeserializationSchema schema, SchemaValidator validator) {
-    this.schema = schema;
+  public FlexibleSchemaDelegate(RowType rowType, TypeInformation<RowData> producedType,
+      SchemaValidator validator) {
+    this.rowType = rowType;
+    this.producedType = producedType;
     this.validator = validator;
   }
 
   @Override
   public void open(InitializationContext context) throws Exception {
-    schema.open(context);
     objectMapper =
         JacksonMapperFactory.createObjectMapper()
             .configure(
                 JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS.mappedFeature(),
                 true);
+    converter = FlexibleRowDataConverters.createRowConverter(rowType);
+    invalidRecords = context.getMetricGroup().counter(INVALID_RECORDS_METRIC);
   }
 
   @Override
@@ -51,33 +72,41 @@ public abstract class FlexibleSchemaDelegate implements DeserializationSchema<Ro
       return null;
     }
 
-    ErrorCollector errorCollector = new ErrorCollector(ErrorPrefix.ROOT) {
-      @Override
-      public RuntimeException exception(ErrorLabel label, String msg, Object... args) {
-        System.out.println(message);
-        return super.exception(label, msg, args);
-      }
-    };
-
-    Named named = validator.verifyAndAdjust(new Raw(data, Instant.now()), errorCollector);
+    ErrorCollector errorCollector = new ErrorCollector(ErrorPrefix.ROOT);
+    Instant now = Instant.now();
+    Named named;
+    try {
+      named = validator.verifyAndAdjust(new Raw(data, now, now, RECORD_ID), errorCollector);
+    } catch (CollectedException e) {
+      return invalidRecord(message, ErrorPrinter.prettyPrint(errorCollector));
+    }
     if (errorCollector.hasErrors()) {
-      System.out.println(ErrorPrinter.prettyPrint(errorCollector));
-      return null;
+      return invalidRecord(message, ErrorPrinter.prettyPrint(errorCollector));
+    }
+
+    try {
+      return (RowData) converter.convert(named.getData());
+    } catch (RuntimeException e) {
+      return invalidRecord(message, e.getMessage());
     }
+  }
 
-    JsonNode jsonNode = objectMapper.valueToTree(named.getData());
-    return (RowData) schema.deserialize(jsonNode.toString().getBytes());
+  private RowData invalidRecord(byte[] message, String errors) {
+    invalidRecords.inc();
+    log.warn("Dropped record that does not match schema: {}\n{}",
+        new String(message, StandardCharsets.UTF_8), errors);
+    return null;
   }
 
   public abstract Map<String, Object> parse(byte[] message);
 
   @Override
   public boolean isEndOfStream(RowData nextElement) {
-    return schema.isEndOfStream(nextElement);
+    return false;
   }
 
   @Override
   public TypeInformation<RowData> getProducedType() {
-    return schema.getProducedType();
+    return producedType;
   }
 }
@@ -3,14 +3,15 @@ package com.datasqrl.format;
 import com.datasqrl.io.tables.SchemaValidator;
 import java.util.Map;
 import lombok.SneakyThrows;
-import org.apache.flink.api.common.serialization.DeserializationSchema;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
 
 public class JsonFlexibleSchemaDelegate extends FlexibleSchemaDelegate {
 
-  public JsonFlexibleSchemaDelegate(
-      DeserializationSchema schema,
+  public JsonFlexibleSchemaDelegate(RowType rowType, TypeInformation<RowData> producedType,
       SchemaValidator validator) {
-    super(schema, validator);
+    super(rowType, producedType, validator);
   }
 
   @SneakyThrows
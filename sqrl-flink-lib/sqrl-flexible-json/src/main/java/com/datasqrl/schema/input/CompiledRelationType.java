@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.schema.input;
+
+import com.datasqrl.canonicalizer.Name;
+import com.datasqrl.canonicalizer.NameCanonicalizer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link RelationType} of the flexible schema compiled for validation: fields are addressed by
+ * their position and the raw field names that occur in the data are resolved to positions through
+ * a cache, so that names only need to be canonicalized the first time they are seen.
+ */
+class CompiledRelationType {
+
+  static final int NOT_A_FIELD = -1;
+  static final int MAX_CACHED_NAMES = 4096;
+
+  final RelationType<FlexibleFieldSchema.Field> relation;
+  final FlexibleFieldSchema.Field[] fields;
+  final boolean[] nonNull;
+
+  private final NameCanonicalizer canonicalizer;
+  private final Map<Name, Integer> positionsByName;
+  private final Map<String, Integer> positionsByRawName = new ConcurrentHashMap<>();
+
+  CompiledRelationType(RelationType<FlexibleFieldSchema.Field> relation,
+      NameCanonicalizer canonicalizer) {
+    this.relation = relation;
+    this.canonicalizer = canonicalizer;
+    this.fields = relation.getFields().toArray(FlexibleFieldSchema.Field[]::new);
+    this.nonNull = new boolean[fields.length];
+    this.positionsByName = new HashMap<>(fields.length * 2);
+    for (int i = 0; i < fields.length; i++) {
+      nonNull[i] = FlexibleSchemaHelper.isNonNull(fields[i]);
+      //If two fields have the same name, the last one is used
+      positionsByName.put(fields[i].getName(), i);
+    }
+  }
+
+  int getPosition(String rawName) {
+    Integer position = positionsByRawName.get(rawName);
+    if (position == null) {
+      position = positionsByName.getOrDefault(Name.of(rawName, canonicalizer), NOT_A_FIELD);
+      if (positionsByRawName.size() < MAX_CACHED_NAMES) {
+        positionsByRawName.put(rawName, position);
+      }
+    }
+    return position;
+  }
+
+  FieldValues createValues() {
+    return new FieldValues(this);
+  }
+
+  /**
+   * The validated values of a record in the positions of the fields. Exposed as a map from the
+   * output names to the values which contains the fields for which a value was emitted.
+   */
+  static class FieldValues extends AbstractMap<Name, Object> {
+
+    private static final Object UNVISITED = new Object();
+    private static final Object NO_VALUE = new Object();
+
+    private final CompiledRelationType relation;
+    private final Object[] values;
+    //The names depend on the matched type of the field
+    private final Name[] names;
+    private int size = 0;
+
+    private FieldValues(CompiledRelationType relation) {
+      this.relation = relation;
+      this.values = new Object[relation.fields.length];
+      this.names = new Name[relation.fields.length];
+      Arrays.fill(values, UNVISITED);
+    }
+
+    boolean isVisited(int position) {
+      return values[position] != UNVISITED;
+    }
+
+    void markVisited(int position) {
+      if (values[position] == UNVISITED) {
+        values[position] = NO_VALUE;
+      }
+    }
+
+    void set(int position, Name name, Object value) {
+      names[position] = name;
+      if (!hasValue(position)) {
+        size++;
+      }
+      values[position] = value;
+    }
+
+    private boolean hasValue(int position) {
+      return values[position] != UNVISITED && values[position] != NO_VALUE;
+    }
+
+    private int getPosition(Object key) {
+      Integer position = relation.positionsByName.get(key);
+      if (position != null && hasValue(position) && names[position].equals(key)) {
+        return position;
+      }
+      for (int i = 0; i < names.length; i++) {
+        if (hasValue(i) && names[i].equals(key)) {
+          return i;
+        }
+      }
+      return NOT_A_FIELD;
+    }
+
+    @Override
+    public Object get(Object key) {
+      int position = getPosition(key);
+      return position == NOT_A_FIELD ? null : values[position];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return getPosition(key) != NOT_A_FIELD;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Set<Entry<Name, Object>> entrySet() {
+      return new AbstractSet<>() {
+        @Override
+        public Iterator<Entry<Name, Object>> iterator() {
+          return new Iterator<>() {
+            int next = advance(0);
+
+            private int advance(int position) {
+              while (position < values.length && !hasValue(position)) {
+                position++;
+              }
+              return position;
+            }
+
+            @Override
+            public boolean hasNext() {
+              return next < values.length;
+            }
+
+            @Override
+            public Entry<Name, Object> next() {
+              if (!hasNext()) {
+                throw new NoSuchElementException();
+              }
+              Entry<Name, Object> entry = new SimpleImmutableEntry<>(
+                  names[next], values[next]);
+              next = advance(next + 1);
+              return entry;
+            }
+          };
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+  }
+}
@@ -33,6 +33,9 @@ public class FlexibleSchemaValidator implements SchemaValidator, Serializable {
   private final NameCanonicalizer canonicalizer;
   private final FlexibleTypeMatcher typeMatcher;
 
+  //Compiled lazily since the validator is serialized and shipped to where it validates
+  private transient volatile Map<RelationType<Field>, CompiledRelationType> compiledRelations;
+
   public FlexibleSchemaValidator(@NonNull FlexibleTableSchema tableSchema,
                                  boolean hasSourceTimestamp,
                                  @NonNull SchemaAdjustmentSettings settings,
@@ -59,43 +62,71 @@ public class FlexibleSchemaValidator implements SchemaValidator, Serializable {
   private Map<Name, Object> verifyAndAdjust(Map<String, Object> relationData,
       RelationType<FlexibleFieldSchema.Field> relationSchema,
       ErrorCollector errors) {
-    Map<Name, Object> result = new LinkedHashMap<>(relationData.size());
-    Set<Name> visitedFields = new HashSet<>();
+    CompiledRelationType relation = getCompiledRelation(relationSchema);
+    CompiledRelationType.FieldValues result = relation.createValues();
     for (Map.Entry<String, Object> entry : relationData.entrySet()) {
-      Name name = Name.of(entry.getKey(), canonicalizer);
+      int position = relation.getPosition(entry.getKey());
       Object data = entry.getValue();
-      Optional<FlexibleFieldSchema.Field> field = relationSchema.getFieldByName(name);
-      if (field.isEmpty()) {
+      if (position == CompiledRelationType.NOT_A_FIELD) {
         if (!settings.dropFields()) {
-          errors.fatal("Field is not defined in schema: %s [table=%s]", name, tableSchema.getName());
+          errors.fatal("Field is not defined in schema: %s [table=%s]",
+              Name.of(entry.getKey(), canonicalizer), tableSchema.getName());
         }
       } else {
+        FlexibleFieldSchema.Field field = relation.fields[position];
         Pair<Name, Object> fieldResult = null;
         if (data != null) {
-          fieldResult = verifyAndAdjust(data, field.get(), errors.resolve(name.getDisplay()));
+          fieldResult = verifyAndAdjust(data, field, errors.resolve(entry.getKey().trim()));
         }
-        if (fieldResult == null && isNonNull(field.get())) {
-          fieldResult = handleNull(field.get(), errors);
+        if (fieldResult == null && relation.nonNull[position]) {
+          fieldResult = handleNull(field, errors);
         }
         if (fieldResult != null) {
-          result.put(fieldResult.getKey(), fieldResult.getValue());
+          result.set(position, fieldResult.getKey(), fieldResult.getValue());
         }
+        result.markVisited(position);
       }
-      visitedFields.add(name);
     }
 
     //See if we missed any non-null fields
-    for (FlexibleFieldSchema.Field field : relationSchema.getFields()) {
-      if (!visitedFields.contains(field.getName()) && isNonNull(field)) {
-        Pair<Name, Object> fieldResult = handleNull(field, errors);
+    for (int position = 0; position < relation.fields.length; position++) {
+      if (!result.isVisited(position) && relation.nonNull[position]) {
+        Pair<Name, Object> fieldResult = handleNull(relation.fields[position], errors);
         if (fieldResult != null) {
-          result.put(fieldResult.getKey(), fieldResult.getValue());
+          result.set(position, fieldResult.getKey(), fieldResult.getValue());
         }
       }
     }
     return result;
   }
 
+  private CompiledRelationType getCompiledRelation(RelationType<Field> relationSchema) {
+    Map<RelationType<Field>, CompiledRelationType> compiled = compiledRelations;
+    if (compiled == null) {
+      compiled = new IdentityHashMap<>();
+      compile(tableSchema.getFields(), compiled);
+      compiledRelations = compiled;
+    }
+    CompiledRelationType relation = compiled.get(relationSchema);
+    //Relations outside the table schema are not expected but are compiled on demand
+    return relation != null ? relation : new CompiledRelationType(relationSchema, canonicalizer);
+  }
+
+  private void compile(RelationType<Field> relationSchema,
+      Map<RelationType<Field>, CompiledRelationType> compiled) {
+    if (compiled.containsKey(relationSchema)) {
+      return;
+    }
+    compiled.put(relationSchema, new CompiledRelationType(relationSchema, canonicalizer));
+    for (Field field : relationSchema.getFields()) {
+      for (FlexibleFieldSchema.FieldType type : field.getTypes()) {
+        if (type.getType() instanceof RelationType) {
+          compile((RelationType<Field>) type.getType(), compiled);
+        }
+      }
+    }
+  }
+
   private boolean isNonNull(FlexibleFieldSchema.Field field) {
     //Use memoization to reduce repeated computation
     return FlexibleSchemaHelper.isNonNull(field);
@@ -41,7 +41,8 @@ public class FlexibleTypeMatcher implements Serializable {
       List<FlexibleFieldSchema.FieldType> fieldTypes, boolean force) {
     FlexibleFieldSchema.FieldType match;
     if (type instanceof RelationType) {
-      assert arrayDepth == 1;
+      //A nested record is either a single record or an array of records
+      assert arrayDepth <= 1;
       match = fieldTypes.stream().filter(ft -> ft.getType() instanceof RelationType).findFirst()
           .orElse(null);
       if (match == null && force) {
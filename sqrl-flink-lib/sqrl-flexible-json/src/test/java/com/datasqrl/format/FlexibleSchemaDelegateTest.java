@@ -0,0 +1,159 @@
+package com.datasqrl.format;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.datasqrl.canonicalizer.Name;
+import com.datasqrl.error.ErrorCollector;
+import com.datasqrl.error.ErrorPrefix;
+import com.datasqrl.io.SourceRecord.Named;
+import com.datasqrl.io.SourceRecord.Raw;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import org.apache.flink.api.common.serialization.DeserializationSchema.InitializationContext;
+import org.apache.flink.api.java.typeutils.GenericTypeInfo;
+import org.apache.flink.formats.common.TimestampFormat;
+import org.apache.flink.formats.json.JsonRowDataDeserializationSchema;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.SimpleCounter;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.util.UserCodeClassLoader;
+import org.apache.flink.util.jackson.JacksonMapperFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FlexibleSchemaDelegateTest {
+
+  static final RowType ROW_TYPE = (RowType) DataTypes.ROW(
+      DataTypes.FIELD("id", DataTypes.BIGINT().notNull()),
+      DataTypes.FIELD("name", DataTypes.STRING()),
+      DataTypes.FIELD("amount", DataTypes.DOUBLE()),
+      DataTypes.FIELD("price", DataTypes.DECIMAL(10, 2)),
+      DataTypes.FIELD("quantity", DataTypes.INT()),
+      DataTypes.FIELD("active", DataTypes.BOOLEAN()),
+      DataTypes.FIELD("day", DataTypes.DATE()),
+      DataTypes.FIELD("ts", DataTypes.TIMESTAMP_LTZ(3)),
+      DataTypes.FIELD("tags", DataTypes.ARRAY(DataTypes.STRING())),
+      DataTypes.FIELD("address", DataTypes.ROW(
+          DataTypes.FIELD("city", DataTypes.STRING()),
+          DataTypes.FIELD("zip", DataTypes.BIGINT())))
+  ).getLogicalType();
+
+  static final String[] RECORDS = {
+      "{\"id\": 1, \"name\": \"alice\", \"amount\": 10.5, \"price\": 12.345, \"quantity\": 3,"
+          + " \"active\": true, \"day\": \"2024-01-02\", \"ts\": \"2024-01-02T03:04:05.678Z\","
+          + " \"tags\": [\"a\", \"b\"], \"address\": {\"city\": \"Berlin\", \"zip\": 10115}}",
+      "{\"ID\": \"2\", \"Name\": 17, \"amount\": 3, \"quantity\": \"4\", \"ts\": 1700000000,"
+          + " \"tags\": \"single\", \"extra\": [1, 2]}",
+      "{\"id\": 3, \"tags\": [\"x\", null, \"y\"], \"address\": {\"CITY\": \"Paris\"}}",
+  };
+
+  ObjectMapper mapper = JacksonMapperFactory.createObjectMapper();
+  SimpleCounter invalidRecords = new SimpleCounter();
+  FlexibleSchemaDelegate delegate;
+  JsonRowDataDeserializationSchema json;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    delegate = new FlexibleJsonFormat().createDeserializationSchema(ROW_TYPE,
+        new GenericTypeInfo<>(RowData.class));
+    json = new JsonRowDataDeserializationSchema(ROW_TYPE, new GenericTypeInfo<>(RowData.class),
+        false, false, TimestampFormat.ISO_8601);
+    InitializationContext context = new InitializationContext() {
+      @Override
+      public MetricGroup getMetricGroup() {
+        return new UnregisteredMetricsGroup() {
+          @Override
+          public Counter counter(String name) {
+            return invalidRecords;
+          }
+        };
+      }
+
+      @Override
+      public UserCodeClassLoader getUserCodeClassLoader() {
+        return null;
+      }
+    };
+    delegate.open(context);
+    json.open(context);
+  }
+
+  @Test
+  public void testDecoding() throws Exception {
+    GenericRowData row = (GenericRowData) delegate.deserialize(bytes(RECORDS[0]));
+    assertEquals(1L, row.getLong(0));
+    assertEquals(StringData.fromString("alice"), row.getString(1));
+    assertEquals(10.5, row.getDouble(2));
+    assertEquals("12.35", row.getDecimal(3, 10, 2).toString());
+    assertEquals(3, row.getInt(4));
+    assertEquals(true, row.getBoolean(5));
+    assertEquals(19724, row.getInt(6));
+    assertEquals(TimestampData.fromInstant(Instant.parse("2024-01-02T03:04:05.678Z")),
+        row.getTimestamp(7, 3));
+    assertEquals(2, row.getArray(8).size());
+    assertEquals(StringData.fromString("Berlin"), row.getRow(9, 2).getString(0));
+
+    //Field names are matched case-insensitively and values are cast to the schema types
+    row = (GenericRowData) delegate.deserialize(bytes(RECORDS[1]));
+    assertEquals(2L, row.getLong(0));
+    assertEquals(StringData.fromString("17"), row.getString(1));
+    assertEquals(4, row.getInt(4));
+    assertEquals(TimestampData.fromEpochMillis(1700000000_000L), row.getTimestamp(7, 3));
+    assertEquals(StringData.fromString("single"), row.getArray(8).getString(0));
+  }
+
+  @Test
+  public void testMatchesJsonRowDataDeserialization() throws Exception {
+    for (String record : RECORDS) {
+      assertEquals(reparse(record), delegate.deserialize(bytes(record)));
+    }
+  }
+
+  @Test
+  public void testValidatedFieldsInSchemaOrder() throws Exception {
+    Map<String, Object> data = mapper.readValue(
+        bytes("{\"NAME\": \"x\", \"extra\": 1, \"id\": 7, \"name\": \"y\"}"), Map.class);
+    Map<Name, Object> result = delegate.validator.verifyAndAdjust(new Raw(data, Instant.now()),
+        new ErrorCollector(ErrorPrefix.ROOT)).getData();
+    //Unknown fields are dropped, and the last of several names for the same field wins
+    assertEquals(List.of(Name.system("id"), Name.system("name")), List.copyOf(result.keySet()));
+    assertEquals(7L, result.get(Name.system("id")));
+    assertEquals("y", result.get(Name.system("name")));
+    assertNull(result.get(Name.system("amount")));
+    assertEquals(Map.of(Name.system("id"), 7L, Name.system("name"), "y"), result);
+  }
+
+  @Test
+  public void testInvalidRecordsAreDropped() throws Exception {
+    //id is not null
+    assertNull(delegate.deserialize(bytes("{\"name\": \"bob\"}")));
+    //not a date
+    assertNull(delegate.deserialize(bytes("{\"id\": 5, \"day\": \"tomorrow\"}")));
+    assertEquals(2, invalidRecords.getCount());
+  }
+
+  //The decoding before records were converted directly: validated data is written back to json
+  //and parsed by the json format
+  private RowData reparse(String record)
+      throws Exception {
+    Map<String, Object> data = mapper.readValue(bytes(record), Map.class);
+    Named named = delegate.validator.verifyAndAdjust(new Raw(data, Instant.now()),
+        new ErrorCollector(ErrorPrefix.ROOT));
+    return json.deserialize(mapper.valueToTree(named.getData()).toString().getBytes());
+  }
+
+  private static byte[] bytes(String record) {
+    return record.getBytes(StandardCharsets.UTF_8);
+  }
+}
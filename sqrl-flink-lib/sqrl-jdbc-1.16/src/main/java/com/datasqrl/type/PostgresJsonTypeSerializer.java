@@ -39,21 +39,24 @@ public class PostgresJsonTypeSerializer
       LogicalType type) {
     FlinkJsonTypeSerializer typeSerializer = new FlinkJsonTypeSerializer();
 
-    return ()-> (val, index, statement) -> {
-      if (val != null && !val.isNullAt(index)) {
-        PGobject pgObject = new PGobject();
-        pgObject.setType("json");
-        RawValueData<FlinkJsonType> object = val.getRawValue(index);
-        FlinkJsonType vec = object.toObject(typeSerializer);
-        if (vec == null) {
-          statement.setObject(index, null);
+    return () -> {
+      PostgresJsonWriter writer = new PostgresJsonWriter();
+      return (val, index, statement) -> {
+        if (val != null && !val.isNullAt(index)) {
+          RawValueData<FlinkJsonType> object = val.getRawValue(index);
+          FlinkJsonType vec = object.toObject(typeSerializer);
+          if (vec == null) {
+            statement.setObject(index, null);
+          } else {
+            PGobject pgObject = new PGobject();
+            pgObject.setType("json");
+            pgObject.setValue(writer.write(vec.getJson()));
+            statement.setObject(index, pgObject);
+          }
         } else {
-          pgObject.setValue(vec.getJson().toString());
-          statement.setObject(index, pgObject);
+          statement.setObject(index, null);
         }
-      } else {
-        statement.setObject(index, null);
-      }
+      };
     };
   }
 }
@@ -5,10 +5,9 @@ import org.apache.flink.connector.jdbc.converter.AbstractJdbcRowConverter.JdbcDe
 import org.apache.flink.connector.jdbc.converter.AbstractJdbcRowConverter.JdbcSerializationConverter;
 import org.apache.flink.formats.common.TimestampFormat;
 import org.apache.flink.formats.json.JsonFormatOptions.MapNullKeyMode;
+import org.apache.flink.formats.json.RowDataToJsonConverters.RowDataToJsonConverter;
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.JsonNode;
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
-import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.ObjectNode;
-import org.apache.flink.table.types.logical.ArrayType;
 import org.apache.flink.table.types.logical.LogicalType;
 import org.apache.flink.types.Row;
 import org.postgresql.util.PGobject;
@@ -41,24 +40,24 @@ public class PostgresRowTypeSerializer
   @Override
   public GenericSerializationConverter<JdbcSerializationConverter> getSerializerConverter(
       LogicalType type) {
-    ObjectMapper mapper = new ObjectMapper();
-    return ()-> (val, index, statement) -> {
-      if (val != null && !val.isNullAt(index)) {
-        SqrlRowDataToJsonConverters rowDataToJsonConverter = new SqrlRowDataToJsonConverters(
-            TimestampFormat.SQL, MapNullKeyMode.DROP, "null");
-
-        ArrayType arrayType = (ArrayType) type;
-        ObjectNode objectNode = mapper.createObjectNode();
-        JsonNode convert = rowDataToJsonConverter.createConverter(arrayType.getElementType())
-            .convert(mapper, objectNode, val);
-
-        PGobject pgObject = new PGobject();
-        pgObject.setType("json");
-        pgObject.setValue(convert.toString());
-        statement.setObject(index, pgObject);
-      } else {
-        statement.setObject(index, null);
-      }
+    //The converter is built once per sink for the array of rows
+    return () -> {
+      ObjectMapper mapper = new ObjectMapper();
+      RowDataToJsonConverter converter = new SqrlRowDataToJsonConverters(
+          TimestampFormat.SQL, MapNullKeyMode.DROP, "null").createConverter(type);
+      PostgresJsonWriter writer = new PostgresJsonWriter();
+      return (val, index, statement) -> {
+        if (val != null && !val.isNullAt(index)) {
+          JsonNode json = converter.convert(mapper, null, val.getArray(index));
+
+          PGobject pgObject = new PGobject();
+          pgObject.setType("json");
+          pgObject.setValue(writer.write(json));
+          statement.setObject(index, pgObject);
+        } else {
+          statement.setObject(index, null);
+        }
+      };
     };
   }
 }
@@ -0,0 +1,92 @@
+package com.datasqrl.jdbc;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import org.apache.flink.connector.jdbc.internal.executor.JdbcBatchStatementExecutor;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.types.RowKind;
+
+/**
+ * Buffers the changelog of a keyed table and collapses all changes to the same primary key into
+ * the last one, so that a key that is updated many times between flushes is written once.
+ * Inserts and update-afters are written with the upsert executor, deletes and update-befores
+ * with the delete executor (by key).
+ *
+ * The buffer is kept when statements are closed and re-prepared on a new connection, and only
+ * cleared after a batch has been executed successfully, so that failed flushes can be retried.
+ */
+public class KeyedBufferStatementExecutor implements JdbcBatchStatementExecutor<RowData> {
+
+  private final JdbcBatchStatementExecutor<RowData> upsertExecutor;
+  private final JdbcBatchStatementExecutor<RowData> deleteExecutor;
+  private final Function<RowData, RowData> keyExtractor;
+  //The last change for each key, in the order keys were first changed
+  private final Map<RowData, RowData> buffer = new LinkedHashMap<>();
+
+  public KeyedBufferStatementExecutor(JdbcBatchStatementExecutor<RowData> upsertExecutor,
+      JdbcBatchStatementExecutor<RowData> deleteExecutor,
+      Function<RowData, RowData> keyExtractor) {
+    this.upsertExecutor = upsertExecutor;
+    this.deleteExecutor = deleteExecutor;
+    this.keyExtractor = keyExtractor;
+  }
+
+  @Override
+  public void prepareStatements(Connection connection) throws SQLException {
+    upsertExecutor.prepareStatements(connection);
+    deleteExecutor.prepareStatements(connection);
+  }
+
+  @Override
+  public void addToBatch(RowData record) throws SQLException {
+    buffer.put(keyExtractor.apply(record), record);
+  }
+
+  /**
+   * @return the number of distinct keys in the buffer, i.e. the number of rows the next batch
+   * writes
+   */
+  public int getBufferedKeyCount() {
+    return buffer.size();
+  }
+
+  @Override
+  public void executeBatch() throws SQLException {
+    if (buffer.isEmpty()) {
+      return;
+    }
+    //Each key has a single change, so the order of upserts and deletes does not matter
+    for (Map.Entry<RowData, RowData> entry : buffer.entrySet()) {
+      if (isUpsert(entry.getValue().getRowKind())) {
+        upsertExecutor.addToBatch(entry.getValue());
+      } else {
+        deleteExecutor.addToBatch(entry.getKey());
+      }
+    }
+    upsertExecutor.executeBatch();
+    deleteExecutor.executeBatch();
+    buffer.clear();
+  }
+
+  private static boolean isUpsert(RowKind kind) {
+    switch (kind) {
+      case INSERT:
+      case UPDATE_AFTER:
+        return true;
+      case UPDATE_BEFORE:
+      case DELETE:
+        return false;
+      default:
+        throw new UnsupportedOperationException("Unknown row kind: " + kind);
+    }
+  }
+
+  @Override
+  public void closeStatements() throws SQLException {
+    upsertExecutor.closeStatements();
+    deleteExecutor.closeStatements();
+  }
+}
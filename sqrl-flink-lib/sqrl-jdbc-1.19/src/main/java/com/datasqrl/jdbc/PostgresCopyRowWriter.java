@@ -0,0 +1,240 @@
+package com.datasqrl.jdbc;
+
+import com.datasqrl.json.FlinkJsonType;
+import com.datasqrl.json.FlinkJsonTypeSerializer;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.types.logical.DecimalType;
+import org.apache.flink.table.types.logical.LocalZonedTimestampType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.TimestampType;
+
+/**
+ * Writes {@link RowData} in the binary format of Postgres' COPY command
+ * (https://www.postgresql.org/docs/current/sql-copy.html#id-1.9.3.55.9.4). The writer for each
+ * field is chosen once from the type of the sink table.
+ *
+ * In the binary format, Postgres expects the exact binary representation of the column types,
+ * so only types whose column type is fixed by the Flink type are supported (see
+ * {@link #isSupported(RowType)}).
+ */
+public class PostgresCopyRowWriter implements Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final byte[] SIGNATURE = "PGCOPY\n\377\r\n\0".getBytes(StandardCharsets.ISO_8859_1);
+  //Postgres dates and timestamps count from 2000-01-01
+  private static final int POSTGRES_EPOCH_DAYS = 10957;
+  private static final long POSTGRES_EPOCH_MILLIS = POSTGRES_EPOCH_DAYS * 86_400_000L;
+  private static final byte JSONB_VERSION = 1;
+  private static final int NUMERIC_POSITIVE = 0x0000;
+  private static final int NUMERIC_NEGATIVE = 0x4000;
+  private static final BigInteger NUMERIC_BASE = BigInteger.valueOf(10_000);
+
+  @FunctionalInterface
+  interface FieldWriter extends Serializable {
+
+    void write(RowData row, int pos, DataOutput out) throws IOException;
+  }
+
+  private final FieldWriter[] writers;
+
+  public PostgresCopyRowWriter(RowType rowType) {
+    List<LogicalType> types = rowType.getChildren();
+    this.writers = new FieldWriter[types.size()];
+    for (int i = 0; i < writers.length; i++) {
+      writers[i] = createWriter(types.get(i));
+    }
+  }
+
+  public static boolean isSupported(RowType rowType) {
+    return rowType.getChildren().stream().allMatch(PostgresCopyRowWriter::isSupported);
+  }
+
+  public static boolean isSupported(LogicalType type) {
+    switch (type.getTypeRoot()) {
+      case CHAR:
+      case VARCHAR:
+      case BOOLEAN:
+      case BINARY:
+      case VARBINARY:
+      case DECIMAL:
+      case TINYINT:
+      case SMALLINT:
+      case INTEGER:
+      case BIGINT:
+      case FLOAT:
+      case DOUBLE:
+      case DATE:
+      case TIME_WITHOUT_TIME_ZONE:
+      case TIMESTAMP_WITHOUT_TIME_ZONE:
+      case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+        return true;
+      case RAW:
+        return type.getDefaultConversion() == FlinkJsonType.class;
+      default:
+        return false;
+    }
+  }
+
+  public static void writeHeader(DataOutput out) throws IOException {
+    out.write(SIGNATURE);
+    out.writeInt(0); //flags
+    out.writeInt(0); //header extension length
+  }
+
+  public static void writeTrailer(DataOutput out) throws IOException {
+    out.writeShort(-1);
+  }
+
+  public void write(RowData row, DataOutput out) throws IOException {
+    out.writeShort(writers.length);
+    for (int i = 0; i < writers.length; i++) {
+      if (row.isNullAt(i)) {
+        out.writeInt(-1);
+      } else {
+        writers[i].write(row, i, out);
+      }
+    }
+  }
+
+  private static FieldWriter createWriter(LogicalType type) {
+    switch (type.getTypeRoot()) {
+      case CHAR:
+      case VARCHAR:
+        return (row, pos, out) -> writeBytes(row.getString(pos).toBytes(), out);
+      case BOOLEAN:
+        return (row, pos, out) -> {
+          out.writeInt(1);
+          out.writeBoolean(row.getBoolean(pos));
+        };
+      case BINARY:
+      case VARBINARY:
+        return (row, pos, out) -> writeBytes(row.getBinary(pos), out);
+      case DECIMAL:
+        final int precision = ((DecimalType) type).getPrecision();
+        final int scale = ((DecimalType) type).getScale();
+        return (row, pos, out) ->
+            writeNumeric(row.getDecimal(pos, precision, scale).toBigDecimal(), out);
+      case TINYINT:
+        return (row, pos, out) -> {
+          out.writeInt(2);
+          out.writeShort(row.getByte(pos));
+        };
+      case SMALLINT:
+        return (row, pos, out) -> {
+          out.writeInt(2);
+          out.writeShort(row.getShort(pos));
+        };
+      case INTEGER:
+        return (row, pos, out) -> {
+          out.writeInt(4);
+          out.writeInt(row.getInt(pos));
+        };
+      case BIGINT:
+        return (row, pos, out) -> {
+          out.writeInt(8);
+          out.writeLong(row.getLong(pos));
+        };
+      case FLOAT:
+        return (row, pos, out) -> {
+          out.writeInt(4);
+          out.writeFloat(row.getFloat(pos));
+        };
+      case DOUBLE:
+        return (row, pos, out) -> {
+          out.writeInt(8);
+          out.writeDouble(row.getDouble(pos));
+        };
+      case DATE:
+        return (row, pos, out) -> {
+          out.writeInt(4);
+          out.writeInt(row.getInt(pos) - POSTGRES_EPOCH_DAYS);
+        };
+      case TIME_WITHOUT_TIME_ZONE:
+        //Flink represents times as milliseconds of the day, Postgres as microseconds
+        return (row, pos, out) -> {
+          out.writeInt(8);
+          out.writeLong(row.getInt(pos) * 1000L);
+        };
+      case TIMESTAMP_WITHOUT_TIME_ZONE:
+        final int timestampPrecision = ((TimestampType) type).getPrecision();
+        return (row, pos, out) -> writeTimestamp(row.getTimestamp(pos, timestampPrecision), out);
+      case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+        final int ltzPrecision = ((LocalZonedTimestampType) type).getPrecision();
+        return (row, pos, out) -> writeTimestamp(row.getTimestamp(pos, ltzPrecision), out);
+      case RAW:
+        if (type.getDefaultConversion() == FlinkJsonType.class) {
+          final FlinkJsonTypeSerializer serializer = new FlinkJsonTypeSerializer();
+          return (row, pos, out) -> {
+            FlinkJsonType json = row.<FlinkJsonType>getRawValue(pos).toObject(serializer);
+            if (json == null) {
+              out.writeInt(-1);
+            } else {
+              byte[] bytes = json.getJson().toString().getBytes(StandardCharsets.UTF_8);
+              out.writeInt(bytes.length + 1);
+              out.writeByte(JSONB_VERSION);
+              out.write(bytes);
+            }
+          };
+        }
+      default:
+        throw new IllegalArgumentException("Unsupported type for Postgres COPY: " + type);
+    }
+  }
+
+  private static void writeBytes(byte[] bytes, DataOutput out) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  private static void writeTimestamp(TimestampData timestamp, DataOutput out) throws IOException {
+    out.writeInt(8);
+    out.writeLong((timestamp.getMillisecond() - POSTGRES_EPOCH_MILLIS) * 1000L
+        + timestamp.getNanoOfMillisecond() / 1000);
+  }
+
+  /**
+   * Postgres numerics are written as base 10000 digits with the weight of the first digit, the
+   * sign and the display scale.
+   */
+  static void writeNumeric(BigDecimal value, DataOutput out) throws IOException {
+    int displayScale = Math.max(value.scale(), 0);
+    BigInteger unscaled = value.abs().setScale(displayScale).unscaledValue();
+    //Align the digits to the decimal point so that every base 10000 digit has four decimals
+    int fractionDigits = (displayScale + 3) / 4;
+    unscaled = unscaled.multiply(BigInteger.TEN.pow(fractionDigits * 4 - displayScale));
+
+    List<Short> digits = new ArrayList<>();
+    while (unscaled.signum() != 0) {
+      BigInteger[] divRem = unscaled.divideAndRemainder(NUMERIC_BASE);
+      digits.add(divRem[1].shortValue());
+      unscaled = divRem[0];
+    }
+    //digits are in reverse order, weight is that of the most significant digit
+    int weight = digits.size() - fractionDigits - 1;
+    int first = 0;
+    while (first < digits.size() && digits.get(first) == 0) {
+      first++; //drop trailing zero digits
+    }
+    int count = digits.size() - first;
+
+    out.writeInt(8 + 2 * count);
+    out.writeShort(count);
+    out.writeShort(count == 0 ? 0 : weight);
+    out.writeShort(value.signum() < 0 ? NUMERIC_NEGATIVE : NUMERIC_POSITIVE);
+    out.writeShort(displayScale);
+    for (int i = digits.size() - 1; i >= first; i--) {
+      out.writeShort(digits.get(i));
+    }
+  }
+}
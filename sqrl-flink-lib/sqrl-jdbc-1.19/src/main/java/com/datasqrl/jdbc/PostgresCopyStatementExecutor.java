@@ -0,0 +1,151 @@
+package com.datasqrl.jdbc;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.annotation.Nullable;
+import org.apache.flink.connector.jdbc.internal.executor.JdbcBatchStatementExecutor;
+import org.apache.flink.table.data.RowData;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Writes batches of rows with Postgres' binary COPY instead of batched insert statements.
+ *
+ * Without a merge statement, rows are copied straight into the sink table. Otherwise, rows are
+ * copied into a session local staging table and upserted into the sink table with the merge
+ * statement in the same transaction. The rows of a batch must have distinct keys in that case,
+ * which the {@link KeyedBufferStatementExecutor} that feeds this executor guarantees.
+ *
+ * Like a batched {@link java.sql.PreparedStatement}, the batch is discarded after it is executed,
+ * whether or not that succeeds; retries add the rows again.
+ */
+public class PostgresCopyStatementExecutor implements JdbcBatchStatementExecutor<RowData> {
+
+  private final PostgresCopyRowWriter rowWriter;
+  private final String copySql;
+  @Nullable
+  private final String createStagingSql;
+  @Nullable
+  private final String mergeSql;
+
+  private final CopyBuffer buffer = new CopyBuffer();
+  private final DataOutputStream out = new DataOutputStream(buffer);
+  private int batchCount = 0;
+
+  private transient Connection connection;
+  private transient CopyManager copyManager;
+
+  private PostgresCopyStatementExecutor(PostgresCopyRowWriter rowWriter, String copySql,
+      @Nullable String createStagingSql, @Nullable String mergeSql) {
+    this.rowWriter = rowWriter;
+    this.copySql = copySql;
+    this.createStagingSql = createStagingSql;
+    this.mergeSql = mergeSql;
+  }
+
+  public static PostgresCopyStatementExecutor append(SqrlPostgresDialect dialect,
+      PostgresCopyRowWriter rowWriter, String tableName, String[] fieldNames) {
+    return new PostgresCopyStatementExecutor(rowWriter,
+        dialect.getCopyInStatement(tableName, fieldNames), null, null);
+  }
+
+  public static PostgresCopyStatementExecutor upsert(SqrlPostgresDialect dialect,
+      PostgresCopyRowWriter rowWriter, String tableName, String[] fieldNames,
+      String[] keyFields) {
+    String stagingTableName = tableName + "_copy_staging";
+    return new PostgresCopyStatementExecutor(rowWriter,
+        dialect.getCopyInStatement(stagingTableName, fieldNames),
+        dialect.getCreateStagingTableStatement(tableName, stagingTableName),
+        dialect.getMergeStatement(tableName, stagingTableName, fieldNames, keyFields));
+  }
+
+  @Override
+  public void prepareStatements(Connection connection) throws SQLException {
+    this.connection = connection;
+    this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+    if (createStagingSql != null) {
+      try (Statement statement = connection.createStatement()) {
+        statement.execute(createStagingSql);
+      }
+    }
+    clearBatch();
+  }
+
+  @Override
+  public void addToBatch(RowData record) throws SQLException {
+    try {
+      if (batchCount == 0) {
+        PostgresCopyRowWriter.writeHeader(out);
+      }
+      rowWriter.write(record, out);
+      batchCount++;
+    } catch (IOException e) {
+      throw new SQLException("Could not encode row for COPY: " + record, e);
+    }
+  }
+
+  @Override
+  public void executeBatch() throws SQLException {
+    if (batchCount == 0) {
+      return;
+    }
+    try {
+      PostgresCopyRowWriter.writeTrailer(out);
+      if (mergeSql == null) {
+        copyManager.copyIn(copySql, buffer.toInputStream());
+      } else {
+        copyAndMerge();
+      }
+    } catch (IOException e) {
+      throw new SQLException("Could not COPY batch", e);
+    } finally {
+      clearBatch();
+    }
+  }
+
+  private void copyAndMerge() throws SQLException, IOException {
+    //The staging table is emptied on commit, so copy and merge must be in one transaction
+    boolean autoCommit = connection.getAutoCommit();
+    connection.setAutoCommit(false);
+    try (Statement statement = connection.createStatement()) {
+      copyManager.copyIn(copySql, buffer.toInputStream());
+      statement.executeUpdate(mergeSql);
+      connection.commit();
+    } catch (SQLException | IOException | RuntimeException e) {
+      connection.rollback();
+      throw e;
+    } finally {
+      connection.setAutoCommit(autoCommit);
+    }
+  }
+
+  private void clearBatch() {
+    buffer.reset();
+    batchCount = 0;
+  }
+
+  @Override
+  public void closeStatements() throws SQLException {
+    clearBatch();
+    copyManager = null;
+    connection = null;
+  }
+
+  /** Exposes the written bytes without copying them. */
+  private static class CopyBuffer extends ByteArrayOutputStream {
+
+    CopyBuffer() {
+      super(64 * 1024);
+    }
+
+    InputStream toInputStream() {
+      return new ByteArrayInputStream(buf, 0, count);
+    }
+  }
+}
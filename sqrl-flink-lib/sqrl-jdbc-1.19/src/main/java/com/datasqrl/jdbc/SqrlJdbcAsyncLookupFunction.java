@@ -0,0 +1,92 @@
+package com.datasqrl.jdbc;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.AsyncLookupFunction;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.table.functions.LookupFunction;
+import org.apache.flink.util.InstantiationUtil;
+import org.apache.flink.util.concurrent.ExecutorThreadFactory;
+
+/**
+ * Executes the lookups of a (synchronous) jdbc {@link LookupFunction} asynchronously.
+ *
+ * Each subtask keeps a pool of copies of the lookup function, each with its own connection and
+ * prepared statement, and runs lookups on a thread pool of the same size. That way, up to
+ * {@code poolSize} lookups are in flight against the database at the same time instead of one.
+ */
+public class SqrlJdbcAsyncLookupFunction extends AsyncLookupFunction {
+
+  private static final long serialVersionUID = 1L;
+
+  private final LookupFunction lookupFunction;
+  private final int poolSize;
+
+  private transient List<LookupFunction> functions;
+  private transient BlockingQueue<LookupFunction> pool;
+  private transient ExecutorService executor;
+
+  public SqrlJdbcAsyncLookupFunction(LookupFunction lookupFunction, int poolSize) {
+    this.lookupFunction = lookupFunction;
+    this.poolSize = poolSize;
+  }
+
+  @Override
+  public void open(FunctionContext context) throws Exception {
+    functions = new ArrayList<>(poolSize);
+    pool = new ArrayBlockingQueue<>(poolSize);
+    for (int i = 0; i < poolSize; i++) {
+      LookupFunction function = InstantiationUtil.clone(lookupFunction,
+          context.getUserCodeClassLoader());
+      functions.add(function);
+      function.open(context);
+      pool.add(function);
+    }
+    executor = Executors.newFixedThreadPool(poolSize,
+        new ExecutorThreadFactory("jdbc-sqrl-lookup"));
+  }
+
+  @Override
+  public CompletableFuture<Collection<RowData>> asyncLookup(RowData keyRow) {
+    return CompletableFuture.supplyAsync(() -> {
+      LookupFunction function;
+      try {
+        function = pool.take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CompletionException(e);
+      }
+      try {
+        return function.lookup(keyRow);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      } finally {
+        pool.add(function);
+      }
+    }, executor);
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    if (functions != null) {
+      for (LookupFunction function : functions) {
+        function.close();
+      }
+      functions = null;
+    }
+    pool = null;
+  }
+}
@@ -27,17 +27,25 @@ import org.apache.flink.connector.jdbc.dialect.JdbcDialect;
 import org.apache.flink.connector.jdbc.dialect.JdbcDialectLoader;
 import org.apache.flink.connector.jdbc.internal.options.InternalJdbcConnectionOptions;
 import org.apache.flink.connector.jdbc.internal.options.JdbcDmlOptions;
-import org.apache.flink.connector.jdbc.table.JdbcDynamicTableSink;
+import org.apache.flink.connector.jdbc.internal.options.JdbcReadOptions;
 import org.apache.flink.connector.jdbc.table.JdbcDynamicTableSource;
 import org.apache.flink.table.connector.sink.DynamicTableSink;
+import org.apache.flink.table.connector.source.DynamicTableSource;
 import org.apache.flink.table.connector.source.lookup.LookupOptions;
+import org.apache.flink.table.connector.source.lookup.LookupOptions.LookupCacheType;
 import org.apache.flink.table.connector.source.lookup.cache.DefaultLookupCache;
 import org.apache.flink.table.connector.source.lookup.cache.LookupCache;
+import org.apache.flink.table.connector.source.lookup.cache.trigger.CacheReloadTrigger;
+import org.apache.flink.table.connector.source.lookup.cache.trigger.PeriodicCacheReloadTrigger;
+import org.apache.flink.table.connector.source.lookup.cache.trigger.TimedCacheReloadTrigger;
 import org.apache.flink.table.factories.DynamicTableSinkFactory;
+import org.apache.flink.table.factories.DynamicTableSourceFactory;
 import org.apache.flink.table.factories.FactoryUtil;
 import org.apache.flink.table.types.DataType;
 import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.util.Preconditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nullable;
 
@@ -71,14 +79,67 @@ import static org.apache.flink.connector.jdbc.table.JdbcConnectorOptions.URL;
 import static org.apache.flink.connector.jdbc.table.JdbcConnectorOptions.USERNAME;
 
 /**
- * Factory for creating configured instances of {@link JdbcDynamicTableSource} and {@link
- * JdbcDynamicTableSink}.
+ * Factory for creating configured instances of {@link SqrlJdbcDynamicTableSource} and {@link
+ * SqrlJdbcDynamicTableSink}.
  */
 @Internal
-public class SqrlJdbcDynamicTableFactory implements DynamicTableSinkFactory {
+public class SqrlJdbcDynamicTableFactory implements DynamicTableSourceFactory,
+    DynamicTableSinkFactory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SqrlJdbcDynamicTableFactory.class);
 
     public static final String IDENTIFIER = "jdbc-sqrl";
 
+    //sqrl: write batches with postgres' binary copy
+    public static final ConfigOption<Boolean> SINK_COPY_ENABLED =
+        ConfigOptions.key("sink.copy.enabled")
+            .booleanType()
+            .defaultValue(false)
+            .withDescription(
+                "Whether to write batches to PostgreSQL with binary COPY instead of batched insert "
+                    + "or upsert statements. Tables with column types that COPY does not support "
+                    + "are written with statements.");
+
+    //sqrl: asynchronous lookups over a pool of connections
+    public static final ConfigOption<Boolean> LOOKUP_ASYNC =
+        ConfigOptions.key("lookup.async")
+            .booleanType()
+            .defaultValue(false)
+            .withDescription(
+                "Whether to execute lookups asynchronously so that multiple lookups against the "
+                    + "database are in flight at the same time. Not used when the table is fully cached.");
+
+    public static final ConfigOption<Integer> LOOKUP_ASYNC_POOL_SIZE =
+        ConfigOptions.key("lookup.async.pool-size")
+            .intType()
+            .defaultValue(4)
+            .withDescription(
+                "The number of connections, and hence concurrent lookups, per subtask for "
+                    + "asynchronous lookups.");
+
+    @Override
+    public DynamicTableSource createDynamicTableSource(Context context) {
+        final FactoryUtil.TableFactoryHelper helper =
+            FactoryUtil.createTableFactoryHelper(this, context);
+        final ReadableConfig config = helper.getOptions();
+
+        helper.validate();
+        validateConfigOptions(config, context.getClassLoader());
+        validateDataTypeWithJdbcDialect(
+            context.getPhysicalRowDataType(), config.get(URL), context.getClassLoader());
+        JdbcDynamicTableSource jdbcSource = new JdbcDynamicTableSource(
+            getJdbcOptions(config, context.getClassLoader()),
+            getJdbcReadOptions(config),
+            config.get(LookupOptions.MAX_RETRIES),
+            null,
+            context.getPhysicalRowDataType());
+        return new SqrlJdbcDynamicTableSource(
+            jdbcSource,
+            getLookupCache(config),
+            getFullCacheReloadTrigger(config),
+            config.get(LOOKUP_ASYNC) ? config.get(LOOKUP_ASYNC_POOL_SIZE) : 0);
+    }
+
     @Override
     public DynamicTableSink createDynamicTableSink(Context context) {
         final FactoryUtil.TableFactoryHelper helper =
@@ -91,15 +152,28 @@ public class SqrlJdbcDynamicTableFactory implements DynamicTableSinkFactory {
             context.getPhysicalRowDataType(), config.get(URL), context.getClassLoader());
         InternalJdbcConnectionOptions jdbcOptions =
             getJdbcOptions(config, context.getClassLoader());
+        JdbcExecutionOptions executionOptions = getJdbcExecutionOptions(config);
+        JdbcDmlOptions dmlOptions = getJdbcDmlOptions(
+            jdbcOptions,
+            context.getPhysicalRowDataType(),
+            context.getPrimaryKeyIndexes());
+
+        boolean copy = false;
+        if (config.get(SINK_COPY_ENABLED)) {
+            RowType rowType = (RowType) context.getPhysicalRowDataType().getLogicalType();
+            copy = PostgresCopyRowWriter.isSupported(rowType);
+            if (!copy) {
+                LOG.warn("Table [{}] has column types that are not supported by COPY, "
+                    + "writing with statements instead: {}", jdbcOptions.getTableName(), rowType);
+            }
+        }
 
-        return new JdbcDynamicTableSink(
+        return new SqrlJdbcDynamicTableSink(
             jdbcOptions,
-            getJdbcExecutionOptions(config),
-            getJdbcDmlOptions(
-                jdbcOptions,
-                context.getPhysicalRowDataType(),
-                context.getPrimaryKeyIndexes()),
-            context.getPhysicalRowDataType());
+            executionOptions,
+            dmlOptions,
+            context.getPhysicalRowDataType(),
+            copy);
     }
 
     private static void validateDataTypeWithJdbcDialect(
@@ -137,6 +211,61 @@ public class SqrlJdbcDynamicTableFactory implements DynamicTableSinkFactory {
         return dialect;
     }
 
+    private JdbcReadOptions getJdbcReadOptions(ReadableConfig readableConfig) {
+        final Optional<String> partitionColumnName =
+            readableConfig.getOptional(SCAN_PARTITION_COLUMN);
+        final JdbcReadOptions.Builder builder = JdbcReadOptions.builder();
+        if (partitionColumnName.isPresent()) {
+            builder.setPartitionColumnName(partitionColumnName.get());
+            builder.setPartitionLowerBound(readableConfig.get(SCAN_PARTITION_LOWER_BOUND));
+            builder.setPartitionUpperBound(readableConfig.get(SCAN_PARTITION_UPPER_BOUND));
+            builder.setNumPartitions(readableConfig.get(SCAN_PARTITION_NUM));
+        }
+        readableConfig.getOptional(SCAN_FETCH_SIZE).ifPresent(builder::setFetchSize);
+        builder.setAutoCommit(readableConfig.get(SCAN_AUTO_COMMIT));
+        return builder.build();
+    }
+
+    @Nullable
+    private LookupCache getLookupCache(ReadableConfig tableOptions) {
+        LookupCache cache = null;
+        // Legacy cache options
+        if (tableOptions.get(LOOKUP_CACHE_MAX_ROWS) > 0
+            && tableOptions.get(LOOKUP_CACHE_TTL).compareTo(Duration.ZERO) > 0) {
+            cache =
+                DefaultLookupCache.newBuilder()
+                    .maximumSize(tableOptions.get(LOOKUP_CACHE_MAX_ROWS))
+                    .expireAfterWrite(tableOptions.get(LOOKUP_CACHE_TTL))
+                    .cacheMissingKey(tableOptions.get(LOOKUP_CACHE_MISSING_KEY))
+                    .build();
+        }
+        if (tableOptions
+            .get(LookupOptions.CACHE_TYPE)
+            .equals(LookupCacheType.PARTIAL)) {
+            cache = DefaultLookupCache.fromConfig(tableOptions);
+        }
+        return cache;
+    }
+
+    //sqrl: load the entire table into the cache and reload it periodically
+    @Nullable
+    private CacheReloadTrigger getFullCacheReloadTrigger(ReadableConfig tableOptions) {
+        if (!tableOptions.get(LookupOptions.CACHE_TYPE).equals(LookupCacheType.FULL)) {
+            return null;
+        }
+        switch (tableOptions.get(LookupOptions.FULL_CACHE_RELOAD_STRATEGY)) {
+            case PERIODIC:
+                return PeriodicCacheReloadTrigger.fromConfig(tableOptions);
+            case TIMED:
+                return TimedCacheReloadTrigger.fromConfig(tableOptions);
+            default:
+                throw new IllegalArgumentException(
+                    String.format(
+                        "Unsupported reload strategy: %s",
+                        tableOptions.get(LookupOptions.FULL_CACHE_RELOAD_STRATEGY)));
+        }
+    }
+
     private JdbcExecutionOptions getJdbcExecutionOptions(ReadableConfig config) {
         final JdbcExecutionOptions.Builder builder = new JdbcExecutionOptions.Builder();
         builder.withBatchSize(config.get(SINK_BUFFER_FLUSH_MAX_ROWS));
@@ -195,12 +324,20 @@ public class SqrlJdbcDynamicTableFactory implements DynamicTableSinkFactory {
         optionalOptions.add(SINK_MAX_RETRIES);
         optionalOptions.add(SINK_PARALLELISM);
         optionalOptions.add(MAX_RETRY_TIMEOUT);
+        optionalOptions.add(SINK_COPY_ENABLED);
         optionalOptions.add(LookupOptions.CACHE_TYPE);
         optionalOptions.add(LookupOptions.PARTIAL_CACHE_EXPIRE_AFTER_ACCESS);
         optionalOptions.add(LookupOptions.PARTIAL_CACHE_EXPIRE_AFTER_WRITE);
         optionalOptions.add(LookupOptions.PARTIAL_CACHE_MAX_ROWS);
         optionalOptions.add(LookupOptions.PARTIAL_CACHE_CACHE_MISSING_KEY);
         optionalOptions.add(LookupOptions.MAX_RETRIES);
+        optionalOptions.add(LookupOptions.FULL_CACHE_RELOAD_STRATEGY);
+        optionalOptions.add(LookupOptions.FULL_CACHE_PERIODIC_RELOAD_INTERVAL);
+        optionalOptions.add(LookupOptions.FULL_CACHE_PERIODIC_RELOAD_SCHEDULE_MODE);
+        optionalOptions.add(LookupOptions.FULL_CACHE_TIMED_RELOAD_ISO_TIME);
+        optionalOptions.add(LookupOptions.FULL_CACHE_TIMED_RELOAD_INTERVAL_IN_DAYS);
+        optionalOptions.add(LOOKUP_ASYNC);
+        optionalOptions.add(LOOKUP_ASYNC_POOL_SIZE);
         return optionalOptions;
     }
 
@@ -215,6 +352,7 @@ public class SqrlJdbcDynamicTableFactory implements DynamicTableSinkFactory {
                 SINK_BUFFER_FLUSH_MAX_ROWS,
                 SINK_BUFFER_FLUSH_INTERVAL,
                 SINK_MAX_RETRIES,
+                SINK_COPY_ENABLED,
                 MAX_RETRY_TIMEOUT,
                 SCAN_FETCH_SIZE,
                 SCAN_AUTO_COMMIT)
@@ -227,6 +365,14 @@ public class SqrlJdbcDynamicTableFactory implements DynamicTableSinkFactory {
 
         checkAllOrNone(config, new ConfigOption[] {USERNAME, PASSWORD});
 
+        if (config.get(SINK_COPY_ENABLED)
+            && !(loadDialect(jdbcUrl, classLoader) instanceof SqrlPostgresDialect)) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "The '%s' option is only supported for PostgreSQL.",
+                    SINK_COPY_ENABLED.key()));
+        }
+
         checkAllOrNone(
             config,
             new ConfigOption[] {
@@ -260,6 +406,13 @@ public class SqrlJdbcDynamicTableFactory implements DynamicTableSinkFactory {
                     LOOKUP_MAX_RETRIES.key(), config.get(LOOKUP_MAX_RETRIES)));
         }
 
+        if (config.get(LOOKUP_ASYNC_POOL_SIZE) <= 0) {
+            throw new IllegalArgumentException(
+                String.format(
+                    "The value of '%s' option must be positive, but is %s.",
+                    LOOKUP_ASYNC_POOL_SIZE.key(), config.get(LOOKUP_ASYNC_POOL_SIZE)));
+        }
+
         if (config.get(SINK_MAX_RETRIES) < 0) {
             throw new IllegalArgumentException(
                 String.format(
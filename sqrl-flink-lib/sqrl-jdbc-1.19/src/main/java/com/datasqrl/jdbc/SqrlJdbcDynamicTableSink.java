@@ -0,0 +1,139 @@
+package com.datasqrl.jdbc;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import org.apache.flink.connector.jdbc.JdbcExecutionOptions;
+import org.apache.flink.connector.jdbc.datasource.connections.SimpleJdbcConnectionProvider;
+import org.apache.flink.connector.jdbc.dialect.JdbcDialect;
+import org.apache.flink.connector.jdbc.internal.GenericJdbcSinkFunction;
+import org.apache.flink.connector.jdbc.internal.JdbcOutputFormat;
+import org.apache.flink.connector.jdbc.internal.executor.JdbcBatchStatementExecutor;
+import org.apache.flink.connector.jdbc.internal.executor.TableBufferedStatementExecutor;
+import org.apache.flink.connector.jdbc.internal.executor.TableSimpleStatementExecutor;
+import org.apache.flink.connector.jdbc.internal.options.InternalJdbcConnectionOptions;
+import org.apache.flink.connector.jdbc.internal.options.JdbcDmlOptions;
+import org.apache.flink.connector.jdbc.table.JdbcDynamicTableSink;
+import org.apache.flink.table.connector.sink.DynamicTableSink;
+import org.apache.flink.table.connector.sink.SinkFunctionProvider;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.RowData.FieldGetter;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+/**
+ * The {@link JdbcDynamicTableSink} of the jdbc-sqrl connector.
+ *
+ * For tables with a primary key, changes are buffered by key in a {@link
+ * KeyedBufferStatementExecutor} and only the last change per key is written when the buffer is
+ * flushed (see {@link SqrlJdbcOutputFormat}). Rows are upserted with the dialect's upsert
+ * statement or, in COPY mode, with Postgres' binary COPY (see {@link
+ * PostgresCopyStatementExecutor}). Deletes are executed as batched delete statements.
+ *
+ * Append-only tables are written like the jdbc sink does, or with COPY in COPY mode. The
+ * changelog handling is that of the jdbc sink.
+ */
+public class SqrlJdbcDynamicTableSink extends JdbcDynamicTableSink {
+
+  private final InternalJdbcConnectionOptions jdbcOptions;
+  private final JdbcExecutionOptions executionOptions;
+  private final JdbcDmlOptions dmlOptions;
+  private final DataType physicalRowDataType;
+  private final boolean copy;
+
+  public SqrlJdbcDynamicTableSink(InternalJdbcConnectionOptions jdbcOptions,
+      JdbcExecutionOptions executionOptions, JdbcDmlOptions dmlOptions,
+      DataType physicalRowDataType, boolean copy) {
+    super(jdbcOptions, executionOptions, dmlOptions, physicalRowDataType);
+    this.jdbcOptions = jdbcOptions;
+    this.executionOptions = executionOptions;
+    this.dmlOptions = dmlOptions;
+    this.physicalRowDataType = physicalRowDataType;
+    this.copy = copy;
+  }
+
+  @Override
+  public SinkRuntimeProvider getSinkRuntimeProvider(Context context) {
+    JdbcDialect dialect = dmlOptions.getDialect();
+    String tableName = dmlOptions.getTableName();
+    String[] fieldNames = dmlOptions.getFieldNames();
+    String[] keyFields = dmlOptions.getKeyFields().orElse(null);
+    RowType rowType = (RowType) physicalRowDataType.getLogicalType();
+
+    JdbcOutputFormat<RowData, RowData, JdbcBatchStatementExecutor<RowData>> outputFormat;
+    if (keyFields == null) {
+      if (!copy) {
+        return super.getSinkRuntimeProvider(context);
+      }
+      PostgresCopyRowWriter rowWriter = new PostgresCopyRowWriter(rowType);
+      outputFormat = new JdbcOutputFormat<>(new SimpleJdbcConnectionProvider(jdbcOptions),
+          executionOptions, () -> new TableBufferedStatementExecutor(
+          PostgresCopyStatementExecutor.append((SqrlPostgresDialect) dialect, rowWriter,
+              tableName, fieldNames)));
+    } else if (copy) {
+      PostgresCopyRowWriter rowWriter = new PostgresCopyRowWriter(rowType);
+      outputFormat = SqrlJdbcOutputFormat.create(new SimpleJdbcConnectionProvider(jdbcOptions),
+          executionOptions, () -> createKeyedExecutor(
+              PostgresCopyStatementExecutor.upsert((SqrlPostgresDialect) dialect, rowWriter,
+                  tableName, fieldNames, keyFields),
+              dialect, tableName, fieldNames, keyFields, rowType));
+    } else {
+      Optional<String> upsertSql = dialect.getUpsertStatement(tableName, fieldNames,
+          keyFields);
+      if (upsertSql.isEmpty()) {
+        return super.getSinkRuntimeProvider(context);
+      }
+      String sql = upsertSql.get();
+      outputFormat = SqrlJdbcOutputFormat.create(new SimpleJdbcConnectionProvider(jdbcOptions),
+          executionOptions, () -> createKeyedExecutor(
+              new TableSimpleStatementExecutor(
+                  connection -> SqrlFieldNamedPreparedStatementImpl.prepareStatement(connection,
+                      sql, fieldNames),
+                  dialect.getRowConverter(rowType)),
+              dialect, tableName, fieldNames, keyFields, rowType));
+    }
+    return SinkFunctionProvider.of(new GenericJdbcSinkFunction<>(outputFormat),
+        jdbcOptions.getParallelism());
+  }
+
+  private static KeyedBufferStatementExecutor createKeyedExecutor(
+      JdbcBatchStatementExecutor<RowData> upsertExecutor, JdbcDialect dialect, String tableName,
+      String[] fieldNames, String[] keyFields, RowType rowType) {
+    List<String> names = Arrays.asList(fieldNames);
+    int[] keyIndexes = Arrays.stream(keyFields).mapToInt(names::indexOf).toArray();
+    LogicalType[] keyTypes = Arrays.stream(keyIndexes).mapToObj(rowType::getTypeAt)
+        .toArray(LogicalType[]::new);
+    FieldGetter[] keyGetters = new FieldGetter[keyIndexes.length];
+    for (int i = 0; i < keyIndexes.length; i++) {
+      keyGetters[i] = RowData.createFieldGetter(keyTypes[i], keyIndexes[i]);
+    }
+
+    String deleteSql = dialect.getDeleteStatement(tableName, keyFields);
+    return new KeyedBufferStatementExecutor(
+        upsertExecutor,
+        new TableSimpleStatementExecutor(
+            connection -> SqrlFieldNamedPreparedStatementImpl.prepareStatement(connection,
+                deleteSql, keyFields),
+            dialect.getRowConverter(RowType.of(keyTypes))),
+        row -> {
+          GenericRowData key = new GenericRowData(keyGetters.length);
+          for (int i = 0; i < keyGetters.length; i++) {
+            key.setField(i, keyGetters[i].getFieldOrNull(row));
+          }
+          return key;
+        });
+  }
+
+  @Override
+  public DynamicTableSink copy() {
+    return new SqrlJdbcDynamicTableSink(jdbcOptions, executionOptions, dmlOptions,
+        physicalRowDataType, copy);
+  }
+
+  @Override
+  public String asSummaryString() {
+    return copy ? "JDBC:PostgreSQL (COPY)" : super.asSummaryString();
+  }
+}
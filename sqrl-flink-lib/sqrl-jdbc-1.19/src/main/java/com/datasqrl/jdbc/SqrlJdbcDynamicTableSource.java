@@ -0,0 +1,106 @@
+package com.datasqrl.jdbc;
+
+import javax.annotation.Nullable;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.connector.jdbc.table.JdbcDynamicTableSource;
+import org.apache.flink.table.connector.source.DynamicTableSource;
+import org.apache.flink.table.connector.source.LookupTableSource;
+import org.apache.flink.table.connector.source.ScanTableSource.ScanContext;
+import org.apache.flink.table.connector.source.lookup.AsyncLookupFunctionProvider;
+import org.apache.flink.table.connector.source.lookup.FullCachingLookupProvider;
+import org.apache.flink.table.connector.source.lookup.LookupFunctionProvider;
+import org.apache.flink.table.connector.source.lookup.PartialCachingAsyncLookupProvider;
+import org.apache.flink.table.connector.source.lookup.PartialCachingLookupProvider;
+import org.apache.flink.table.connector.source.lookup.cache.LookupCache;
+import org.apache.flink.table.connector.source.lookup.cache.trigger.CacheReloadTrigger;
+import org.apache.flink.table.functions.LookupFunction;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.LogicalType;
+
+/**
+ * The lookup source of the jdbc-sqrl connector for temporal joins against database tables.
+ *
+ * Lookups are executed by the jdbc connector's lookup function, which this source extends with
+ * asynchronous lookups over a pool of connections (see {@link SqrlJdbcAsyncLookupFunction}) and
+ * full caching, where the entire table is loaded with the jdbc scan and periodically reloaded.
+ * With partial caching, the most recently looked up keys are cached.
+ */
+public class SqrlJdbcDynamicTableSource implements LookupTableSource {
+
+  private final JdbcDynamicTableSource jdbcSource;
+  @Nullable
+  private final LookupCache cache;
+  @Nullable
+  private final CacheReloadTrigger fullCacheReloadTrigger;
+  private final int asyncPoolSize;
+
+  /**
+   * @param jdbcSource the jdbc source without a cache that executes the lookups
+   * @param cache the partial cache, if any
+   * @param fullCacheReloadTrigger the reload trigger if the table is fully cached
+   * @param asyncPoolSize the number of concurrent lookups, or 0 for synchronous lookups
+   */
+  public SqrlJdbcDynamicTableSource(JdbcDynamicTableSource jdbcSource,
+      @Nullable LookupCache cache, @Nullable CacheReloadTrigger fullCacheReloadTrigger,
+      int asyncPoolSize) {
+    this.jdbcSource = jdbcSource;
+    this.cache = cache;
+    this.fullCacheReloadTrigger = fullCacheReloadTrigger;
+    this.asyncPoolSize = asyncPoolSize;
+  }
+
+  @Override
+  public LookupRuntimeProvider getLookupRuntimeProvider(LookupContext context) {
+    if (fullCacheReloadTrigger != null) {
+      return FullCachingLookupProvider.of(
+          jdbcSource.getScanRuntimeProvider(new LookupScanContext(context)),
+          fullCacheReloadTrigger);
+    }
+    LookupFunction lookupFunction = ((LookupFunctionProvider) jdbcSource
+        .getLookupRuntimeProvider(context)).createLookupFunction();
+    if (asyncPoolSize > 0) {
+      SqrlJdbcAsyncLookupFunction asyncLookupFunction = new SqrlJdbcAsyncLookupFunction(
+          lookupFunction, asyncPoolSize);
+      return cache == null ? AsyncLookupFunctionProvider.of(asyncLookupFunction)
+          : PartialCachingAsyncLookupProvider.of(asyncLookupFunction, cache);
+    }
+    return cache == null ? LookupFunctionProvider.of(lookupFunction)
+        : PartialCachingLookupProvider.of(lookupFunction, cache);
+  }
+
+  @Override
+  public DynamicTableSource copy() {
+    return new SqrlJdbcDynamicTableSource((JdbcDynamicTableSource) jdbcSource.copy(), cache,
+        fullCacheReloadTrigger, asyncPoolSize);
+  }
+
+  @Override
+  public String asSummaryString() {
+    return jdbcSource.asSummaryString();
+  }
+
+  /** Loads the full cache with the scan of the jdbc source. */
+  private static class LookupScanContext implements ScanContext {
+
+    private final LookupContext context;
+
+    LookupScanContext(LookupContext context) {
+      this.context = context;
+    }
+
+    @Override
+    public <T> TypeInformation<T> createTypeInformation(DataType producedDataType) {
+      return context.createTypeInformation(producedDataType);
+    }
+
+    @Override
+    public <T> TypeInformation<T> createTypeInformation(LogicalType producedLogicalType) {
+      return context.createTypeInformation(producedLogicalType);
+    }
+
+    @Override
+    public DataStructureConverter createDataStructureConverter(DataType producedDataType) {
+      return context.createDataStructureConverter(producedDataType);
+    }
+  }
+}
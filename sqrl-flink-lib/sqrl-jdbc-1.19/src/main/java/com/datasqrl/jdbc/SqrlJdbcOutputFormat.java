@@ -0,0 +1,80 @@
+package com.datasqrl.jdbc;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import org.apache.flink.connector.jdbc.JdbcExecutionOptions;
+import org.apache.flink.connector.jdbc.datasource.connections.JdbcConnectionProvider;
+import org.apache.flink.connector.jdbc.internal.JdbcOutputFormat;
+import org.apache.flink.connector.jdbc.internal.executor.JdbcBatchStatementExecutor;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.util.function.SerializableSupplier;
+
+/**
+ * A {@link JdbcOutputFormat} for keyed tables that flushes when the {@link
+ * KeyedBufferStatementExecutor} holds as many distinct keys as the batch size, instead of when
+ * it has received as many records. Repeated changes to the same keys are thereby collapsed for
+ * up to the batch interval instead of being flushed every batch size records.
+ *
+ * As for {@link JdbcOutputFormat}, a batch size of 0 disables size based flushing so that the
+ * buffer is only flushed on the batch interval and at checkpoints.
+ */
+public class SqrlJdbcOutputFormat
+    extends JdbcOutputFormat<RowData, RowData, JdbcBatchStatementExecutor<RowData>> {
+
+  private static final long serialVersionUID = 1L;
+
+  private final KeyedExecutorFactory executorFactory;
+  private final int maxBufferedKeys;
+
+  private SqrlJdbcOutputFormat(JdbcConnectionProvider connectionProvider,
+      JdbcExecutionOptions executionOptions, KeyedExecutorFactory executorFactory,
+      int maxBufferedKeys) {
+    super(connectionProvider, executionOptions, executorFactory);
+    this.executorFactory = executorFactory;
+    this.maxBufferedKeys = maxBufferedKeys;
+  }
+
+  public static SqrlJdbcOutputFormat create(JdbcConnectionProvider connectionProvider,
+      JdbcExecutionOptions executionOptions,
+      SerializableSupplier<KeyedBufferStatementExecutor> executorSupplier) {
+    //Records are counted by the distinct keys in the buffer, not by the parent class
+    JdbcExecutionOptions keyedOptions = JdbcExecutionOptions.builder()
+        .withBatchSize(Integer.MAX_VALUE)
+        .withBatchIntervalMs(executionOptions.getBatchIntervalMs())
+        .withMaxRetries(executionOptions.getMaxRetries())
+        .build();
+    return new SqrlJdbcOutputFormat(connectionProvider, keyedOptions,
+        new KeyedExecutorFactory(executorSupplier), executionOptions.getBatchSize());
+  }
+
+  @Override
+  protected void addToBatch(RowData original, RowData extracted) throws SQLException {
+    super.addToBatch(original, extracted);
+    if (maxBufferedKeys > 0
+        && executorFactory.executor.getBufferedKeyCount() >= maxBufferedKeys) {
+      try {
+        flush();
+      } catch (IOException e) {
+        throw new SQLException("Could not flush buffered rows", e);
+      }
+    }
+  }
+
+  /** Keeps a reference to the executor it creates for the output format. */
+  private static class KeyedExecutorFactory
+      implements StatementExecutorFactory<JdbcBatchStatementExecutor<RowData>> {
+
+    private final SerializableSupplier<KeyedBufferStatementExecutor> supplier;
+    private transient KeyedBufferStatementExecutor executor;
+
+    KeyedExecutorFactory(SerializableSupplier<KeyedBufferStatementExecutor> supplier) {
+      this.supplier = supplier;
+    }
+
+    @Override
+    public JdbcBatchStatementExecutor<RowData> get() {
+      executor = supplier.get();
+      return executor;
+    }
+  }
+}
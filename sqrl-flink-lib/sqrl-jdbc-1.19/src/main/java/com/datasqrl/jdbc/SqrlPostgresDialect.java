@@ -86,6 +86,57 @@ public class SqrlPostgresDialect extends AbstractDialect {
                         + updateClause);
     }
 
+    /** Postgres binary COPY into the given table, see {@link PostgresCopyRowWriter}. */
+    public String getCopyInStatement(String tableName, String[] fieldNames) {
+        String columns =
+                Arrays.stream(fieldNames)
+                        .map(this::quoteIdentifier)
+                        .collect(Collectors.joining(", "));
+        return "COPY " + quoteIdentifier(tableName) + " (" + columns + ") FROM STDIN (FORMAT BINARY)";
+    }
+
+    /**
+     * Session local staging table with the columns of the given table. Its rows are removed on
+     * commit, so it only holds the rows of the batch that is currently merged.
+     */
+    public String getCreateStagingTableStatement(String tableName, String stagingTableName) {
+        return "CREATE TEMPORARY TABLE IF NOT EXISTS "
+                + quoteIdentifier(stagingTableName)
+                + " (LIKE "
+                + quoteIdentifier(tableName)
+                + ") ON COMMIT DELETE ROWS";
+    }
+
+    /** Upserts all rows of the staging table into the given table. */
+    public String getMergeStatement(
+            String tableName, String stagingTableName, String[] fieldNames, String[] uniqueKeyFields) {
+        String columns =
+                Arrays.stream(fieldNames)
+                        .map(this::quoteIdentifier)
+                        .collect(Collectors.joining(", "));
+        String uniqueColumns =
+                Arrays.stream(uniqueKeyFields)
+                        .map(this::quoteIdentifier)
+                        .collect(Collectors.joining(", "));
+        String updateClause =
+                Arrays.stream(fieldNames)
+                        .map(f -> quoteIdentifier(f) + "=EXCLUDED." + quoteIdentifier(f))
+                        .collect(Collectors.joining(", "));
+        return "INSERT INTO "
+                + quoteIdentifier(tableName)
+                + " ("
+                + columns
+                + ") SELECT "
+                + columns
+                + " FROM "
+                + quoteIdentifier(stagingTableName)
+                + " ON CONFLICT ("
+                + uniqueColumns
+                + ")"
+                + " DO UPDATE SET "
+                + updateClause;
+    }
+
     @Override
     public void validate(RowType rowType) throws ValidationException {
         List<LogicalType> unsupportedTypes = rowType.getFields().stream()
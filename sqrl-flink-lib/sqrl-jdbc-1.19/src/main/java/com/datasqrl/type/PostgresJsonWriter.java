@@ -0,0 +1,38 @@
+package com.datasqrl.type;
+
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.core.JsonGenerator;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.JsonNode;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes json values as text for json parameters of postgres statements. Reuses the generator
+ * and its buffer across values, so an instance must only be used by one converter.
+ */
+public class PostgresJsonWriter implements Serializable {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  private transient CharArrayWriter buffer;
+  private transient JsonGenerator generator;
+
+  public String write(JsonNode json) {
+    try {
+      if (generator == null) {
+        buffer = new CharArrayWriter(256);
+        //no separator between the values written by the generator
+        generator = MAPPER.getFactory().createGenerator(buffer).setRootValueSeparator(null);
+      }
+      buffer.reset();
+      MAPPER.writeTree(generator, json);
+      generator.flush();
+      return buffer.toString();
+    } catch (IOException e) {
+      generator = null;
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -136,4 +136,133 @@ public class FlinkJdbcTest {
             connection.close();
         }
     }
+
+    @Test
+    public void testCopyUpsertToPostgres() throws Exception {
+        try (PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:14")) {
+            postgresContainer.start();
+            try (Connection conn = DriverManager.getConnection(postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword());
+                Statement stmt = conn.createStatement()) {
+                String createTableSQL = "CREATE TABLE test_table (" +
+                    "    bucket BIGINT PRIMARY KEY, cnt BIGINT, total NUMERIC(20, 2), " +
+                    "    updated TIMESTAMP WITH TIME ZONE" +
+                    ")";
+                stmt.executeUpdate(createTableSQL);
+            }
+
+            StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+            EnvironmentSettings settings = EnvironmentSettings.newInstance().inStreamingMode()
+                .build();
+            StreamTableEnvironment tEnv = StreamTableEnvironment.create(env, settings);
+
+            tEnv.executeSql("CREATE TABLE test_table (" +
+                "bucket BIGINT," +
+                "cnt BIGINT," +
+                "total DECIMAL(20, 2)," +
+                "updated TIMESTAMP_LTZ(3)," +
+                "PRIMARY KEY (bucket) NOT ENFORCED" +
+                ") WITH (" +
+                "'connector' = 'jdbc-sqrl'," +
+                "'url' = '" + postgresContainer.getJdbcUrl() + "'," +
+                "'table-name' = 'test_table'," +
+                "'username' = '" + postgresContainer.getUsername() + "'," +
+                "'password' = '" + postgresContainer.getPassword() + "'," +
+                "'sink.copy.enabled' = 'true'" +
+                ")"
+            );
+
+            tEnv.executeSql("CREATE TABLE datagen_source (" +
+                "id BIGINT" +
+                ") WITH (" +
+                "'connector' = 'datagen'," +
+                "'fields.id.kind' = 'sequence'," +
+                "'fields.id.start' = '1'," +
+                "'fields.id.end' = '1000'" +
+                ")"
+            );
+
+            // Every bucket is updated many times, only the last state must be written
+            tEnv.executeSql("INSERT INTO test_table SELECT id % 10, COUNT(*), "
+                    + "SUM(CAST(id AS DECIMAL(20, 2)) / 4), MAX(TO_TIMESTAMP_LTZ(id, 0)) "
+                    + "FROM datagen_source GROUP BY id % 10")
+                .await();
+
+            try (Connection connection = postgresContainer.createConnection("");
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(
+                    "SELECT COUNT(*), SUM(cnt), SUM(total), MAX(updated) FROM test_table")) {
+                resultSet.next();
+                assertEquals(10, resultSet.getInt(1));
+                assertEquals(1000, resultSet.getLong(2));
+                assertEquals("125125.00", resultSet.getBigDecimal(3).toPlainString());
+                assertEquals(1000_000L, resultSet.getTimestamp(4).getTime());
+            }
+        }
+    }
+
+    @Test
+    public void testLookupJoinWithPostgres() throws Exception {
+        try (PostgreSQLContainer<?> postgresContainer = new PostgreSQLContainer<>("postgres:14")) {
+            postgresContainer.start();
+            try (Connection conn = DriverManager.getConnection(postgresContainer.getJdbcUrl(), postgresContainer.getUsername(), postgresContainer.getPassword());
+                Statement stmt = conn.createStatement()) {
+                stmt.executeUpdate("CREATE TABLE dimension (id BIGINT PRIMARY KEY, name VARCHAR)");
+                stmt.executeUpdate("INSERT INTO dimension SELECT i, 'name' || i FROM generate_series(0, 9) i");
+                stmt.executeUpdate("CREATE TABLE result_table (id BIGINT, name VARCHAR)");
+            }
+
+            StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+            EnvironmentSettings settings = EnvironmentSettings.newInstance().inStreamingMode()
+                .build();
+            StreamTableEnvironment tEnv = StreamTableEnvironment.create(env, settings);
+
+            String connectionOptions = "'url' = '" + postgresContainer.getJdbcUrl() + "'," +
+                "'username' = '" + postgresContainer.getUsername() + "'," +
+                "'password' = '" + postgresContainer.getPassword() + "',";
+            tEnv.executeSql("CREATE TABLE dimension (" +
+                "id BIGINT," +
+                "name STRING," +
+                "PRIMARY KEY (id) NOT ENFORCED" +
+                ") WITH (" +
+                "'connector' = 'jdbc-sqrl'," + connectionOptions +
+                "'table-name' = 'dimension'," +
+                "'lookup.async' = 'true'," +
+                "'lookup.cache' = 'PARTIAL'," +
+                "'lookup.partial-cache.max-rows' = '100'," +
+                "'lookup.partial-cache.expire-after-write' = '1 min'" +
+                ")"
+            );
+            tEnv.executeSql("CREATE TABLE result_table (" +
+                "id BIGINT," +
+                "name STRING" +
+                ") WITH (" +
+                "'connector' = 'jdbc-sqrl'," + connectionOptions +
+                "'table-name' = 'result_table'" +
+                ")"
+            );
+            tEnv.executeSql("CREATE TABLE datagen_source (" +
+                "id BIGINT," +
+                "proc_time AS PROCTIME()" +
+                ") WITH (" +
+                "'connector' = 'datagen'," +
+                "'fields.id.kind' = 'sequence'," +
+                "'fields.id.start' = '1'," +
+                "'fields.id.end' = '100'" +
+                ")"
+            );
+
+            tEnv.executeSql("INSERT INTO result_table SELECT s.id, d.name FROM datagen_source s "
+                    + "JOIN dimension FOR SYSTEM_TIME AS OF s.proc_time AS d ON s.id % 10 = d.id")
+                .await();
+
+            try (Connection connection = postgresContainer.createConnection("");
+                Statement statement = connection.createStatement();
+                ResultSet resultSet = statement.executeQuery(
+                    "SELECT COUNT(*), COUNT(DISTINCT name) FROM result_table")) {
+                resultSet.next();
+                assertEquals(100, resultSet.getInt(1));
+                assertEquals(10, resultSet.getInt(2));
+            }
+        }
+    }
 }
@@ -0,0 +1,159 @@
+package com.datasqrl.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.flink.connector.jdbc.JdbcExecutionOptions;
+import org.apache.flink.connector.jdbc.datasource.connections.JdbcConnectionProvider;
+import org.apache.flink.connector.jdbc.internal.JdbcOutputSerializer;
+import org.apache.flink.connector.jdbc.internal.executor.JdbcBatchStatementExecutor;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.types.RowKind;
+import org.junit.jupiter.api.Test;
+
+class KeyedBufferStatementExecutorTest {
+
+  List<String> upserts = new ArrayList<>();
+  List<String> deletes = new ArrayList<>();
+  List<Integer> executedBatches = new ArrayList<>();
+
+  @Test
+  public void testCollapseChangesByKey() throws Exception {
+    KeyedBufferStatementExecutor executor = createExecutor();
+    executor.addToBatch(row(RowKind.INSERT, 1, 10));
+    executor.addToBatch(row(RowKind.INSERT, 2, 20));
+    executor.addToBatch(row(RowKind.UPDATE_AFTER, 1, 11));
+    executor.addToBatch(row(RowKind.DELETE, 2, 20));
+    executor.addToBatch(row(RowKind.INSERT, 3, 30));
+    executor.addToBatch(row(RowKind.UPDATE_BEFORE, 3, 30));
+    executor.addToBatch(row(RowKind.UPDATE_AFTER, 3, 31));
+    executor.addToBatch(row(RowKind.DELETE, 4, 40));
+    executor.addToBatch(row(RowKind.INSERT, 4, 41));
+    assertEquals(4, executor.getBufferedKeyCount());
+
+    executor.executeBatch();
+    assertEquals(List.of("1=11", "3=31", "4=41"), upserts);
+    assertEquals(List.of("2"), deletes);
+    assertEquals(0, executor.getBufferedKeyCount());
+
+    executor.executeBatch();
+    assertEquals(3, upserts.size());
+  }
+
+  @Test
+  public void testFlushByDistinctKeys() throws Exception {
+    SqrlJdbcOutputFormat outputFormat = SqrlJdbcOutputFormat.create(new TestConnectionProvider(),
+        JdbcExecutionOptions.builder().withBatchSize(3).withBatchIntervalMs(0).build(),
+        this::createExecutor);
+    outputFormat.open(JdbcOutputSerializer.of(null, false));
+
+    //A hot key does not trigger flushes
+    for (int i = 0; i < 1000; i++) {
+      outputFormat.writeRecord(row(RowKind.UPDATE_AFTER, i % 2, i));
+    }
+    assertEquals(List.of(), executedBatches);
+    outputFormat.writeRecord(row(RowKind.INSERT, 2, 0));
+    assertEquals(List.of("0=998", "1=999", "2=0"), upserts);
+
+    outputFormat.writeRecord(row(RowKind.DELETE, 0, 998));
+    outputFormat.flush();
+    assertEquals(List.of("0"), deletes);
+    outputFormat.close();
+  }
+
+  @Test
+  public void testSizeBasedFlushingDisabled() throws Exception {
+    SqrlJdbcOutputFormat outputFormat = SqrlJdbcOutputFormat.create(new TestConnectionProvider(),
+        JdbcExecutionOptions.builder().withBatchSize(0).withBatchIntervalMs(0).build(),
+        this::createExecutor);
+    outputFormat.open(JdbcOutputSerializer.of(null, false));
+
+    //With a batch size of 0, distinct keys accumulate until the buffer is flushed explicitly
+    for (int i = 0; i < 100; i++) {
+      outputFormat.writeRecord(row(RowKind.INSERT, i, i));
+    }
+    assertEquals(List.of(), executedBatches);
+    outputFormat.flush();
+    assertEquals(100, upserts.size());
+    outputFormat.close();
+  }
+
+  private KeyedBufferStatementExecutor createExecutor() {
+    return new KeyedBufferStatementExecutor(
+        new RecordingExecutor(upserts, r -> r.getInt(0) + "=" + r.getInt(1)),
+        new RecordingExecutor(deletes, r -> String.valueOf(r.getInt(0))),
+        r -> GenericRowData.of(r.getInt(0)));
+  }
+
+  private static RowData row(RowKind kind, int key, int value) {
+    return GenericRowData.ofKind(kind, key, value);
+  }
+
+  private class RecordingExecutor implements JdbcBatchStatementExecutor<RowData> {
+
+    final List<String> written;
+    final Function<RowData, String> format;
+    final List<String> batch = new ArrayList<>();
+
+    RecordingExecutor(List<String> written, Function<RowData, String> format) {
+      this.written = written;
+      this.format = format;
+    }
+
+    @Override
+    public void prepareStatements(Connection connection) {
+    }
+
+    @Override
+    public void addToBatch(RowData record) {
+      batch.add(format.apply(record));
+    }
+
+    @Override
+    public void executeBatch() {
+      written.addAll(batch);
+      executedBatches.add(batch.size());
+      batch.clear();
+    }
+
+    @Override
+    public void closeStatements() {
+    }
+  }
+
+  private static class TestConnectionProvider implements JdbcConnectionProvider {
+
+    final Connection connection = (Connection) Proxy.newProxyInstance(
+        KeyedBufferStatementExecutorTest.class.getClassLoader(), new Class[]{Connection.class},
+        (proxy, method, args) -> method.getName().equals("isValid") ? true : null);
+
+    @Override
+    public Connection getConnection() {
+      return connection;
+    }
+
+    @Override
+    public boolean isConnectionValid() {
+      return true;
+    }
+
+    @Override
+    public Connection getOrEstablishConnection() {
+      return connection;
+    }
+
+    @Override
+    public void closeConnection() {
+    }
+
+    @Override
+    public Connection reestablishConnection() {
+      return connection;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package com.datasqrl.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.DecimalData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.types.logical.RowType;
+import org.junit.jupiter.api.Test;
+
+class PostgresCopyRowWriterTest {
+
+  @Test
+  public void testWriteRow() throws Exception {
+    RowType rowType = (RowType) DataTypes.ROW(
+        DataTypes.FIELD("id", DataTypes.BIGINT()),
+        DataTypes.FIELD("name", DataTypes.STRING()),
+        DataTypes.FIELD("missing", DataTypes.INT()),
+        DataTypes.FIELD("day", DataTypes.DATE()),
+        DataTypes.FIELD("ts", DataTypes.TIMESTAMP_LTZ(6)),
+        DataTypes.FIELD("active", DataTypes.BOOLEAN())).getLogicalType();
+    GenericRowData row = GenericRowData.of(42L, StringData.fromString("héllo"), null,
+        (int) LocalDate.of(2000, 1, 2).toEpochDay(),
+        TimestampData.fromInstant(Instant.parse("2000-01-01T00:00:01.000002Z")), true);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    PostgresCopyRowWriter.writeHeader(out);
+    new PostgresCopyRowWriter(rowType).write(row, out);
+    PostgresCopyRowWriter.writeTrailer(out);
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    byte[] signature = new byte[11];
+    in.readFully(signature);
+    assertEquals("PGCOPY\n\377\r\n\0", new String(signature, StandardCharsets.ISO_8859_1));
+    assertEquals(0, in.readInt());
+    assertEquals(0, in.readInt());
+
+    assertEquals(6, in.readShort());
+    assertEquals(8, in.readInt());
+    assertEquals(42L, in.readLong());
+    byte[] name = "héllo".getBytes(StandardCharsets.UTF_8);
+    assertEquals(name.length, in.readInt());
+    byte[] nameRead = new byte[name.length];
+    in.readFully(nameRead);
+    assertArrayEquals(name, nameRead);
+    assertEquals(-1, in.readInt());
+    assertEquals(4, in.readInt());
+    assertEquals(1, in.readInt());
+    assertEquals(8, in.readInt());
+    assertEquals(1_000_002L, in.readLong());
+    assertEquals(1, in.readInt());
+    assertTrue(in.readBoolean());
+    assertEquals(-1, in.readShort());
+    assertEquals(0, in.available());
+  }
+
+  @Test
+  public void testWriteNumeric() throws Exception {
+    //ndigits, weight, sign, dscale, base 10000 digits
+    assertNumeric("12.345", 2, 0, 0x0000, 3, 12, 3450);
+    assertNumeric("-0.5", 1, -1, 0x4000, 1, 5000);
+    assertNumeric("10000", 1, 1, 0x0000, 0, 1);
+    assertNumeric("123456789.0001", 4, 2, 0x0000, 4, 1, 2345, 6789, 1);
+    assertNumeric("0.00", 0, 0, 0x0000, 2);
+    assertNumeric("1E+3", 1, 0, 0x0000, 0, 1000);
+  }
+
+  @Test
+  public void testSupportedTypes() {
+    assertTrue(PostgresCopyRowWriter.isSupported((RowType) DataTypes.ROW(
+        DataTypes.FIELD("price", DataTypes.DECIMAL(10, 2)),
+        DataTypes.FIELD("time", DataTypes.TIME()),
+        DataTypes.FIELD("data", DataTypes.BYTES())).getLogicalType()));
+    assertFalse(PostgresCopyRowWriter.isSupported((RowType) DataTypes.ROW(
+        DataTypes.FIELD("tags", DataTypes.ARRAY(DataTypes.STRING()))).getLogicalType()));
+  }
+
+  private static void assertNumeric(String value, int... expected) throws IOException {
+    BigDecimal decimal = new BigDecimal(value);
+    int scale = Math.max(decimal.scale(), 0);
+    GenericRowData row = GenericRowData.of(DecimalData.fromBigDecimal(decimal, 38, scale));
+    RowType rowType = (RowType) DataTypes.ROW(
+        DataTypes.FIELD("value", DataTypes.DECIMAL(38, scale))).getLogicalType();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    new PostgresCopyRowWriter(rowType).write(row, new DataOutputStream(bytes));
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    assertEquals(1, in.readShort());
+    assertEquals(2 * expected.length, in.readInt());
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(expected[i], in.readShort(), value + " at " + i);
+    }
+    assertEquals(0, in.available());
+  }
+}
@@ -0,0 +1,190 @@
+package com.datasqrl.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.RowType;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+import org.postgresql.core.BaseConnection;
+
+/**
+ * Runs the COPY executor against a recording connection, so no Postgres instance is needed.
+ */
+class PostgresCopyStatementExecutorTest {
+
+  static final String[] FIELDS = {"id", "name"};
+  static final RowType ROW_TYPE = (RowType) DataTypes.ROW(
+      DataTypes.FIELD("id", DataTypes.BIGINT()),
+      DataTypes.FIELD("name", DataTypes.STRING())).getLogicalType();
+
+  SqrlPostgresDialect dialect = new SqrlPostgresDialect();
+  //All statements in the order in which they are executed, including transaction control
+  List<String> executed = new ArrayList<>();
+  List<byte[]> copied = new ArrayList<>();
+  boolean failMerge = false;
+
+  @Test
+  public void testAppend() throws Exception {
+    PostgresCopyStatementExecutor executor = PostgresCopyStatementExecutor.append(dialect,
+        new PostgresCopyRowWriter(ROW_TYPE), "orders", FIELDS);
+    executor.prepareStatements(connection());
+    executor.addToBatch(GenericRowData.of(1L, StringData.fromString("a")));
+    executor.addToBatch(GenericRowData.of(2L, null));
+    executor.executeBatch();
+    //An empty batch is not copied
+    executor.executeBatch();
+
+    assertEquals(List.of(
+        "COPY \"orders\" (\"id\", \"name\") FROM STDIN (FORMAT BINARY)"), executed);
+    assertEquals(1, copied.size());
+    DataInputStream in = readHeader(copied.get(0));
+    assertRow(in, 1L, "a");
+    assertRow(in, 2L, null);
+    assertTrailer(in);
+  }
+
+  @Test
+  public void testUpsertCopiesIntoStagingTableAndMerges() throws Exception {
+    PostgresCopyStatementExecutor executor = PostgresCopyStatementExecutor.upsert(dialect,
+        new PostgresCopyRowWriter(ROW_TYPE), "orders", FIELDS, new String[]{"id"});
+    executor.prepareStatements(connection());
+    executor.addToBatch(GenericRowData.of(1L, StringData.fromString("a")));
+    executor.executeBatch();
+    executor.addToBatch(GenericRowData.of(3L, StringData.fromString("c")));
+    executor.executeBatch();
+
+    String merge = "INSERT INTO \"orders\" (\"id\", \"name\") SELECT \"id\", \"name\" "
+        + "FROM \"orders_copy_staging\" ON CONFLICT (\"id\") "
+        + "DO UPDATE SET \"id\"=EXCLUDED.\"id\", \"name\"=EXCLUDED.\"name\"";
+    String copy = "COPY \"orders_copy_staging\" (\"id\", \"name\") FROM STDIN (FORMAT BINARY)";
+    assertEquals(List.of(
+        "CREATE TEMPORARY TABLE IF NOT EXISTS \"orders_copy_staging\" (LIKE \"orders\") "
+            + "ON COMMIT DELETE ROWS",
+        "autoCommit=false", copy, merge, "commit", "autoCommit=true",
+        "autoCommit=false", copy, merge, "commit", "autoCommit=true"), executed);
+    //Each batch only copies its own rows
+    DataInputStream in = readHeader(copied.get(1));
+    assertRow(in, 3L, "c");
+    assertTrailer(in);
+  }
+
+  @Test
+  public void testFailedMergeIsRolledBack() throws Exception {
+    PostgresCopyStatementExecutor executor = PostgresCopyStatementExecutor.upsert(dialect,
+        new PostgresCopyRowWriter(ROW_TYPE), "orders", FIELDS, new String[]{"id"});
+    executor.prepareStatements(connection());
+    failMerge = true;
+    executor.addToBatch(GenericRowData.of(1L, StringData.fromString("a")));
+    assertThrows(SQLException.class, executor::executeBatch);
+    assertEquals(List.of("rollback", "autoCommit=true"),
+        executed.subList(executed.size() - 2, executed.size()));
+
+    //The failed batch is discarded
+    failMerge = false;
+    executor.addToBatch(GenericRowData.of(2L, StringData.fromString("b")));
+    executor.executeBatch();
+    DataInputStream in = readHeader(copied.get(copied.size() - 1));
+    assertRow(in, 2L, "b");
+    assertTrailer(in);
+  }
+
+  private static DataInputStream readHeader(byte[] bytes) throws IOException {
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+    byte[] signature = new byte[11];
+    in.readFully(signature);
+    assertEquals("PGCOPY\n\377\r\n\0", new String(signature, StandardCharsets.ISO_8859_1));
+    assertEquals(0, in.readInt());
+    assertEquals(0, in.readInt());
+    return in;
+  }
+
+  private static void assertRow(DataInputStream in, long id, String name) throws IOException {
+    assertEquals(FIELDS.length, in.readShort());
+    assertEquals(8, in.readInt());
+    assertEquals(id, in.readLong());
+    if (name == null) {
+      assertEquals(-1, in.readInt());
+    } else {
+      byte[] actual = new byte[in.readInt()];
+      in.readFully(actual);
+      assertEquals(name, new String(actual, StandardCharsets.UTF_8));
+    }
+  }
+
+  private static void assertTrailer(DataInputStream in) throws IOException {
+    assertEquals(-1, in.readShort());
+    assertEquals(0, in.available());
+  }
+
+  private Connection connection() throws SQLException {
+    CopyManager copyManager = new CopyManager(proxy(BaseConnection.class, (method, args) -> null)) {
+      @Override
+      public long copyIn(String sql, InputStream from) throws IOException {
+        executed.add(sql);
+        copied.add(from.readAllBytes());
+        return 0;
+      }
+    };
+    PGConnection pgConnection = proxy(PGConnection.class,
+        (method, args) -> method.equals("getCopyAPI") ? copyManager : null);
+    Statement statement = proxy(Statement.class, (method, args) -> {
+      if (method.equals("execute") || method.equals("executeUpdate")) {
+        String sql = (String) args[0];
+        executed.add(sql);
+        if (failMerge && sql.startsWith("INSERT")) {
+          throw new SQLException("unique violation");
+        }
+        return method.equals("execute") ? (Object) false : (Object) 1;
+      }
+      return null;
+    });
+    boolean[] autoCommit = {true};
+    return proxy(Connection.class, (method, args) -> {
+      switch (method) {
+        case "unwrap":
+          return pgConnection;
+        case "createStatement":
+          return statement;
+        case "getAutoCommit":
+          return autoCommit[0];
+        case "setAutoCommit":
+          autoCommit[0] = (Boolean) args[0];
+          executed.add("autoCommit=" + autoCommit[0]);
+          return null;
+        case "commit":
+        case "rollback":
+          executed.add(method);
+          return null;
+        default:
+          return null;
+      }
+    });
+  }
+
+  private static <T> T proxy(Class<T> clazz, Handler handler) {
+    return clazz.cast(Proxy.newProxyInstance(
+        PostgresCopyStatementExecutorTest.class.getClassLoader(), new Class[]{clazz},
+        (proxy, method, args) -> handler.invoke(method.getName(), args)));
+  }
+
+  private interface Handler {
+
+    Object invoke(String method, Object[] args) throws SQLException;
+  }
+}
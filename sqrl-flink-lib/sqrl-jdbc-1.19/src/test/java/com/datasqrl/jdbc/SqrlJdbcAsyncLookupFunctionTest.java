@@ -0,0 +1,74 @@
+package com.datasqrl.jdbc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.table.functions.LookupFunction;
+import org.junit.jupiter.api.Test;
+
+class SqrlJdbcAsyncLookupFunctionTest {
+
+  static final AtomicInteger opened = new AtomicInteger();
+  static final AtomicInteger closed = new AtomicInteger();
+  static CountDownLatch inFlight;
+
+  @Test
+  public void testConcurrentLookups() throws Exception {
+    int poolSize = 3;
+    inFlight = new CountDownLatch(poolSize);
+    SqrlJdbcAsyncLookupFunction function = new SqrlJdbcAsyncLookupFunction(
+        new TestLookupFunction(), poolSize);
+    function.open(new FunctionContext(null, getClass().getClassLoader(), new Configuration()));
+    assertEquals(poolSize, opened.get());
+
+    //The lookups only complete once all pooled functions are looking up at the same time
+    List<CompletableFuture<Collection<RowData>>> results = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      results.add(function.asyncLookup(GenericRowData.of(i)));
+    }
+    for (int i = 0; i < 10; i++) {
+      Collection<RowData> rows = results.get(i).get(10, TimeUnit.SECONDS);
+      assertEquals(1, rows.size());
+      assertEquals(i * 10, rows.iterator().next().getInt(1));
+    }
+
+    function.close();
+    assertEquals(poolSize, closed.get());
+  }
+
+  static class TestLookupFunction extends LookupFunction {
+
+    @Override
+    public void open(FunctionContext context) {
+      opened.incrementAndGet();
+    }
+
+    @Override
+    public Collection<RowData> lookup(RowData keyRow) {
+      inFlight.countDown();
+      try {
+        assertTrue(inFlight.await(10, TimeUnit.SECONDS));
+      } catch (InterruptedException e) {
+        throw new RuntimeException(e);
+      }
+      int key = keyRow.getInt(0);
+      return List.of(GenericRowData.of(key, key * 10));
+    }
+
+    @Override
+    public void close() {
+      closed.incrementAndGet();
+    }
+  }
+}
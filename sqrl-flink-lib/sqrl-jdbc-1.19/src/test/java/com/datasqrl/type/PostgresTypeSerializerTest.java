@@ -0,0 +1,73 @@
+package com.datasqrl.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.datasqrl.json.FlinkJsonType;
+import com.datasqrl.json.FlinkJsonTypeSerializer;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.flink.connector.jdbc.converter.AbstractJdbcRowConverter.JdbcSerializationConverter;
+import org.apache.flink.connector.jdbc.statement.FieldNamedPreparedStatement;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.GenericArrayData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RawValueData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RawType;
+import org.junit.jupiter.api.Test;
+import org.postgresql.util.PGobject;
+
+class PostgresTypeSerializerTest {
+
+  Map<Integer, Object> parameters = new HashMap<>();
+  FieldNamedPreparedStatement statement = (FieldNamedPreparedStatement) Proxy.newProxyInstance(
+      getClass().getClassLoader(), new Class[]{FieldNamedPreparedStatement.class},
+      (proxy, method, args) -> {
+        if (method.getName().equals("setObject")) {
+          parameters.put((Integer) args[0], args[1]);
+        }
+        return null;
+      });
+
+  @Test
+  public void testArrayOfRows() throws Exception {
+    LogicalType type = DataTypes.ARRAY(DataTypes.ROW(
+        DataTypes.FIELD("id", DataTypes.INT()),
+        DataTypes.FIELD("name", DataTypes.STRING()))).getLogicalType();
+    JdbcSerializationConverter converter = new PostgresRowTypeSerializer()
+        .getSerializerConverter(type).create();
+
+    for (int i = 0; i < 3; i++) {
+      GenericRowData row = GenericRowData.of(1L, new GenericArrayData(new Object[]{
+          GenericRowData.of(i, StringData.fromString("a")),
+          GenericRowData.of(i + 1, null)}), null);
+      converter.serialize(row, 1, statement);
+      assertEquals("[{\"id\":" + i + ",\"name\":\"a\"},{\"id\":" + (i + 1) + ",\"name\":null}]",
+          ((PGobject) parameters.get(1)).getValue());
+      converter.serialize(row, 2, statement);
+      assertNull(parameters.get(2));
+    }
+  }
+
+  @Test
+  public void testJson() throws Exception {
+    RawType<FlinkJsonType> type = new RawType<>(FlinkJsonType.class,
+        new FlinkJsonTypeSerializer());
+    JdbcSerializationConverter converter = new PostgresJsonTypeSerializer()
+        .getSerializerConverter(type).create();
+    ObjectMapper mapper = new ObjectMapper();
+
+    for (String json : new String[]{"{\"a\":[1,2.5,\"x\"]}", "{}", "\"text\"", "[true,null]"}) {
+      GenericRowData row = GenericRowData.of(
+          RawValueData.fromObject(new FlinkJsonType(mapper.readTree(json))));
+      converter.serialize(row, 0, statement);
+      PGobject value = (PGobject) parameters.get(0);
+      assertEquals("json", value.getType());
+      assertEquals(json, value.getValue());
+    }
+  }
+}
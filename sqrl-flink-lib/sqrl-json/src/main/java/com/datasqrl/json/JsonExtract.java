@@ -1,9 +1,5 @@
 package com.datasqrl.json;
 
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.ReadContext;
-import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.JsonNode;
-import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.flink.table.functions.ScalarFunction;
 
 /**
@@ -18,9 +14,7 @@ public class JsonExtract extends ScalarFunction {
       return null;
     }
     try {
-      JsonNode jsonNode = input.getJson();
-      ReadContext ctx = JsonPath.parse(jsonNode.toString());
-      Object value = ctx.read(pathSpec);
+      Object value = JsonPaths.parse(input).read(JsonPaths.compile(pathSpec));
       if (value == null) {
         return null;
       }
@@ -35,9 +29,7 @@ public class JsonExtract extends ScalarFunction {
       return null;
     }
     try {
-      ReadContext ctx = JsonPath.parse(input.getJson().toString());
-      JsonPath parse = JsonPath.compile(pathSpec);
-      return ctx.read(parse, String.class);
+      return JsonPaths.parse(input).read(JsonPaths.compile(pathSpec), String.class);
     } catch (Exception e) {
       return defaultValue;
     }
@@ -48,9 +40,7 @@ public class JsonExtract extends ScalarFunction {
       return null;
     }
     try {
-      ReadContext ctx = JsonPath.parse(input.getJson().toString());
-      JsonPath parse = JsonPath.compile(pathSpec);
-      return ctx.read(parse, Boolean.class);
+      return JsonPaths.parse(input).read(JsonPaths.compile(pathSpec), Boolean.class);
     } catch (Exception e) {
       return defaultValue;
     }
@@ -61,9 +51,7 @@ public class JsonExtract extends ScalarFunction {
       return null;
     }
     try {
-      ReadContext ctx = JsonPath.parse(input.getJson().toString());
-      JsonPath parse = JsonPath.compile(pathSpec);
-      return ctx.read(parse, Double.class);
+      return JsonPaths.parse(input).read(JsonPaths.compile(pathSpec), Double.class);
     } catch (Exception e) {
       return defaultValue;
     }
@@ -74,9 +62,7 @@ public class JsonExtract extends ScalarFunction {
       return null;
     }
     try {
-      ReadContext ctx = JsonPath.parse(input.getJson().toString());
-      JsonPath parse = JsonPath.compile(pathSpec);
-      return ctx.read(parse, Integer.class);
+      return JsonPaths.parse(input).read(JsonPaths.compile(pathSpec), Integer.class);
     } catch (Exception e) {
       return defaultValue;
     }
@@ -0,0 +1,201 @@
+package com.datasqrl.json;
+
+import com.jayway.jsonpath.InvalidJsonException;
+import com.jayway.jsonpath.JsonPathException;
+import com.jayway.jsonpath.spi.json.AbstractJsonProvider;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.JsonNode;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Evaluates json paths directly on the (Flink shaded) jackson tree of a {@link FlinkJsonType}
+ * instead of serializing and re-parsing it. Mirrors json-path's JacksonJsonNodeJsonProvider which
+ * only works with unshaded jackson nodes.
+ */
+public class JsonNodeJsonProvider extends AbstractJsonProvider {
+
+  private final ObjectMapper mapper;
+
+  public JsonNodeJsonProvider(ObjectMapper mapper) {
+    this.mapper = mapper;
+  }
+
+  @Override
+  public Object parse(String json) throws InvalidJsonException {
+    try {
+      return mapper.readTree(json);
+    } catch (IOException e) {
+      throw new InvalidJsonException(e, json);
+    }
+  }
+
+  @Override
+  public Object parse(InputStream jsonStream, String charset) throws InvalidJsonException {
+    try {
+      return mapper.readTree(new InputStreamReader(jsonStream, charset));
+    } catch (IOException e) {
+      throw new InvalidJsonException(e);
+    }
+  }
+
+  @Override
+  public String toJson(Object obj) {
+    if (!(obj instanceof JsonNode)) {
+      throw new JsonPathException("Not a JSON Node");
+    }
+    return obj.toString();
+  }
+
+  @Override
+  public Object createArray() {
+    return JsonNodeFactory.instance.arrayNode();
+  }
+
+  @Override
+  public Object createMap() {
+    return JsonNodeFactory.instance.objectNode();
+  }
+
+  @Override
+  public Object unwrap(Object o) {
+    if (!(o instanceof JsonNode)) {
+      return o;
+    }
+    JsonNode node = (JsonNode) o;
+    if (node.isValueNode()) {
+      if (node.isTextual()) {
+        return node.textValue();
+      } else if (node.isBoolean()) {
+        return node.booleanValue();
+      } else if (node.isInt()) {
+        return node.intValue();
+      } else if (node.isLong()) {
+        return node.longValue();
+      } else if (node.isBigInteger()) {
+        return node.bigIntegerValue();
+      } else if (node.isDouble() || node.isFloat()) {
+        return node.doubleValue();
+      } else if (node.isBigDecimal()) {
+        return node.decimalValue();
+      } else if (node.isNull()) {
+        return null;
+      }
+    }
+    return node;
+  }
+
+  @Override
+  public boolean isArray(Object obj) {
+    return obj instanceof ArrayNode || obj instanceof List;
+  }
+
+  @Override
+  public Object getArrayIndex(Object obj, int idx) {
+    return unwrap(toJsonArray(obj).get(idx));
+  }
+
+  @Override
+  public void setArrayIndex(Object array, int index, Object newValue) {
+    ArrayNode arrayNode = toJsonArray(array);
+    if (index == arrayNode.size()) {
+      arrayNode.add(createJsonElement(newValue));
+    } else {
+      arrayNode.set(index, createJsonElement(newValue));
+    }
+  }
+
+  @Override
+  public Object getMapValue(Object obj, String key) {
+    ObjectNode jsonObject = toJsonObject(obj);
+    if (!jsonObject.has(key)) {
+      return UNDEFINED;
+    }
+    return unwrap(jsonObject.get(key));
+  }
+
+  @Override
+  public void setProperty(Object obj, Object key, Object value) {
+    if (isMap(obj)) {
+      toJsonObject(obj).set(key.toString(), createJsonElement(value));
+    } else {
+      ArrayNode array = toJsonArray(obj);
+      int index = key != null ? (key instanceof Integer ? (Integer) key
+          : Integer.parseInt(key.toString())) : array.size();
+      if (index == array.size()) {
+        array.add(createJsonElement(value));
+      } else {
+        array.set(index, createJsonElement(value));
+      }
+    }
+  }
+
+  @Override
+  public void removeProperty(Object obj, Object key) {
+    if (isMap(obj)) {
+      toJsonObject(obj).remove(key.toString());
+    } else {
+      ArrayNode array = toJsonArray(obj);
+      int index = key instanceof Integer ? (Integer) key : Integer.parseInt(key.toString());
+      array.remove(index);
+    }
+  }
+
+  @Override
+  public boolean isMap(Object obj) {
+    return obj instanceof ObjectNode;
+  }
+
+  @Override
+  public Collection<String> getPropertyKeys(Object obj) {
+    List<String> keys = new ArrayList<>();
+    Iterator<String> fields = toJsonObject(obj).fieldNames();
+    while (fields.hasNext()) {
+      keys.add(fields.next());
+    }
+    return keys;
+  }
+
+  @Override
+  public int length(Object obj) {
+    if (isArray(obj)) {
+      return toJsonArray(obj).size();
+    } else if (isMap(obj)) {
+      return toJsonObject(obj).size();
+    } else if (obj instanceof JsonNode && ((JsonNode) obj).isTextual()) {
+      return ((JsonNode) obj).textValue().length();
+    }
+    throw new JsonPathException("length operation can not applied to "
+        + (obj != null ? obj.getClass().getName() : "null"));
+  }
+
+  @Override
+  public Iterable<?> toIterable(Object obj) {
+    ArrayNode arr = toJsonArray(obj);
+    List<Object> values = new ArrayList<>(arr.size());
+    for (JsonNode element : arr) {
+      values.add(unwrap(element));
+    }
+    return values;
+  }
+
+  private JsonNode createJsonElement(Object o) {
+    return o instanceof JsonNode ? (JsonNode) o : mapper.valueToTree(o);
+  }
+
+  private ArrayNode toJsonArray(Object o) {
+    return (ArrayNode) o;
+  }
+
+  private ObjectNode toJsonObject(Object o) {
+    return (ObjectNode) o;
+  }
+}
@@ -0,0 +1,45 @@
+package com.datasqrl.json;
+
+import com.jayway.jsonpath.Configuration;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ReadContext;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compiles json paths once and evaluates them on the json tree of a {@link FlinkJsonType}.
+ * Compiled paths are kept in a bounded LRU cache since path arguments are almost always literals.
+ */
+class JsonPaths {
+
+  static final int MAX_CACHED_PATHS = 1024;
+
+  static final ObjectMapper MAPPER = new ObjectMapper();
+
+  static final Configuration CONFIGURATION = Configuration.builder()
+      .jsonProvider(new JsonNodeJsonProvider(MAPPER))
+      .build();
+
+  private static final Map<String, JsonPath> CACHE = Collections.synchronizedMap(
+      new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, JsonPath> eldest) {
+          return size() > MAX_CACHED_PATHS;
+        }
+      });
+
+  static JsonPath compile(String pathSpec) {
+    JsonPath path = CACHE.get(pathSpec);
+    if (path == null) {
+      path = JsonPath.compile(pathSpec);
+      CACHE.put(pathSpec, path);
+    }
+    return path;
+  }
+
+  static ReadContext parse(FlinkJsonType input) {
+    return JsonPath.using(CONFIGURATION).parse(input.getJson());
+  }
+}
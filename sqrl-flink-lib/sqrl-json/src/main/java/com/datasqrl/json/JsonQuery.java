@@ -1,9 +1,5 @@
 package com.datasqrl.json;
 
-import com.jayway.jsonpath.JsonPath;
-import com.jayway.jsonpath.ReadContext;
-import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.JsonNode;
-import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.flink.table.functions.ScalarFunction;
 
 /**
@@ -16,11 +12,8 @@ public class JsonQuery extends ScalarFunction {
       return null;
     }
     try {
-      ObjectMapper mapper = new ObjectMapper();
-      JsonNode jsonNode = input.getJson();
-      ReadContext ctx = JsonPath.parse(jsonNode.toString());
-      Object result = ctx.read(pathSpec);
-      return mapper.writeValueAsString(result); // Convert the result back to JSON string
+      Object result = JsonPaths.parse(input).read(JsonPaths.compile(pathSpec));
+      return JsonPaths.MAPPER.writeValueAsString(result); // Convert the result back to JSON string
     } catch (Exception e) {
       return null;
     }
@@ -0,0 +1,52 @@
+package com.datasqrl.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.jayway.jsonpath.JsonPath;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+class JsonPathsTest {
+
+  ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void testCompiledPathsAreCached() {
+    assertSame(JsonPaths.compile("$.a.b"), JsonPaths.compile("$.a.b"));
+  }
+
+  @Test
+  public void testEvaluatesOnTree() throws Exception {
+    FlinkJsonType json = new FlinkJsonType(mapper.readTree(
+        "{\"a\": {\"b\": [1, 2.5, \"x\", true, null]}, \"c\": 12345678901}"));
+    assertEquals("1", JsonFunctions.JSON_EXTRACT.eval(json, "$.a.b[0]"));
+    assertEquals(2.5, JsonFunctions.JSON_EXTRACT.eval(json, "$.a.b[1]", 0.0));
+    assertEquals(1.0, JsonFunctions.JSON_EXTRACT.eval(json, "$.a.b[0]", 0.0));
+    assertEquals("x", JsonFunctions.JSON_EXTRACT.eval(json, "$.a.b[2]", "default"));
+    assertEquals(true, JsonFunctions.JSON_EXTRACT.eval(json, "$.a.b[3]", false));
+    assertEquals("12345678901", JsonFunctions.JSON_EXTRACT.eval(json, "$.c"));
+    assertEquals("default", JsonFunctions.JSON_EXTRACT.eval(json, "$.missing", "default"));
+    assertEquals("[1,2.5,\"x\",true,null]", JsonFunctions.JSON_QUERY.eval(json, "$.a.b"));
+    assertEquals("[1,2.5,\"x\",true,null]", JsonFunctions.JSON_QUERY.eval(json, "$..b[*]"));
+  }
+
+  @Test
+  public void testMatchesTextParsing() throws Exception {
+    ObjectNode order = mapper.createObjectNode();
+    order.put("id", 123);
+    ArrayNode items = order.putArray("items");
+    for (int i = 0; i < 20; i++) {
+      items.addObject().put("sku", "sku-" + i).put("quantity", i).put("price", i * 1.5);
+    }
+    FlinkJsonType json = new FlinkJsonType(order);
+    for (String path : new String[]{"$.items[10].price", "$.items[3].quantity", "$.id"}) {
+      assertEquals(JsonPath.parse(order.toString()).read(JsonPath.compile(path), Double.class),
+          JsonFunctions.JSON_EXTRACT.eval(json, path, 0.0));
+    }
+    assertEquals(JsonPath.parse(order.toString()).read("$.items[10].sku", String.class),
+        JsonFunctions.JSON_EXTRACT.eval(json, "$.items[10].sku"));
+  }
+}
@@ -1,16 +1,68 @@
 package com.datasqrl.json;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
-import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
 import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputDeserializer;
 import org.apache.flink.core.memory.DataInputView;
+import org.apache.flink.core.memory.DataOutputSerializer;
 import org.apache.flink.core.memory.DataOutputView;
 import java.io.IOException;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.JsonNode;
 import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.flink.types.StringValue;
 
+/**
+ * Serializes the json tree of a {@link FlinkJsonType} in a compact binary encoding: each node is
+ * written as a type tag followed by its value, so no json text needs to be generated or parsed.
+ * Integers and lengths are variable-length encoded and repeated field names within a record (e.g.
+ * the objects of an aggregated array) are written as references to their first occurrence.
+ * <p>
+ * Serializers created by {@link FlinkJsonTypeSerializerSnapshot} for state written by earlier
+ * versions use the legacy format, which stores the json text.
+ */
 public class FlinkJsonTypeSerializer extends TypeSerializer<FlinkJsonType> {
 
+    private static final byte NULL = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final byte INT = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte FLOAT = 6;
+    private static final byte BIG_INTEGER = 7;
+    private static final byte DECIMAL = 8;
+    private static final byte STRING = 9;
+    private static final byte BINARY = 10;
+    private static final byte ARRAY = 11;
+    private static final byte OBJECT = 12;
+
+    private static final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+
     ObjectMapper mapper = new ObjectMapper();
+    //Whether records are stored as json text, the format before the binary encoding
+    final boolean legacyTextFormat;
+
+    private transient DataOutputSerializer buffer;
+    private transient Map<String, Integer> writtenKeys;
+
+    public FlinkJsonTypeSerializer() {
+        this(false);
+    }
+
+    FlinkJsonTypeSerializer(boolean legacyTextFormat) {
+        this.legacyTextFormat = legacyTextFormat;
+    }
+
     @Override
     public boolean isImmutableType() {
         return true;
@@ -38,9 +90,24 @@ public class FlinkJsonTypeSerializer extends TypeSerializer<FlinkJsonType> {
 
     @Override
     public void serialize(FlinkJsonType record, DataOutputView target) throws IOException {
-        byte[] jsonData = mapper.writeValueAsBytes(record.getJson());
-        target.writeInt(jsonData.length);
-        target.write(jsonData);
+        if (legacyTextFormat) {
+            byte[] jsonData = mapper.writeValueAsBytes(record.getJson());
+            target.writeInt(jsonData.length);
+            target.write(jsonData);
+            return;
+        }
+        //Length prefixed so that records can be copied without decoding them
+        if (buffer == null) {
+            buffer = new DataOutputSerializer(128);
+        }
+        buffer.clear();
+        if (writtenKeys == null) {
+            writtenKeys = new HashMap<>();
+        }
+        writtenKeys.clear();
+        writeNode(record.getJson(), buffer, writtenKeys);
+        target.writeInt(buffer.length());
+        target.write(buffer.getSharedBuffer(), 0, buffer.length());
     }
 
     @Override
@@ -48,7 +115,10 @@ public class FlinkJsonTypeSerializer extends TypeSerializer<FlinkJsonType> {
         int length = source.readInt();
         byte[] jsonData = new byte[length];
         source.readFully(jsonData);
-        return new FlinkJsonType(mapper.readTree(jsonData));
+        if (legacyTextFormat) {
+            return new FlinkJsonType(mapper.readTree(jsonData));
+        }
+        return new FlinkJsonType(readNode(new DataInputDeserializer(jsonData), new ArrayList<>()));
     }
 
     @Override
@@ -65,24 +135,180 @@ public class FlinkJsonTypeSerializer extends TypeSerializer<FlinkJsonType> {
         target.write(jsonData);
     }
 
+    private static void writeNode(JsonNode node, DataOutputView out, Map<String, Integer> keys)
+        throws IOException {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            out.writeByte(NULL);
+        } else if (node.isBoolean()) {
+            out.writeByte(node.booleanValue() ? TRUE : FALSE);
+        } else if (node.isInt() || node.isShort()) {
+            out.writeByte(INT);
+            writeVarLong(zigZag(node.intValue()), out);
+        } else if (node.isLong()) {
+            out.writeByte(LONG);
+            writeVarLong(zigZag(node.longValue()), out);
+        } else if (node.isDouble()) {
+            out.writeByte(DOUBLE);
+            out.writeDouble(node.doubleValue());
+        } else if (node.isFloat()) {
+            out.writeByte(FLOAT);
+            out.writeFloat(node.floatValue());
+        } else if (node.isBigInteger()) {
+            out.writeByte(BIG_INTEGER);
+            writeBytes(node.bigIntegerValue().toByteArray(), out);
+        } else if (node.isBigDecimal()) {
+            BigDecimal decimal = node.decimalValue();
+            out.writeByte(DECIMAL);
+            writeVarLong(zigZag(decimal.scale()), out);
+            writeBytes(decimal.unscaledValue().toByteArray(), out);
+        } else if (node.isTextual()) {
+            out.writeByte(STRING);
+            StringValue.writeString(node.textValue(), out);
+        } else if (node.isBinary()) {
+            out.writeByte(BINARY);
+            writeBytes(node.binaryValue(), out);
+        } else if (node.isArray()) {
+            out.writeByte(ARRAY);
+            writeVarLong(node.size(), out);
+            for (JsonNode element : node) {
+                writeNode(element, out, keys);
+            }
+        } else if (node.isObject()) {
+            out.writeByte(OBJECT);
+            writeVarLong(node.size(), out);
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                //0 precedes a new key, otherwise the position of the key + 1
+                Integer keyRef = keys.get(field.getKey());
+                if (keyRef == null) {
+                    keys.put(field.getKey(), keys.size());
+                    writeVarLong(0, out);
+                    StringValue.writeString(field.getKey(), out);
+                } else {
+                    writeVarLong(keyRef + 1, out);
+                }
+                writeNode(field.getValue(), out, keys);
+            }
+        } else {
+            //POJO nodes are stored by their json text
+            out.writeByte(STRING);
+            StringValue.writeString(node.toString(), out);
+        }
+    }
+
+    private static JsonNode readNode(DataInputView in, List<String> keys) throws IOException {
+        byte tag = in.readByte();
+        switch (tag) {
+            case NULL:
+                return nodeFactory.nullNode();
+            case TRUE:
+                return nodeFactory.booleanNode(true);
+            case FALSE:
+                return nodeFactory.booleanNode(false);
+            case INT:
+                return nodeFactory.numberNode((int) unZigZag(readVarLong(in)));
+            case LONG:
+                return nodeFactory.numberNode(unZigZag(readVarLong(in)));
+            case DOUBLE:
+                return nodeFactory.numberNode(in.readDouble());
+            case FLOAT:
+                return nodeFactory.numberNode(in.readFloat());
+            case BIG_INTEGER:
+                return nodeFactory.numberNode(new BigInteger(readBytes(in)));
+            case DECIMAL:
+                int scale = (int) unZigZag(readVarLong(in));
+                return nodeFactory.numberNode(new BigDecimal(new BigInteger(readBytes(in)), scale));
+            case STRING:
+                return nodeFactory.textNode(StringValue.readString(in));
+            case BINARY:
+                return nodeFactory.binaryNode(readBytes(in));
+            case ARRAY:
+                int size = (int) readVarLong(in);
+                ArrayNode array = nodeFactory.arrayNode(size);
+                for (int i = 0; i < size; i++) {
+                    array.add(readNode(in, keys));
+                }
+                return array;
+            case OBJECT:
+                int fields = (int) readVarLong(in);
+                ObjectNode object = nodeFactory.objectNode();
+                for (int i = 0; i < fields; i++) {
+                    int keyRef = (int) readVarLong(in);
+                    String key;
+                    if (keyRef == 0) {
+                        key = StringValue.readString(in);
+                        keys.add(key);
+                    } else {
+                        key = keys.get(keyRef - 1);
+                    }
+                    object.set(key, readNode(in, keys));
+                }
+                return object;
+            default:
+                throw new IOException("Unknown json node tag: " + tag);
+        }
+    }
+
+    private static void writeBytes(byte[] bytes, DataOutputView out) throws IOException {
+        writeVarLong(bytes.length, out);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(DataInputView in) throws IOException {
+        byte[] bytes = new byte[(int) readVarLong(in)];
+        in.readFully(bytes);
+        return bytes;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(long value, DataOutputView out) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(DataInputView in) throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
     @Override
     public TypeSerializer<FlinkJsonType> duplicate() {
-        return this;
+        //The serialization buffer is not thread-safe
+        return new FlinkJsonTypeSerializer(legacyTextFormat);
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj instanceof FlinkJsonTypeSerializer;
+        return obj instanceof FlinkJsonTypeSerializer
+            && ((FlinkJsonTypeSerializer) obj).legacyTextFormat == legacyTextFormat;
     }
 
     @Override
     public int hashCode() {
-        return FlinkJsonTypeSerializer.class.hashCode();
+        return FlinkJsonTypeSerializer.class.hashCode() + (legacyTextFormat ? 1 : 0);
     }
 
     @Override
     public TypeSerializerSnapshot<FlinkJsonType> snapshotConfiguration() {
-        return new FlinkJsonTypeSerializerSnapshot();
+        return new FlinkJsonTypeSerializerSnapshot(legacyTextFormat);
     }
 
 }
@@ -7,22 +7,34 @@ import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
 import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 
+/**
+ * Version 1 snapshots were written by the serializer that stores json text. Version 2 snapshots
+ * additionally record whether the serializer uses the text or the binary format, and state in the
+ * text format is migrated to the binary format on restore.
+ */
 public class FlinkJsonTypeSerializerSnapshot implements TypeSerializerSnapshot<FlinkJsonType> {
 
   private Class<FlinkJsonTypeSerializer> serializerClass;
+  private boolean legacyTextFormat;
 
   public FlinkJsonTypeSerializerSnapshot() {
+    this(false);
+  }
+
+  FlinkJsonTypeSerializerSnapshot(boolean legacyTextFormat) {
     this.serializerClass = FlinkJsonTypeSerializer.class;
+    this.legacyTextFormat = legacyTextFormat;
   }
 
   @Override
   public int getCurrentVersion() {
-    return 1;
+    return 2;
   }
 
   @Override
   public void writeSnapshot(DataOutputView out) throws IOException {
     out.writeUTF(FlinkJsonTypeSerializer.class.getName());
+    out.writeBoolean(legacyTextFormat);
   }
 
   @Override
@@ -35,25 +47,23 @@ public class FlinkJsonTypeSerializerSnapshot implements TypeSerializerSnapshot<F
     } catch (ClassNotFoundException e) {
       throw new IOException("Failed to find serializer class: " + className, e);
     }
+    this.legacyTextFormat = readVersion < 2 || in.readBoolean();
   }
 
   @Override
   public TypeSerializer restoreSerializer() {
-    try {
-      return serializerClass.newInstance();
-    } catch (InstantiationException | IllegalAccessException e) {
-      throw new RuntimeException(
-          "Failed to instantiate serializer class: " + serializerClass.getName(), e);
-    }
+    return new FlinkJsonTypeSerializer(legacyTextFormat);
   }
 
   @Override
   public TypeSerializerSchemaCompatibility resolveSchemaCompatibility(
       TypeSerializer newSerializer) {
-    if (newSerializer.getClass() == this.serializerClass) {
-      return TypeSerializerSchemaCompatibility.compatibleAsIs();
-    } else {
+    if (newSerializer.getClass() != this.serializerClass) {
       return TypeSerializerSchemaCompatibility.incompatible();
+    } else if (((FlinkJsonTypeSerializer) newSerializer).legacyTextFormat != legacyTextFormat) {
+      return TypeSerializerSchemaCompatibility.compatibleAfterMigration();
+    } else {
+      return TypeSerializerSchemaCompatibility.compatibleAsIs();
     }
   }
-}
\ No newline at end of file
+}
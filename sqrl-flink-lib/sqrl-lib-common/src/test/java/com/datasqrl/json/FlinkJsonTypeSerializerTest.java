@@ -0,0 +1,94 @@
+package com.datasqrl.json;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Base64;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.TypeSerializerSchemaCompatibility;
+import org.apache.flink.api.common.typeutils.TypeSerializerSnapshot;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.JsonNode;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.ArrayNode;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+class FlinkJsonTypeSerializerTest {
+
+  //Snapshot of the text serializer as embedded in compiled plans of earlier versions
+  static final String V1_SNAPSHOT = "ADFjb20uZGF0YXNxcmwuanNvbi5GbGlua0pzb25UeXBlU2VyaWFsaXplclNuYXBzaG90AAAAAQApY29tLmRhdGFzcXJsLmpzb24uRmxpbmtKc29uVHlwZVNlcmlhbGl6ZXI=";
+
+  ObjectMapper mapper = new ObjectMapper();
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    JsonNode json = mapper.readTree("{\"a\": 1, \"b\": 12345678901, \"c\": 1.5, \"d\": \"text\","
+        + " \"e\": [true, false, null, {\"f\": 123456789012345678901234567890}],"
+        + " \"g\": {}, \"h\": []}");
+    assertEquals(json, roundTrip(new FlinkJsonTypeSerializer(), json));
+    assertEquals(mapper.nullNode(), roundTrip(new FlinkJsonTypeSerializer(), null));
+  }
+
+  @Test
+  public void testMigrateFromTextFormat() throws Exception {
+    TypeSerializerSnapshot<FlinkJsonType> snapshot = TypeSerializerSnapshot.readVersionedSnapshot(
+        new DataInputDeserializer(Base64.getDecoder().decode(V1_SNAPSHOT)),
+        getClass().getClassLoader());
+    TypeSerializer<FlinkJsonType> restored = snapshot.restoreSerializer();
+
+    //State written in the text format is still readable
+    JsonNode json = mapper.readTree("{\"a\": [1, 2, 3]}");
+    DataOutputSerializer out = new DataOutputSerializer(64);
+    byte[] text = mapper.writeValueAsBytes(json);
+    out.writeInt(text.length);
+    out.write(text);
+    assertEquals(json, restored.deserialize(new DataInputDeserializer(out.getCopyOfBuffer()))
+        .getJson());
+
+    TypeSerializerSchemaCompatibility<FlinkJsonType> compatibility =
+        snapshot.resolveSchemaCompatibility(new FlinkJsonTypeSerializer());
+    assertTrue(compatibility.isCompatibleAfterMigration());
+
+    //Snapshots of the current format resolve as is
+    DataOutputSerializer snapshotOut = new DataOutputSerializer(64);
+    TypeSerializerSnapshot.writeVersionedSnapshot(snapshotOut,
+        new FlinkJsonTypeSerializer().snapshotConfiguration());
+    TypeSerializerSnapshot<FlinkJsonType> current = TypeSerializerSnapshot.readVersionedSnapshot(
+        new DataInputDeserializer(snapshotOut.getCopyOfBuffer()), getClass().getClassLoader());
+    assertTrue(current.resolveSchemaCompatibility(new FlinkJsonTypeSerializer()).isCompatibleAsIs());
+  }
+
+  @Test
+  public void testBinaryFormatIsSmaller() throws Exception {
+    //An aggregated json array as produced by JsonArrayAgg
+    ArrayNode array = mapper.createArrayNode();
+    for (int i = 0; i < 100; i++) {
+      ObjectNode element = array.addObject();
+      element.put("id", 1_000_000L + i);
+      element.put("amount", i * 1.25);
+      element.put("quantity", i);
+      element.put("sku", "sku-" + i);
+    }
+    FlinkJsonTypeSerializer binary = new FlinkJsonTypeSerializer();
+    FlinkJsonTypeSerializer text = new FlinkJsonTypeSerializer(true);
+
+    byte[] binaryBytes = serialize(binary, array);
+    byte[] textBytes = serialize(text, array);
+    assertTrue(binaryBytes.length < textBytes.length,
+        binaryBytes.length + " >= " + textBytes.length);
+    assertEquals(array, binary.deserialize(new DataInputDeserializer(binaryBytes)).getJson());
+  }
+
+  private JsonNode roundTrip(FlinkJsonTypeSerializer serializer, JsonNode json) throws Exception {
+    return serializer.deserialize(new DataInputDeserializer(serialize(serializer, json)))
+        .getJson();
+  }
+
+  private byte[] serialize(FlinkJsonTypeSerializer serializer, JsonNode json) throws Exception {
+    DataOutputSerializer out = new DataOutputSerializer(64);
+    serializer.serialize(new FlinkJsonType(json), out);
+    return out.getCopyOfBuffer();
+  }
+}
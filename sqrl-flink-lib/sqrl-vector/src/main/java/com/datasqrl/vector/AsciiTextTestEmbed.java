@@ -10,11 +10,11 @@ public class AsciiTextTestEmbed extends ScalarFunction {
   private static final int VECTOR_LENGTH = 256;
 
   public FlinkVectorType eval(String text) {
-    double[] vector = new double[256];
+    float[] vector = new float[VECTOR_LENGTH];
     for (char c : text.toCharArray()) {
       vector[c % VECTOR_LENGTH] += 1;
     }
-    return new FlinkVectorType(vector);
+    return FlinkVectorType.ofFloats(vector);
   }
 
 }
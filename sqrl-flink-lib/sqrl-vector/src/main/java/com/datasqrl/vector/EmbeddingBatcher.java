@@ -0,0 +1,88 @@
+package com.datasqrl.vector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Collects texts that are submitted for embedding and runs them through the model in batches.
+ * Texts that arrive while a batch is being computed are combined into the next batch, so the
+ * batch size adapts to the arrival rate without delaying texts that arrive while the model is idle.
+ */
+public class EmbeddingBatcher {
+
+  @FunctionalInterface
+  public interface BatchEmbedder {
+
+    float[][] embed(List<String> texts) throws Exception;
+  }
+
+  private final BatchEmbedder embedder;
+  private final Executor executor;
+  private final int maxBatchSize;
+
+  private final Queue<Request> pending = new ArrayDeque<>();
+  private boolean draining = false;
+
+  public EmbeddingBatcher(BatchEmbedder embedder, Executor executor, int maxBatchSize) {
+    this.embedder = embedder;
+    this.executor = executor;
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  public CompletableFuture<float[]> embed(String text) {
+    CompletableFuture<float[]> result = new CompletableFuture<>();
+    synchronized (this) {
+      pending.add(new Request(text, result));
+      if (draining) {
+        return result;
+      }
+      draining = true;
+    }
+    executor.execute(this::drain);
+    return result;
+  }
+
+  private void drain() {
+    while (true) {
+      List<Request> batch = new ArrayList<>();
+      synchronized (this) {
+        while (!pending.isEmpty() && batch.size() < maxBatchSize) {
+          batch.add(pending.poll());
+        }
+        if (batch.isEmpty()) {
+          draining = false;
+          return;
+        }
+      }
+      List<String> texts = new ArrayList<>(batch.size());
+      for (Request request : batch) {
+        texts.add(request.text);
+      }
+      try {
+        float[][] embeddings = embedder.embed(texts);
+        for (int i = 0; i < batch.size(); i++) {
+          batch.get(i).result.complete(embeddings[i]);
+        }
+      } catch (Throwable e) {
+        for (Request request : batch) {
+          request.result.completeExceptionally(e);
+        }
+      }
+    }
+  }
+
+  private static class Request {
+
+    final String text;
+    final CompletableFuture<float[]> result;
+
+    Request(String text, CompletableFuture<float[]> result) {
+      this.text = text;
+      this.result = result;
+    }
+  }
+}
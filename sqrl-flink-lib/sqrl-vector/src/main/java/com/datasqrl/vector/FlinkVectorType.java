@@ -2,15 +2,52 @@ package com.datasqrl.vector;
 
 import org.apache.flink.table.annotation.DataTypeHint;
 
+/**
+ * A vector of double or, for vectors that originate from single precision data such as model
+ * embeddings, float values. Float vectors take half the space in state and on the network and are
+ * only widened to doubles when {@link #getValue()} is called.
+ */
 @DataTypeHint(value = "RAW", bridgedTo = FlinkVectorType.class, rawSerializer = FlinkVectorTypeSerializer.class)
 public class FlinkVectorType {
   public double[] value;
+  private final float[] floatValue;
 
   public FlinkVectorType(double[] value) {
     this.value = value;
+    this.floatValue = null;
+  }
+
+  private FlinkVectorType(float[] floatValue) {
+    this.floatValue = floatValue;
+  }
+
+  public static FlinkVectorType ofFloats(float[] values) {
+    return new FlinkVectorType(values);
   }
 
   public double[] getValue() {
+    if (value == null && floatValue != null) {
+      double[] widened = new double[floatValue.length];
+      for (int i = 0; i < widened.length; i++) {
+        widened[i] = floatValue[i];
+      }
+      value = widened;
+    }
     return value;
   }
+
+  /**
+   * @return the float values if this is a single precision vector, else null
+   */
+  public float[] getFloatValue() {
+    return floatValue;
+  }
+
+  public boolean isSinglePrecision() {
+    return floatValue != null;
+  }
+
+  public int getDimension() {
+    return floatValue != null ? floatValue.length : value.length;
+  }
 }
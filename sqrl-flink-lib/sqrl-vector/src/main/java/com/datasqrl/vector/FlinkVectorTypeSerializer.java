@@ -6,6 +6,11 @@ import org.apache.flink.core.memory.DataInputView;
 import org.apache.flink.core.memory.DataOutputView;
 import java.io.IOException;
 
+/**
+ * Writes the dimension of a vector followed by its values. Single precision vectors are written as
+ * floats and marked by a negative dimension, so that state written before single precision vectors
+ * existed is read as double vectors.
+ */
 public class FlinkVectorTypeSerializer extends TypeSerializer<FlinkVectorType> {
 
   @Override
@@ -15,12 +20,12 @@ public class FlinkVectorTypeSerializer extends TypeSerializer<FlinkVectorType> {
 
   @Override
   public FlinkVectorType createInstance() {
-    return new FlinkVectorType(null);
+    return new FlinkVectorType((double[]) null);
   }
 
   @Override
   public FlinkVectorType copy(FlinkVectorType from) {
-    return new FlinkVectorType(from.getValue());
+    return from;
   }
 
   @Override
@@ -35,15 +40,31 @@ public class FlinkVectorTypeSerializer extends TypeSerializer<FlinkVectorType> {
 
   @Override
   public void serialize(FlinkVectorType record, DataOutputView target) throws IOException {
-    target.writeInt(record.getValue().length); // First write the length of the array
-    for (double v : record.getValue()) {
-      target.writeDouble(v); // Write each double value
+    if (record.isSinglePrecision()) {
+      float[] values = record.getFloatValue();
+      target.writeInt(-values.length - 1);
+      for (float v : values) {
+        target.writeFloat(v);
+      }
+    } else {
+      double[] values = record.getValue();
+      target.writeInt(values.length);
+      for (double v : values) {
+        target.writeDouble(v);
+      }
     }
   }
 
   @Override
   public FlinkVectorType deserialize(DataInputView source) throws IOException {
     int length = source.readInt();
+    if (length < 0) {
+      float[] array = new float[-length - 1];
+      for (int i = 0; i < array.length; i++) {
+        array[i] = source.readFloat();
+      }
+      return FlinkVectorType.ofFloats(array);
+    }
     double[] array = new double[length];
     for (int i = 0; i < length; i++) {
       array[i] = source.readDouble();
@@ -59,7 +80,11 @@ public class FlinkVectorTypeSerializer extends TypeSerializer<FlinkVectorType> {
 
   @Override
   public void copy(DataInputView source, DataOutputView target) throws IOException {
-    target.writeUTF(source.readUTF());
+    int length = source.readInt();
+    byte[] values = new byte[length < 0 ? (-length - 1) * Float.BYTES : length * Double.BYTES];
+    source.readFully(values);
+    target.writeInt(length);
+    target.write(values);
   }
 
   @Override
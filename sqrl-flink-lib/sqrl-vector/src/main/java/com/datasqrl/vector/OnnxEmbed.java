@@ -2,13 +2,17 @@ package com.datasqrl.vector;
 
 import static com.datasqrl.vector.VectorFunctions.convert;
 
-import ai.onnxruntime.OnnxTensor;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import lombok.Value;
+import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.LoadingCache;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
 import org.apache.flink.table.annotation.DataTypeHint;
 import org.apache.flink.table.annotation.FunctionHint;
 import org.apache.flink.table.api.DataTypes;
@@ -25,16 +29,27 @@ import org.tribuo.interop.onnx.extractors.Tokenizer;
 public class OnnxEmbed extends ScalarFunction {
 
 
+  public static final int MAX_CACHED_EMBEDDINGS = 10_000;
+
   public LoadingCache<String, CachedModel> models = CacheBuilder.newBuilder().maximumSize(100)
       .build(new CacheLoaderImpl());
 
+  //Recently computed embeddings, since the same texts are often embedded repeatedly
+  public Cache<EmbeddingKey, float[]> embeddings = CacheBuilder.newBuilder()
+      .maximumSize(MAX_CACHED_EMBEDDINGS).build();
+
   public FlinkVectorType eval(String text, String modelPath) {
     if (text == null || modelPath == null) {
       return null;
     }
     try {
-      CachedModel model = models.get(modelPath);
-      return convert(model.embedd(text));
+      EmbeddingKey key = EmbeddingKey.of(modelPath, text);
+      float[] embedding = embeddings.getIfPresent(key);
+      if (embedding == null) {
+        embedding = models.get(modelPath).embedd(text);
+        embeddings.put(key, embedding);
+      }
+      return convert(embedding);
     } catch (ExecutionException e) {
       throw new RuntimeException(e.getCause());
     } catch (RuntimeException e) {
@@ -57,12 +72,36 @@ public class OnnxEmbed extends ScalarFunction {
     OnnxRunner runner;
     Tokenizer tokenizer;
 
-    public double[] embedd(String text) throws Exception {
-      List<String> tokens = tokenizer.tokenize(text);
-      OnnxTensor tokenIds = tokenizer.convertTokens(runner.env, tokens);
-      return runner.run(tokenIds, tokens);
+    public float[] embedd(String text) throws Exception {
+      return embed(List.of(text))[0];
     }
 
+    public float[][] embed(List<String> texts) throws Exception {
+      List<long[]> tokenIds = new ArrayList<>(texts.size());
+      for (String text : texts) {
+        tokenIds.add(tokenizer.toTokenIds(tokenizer.tokenize(text)));
+      }
+      return runner.embed(tokenIds);
+    }
+
+  }
+
+  /**
+   * Identifies a cached embedding by a digest of the model path and text, so the cache does not
+   * hold on to the texts themselves which can be arbitrarily long.
+   */
+  @Value
+  public static class EmbeddingKey {
+
+    HashCode digest;
+
+    public static EmbeddingKey of(String modelPath, String text) {
+      return new EmbeddingKey(Hashing.sha256().newHasher()
+          .putInt(modelPath.length())
+          .putString(modelPath, StandardCharsets.UTF_8)
+          .putString(text, StandardCharsets.UTF_8)
+          .hash());
+    }
   }
 
 }
\ No newline at end of file
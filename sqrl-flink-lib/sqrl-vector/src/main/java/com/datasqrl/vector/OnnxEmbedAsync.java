@@ -0,0 +1,89 @@
+package com.datasqrl.vector;
+
+import static com.datasqrl.vector.VectorFunctions.convert;
+
+import com.datasqrl.vector.OnnxEmbed.CachedModel;
+import com.datasqrl.vector.OnnxEmbed.EmbeddingKey;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.LoadingCache;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.catalog.DataTypeFactory;
+import org.apache.flink.table.functions.AsyncScalarFunction;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.table.types.inference.TypeInference;
+
+/**
+ * Asynchronous variant of {@link OnnxEmbed}: texts that are embedded concurrently are tokenized
+ * and run through the ONNX model as one padded batch, which is considerably faster on CPUs than
+ * embedding one text at a time.
+ */
+public class OnnxEmbedAsync extends AsyncScalarFunction {
+
+  public static final int MAX_BATCH_SIZE = 32;
+
+  public LoadingCache<String, CachedModel> models = CacheBuilder.newBuilder().maximumSize(100)
+      .build(new CacheLoaderImpl());
+
+  public Cache<EmbeddingKey, float[]> embeddings = CacheBuilder.newBuilder()
+      .maximumSize(OnnxEmbed.MAX_CACHED_EMBEDDINGS).build();
+
+  private transient ExecutorService executor;
+  private transient Map<String, EmbeddingBatcher> batchers;
+
+  @Override
+  public void open(FunctionContext context) throws Exception {
+    executor = Executors.newSingleThreadExecutor();
+    batchers = new ConcurrentHashMap<>();
+  }
+
+  public void eval(CompletableFuture<FlinkVectorType> result, String text, String modelPath) {
+    if (text == null || modelPath == null) {
+      result.complete(null);
+      return;
+    }
+    EmbeddingKey key = EmbeddingKey.of(modelPath, text);
+    float[] cached = embeddings.getIfPresent(key);
+    if (cached != null) {
+      result.complete(convert(cached));
+      return;
+    }
+    EmbeddingBatcher batcher;
+    try {
+      batcher = batchers.computeIfAbsent(modelPath, path ->
+          new EmbeddingBatcher(models.getUnchecked(path)::embed, executor, MAX_BATCH_SIZE));
+    } catch (RuntimeException e) {
+      result.completeExceptionally(e.getCause() != null ? e.getCause() : e);
+      return;
+    }
+    batcher.embed(text).whenComplete((embedding, error) -> {
+      if (error != null) {
+        result.completeExceptionally(error);
+      } else {
+        embeddings.put(key, embedding);
+        result.complete(convert(embedding));
+      }
+    });
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  @Override
+  public TypeInference getTypeInference(DataTypeFactory typeFactory) {
+    return TypeInference.newBuilder()
+        .typedArguments(DataTypes.STRING(), DataTypes.STRING())
+        .outputTypeStrategy(callContext -> Optional.of(DataTypes.of(FlinkVectorType.class).toDataType(typeFactory)))
+        .build();
+  }
+}
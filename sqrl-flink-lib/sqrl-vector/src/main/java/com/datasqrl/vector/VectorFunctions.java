@@ -17,6 +17,8 @@ public class VectorFunctions {
 
   public static final OnnxEmbed ONNX_EMBED = new OnnxEmbed();
 
+  public static final OnnxEmbedAsync ONNX_EMBED_ASYNC = new OnnxEmbedAsync();
+
   public static final AsciiTextTestEmbed ASCII_TEXT_TEST_EMBED = new AsciiTextTestEmbed();
 
   public static final Center CENTER = new Center();
@@ -28,6 +30,7 @@ public class VectorFunctions {
     VEC_TO_DOUBLE,
     DOUBLE_TO_VECTOR,
     ONNX_EMBED,
+    ONNX_EMBED_ASYNC,
     ASCII_TEXT_TEST_EMBED,
     CENTER
   );
@@ -37,4 +40,8 @@ public class VectorFunctions {
     return new FlinkVectorType(vector);
   }
 
+  public static FlinkVectorType convert(float[] vector) {
+    return FlinkVectorType.ofFloats(vector);
+  }
+
 }
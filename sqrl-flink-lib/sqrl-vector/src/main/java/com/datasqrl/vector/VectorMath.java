@@ -0,0 +1,60 @@
+package com.datasqrl.vector;
+
+/**
+ * Distance computations that loop over the vector values directly so that no intermediate vectors
+ * are allocated per call. Single precision vectors are read as floats and accumulated in double
+ * precision.
+ */
+class VectorMath {
+
+  static double cosineSimilarity(FlinkVectorType vectorA, FlinkVectorType vectorB) {
+    double dot = 0, normA = 0, normB = 0;
+    if (vectorA.isSinglePrecision() && vectorB.isSinglePrecision()) {
+      float[] a = vectorA.getFloatValue(), b = vectorB.getFloatValue();
+      checkDimension(a.length, b.length);
+      for (int i = 0; i < a.length; i++) {
+        double x = a[i], y = b[i];
+        dot += x * y;
+        normA += x * x;
+        normB += y * y;
+      }
+    } else {
+      double[] a = vectorA.getValue(), b = vectorB.getValue();
+      checkDimension(a.length, b.length);
+      for (int i = 0; i < a.length; i++) {
+        double x = a[i], y = b[i];
+        dot += x * y;
+        normA += x * x;
+        normB += y * y;
+      }
+    }
+    return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+  }
+
+  static double euclideanDistance(FlinkVectorType vectorA, FlinkVectorType vectorB) {
+    double sum = 0;
+    if (vectorA.isSinglePrecision() && vectorB.isSinglePrecision()) {
+      float[] a = vectorA.getFloatValue(), b = vectorB.getFloatValue();
+      checkDimension(a.length, b.length);
+      for (int i = 0; i < a.length; i++) {
+        double diff = (double) a[i] - b[i];
+        sum += diff * diff;
+      }
+    } else {
+      double[] a = vectorA.getValue(), b = vectorB.getValue();
+      checkDimension(a.length, b.length);
+      for (int i = 0; i < a.length; i++) {
+        double diff = a[i] - b[i];
+        sum += diff * diff;
+      }
+    }
+    return Math.sqrt(sum);
+  }
+
+  private static void checkDimension(int dimensionA, int dimensionB) {
+    if (dimensionA != dimensionB) {
+      throw new IllegalArgumentException(
+          String.format("Vector dimensions do not match: %d != %d", dimensionA, dimensionB));
+    }
+  }
+}
@@ -6,9 +6,11 @@ import ai.onnxruntime.OrtEnvironment;
 import ai.onnxruntime.OrtException;
 import ai.onnxruntime.OrtSession;
 import ai.onnxruntime.TensorInfo;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.FloatBuffer;
+import java.nio.LongBuffer;
 import java.nio.file.Path;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +23,11 @@ public class OnnxRunner {
   public final int dimension;
   public final int inputSize;
 
+  //Reused input buffers, grown to the largest batch seen
+  private LongBuffer inputIds = allocate(512);
+  private LongBuffer attentionMask = allocate(512);
+  private LongBuffer tokenTypes = allocate(512);
+
   public OnnxRunner(Path modelPath) throws Exception {
     env = OrtEnvironment.getEnvironment();
     OrtSession.SessionOptions options = new OrtSession.SessionOptions();
@@ -34,74 +41,78 @@ public class OnnxRunner {
     this.dimension = (int)shape[2];
   }
 
-  public OnnxTensor createTensor(int size, long value) throws OrtException {
-    long[] array = new long[size];
-    Arrays.fill(array, value);
-    return OnnxTensor.createTensor(this.env, new long[][]{array});
-  }
-
-  public double[] run(OnnxTensor tokenIds, List<String> tokens) throws Exception {
-    OnnxTensor mask = this.createTensor(tokens.size() + 2, 1L);
-    OnnxTensor tokenTypes = this.createTensor(tokens.size() + 2, 0L);
-
-    Map<String, OnnxTensor> inputMap = new HashMap(3);
-    inputMap.put("input_ids", tokenIds);
-    inputMap.put("attention_mask", mask);
-    if (inputSize>2) {
-      inputMap.put("token_type_ids", tokenTypes);
+  /**
+   * Runs the token ids of multiple texts through the model as one batch padded to the longest
+   * input and returns the mean of the token embeddings (excluding the classification and
+   * separator tokens) for each text.
+   */
+  public synchronized float[][] embed(List<long[]> tokenIds) throws OrtException {
+    int batchSize = tokenIds.size();
+    int length = 0;
+    for (long[] ids : tokenIds) {
+      length = Math.max(length, ids.length);
     }
-    OrtSession.Result bertOutput = this.session.run(inputMap);
-
-    double[] clsFeatures = extractCLSVector(bertOutput);
-    double[] tokenFeatures = extractMeanTokenVector(bertOutput, tokens.size(), true);
-    double[] featureValues = new double[dimension];
-    for (int i = 0; i < dimension; i++) {
-      featureValues[i] = (clsFeatures[i] + tokenFeatures[i]) / 2.0;
+    int capacity = batchSize * length;
+    if (inputIds.capacity() < capacity) {
+      inputIds = allocate(capacity);
+      attentionMask = allocate(capacity);
+      tokenTypes = allocate(capacity);
     }
-    return tokenFeatures;
-  }
-
-  private double[] extractCLSVector(OrtSession.Result bertOutput) {
-    OnnxTensor tensor = (OnnxTensor) bertOutput.get(0);
-    FloatBuffer buffer = tensor.getFloatBuffer();
-    return extractFeatures(buffer, dimension);
-  }
-
-  private double[] extractMeanTokenVector(OrtSession.Result bertOutput, int numTokens, boolean average) {
-    OnnxTensor tensor = (OnnxTensor) bertOutput.get(0);
-    FloatBuffer buffer = tensor.getFloatBuffer();
-    double[] featureValues = new double[dimension];
-    buffer.position(dimension);
-    // iterate the tokens, creating new examples
-    for (int i = 0; i < numTokens; i++) {
-      addFeatures(buffer, dimension, featureValues);
+    inputIds.clear();
+    attentionMask.clear();
+    tokenTypes.clear();
+    for (long[] ids : tokenIds) {
+      for (int i = 0; i < length; i++) {
+        boolean isToken = i < ids.length;
+        inputIds.put(isToken ? ids[i] : 0L);
+        attentionMask.put(isToken ? 1L : 0L);
+        tokenTypes.put(0L);
+      }
     }
-    if (average) {
-      for (int i = 0; i < dimension; i++) {
-        featureValues[i] /= numTokens;
+    inputIds.flip();
+    attentionMask.flip();
+    tokenTypes.flip();
+
+    long[] shape = {batchSize, length};
+    Map<String, OnnxTensor> inputMap = new HashMap<>(3);
+    try (OnnxTensor ids = OnnxTensor.createTensor(env, inputIds, shape);
+        OnnxTensor mask = OnnxTensor.createTensor(env, attentionMask, shape);
+        OnnxTensor types = OnnxTensor.createTensor(env, tokenTypes, shape)) {
+      inputMap.put("input_ids", ids);
+      inputMap.put("attention_mask", mask);
+      if (inputSize > 2) {
+        inputMap.put("token_type_ids", types);
+      }
+      try (OrtSession.Result bertOutput = session.run(inputMap)) {
+        FloatBuffer buffer = ((OnnxTensor) bertOutput.get(0)).getFloatBuffer();
+        float[][] embeddings = new float[batchSize][];
+        for (int b = 0; b < batchSize; b++) {
+          embeddings[b] = meanTokenVector(buffer, b * length, tokenIds.get(b).length - 2);
+        }
+        return embeddings;
       }
     }
-    return featureValues;
   }
 
-  private static void addFeatures(FloatBuffer buffer, int bertDim, double[] values) {
-    float[] floatArr = new float[bertDim];
-    buffer.get(floatArr);
-    for (int i = 0; i < floatArr.length; i++) {
-      values[i] += floatArr[i];
+  private float[] meanTokenVector(FloatBuffer buffer, int offset, int numTokens) {
+    double[] sum = new double[dimension];
+    //skip the classification token
+    int position = (offset + 1) * dimension;
+    for (int t = 0; t < numTokens; t++) {
+      for (int i = 0; i < dimension; i++) {
+        sum[i] += buffer.get(position++);
+      }
     }
-  }
-
-  private static double[] extractFeatures(FloatBuffer buffer, int bertDim) {
-    double[] features = new double[bertDim];
-    float[] floatArr = new float[bertDim];
-    buffer.get(floatArr);
-    for (int i = 0; i < floatArr.length; i++) {
-      features[i] = floatArr[i];
+    float[] featureValues = new float[dimension];
+    for (int i = 0; i < dimension; i++) {
+      featureValues[i] = (float) (sum[i] / numTokens);
     }
-    return features;
+    return featureValues;
   }
 
-
+  private static LongBuffer allocate(int capacity) {
+    return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder())
+        .asLongBuffer();
+  }
 
 }
@@ -45,6 +45,10 @@ public class Tokenizer {
 
 
   public OnnxTensor convertTokens(OrtEnvironment env, List<String> tokens) throws OrtException {
+    return OnnxTensor.createTensor(env,new long[][]{toTokenIds(tokens)});
+  }
+
+  public long[] toTokenIds(List<String> tokens) {
     int size = tokens.size() + 2; // for [CLS] in beginning and [SEP] in the end
     long[] curTokenIds = new long[size];
 
@@ -60,7 +64,7 @@ public class Tokenizer {
       i++;
     }
     curTokenIds[i] = tokenIDs.get(separatorToken);
-    return OnnxTensor.createTensor(env,new long[][]{curTokenIds});
+    return curTokenIds;
   }
 
 
@@ -0,0 +1,71 @@
+package com.datasqrl.vector;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class EmbeddingBatcherTest {
+
+  ExecutorService executor = Executors.newSingleThreadExecutor();
+  List<Integer> batchSizes = new ArrayList<>();
+
+  @AfterEach
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void testConcurrentTextsAreBatched() throws Exception {
+    EmbeddingBatcher batcher = new EmbeddingBatcher(texts -> {
+      batchSizes.add(texts.size());
+      float[][] embeddings = new float[texts.size()][];
+      for (int i = 0; i < texts.size(); i++) {
+        embeddings[i] = new float[]{texts.get(i).length()};
+      }
+      return embeddings;
+    }, executor, 4);
+
+    //Texts queue up while the model is busy
+    CountDownLatch busy = new CountDownLatch(1);
+    executor.execute(() -> {
+      try {
+        busy.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    List<CompletableFuture<float[]>> results = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      results.add(batcher.embed("x".repeat(i)));
+    }
+    busy.countDown();
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i, results.get(i).get(5, TimeUnit.SECONDS)[0]);
+    }
+    assertEquals(List.of(4, 4, 2), batchSizes);
+  }
+
+  @Test
+  public void testFailuresCompleteTheBatch() throws Exception {
+    EmbeddingBatcher batcher = new EmbeddingBatcher(texts -> {
+      throw new IllegalStateException("model failure");
+    }, executor, 4);
+    CompletableFuture<float[]> result = batcher.embed("text");
+    try {
+      result.get(5, TimeUnit.SECONDS);
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof IllegalStateException);
+    }
+    assertTrue(result.isCompletedExceptionally());
+  }
+}
@@ -0,0 +1,135 @@
+package org.tribuo.interop.onnx.extractors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OnnxRunnerTest {
+
+  static final int VOCABULARY = 16;
+  static final int DIMENSION = 4;
+
+  static OnnxRunner runner;
+
+  @BeforeAll
+  public static void setup(@TempDir Path dir) throws Exception {
+    Path model = dir.resolve("model.onnx");
+    Files.write(model, embeddingLookupModel());
+    runner = new OnnxRunner(model);
+  }
+
+  @Test
+  public void testBatchMatchesSingleTexts() throws Exception {
+    //Token ids including the leading classification and trailing separator token
+    List<long[]> tokenIds = List.of(
+        new long[]{1, 2, 3, 15},
+        new long[]{1, 4, 15},
+        new long[]{1, 5, 6, 7, 8, 9, 15});
+    float[][] batch = runner.embed(tokenIds);
+    assertEquals(tokenIds.size(), batch.length);
+    for (int i = 0; i < tokenIds.size(); i++) {
+      assertArrayEquals(runner.embed(List.of(tokenIds.get(i)))[0], batch[i]);
+    }
+    //Padding and the classification and separator tokens are excluded from the mean
+    assertArrayEquals(embedding(4), batch[1]);
+    float[] expected = new float[DIMENSION];
+    for (int i = 0; i < DIMENSION; i++) {
+      expected[i] = (embedding(2)[i] + embedding(3)[i]) / 2;
+    }
+    assertArrayEquals(expected, batch[0]);
+
+    //Input buffers are reused for smaller batches
+    assertArrayEquals(batch[0], runner.embed(List.of(tokenIds.get(0), tokenIds.get(1)))[0]);
+  }
+
+  private static float[] embedding(int tokenId) {
+    float[] embedding = new float[DIMENSION];
+    for (int i = 0; i < DIMENSION; i++) {
+      embedding[i] = tokenId * 10 + i;
+    }
+    return embedding;
+  }
+
+  /**
+   * Writes an ONNX model in protobuf format that maps each input token to a fixed embedding, so
+   * that the output for a token does not depend on the other tokens in the batch.
+   */
+  private static byte[] embeddingLookupModel() {
+    ByteBuffer weights = ByteBuffer.allocate(VOCABULARY * DIMENSION * Float.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    for (int token = 0; token < VOCABULARY; token++) {
+      for (float value : embedding(token)) {
+        weights.putFloat(value);
+      }
+    }
+    Proto initializer = new Proto().varint(1, VOCABULARY).varint(1, DIMENSION)
+        .varint(2, 1).string(8, "embeddings").bytes(9, weights.array());
+    Proto node = new Proto().string(1, "embeddings").string(1, "input_ids")
+        .string(2, "last_hidden_state").string(4, "Gather");
+    Proto graph = new Proto().message(1, node).string(2, "embedding_lookup")
+        .message(5, initializer)
+        .message(11, valueInfo("input_ids", 7, "batch", "sequence"))
+        .message(11, valueInfo("attention_mask", 7, "batch", "sequence"))
+        .message(12, valueInfo("last_hidden_state", 1, "batch", "sequence", DIMENSION));
+    return new Proto().varint(1, 7).message(7, graph)
+        .message(8, new Proto().varint(2, 13)).toByteArray();
+  }
+
+  private static Proto valueInfo(String name, int elementType, Object... dims) {
+    Proto shape = new Proto();
+    for (Object dim : dims) {
+      shape.message(1, dim instanceof Integer ? new Proto().varint(1, (Integer) dim)
+          : new Proto().string(2, (String) dim));
+    }
+    Proto tensorType = new Proto().varint(1, elementType).message(2, shape);
+    return new Proto().string(1, name).message(2, new Proto().message(1, tensorType));
+  }
+
+  private static class Proto {
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    Proto varint(int field, long value) {
+      writeVarint((field << 3));
+      writeVarint(value);
+      return this;
+    }
+
+    Proto bytes(int field, byte[] value) {
+      writeVarint((field << 3) | 2);
+      writeVarint(value.length);
+      out.writeBytes(value);
+      return this;
+    }
+
+    Proto string(int field, String value) {
+      return bytes(field, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    Proto message(int field, Proto value) {
+      return bytes(field, value.toByteArray());
+    }
+
+    byte[] toByteArray() {
+      return out.toByteArray();
+    }
+
+    private void writeVarint(long value) {
+      while ((value & ~0x7FL) != 0) {
+        out.write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      out.write((int) value);
+    }
+  }
+}
@@ -63,7 +63,7 @@ public abstract class AbstractJDBCDatabaseEngine extends AbstractJDBCEngine impl
 
   @Override
   public IndexSelectorConfig getIndexSelectorConfig() {
-    return IndexSelectorConfigByDialect.of(getDialect());
+    return IndexSelectorConfigByDialect.of(getDialect(), connectorConfig.toMap());
   }
 
 }
\ No newline at end of file
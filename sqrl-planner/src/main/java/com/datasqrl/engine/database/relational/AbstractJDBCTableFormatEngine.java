@@ -78,7 +78,7 @@ public abstract class AbstractJDBCTableFormatEngine extends AbstractJDBCEngine i
 
   @Override
   public IndexSelectorConfig getIndexSelectorConfig() {
-    return IndexSelectorConfigByDialect.of(getDialect());
+    return IndexSelectorConfigByDialect.of(getDialect(), connectorConfig.toMap());
   }
 
 }
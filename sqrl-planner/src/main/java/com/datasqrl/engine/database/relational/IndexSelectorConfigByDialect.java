@@ -14,6 +14,9 @@ import lombok.NonNull;
 import lombok.Value;
 
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
 
 import static com.datasqrl.function.IndexType.BTREE;
 import static com.datasqrl.function.IndexType.HASH;
@@ -28,6 +31,13 @@ public class IndexSelectorConfigByDialect implements IndexSelectorConfig {
 
   public static final double DEFAULT_COST_THRESHOLD = 0.95;
   public static final int MAX_INDEX_COLUMNS = 3;
+  public static final int MAX_INCLUDE_COLUMNS = 3;
+
+  public static final String QUERY_FREQUENCIES_KEY = "query-frequencies";
+  public static final String INDEX_WRITE_COST_KEY = "index-write-cost";
+  public static final String MAX_INCLUDE_COLUMNS_KEY = "max-include-columns";
+
+  private static final Pattern QUERY_COUNTER_SUFFIX = Pattern.compile("-\\d+$");
 
   @Getter
   @Builder.Default
@@ -36,6 +46,17 @@ public class IndexSelectorConfigByDialect implements IndexSelectorConfig {
   JdbcDialect dialect;
   @Builder.Default
   int maxIndexColumns = MAX_INDEX_COLUMNS;
+  @Builder.Default
+  int maxIncludeColumns = MAX_INCLUDE_COLUMNS;
+  /**
+   * Relative query frequencies by query id or by API field (e.g. {@code Query.orders}) as
+   * observed in production. Queries that are not listed have a frequency of 1.
+   */
+  @NonNull
+  @Builder.Default
+  Map<String, Double> queryFrequencies = Map.of();
+  @Builder.Default
+  double indexWriteCost = 0.0;
 
   @Override
   public boolean hasPrimaryKeyIndex() {
@@ -110,6 +131,26 @@ public class IndexSelectorConfigByDialect implements IndexSelectorConfig {
     }
   }
 
+  @Override
+  public int maxIncludeColumns() {
+    switch (dialect) {
+      case Postgres:
+        return maxIncludeColumns;
+      default:
+        return 0;
+    }
+  }
+
+  @Override
+  public boolean supportsPartialIndexes() {
+    switch (dialect) {
+      case Postgres:
+        return true;
+      default:
+        return false;
+    }
+  }
+
   @Override
   public double relativeIndexCost(IndexDefinition index) {
     switch (index.getType()) {
@@ -125,8 +166,71 @@ public class IndexSelectorConfigByDialect implements IndexSelectorConfig {
     }
   }
 
+  @Override
+  public double getQueryFrequency(String queryId) {
+    Double frequency = queryFrequencies.get(queryId);
+    if (frequency == null) {
+      //API query ids are suffixed with a counter to make them unique
+      frequency = queryFrequencies.get(QUERY_COUNTER_SUFFIX.matcher(queryId).replaceFirst(""));
+    }
+    return frequency == null ? 1.0 : frequency;
+  }
+
+  @Override
+  public double indexWriteCost(IndexDefinition index) {
+    return indexWriteCost * relativeIndexCost(index);
+  }
+
   public static IndexSelectorConfigByDialect of(JdbcDialect dialect) {
     return IndexSelectorConfigByDialect.builder().dialect(dialect).build();
   }
 
+  /**
+   * Configures the index selection for the dialect with the query frequency profile, index
+   * write cost, and maximum number of included columns from the database engine configuration,
+   * if present.
+   */
+  public static IndexSelectorConfigByDialect of(JdbcDialect dialect,
+      Map<String, Object> engineConfig) {
+    IndexSelectorConfigByDialectBuilder builder = IndexSelectorConfigByDialect.builder()
+        .dialect(dialect);
+    Object frequencies = engineConfig.get(QUERY_FREQUENCIES_KEY);
+    if (frequencies != null) {
+      Preconditions.checkArgument(frequencies instanceof Map,
+          "Expected a map of query names to frequencies for [%s] but found: %s",
+          QUERY_FREQUENCIES_KEY, frequencies);
+      Map<String, Double> queryFrequencies = new HashMap<>();
+      ((Map<?, ?>) frequencies).forEach((query, frequency) -> {
+        double value = getDouble(QUERY_FREQUENCIES_KEY + "." + query, frequency);
+        Preconditions.checkArgument(value >= 0, "Query frequency cannot be negative: %s", query);
+        queryFrequencies.put(query.toString(), value);
+      });
+      builder.queryFrequencies(queryFrequencies);
+    }
+    Object writeCost = engineConfig.get(INDEX_WRITE_COST_KEY);
+    if (writeCost != null) {
+      double value = getDouble(INDEX_WRITE_COST_KEY, writeCost);
+      Preconditions.checkArgument(value >= 0, "Index write cost cannot be negative: %s", value);
+      builder.indexWriteCost(value);
+    }
+    Object maxInclude = engineConfig.get(MAX_INCLUDE_COLUMNS_KEY);
+    if (maxInclude != null) {
+      double value = getDouble(MAX_INCLUDE_COLUMNS_KEY, maxInclude);
+      Preconditions.checkArgument(value >= 0 && value == Math.rint(value),
+          "Expected a non-negative integer for [%s] but found: %s", MAX_INCLUDE_COLUMNS_KEY,
+          maxInclude);
+      builder.maxIncludeColumns((int) value);
+    }
+    return builder.build();
+  }
+
+  private static double getDouble(String key, Object value) {
+    try {
+      return Double.parseDouble(value.toString());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          String.format("Expected a number for [%s] but found: %s", key, value));
+    }
+  }
+
 }
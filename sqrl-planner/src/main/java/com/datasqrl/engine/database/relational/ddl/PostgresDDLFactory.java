@@ -9,6 +9,7 @@ import com.datasqrl.config.JdbcDialect;
 import com.datasqrl.engine.database.relational.ddl.statements.CreateIndexDDL;
 import com.datasqrl.engine.database.relational.ddl.statements.InsertStatement;
 import com.datasqrl.engine.database.relational.ddl.statements.notify.ListenNotifyAssets;
+import com.datasqrl.engine.database.relational.ddl.statements.notify.OnNotifyBatchQuery;
 import com.datasqrl.engine.database.relational.ddl.statements.notify.OnNotifyQuery;
 import com.datasqrl.engine.database.relational.ddl.statements.notify.ListenQuery;
 import com.datasqrl.engine.database.relational.ddl.statements.notify.CreateNotifyTriggerDDL;
@@ -71,16 +72,20 @@ public class PostgresDDLFactory implements JdbcDDLFactory {
   }
 
   public static String toSql(RelDataTypeField field) {
-    SqlDataTypeSpec castSpec = ExtendedPostgresSqlDialect.DEFAULT.getCastSpec(field.getType());
-    SqlPrettyWriter sqlPrettyWriter = new SqlPrettyWriter();
-    castSpec.unparse(sqlPrettyWriter, 0, 0);
-    String name = sqlPrettyWriter.toSqlString().getSql();
+    String name = toSqlType(field.getType());
 
     RelDataType datatype = field.getType();
 
     return toSql(field.getName(), name, datatype.isNullable());
   }
 
+  public static String toSqlType(RelDataType type) {
+    SqlDataTypeSpec castSpec = ExtendedPostgresSqlDialect.DEFAULT.getCastSpec(type);
+    SqlPrettyWriter sqlPrettyWriter = new SqlPrettyWriter();
+    castSpec.unparse(sqlPrettyWriter, 0, 0);
+    return sqlPrettyWriter.toSqlString().getSql();
+  }
+
   private static String toSql(String name, String sqlType, boolean nullable) {
     StringBuilder sql = new StringBuilder();
     sql.append("\"").append(name).append("\"").append(" ").append(sqlType).append(" ");
@@ -93,13 +98,21 @@ public class PostgresDDLFactory implements JdbcDDLFactory {
   @Override
   public CreateIndexDDL createIndex(IndexDefinition index) {
     List<String> columns = index.getColumnNames();
-    return new CreateIndexDDL(index.getName(), index.getTableId(), columns, index.getType());
+    String predicate = index.getPredicates().stream()
+        .map(p -> p.toSql(quoteIdentifier(p.getColumnName())))
+        .collect(Collectors.joining(" AND "));
+    return new CreateIndexDDL(index.getName(), index.getTableId(), columns, index.getType(),
+        index.getIncludeColumnNames(), predicate);
   }
 
   public CreateNotifyTriggerDDL createNotify(String name, List<String> primaryKeys) {
     return new CreateNotifyTriggerDDL(name, primaryKeys);
   }
 
+  public CreateNotifyTriggerDDL createNotify(String name, List<String> primaryKeys, boolean fullRow) {
+    return new CreateNotifyTriggerDDL(name, primaryKeys, fullRow);
+  }
+
   public ListenNotifyAssets createNotifyHelperDDLs(SqrlFramework framework, String tableName, RelDataType schema, List<String> primaryKeys) {
     ListenQuery listenQuery = new ListenQuery(tableName);
 
@@ -112,7 +125,8 @@ public class PostgresDDLFactory implements JdbcDDLFactory {
         .collect(Collectors.toList());
 
     OnNotifyQuery onNotifyQuery = new OnNotifyQuery(framework, tableName, parameters);
-    return new ListenNotifyAssets(listenQuery, onNotifyQuery, primaryKeys);
+    OnNotifyBatchQuery onNotifyBatchQuery = new OnNotifyBatchQuery(tableName, parameters);
+    return new ListenNotifyAssets(listenQuery, onNotifyQuery, onNotifyBatchQuery, primaryKeys);
   }
 
   public InsertStatement createInsertHelperDMLs(String tableName, RelDataType tableSchema) {
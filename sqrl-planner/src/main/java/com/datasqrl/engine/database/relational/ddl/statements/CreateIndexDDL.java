@@ -6,6 +6,8 @@ package com.datasqrl.engine.database.relational.ddl.statements;
 import static com.datasqrl.engine.database.relational.ddl.PostgresDDLFactory.quoteIdentifier;
 
 import com.datasqrl.sql.SqlDDLStatement;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.datasqrl.function.IndexType;
 import com.google.common.base.Preconditions;
 import java.util.stream.Collectors;
@@ -20,7 +22,27 @@ public class CreateIndexDDL implements SqlDDLStatement {
   String tableName;
   List<String> columns;
   IndexType type;
+  @JsonInclude(Include.NON_EMPTY)
+  List<String> includeColumns;
+  /**
+   * The predicate of a partial index or empty if the index is on all rows
+   */
+  @JsonInclude(Include.NON_EMPTY)
+  String predicate;
 
+  public CreateIndexDDL(String indexName, String tableName, List<String> columns, IndexType type) {
+    this(indexName, tableName, columns, type, List.of(), "");
+  }
+
+  public CreateIndexDDL(String indexName, String tableName, List<String> columns, IndexType type,
+      List<String> includeColumns, String predicate) {
+    this.indexName = indexName;
+    this.tableName = tableName;
+    this.columns = columns;
+    this.type = type;
+    this.includeColumns = includeColumns;
+    this.predicate = predicate;
+  }
 
   @Override
   public String getSql() {
@@ -54,9 +76,14 @@ public class CreateIndexDDL implements SqlDDLStatement {
         indexType = type.name().toLowerCase();
     }
 
-    String createTable = "CREATE INDEX IF NOT EXISTS %s ON %s USING %s (%s);";
+    String include = "";
+    if (!includeColumns.isEmpty()) {
+      include = String.format(" INCLUDE (%s)", String.join(",", quoteIdentifier(includeColumns)));
+    }
+    String where = predicate.isEmpty() ? "" : " WHERE " + predicate;
+    String createTable = "CREATE INDEX IF NOT EXISTS %s ON %s USING %s (%s)%s%s;";
     String sql = String.format(createTable, indexName, tableName, indexType,
-        columnExpression);
+        columnExpression, include, where);
     return sql;
   }
 
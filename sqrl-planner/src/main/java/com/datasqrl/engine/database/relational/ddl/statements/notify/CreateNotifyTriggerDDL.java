@@ -1,5 +1,7 @@
 package com.datasqrl.engine.database.relational.ddl.statements.notify;
 
+import static com.datasqrl.graphql.server.RootGraphqlModel.PostgresSubscriptionCoords.ROW_PAYLOAD_KEY;
+
 import com.datasqrl.sql.SqlDDLStatement;
 import com.google.common.base.Preconditions;
 import java.util.List;
@@ -8,17 +10,55 @@ import lombok.NonNull;
 
 public class CreateNotifyTriggerDDL implements SqlDDLStatement {
 
+  //NOTIFY payloads must be shorter than 8000 bytes
+  public static final int MAX_PAYLOAD_BYTES = 7999;
+
   String tableName;
   List<String> primaryKeys;
+  boolean fullRow;
 
   public CreateNotifyTriggerDDL(@NonNull String tableName, @NonNull List<String> primaryKeys) {
+    this(tableName, primaryKeys, false);
+  }
+
+  /**
+   * @param fullRow whether the payload carries the full row (when it fits into the NOTIFY
+   *                payload) so that listeners do not need to fetch it by primary key
+   */
+  public CreateNotifyTriggerDDL(@NonNull String tableName, @NonNull List<String> primaryKeys,
+      boolean fullRow) {
     this.tableName = tableName;
     Preconditions.checkState(!primaryKeys.isEmpty(), "There should be at least one primary key to generate a notify payload.");
+    Preconditions.checkState(!fullRow || !primaryKeys.contains(ROW_PAYLOAD_KEY),
+        "Primary key column cannot be named [%s] when notifying with the full row.",
+        ROW_PAYLOAD_KEY);
     this.primaryKeys = primaryKeys;
+    this.fullRow = fullRow;
   }
 
   @Override
   public String getSql() {
+    if (fullRow) {
+      return String.format(
+          "CREATE OR REPLACE FUNCTION notify_on_%1$s_insert()\n" +
+              "RETURNS TRIGGER AS $$\n" +
+              "DECLARE\n" +
+              "   payload text;\n" +
+              "BEGIN\n" +
+              "   payload := jsonb_build_object('%3$s', to_jsonb(NEW))::text;\n" +
+              "   IF octet_length(payload) > %4$d THEN\n" +
+              "      payload := %2$s;\n" +
+              "   END IF;\n" +
+              "   PERFORM pg_notify('%1$s_notify', payload);\n" +
+              "   RETURN NEW;\n" +
+              "END;\n" +
+              "$$ LANGUAGE plpgsql;\n" +
+              "\n" +
+              "CREATE TRIGGER insert_notify_trigger\n" +
+              "AFTER INSERT ON \"%1$s\"\n" +
+              "FOR EACH ROW EXECUTE PROCEDURE notify_on_%1$s_insert();", tableName, createPayload(),
+          ROW_PAYLOAD_KEY, MAX_PAYLOAD_BYTES);
+    }
     return String.format(
         "CREATE OR REPLACE FUNCTION notify_on_%1$s_insert()\n" +
             "RETURNS TRIGGER AS $$\n" +
@@ -9,5 +9,6 @@ import lombok.Getter;
 public class ListenNotifyAssets {
   ListenQuery listen;
   OnNotifyQuery onNotify;
+  OnNotifyBatchQuery onNotifyBatch;
   List<String> parameters;
 }
@@ -0,0 +1,44 @@
+package com.datasqrl.engine.database.relational.ddl.statements.notify;
+
+import com.datasqrl.engine.database.relational.ddl.PostgresDDLFactory;
+import com.datasqrl.sql.SqlDDLStatement;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.AllArgsConstructor;
+
+/**
+ * Fetches the rows of a batch of notifications in one query. Each parameter is a text array
+ * holding the values of one primary key column, in notification order. The rows are returned in
+ * the order of the arrays.
+ */
+@AllArgsConstructor
+public class OnNotifyBatchQuery implements SqlDDLStatement {
+
+  public static final String ORDINAL_COLUMN = "__ordinal";
+
+  String tableName;
+  List<Parameter> parameters;
+
+  @Override
+  public String getSql() {
+    String arrays = IntStream.range(0, parameters.size())
+        .mapToObj(i -> String.format("$%d::text[]", i + 1))
+        .collect(Collectors.joining(", "));
+    String keyColumns = parameters.stream()
+        .map(p -> PostgresDDLFactory.quoteIdentifier(p.getName()))
+        .collect(Collectors.joining(", "));
+    //The payload values are text, cast them back to the type of the primary key column
+    String condition = parameters.stream()
+        .map(p -> String.format("t.%1$s = CAST(k.%1$s AS %2$s)",
+            PostgresDDLFactory.quoteIdentifier(p.getName()),
+            PostgresDDLFactory.toSqlType(p.getRelDataTypeField().getType())))
+        .collect(Collectors.joining(" AND "));
+
+    return String.format("SELECT t.*\n"
+            + "FROM UNNEST(%s) WITH ORDINALITY AS k(%s, \"%s\")\n"
+            + "JOIN \"%s\" t ON %s\n"
+            + "ORDER BY k.\"%s\"",
+        arrays, keyColumns, ORDINAL_COLUMN, tableName, condition, ORDINAL_COLUMN);
+  }
+}
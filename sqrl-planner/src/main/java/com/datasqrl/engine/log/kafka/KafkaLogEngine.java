@@ -49,8 +49,7 @@ public class KafkaLogEngine extends ExecutionEngine.Base implements LogEngine {
 
     List<NewTopic> logTopics = ((LogStagePlan) plan).getLogs().stream()
         .map(log -> (KafkaTopic) log)
-        .map(KafkaTopic::getTopicName)
-        .map(NewTopic::new)
+        .map(KafkaTopic::getNewTopic)
         .collect(Collectors.toList());
 
     return new KafkaPhysicalPlan(logTopics);
@@ -58,6 +57,6 @@ public class KafkaLogEngine extends ExecutionEngine.Base implements LogEngine {
 
   @Override
   public LogFactory getLogFactory() {
-    return new KafkaLogFactory(connectorFactory);
+    return new KafkaLogFactory(connectorFactory, new KafkaTopicSettings(engineConfig.toMap()));
   }
 }
@@ -7,6 +7,7 @@ import com.datasqrl.config.ConnectorFactoryContext;
 import com.datasqrl.config.TableConfig;
 import com.datasqrl.engine.log.Log;
 import com.datasqrl.engine.log.LogFactory;
+import com.datasqrl.engine.log.LogFactory.TimestampType;
 import com.datasqrl.io.tables.TableSchema;
 import com.datasqrl.plan.table.RelDataTypeTableSchema;
 import com.google.common.base.Preconditions;
@@ -14,6 +15,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import org.apache.calcite.rel.type.RelDataType;
 import org.apache.kafka.common.internals.Topic;
@@ -22,17 +24,26 @@ import org.apache.kafka.common.internals.Topic;
 public class KafkaLogFactory implements LogFactory {
 
   ConnectorFactory connectorFactory;
+  KafkaTopicSettings topicSettings;
 
   @Override
   public Log create(String logId, Name logName, RelDataType schema, List<String> primaryKey,
       Timestamp timestamp) {
 
     Preconditions.checkArgument(Topic.isValid(logId), "Not a valid topic name: %s", logId);
+    //The log time is kafka metadata and cannot be part of the record key
+    List<String> keyFields = primaryKey.stream()
+        .filter(field -> timestamp.getType() != TimestampType.LOG_TIME
+            || !field.equals(timestamp.getName()))
+        .collect(Collectors.toList());
+    NewTopic topic = topicSettings.createTopic(logId, logName, keyFields);
+    //Records only need a key when they are distributed across partitions or compacted
+    boolean keyed = topic.getNumPartitions() > 1 || topic.getConfig().containsKey("cleanup.policy");
     IConnectorFactoryContext connectorContext = createSinkContext(logName, logId, timestamp.getName(),
-        timestamp.getType().name(), primaryKey);
+        timestamp.getType().name(), primaryKey, keyed ? keyFields : List.of());
     TableConfig logConfig = connectorFactory.createSourceAndSink(connectorContext);
     Optional<TableSchema> tblSchema = Optional.of(new RelDataTypeTableSchema(schema));
-    return new KafkaTopic(logId, logName, logConfig, tblSchema, connectorContext, schema);
+    return new KafkaTopic(logId, logName, logConfig, tblSchema, connectorContext, schema, topic);
   }
 
   @Override
@@ -41,12 +52,14 @@ public class KafkaLogFactory implements LogFactory {
   }
 
   private IConnectorFactoryContext createSinkContext(Name name, String topicName,
-      String timestampName, String timestampType, List<String> primaryKey) {
+      String timestampName, String timestampType, List<String> primaryKey,
+      List<String> keyFields) {
     Map<String, Object> context = new HashMap<>();
     context.put("topic", topicName);
     context.put("timestamp-name", timestampName);
     context.put("timestamp-type", timestampType);
     context.put("primary-key", primaryKey);
+    context.put("key-fields", keyFields);
     return new ConnectorFactoryContext(name, context);
   }
 }
@@ -27,6 +27,7 @@ class KafkaTopic implements Log {
   Optional<TableSchema> tableSchema;
   IConnectorFactoryContext connectorContext;
   RelDataType schema;
+  NewTopic newTopic;
 
   @Override
   public TableSource getSource() {
@@ -0,0 +1,101 @@
+package com.datasqrl.engine.log.kafka;
+
+import com.datasqrl.canonicalizer.Name;
+import com.google.common.base.Preconditions;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.AllArgsConstructor;
+
+/**
+ * Plans the partitions, replication factor, and topic configuration of the topics that the
+ * {@link KafkaLogEngine} creates from the kafka engine configuration.
+ *
+ * All settings can be configured for all topics at the top level of the engine configuration and
+ * overwritten for individual logs under {@link #TOPICS_KEY} by log or topic name. If the number of
+ * partitions is not configured, it is derived from the expected throughput of the log (in records
+ * per second) and the throughput a single partition can sustain.
+ *
+ * Records are keyed by their primary key (see {@link KafkaLogFactory}) so that all changes to a
+ * key end up in the same partition and stay in order.
+ */
+@AllArgsConstructor
+public class KafkaTopicSettings {
+
+  public static final String PARTITIONS_KEY = "partitions";
+  public static final String REPLICATION_FACTOR_KEY = "replication-factor";
+  public static final String RETENTION_KEY = "retention-ms";
+  public static final String COMPACTION_KEY = "compaction";
+  public static final String THROUGHPUT_KEY = "throughput";
+  public static final String PARTITION_THROUGHPUT_KEY = "partition-throughput";
+  public static final String TOPICS_KEY = "topics";
+
+  public static final int DEFAULT_PARTITION_THROUGHPUT = 5000;
+
+  private final Map<String, Object> engineConfig;
+
+  /**
+   * @param keyFields the columns that make up the record key, empty if records have no key
+   */
+  public NewTopic createTopic(String topicName, Name logName, List<String> keyFields) {
+    Map<String, Object> settings = new HashMap<>(engineConfig);
+    settings.remove(TOPICS_KEY);
+    getTopicConfig(topicName, logName).ifPresent(settings::putAll);
+
+    int numPartitions = getInt(settings, PARTITIONS_KEY).orElseGet(() -> {
+      //Without a key, records are spread across partitions and lose their order
+      if (keyFields.isEmpty()) {
+        return 1;
+      }
+      int partitionThroughput = getInt(settings, PARTITION_THROUGHPUT_KEY)
+          .orElse(DEFAULT_PARTITION_THROUGHPUT);
+      return getInt(settings, THROUGHPUT_KEY)
+          .map(throughput -> (throughput + partitionThroughput - 1) / partitionThroughput)
+          .orElse(1);
+    });
+    Preconditions.checkArgument(numPartitions > 0, "Invalid number of partitions for topic %s: %s",
+        topicName, numPartitions);
+    int replicationFactor = getInt(settings, REPLICATION_FACTOR_KEY).orElse(1);
+    Preconditions.checkArgument(replicationFactor > 0 && replicationFactor <= Short.MAX_VALUE,
+        "Invalid replication factor for topic %s: %s", topicName, replicationFactor);
+
+    Map<String, String> config = new HashMap<>();
+    Optional.ofNullable(settings.get(RETENTION_KEY))
+        .ifPresent(retention -> config.put("retention.ms", retention.toString()));
+    if (Optional.ofNullable(settings.get(COMPACTION_KEY)).map(Object::toString)
+        .map(Boolean::parseBoolean).orElse(false)) {
+      Preconditions.checkArgument(!keyFields.isEmpty(),
+          "Topic %s cannot be compacted since it has no key", topicName);
+      config.put("cleanup.policy", "compact");
+    }
+    return new NewTopic(topicName, numPartitions, (short) replicationFactor, Map.of(), config);
+  }
+
+  private Optional<Map<String, Object>> getTopicConfig(String topicName, Name logName) {
+    Object topics = engineConfig.get(TOPICS_KEY);
+    if (!(topics instanceof Map)) {
+      return Optional.empty();
+    }
+    Map<String, Object> topicConfigs = (Map<String, Object>) topics;
+    Object topicConfig = topicConfigs.get(topicName);
+    if (topicConfig == null) {
+      topicConfig = topicConfigs.entrySet().stream()
+          .filter(e -> Name.system(e.getKey()).equals(logName))
+          .map(Map.Entry::getValue).findFirst().orElse(null);
+    }
+    return Optional.ofNullable(topicConfig).filter(Map.class::isInstance)
+        .map(config -> (Map<String, Object>) config);
+  }
+
+  private static Optional<Integer> getInt(Map<String, Object> settings, String key) {
+    return Optional.ofNullable(settings.get(key)).map(value -> {
+      try {
+        return Integer.parseInt(value.toString());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(
+            String.format("Expected an integer for [%s] but found: %s", key, value));
+      }
+    });
+  }
+}
@@ -37,6 +37,9 @@ import org.apache.calcite.rel.type.RelDataType;
 
 public class PostgresLogEngine extends ExecutionEngine.Base implements LogEngine {
 
+  //Opt-in: send rows within the notify payload so subscribers don't query them
+  public static final String NOTIFY_FULL_ROW_KEY = "notify-full-row";
+
   @Getter
   private final EngineConfig engineConfig;
 
@@ -81,7 +84,7 @@ public class PostgresLogEngine extends ExecutionEngine.Base implements LogEngine
       String tableName = pgTable.getTableName();
       RelDataType dataType = pgTable.getTableSchema().getRelDataType();
       ddl.add(postgresDDLFactory.createTable(tableName, dataType.getFieldList(), pgTable.getPrimaryKeys()));
-      ddl.add(postgresDDLFactory.createNotify(tableName, pgTable.getPrimaryKeys()));
+      ddl.add(postgresDDLFactory.createNotify(tableName, pgTable.getPrimaryKeys(), isNotifyFullRow()));
 
       ListenNotifyAssets listenNotifyAssets = postgresDDLFactory.createNotifyHelperDDLs(framework, tableName, dataType, pgTable.getPrimaryKeys());
       queries.add(listenNotifyAssets);
@@ -93,4 +96,9 @@ public class PostgresLogEngine extends ExecutionEngine.Base implements LogEngine
     return new PostgresLogPhysicalPlan(ddl, queries, inserts);
   }
 
+  private boolean isNotifyFullRow() {
+    Object fullRow = engineConfig.toMap().get(NOTIFY_FULL_ROW_KEY);
+    return fullRow != null && Boolean.parseBoolean(fullRow.toString());
+  }
+
 }
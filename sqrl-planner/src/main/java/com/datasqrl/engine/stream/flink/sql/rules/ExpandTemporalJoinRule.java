@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.AllArgsConstructor;
 import org.apache.calcite.avatica.util.TimeUnit;
 import org.apache.calcite.plan.RelOptRule;
@@ -34,6 +35,8 @@ import org.apache.flink.table.planner.functions.sql.FlinkSqlOperatorTable;
 
 public class ExpandTemporalJoinRule extends RelOptRule {
 
+  public static final String LOOKUP_TIME_FIELD = "_lookup_time";
+
   public ExpandTemporalJoinRule() {
     super(operand(LogicalJoin.class, any()));
   }
@@ -55,19 +58,36 @@ public class ExpandTemporalJoinRule extends RelOptRule {
       TemporalJoinHint temporalHint) {
     RelBuilder relBuilder = relOptRuleCall.builder();
     RexBuilder rexBuilder = relBuilder.getRexBuilder();
+    RelNode left = join.getLeft();
+    int numLeftFields = left.getRowType().getFieldCount();
+    int snapshotIdx = temporalHint.getStreamTimestampIdx();
+    if (temporalHint.isLookup()) {
+      //Lookup tables can only be joined at processing time, so we add a processing time column
+      relBuilder.push(left);
+      relBuilder.projectPlus(relBuilder.alias(
+          rexBuilder.makeCall(FlinkSqlOperatorTable.PROCTIME), LOOKUP_TIME_FIELD));
+      left = relBuilder.build();
+      snapshotIdx = numLeftFields;
+    }
     Holder<RexCorrelVariable> correlVar = Holder.of(null);
-    relBuilder.push(join.getLeft()).variable(correlVar);
+    relBuilder.push(left).variable(correlVar);
     relBuilder.push(join.getRight());
-    relBuilder.snapshot(
-        rexBuilder.makeFieldAccess(correlVar.get(), temporalHint.getStreamTimestampIdx()));
+    relBuilder.snapshot(rexBuilder.makeFieldAccess(correlVar.get(), snapshotIdx));
     CorrelateRexRewriter correlRewriter = new CorrelateRexRewriter(rexBuilder,
         join.getLeft().getRowType().getFieldList(),
         correlVar, join.getRight().getRowType().getFieldList());
     relBuilder.filter(correlRewriter.rewrite(join.getCondition()));
     Set<Integer> usedLeftFieldIdx = correlRewriter.usedLeftFieldIdx;
-    usedLeftFieldIdx.add(temporalHint.getStreamTimestampIdx());
+    usedLeftFieldIdx.add(snapshotIdx);
+    RelNode leftInput = left;
     relBuilder.correlate(join.getJoinType(), correlVar.get().id, usedLeftFieldIdx.stream()
-        .map(idx -> rexBuilder.makeInputRef(join.getLeft(), idx)).collect(Collectors.toList()));
+        .map(idx -> rexBuilder.makeInputRef(leftInput, idx)).collect(Collectors.toList()));
+    if (temporalHint.isLookup()) {
+      //Remove the processing time column again
+      int numFields = relBuilder.peek().getRowType().getFieldCount();
+      relBuilder.project(IntStream.range(0, numFields).filter(idx -> idx != numLeftFields)
+          .mapToObj(relBuilder::field).collect(Collectors.toList()));
+    }
     return relBuilder.build();
   }
 
@@ -6,6 +6,7 @@ import static com.datasqrl.vector.VectorFunctions.COSINE_DISTANCE;
 import static com.datasqrl.vector.VectorFunctions.COSINE_SIMILARITY;
 import static com.datasqrl.vector.VectorFunctions.EUCLIDEAN_DISTANCE;
 import static com.datasqrl.vector.VectorFunctions.ONNX_EMBED;
+import static com.datasqrl.vector.VectorFunctions.ONNX_EMBED_ASYNC;
 import static com.datasqrl.vector.VectorFunctions.VEC_TO_DOUBLE;
 
 import com.datasqrl.NamespaceObjectUtil;
@@ -29,6 +30,7 @@ public class StdVectorLibraryImpl extends AbstractFunctionModule implements StdL
       EUCLIDEAN_DISTANCE,
       VEC_TO_DOUBLE,
       ONNX_EMBED,
+      ONNX_EMBED_ASYNC,
       ASCII_TEXT_TEST_EMBED,
       CENTER
   );
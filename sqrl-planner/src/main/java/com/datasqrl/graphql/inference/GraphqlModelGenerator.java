@@ -121,7 +121,8 @@ public class GraphqlModelGenerator extends SchemaWalker {
           fieldName, tableName, filters,
           listenNotifyAssets.getListen().getSql(),
           listenNotifyAssets.getOnNotify().getSql(),
-          listenNotifyAssets.getParameters());
+          listenNotifyAssets.getParameters(),
+          listenNotifyAssets.getOnNotifyBatch().getSql());
     } else {
       throw new RuntimeException("Unknown log plan: " + logPlan.getClass().getName());
     }
@@ -145,18 +146,22 @@ public class GraphqlModelGenerator extends SchemaWalker {
     MutationCoords mutationCoords;
 
     if (logPlan.isPresent() && logPlan.get() instanceof KafkaPhysicalPlan) {
-      String topicName;
+      Map<String, Object> map;
       if (tableSource != null) {
-        Map<String, Object> map = tableSource.getConfiguration().getConnectorConfig().toMap();
-        topicName = (String) map.get("topic");
+        map = tableSource.getConfiguration().getConnectorConfig().toMap();
       } else if (src.isPresent()) {
-        Map<String, Object> map = src.get().getConnectorConfig().toMap();
-        topicName = (String) map.get("topic");
+        map = src.get().getConnectorConfig().toMap();
       } else {
         throw new RuntimeException("Could not find mutation: " + fieldDefinition.getName());
       }
-
-      mutationCoords = new KafkaMutationCoords(fieldDefinition.getName(), topicName, Map.of());
+      String topicName = (String) map.get("topic");
+      //Keyed logs read the key fields from the record key, so the server has to set it
+      String keyFields = (String) map.get("key.fields");
+      List<String> keys = keyFields == null || keyFields.isBlank() ? List.of()
+          : List.of(keyFields.split(";"));
+
+      mutationCoords = new KafkaMutationCoords(fieldDefinition.getName(), topicName, Map.of(),
+          keys);
     } else if (logPlan.isPresent() && logPlan.get() instanceof PostgresLogPhysicalPlan) {
       String tableName;
       if (tableSource != null) {
@@ -19,6 +19,7 @@ import com.datasqrl.module.SqrlModule;
 import com.datasqrl.module.TableNamespaceObject;
 import com.datasqrl.module.resolver.ResourceResolver;
 import com.datasqrl.plan.table.CalciteTableFactory;
+import com.datasqrl.plan.table.TableStatistic;
 import com.datasqrl.serializer.Deserializer;
 import com.datasqrl.util.BaseFileUtil;
 import com.datasqrl.util.FileUtil;
@@ -31,6 +32,7 @@ import java.net.URLClassLoader;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
@@ -136,6 +138,10 @@ public class ObjectLoaderImpl implements ObjectLoader {
 
     errors.checkFatal(tableSchemas.size()<=1, "Found multiple schemas for table %s with configuration %s", tableName, path);
     Optional<TableSchema> tableSchema = tableSchemas.stream().findFirst();
+    Optional<TableStatistic> statistic = tablesFiles.stream()
+        .filter(file -> ResourceResolver.getFileName(file).substring(tableName.length())
+            .equalsIgnoreCase(TableStatistic.STATISTICS_FILE_SUFFIX))
+        .findFirst().map(file -> loadStatistic(file, errors));
 
     ExternalDataType tableType = tableConfig.getBase().getType();
 
@@ -149,7 +155,7 @@ public class ObjectLoaderImpl implements ObjectLoader {
       case source:
         return new DataSource()
             .readTableSource(tableSchema.get(), tableConfig, errors, basePath)
-            .map(t->new TableSourceNamespaceObject(t, tableFactory, moduleLoader))
+            .map(t->new TableSourceNamespaceObject(t, statistic, tableFactory, moduleLoader))
             .map(t->(TableNamespaceObject) t)
             .map(List::of)
             .orElse(List.of());
@@ -164,7 +170,7 @@ public class ObjectLoaderImpl implements ObjectLoader {
             .get();
         TableSink sink = new DataSource().readTableSink(tableSchema, tableConfig, basePath)
             .get();
-        return List.of(new TableSourceSinkNamespaceObject(source, sink, tableFactory, moduleLoader));
+        return List.of(new TableSourceSinkNamespaceObject(source, sink, statistic, tableFactory, moduleLoader));
       default:
         throw new RuntimeException("Unknown table type: "+ tableType);
     }
@@ -172,6 +178,15 @@ public class ObjectLoaderImpl implements ObjectLoader {
 
 
 
+  private TableStatistic loadStatistic(Path path, ErrorCollector errors) {
+    Map<String, Object> statistic = SERIALIZER.mapJsonFile(path, Map.class);
+    try {
+      return TableStatistic.fromMap(statistic);
+    } catch (IllegalArgumentException e) {
+      throw errors.exception("Invalid table statistics in [%s]: %s", path, e.getMessage());
+    }
+  }
+
   public static final Class<?> UDF_FUNCTION_CLASS = UserDefinedFunction.class;
 
   @SneakyThrows
@@ -7,6 +7,7 @@ import com.datasqrl.io.tables.TableSource;
 import com.datasqrl.canonicalizer.Name;
 import com.datasqrl.plan.local.generate.AbstractTableNamespaceObject;
 import com.datasqrl.plan.table.CalciteTableFactory;
+import com.datasqrl.plan.table.TableStatistic;
 import com.datasqrl.plan.validate.ScriptPlanner;
 import lombok.Getter;
 
@@ -16,11 +17,18 @@ import java.util.Optional;
 public class TableSourceNamespaceObject extends AbstractTableNamespaceObject<TableSource> implements TableSourceObject {
 
   private final TableSource table;
+  private final Optional<TableStatistic> statistic;
 
   public TableSourceNamespaceObject(TableSource table, CalciteTableFactory tableFactory,
       ModuleLoader moduleLoader) {
+    this(table, Optional.empty(), tableFactory, moduleLoader);
+  }
+
+  public TableSourceNamespaceObject(TableSource table, Optional<TableStatistic> statistic,
+      CalciteTableFactory tableFactory, ModuleLoader moduleLoader) {
     super(tableFactory, NameCanonicalizer.SYSTEM, moduleLoader);
     this.table = table;
+    this.statistic = statistic;
   }
 
   @Override
@@ -30,7 +38,7 @@ public class TableSourceNamespaceObject extends AbstractTableNamespaceObject<Tab
 
   @Override
   public boolean apply(ScriptPlanner planner, Optional<String> objectName, SqrlFramework framework, ErrorCollector errors) {
-    return importSourceTable(objectName, table, framework, errors);
+    return importSourceTable(objectName, table, statistic, framework, errors);
   }
 
   @Override
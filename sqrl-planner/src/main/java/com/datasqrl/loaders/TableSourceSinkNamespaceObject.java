@@ -8,6 +8,7 @@ import com.datasqrl.io.tables.TableSink;
 import com.datasqrl.io.tables.TableSource;
 import com.datasqrl.plan.local.generate.AbstractTableNamespaceObject;
 import com.datasqrl.plan.table.CalciteTableFactory;
+import com.datasqrl.plan.table.TableStatistic;
 import com.datasqrl.plan.validate.ScriptPlanner;
 import lombok.Getter;
 
@@ -18,12 +19,20 @@ public class TableSourceSinkNamespaceObject extends AbstractTableNamespaceObject
 
   private final TableSource table;
   private final TableSink sink;
+  private final Optional<TableStatistic> statistic;
 
   public TableSourceSinkNamespaceObject(TableSource source, TableSink sink, CalciteTableFactory tableFactory,
       ModuleLoader moduleLoader) {
+    this(source, sink, Optional.empty(), tableFactory, moduleLoader);
+  }
+
+  public TableSourceSinkNamespaceObject(TableSource source, TableSink sink,
+      Optional<TableStatistic> statistic, CalciteTableFactory tableFactory,
+      ModuleLoader moduleLoader) {
     super(tableFactory, NameCanonicalizer.SYSTEM, moduleLoader);
     this.table = source;
     this.sink = sink;
+    this.statistic = statistic;
   }
 
   @Override
@@ -33,7 +42,7 @@ public class TableSourceSinkNamespaceObject extends AbstractTableNamespaceObject
 
   @Override
   public boolean apply(ScriptPlanner planner, Optional<String> objectName, SqrlFramework framework, ErrorCollector errors) {
-    return importSourceTable(objectName, table, framework, errors);
+    return importSourceTable(objectName, table, statistic, framework, errors);
   }
 
   @Override
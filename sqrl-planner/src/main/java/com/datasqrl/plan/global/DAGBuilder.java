@@ -1,11 +1,13 @@
 package com.datasqrl.plan.global;
 
+import com.datasqrl.config.PackageJson.CompilerConfig;
 import com.datasqrl.engine.EngineFeature;
 import com.datasqrl.engine.pipeline.ExecutionPipeline;
 import com.datasqrl.engine.pipeline.ExecutionStage;
 import com.datasqrl.error.ErrorCollector;
 import com.datasqrl.canonicalizer.Name;
 import com.datasqrl.plan.rules.ComputeCost;
+import com.datasqrl.plan.rules.CostProfile;
 import com.datasqrl.plan.rules.ExecutionAnalysis;
 import com.datasqrl.plan.rules.SQRLConverter;
 import com.datasqrl.plan.rules.SQRLConverter.TablePlan;
@@ -40,13 +42,20 @@ import static com.datasqrl.plan.global.DAGAssembler.getExportBaseConfig;
 /**
  * Assembles the DAG from the sinks and tables
  */
-@AllArgsConstructor(onConstructor_=@Inject)
+@AllArgsConstructor
 @Getter
 public class DAGBuilder {
 
   private SQRLConverter sqrlConverter;
   private ExecutionPipeline pipeline;
   private ErrorCollector errors;
+  private CostProfile costProfile;
+
+  @Inject
+  public DAGBuilder(SQRLConverter sqrlConverter, ExecutionPipeline pipeline,
+      ErrorCollector errors, CompilerConfig compilerConfig) {
+    this(sqrlConverter, pipeline, errors, CostProfile.fromMap(compilerConfig.getCostProfile()));
+  }
 
   public SqrlDAG build(Collection<AnalyzedAPIQuery> queries,
       Collection<AnalyzedExport> exports) {
@@ -117,7 +126,7 @@ public class DAGBuilder {
       StageAnalysis result;
       try {
         TablePlan plan = planner.apply(stage);
-        ComputeCost cost = SimpleCostModel.of(stage, plan.getRelNode());
+        ComputeCost cost = SimpleCostModel.of(costProfile, stage, plan.getRelNode());
         result = new Cost(stage, cost, true, plan.getRelNode());
       } catch (ExecutionAnalysis.CapabilityException ex) {
         result = StageAnalysis.of(ex);
@@ -30,8 +30,9 @@ import org.apache.calcite.sql.SqlOperator;
 import org.apache.flink.table.functions.FunctionDefinition;
 
 /**
- * The DAGPlanner currently makes the simplifying assumption that the execution pipeline consists of
- * two stages: stream and database.
+ * The DAGPlanner builds the {@link SqrlDAG} of all tables, queries, and exports and assigns each
+ * node to the execution stage that minimizes the total cost of the pipeline
+ * (see {@link StageAssignment}).
  */
 @AllArgsConstructor(onConstructor_=@Inject)
 public class DAGPlanner {
@@ -50,7 +51,7 @@ public class DAGPlanner {
     DAGPreparation.Result prepResult = dagPreparation.prepareInputs(framework.getSchema(), exports);
 
     //Assemble DAG
-    SqrlDAG dag = new DAGBuilder(sqrlConverter, pipeline, errors).build(prepResult.getQueries(), prepResult.getExports());
+    SqrlDAG dag = dagBuilder.build(prepResult.getQueries(), prepResult.getExports());
     for (SqrlDAG.SqrlNode node : dag) {
       if (!node.hasViableStage()) {
         errors.fatal("Could not find execution stage for [%s]. Stage analysis below.\n%s",node.getName(), node.toString());
@@ -67,9 +68,15 @@ public class DAGPlanner {
   }
 
   public void optimize(SqrlDAG dag) {
-    //Pick most cost-effective stage for each node and assign
+    //Pick the stages that minimize the cost of the entire pipeline
+    Optional<StageAssignment.Result> assignment = new StageAssignment(pipeline).optimize(dag);
+    if (assignment.isPresent()) {
+      assignment.get().getStages().forEach(SqrlDAG.SqrlNode::setStage);
+      dag.setStageAssignment(assignment.get());
+    }
     for (SqrlDAG.SqrlNode node : dag) {
-      if (node.setCheapestStage()) {
+      //Fall back to the most cost-effective stage for each node if there is no global assignment
+      if (assignment.isEmpty() && node.setCheapestStage()) {
         //If we eliminated stages, we make sure to eliminate all inviable stages
         dag.eliminateInviableStages(pipeline);
       }
@@ -7,6 +7,8 @@ import com.datasqrl.function.IndexType;
 import com.google.common.base.Preconditions;
 import lombok.Value;
 
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,22 +22,67 @@ public class IndexDefinition implements Comparable<IndexDefinition> {
   List<String> columnNames;
   int partitionOffset;
   IndexType type;
+  /**
+   * Additional (non-key) columns stored in the index so that queries can be answered from the
+   * index alone
+   */
+  List<Integer> includeColumns;
+  List<String> includeColumnNames;
+  /**
+   * The predicates that restrict a partial index to the rows that satisfy them
+   */
+  List<IndexPredicate> predicates;
 
   public IndexDefinition(String tableId, List<Integer> columns, List<String> allFieldNames,
       int partitionOffset, IndexType type) {
+    this(tableId, columns, allFieldNames, partitionOffset, type, List.of(), List.of());
+  }
+
+  public IndexDefinition(String tableId, List<Integer> columns, List<String> allFieldNames,
+      int partitionOffset, IndexType type, List<Integer> includeColumns,
+      List<IndexPredicate> predicates) {
     Preconditions.checkArgument(type.isPartitioned() ^ partitionOffset < 0, "Index must be partitioned XOR partition offset must be negative: %s | %s", type, partitionOffset);
     Preconditions.checkArgument(partitionOffset<=columns.size(), "Invalid partition offset: %s | %s", partitionOffset, columns.size());
+    Preconditions.checkArgument(includeColumns.isEmpty() || type == IndexType.BTREE, "Only btree indexes can include columns: %s", type);
+    Preconditions.checkArgument(predicates.isEmpty() || (type.isGeneralIndex() && !type.isPartitioned()), "Only general indexes can be partial: %s", type);
     this.tableId = tableId;
     this.columns = columns;
     this.partitionOffset = partitionOffset;
     this.columnNames = columns.stream().map(allFieldNames::get)
         .collect(Collectors.toList());
     this.type = type;
+    this.includeColumns = includeColumns;
+    this.includeColumnNames = includeColumns.stream().map(allFieldNames::get)
+        .collect(Collectors.toList());
+    this.predicates = predicates.stream().sorted(Comparator.comparing(IndexPredicate::toString))
+        .collect(Collectors.toUnmodifiableList());
+  }
+
+  /**
+   * @return a copy of this index that includes the given columns
+   */
+  public IndexDefinition withIncludeColumns(List<Integer> includeColumns, List<String> allFieldNames) {
+    return new IndexDefinition(tableId, columns, allFieldNames, partitionOffset, type,
+        includeColumns, predicates);
+  }
+
+  /**
+   * @return a copy of this index that is restricted to the rows satisfying the given predicates
+   */
+  public IndexDefinition withPredicates(Collection<IndexPredicate> predicates,
+      List<String> allFieldNames) {
+    return new IndexDefinition(tableId, columns, allFieldNames, partitionOffset, type,
+        includeColumns, List.copyOf(predicates));
+  }
+
+  public boolean isPartial() {
+    return !predicates.isEmpty();
   }
 
   public String getName() {
     return tableId + "_" + type.name().toLowerCase() + "_" +
-        columns.stream().map(i -> "c" + i).collect(Collectors.joining());
+        columns.stream().map(i -> "c" + i).collect(Collectors.joining()) +
+        (isPartial() ? "_p" + Integer.toHexString(predicates.toString().hashCode()) : "");
   }
 
   public static IndexDefinition getPrimaryKeyIndex(String tableId, List<Integer> primaryKeys,
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.plan.global;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import lombok.Value;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+
+/**
+ * A comparison of a column against a constant that a query filters on, e.g. {@code status =
+ * 'active'} or {@code deleted IS NULL}. An index can be restricted to the rows that satisfy such
+ * predicates (i.e. a partial index), which makes it smaller and cheaper to maintain.
+ */
+@Value
+public class IndexPredicate {
+
+  int columnIndex;
+  String columnName;
+  SqlKind kind;
+  /**
+   * The constant the column is compared to or null for {@code IS [NOT] NULL}
+   */
+  RexLiteral value;
+
+  public boolean isEquality() {
+    return kind == SqlKind.EQUALS;
+  }
+
+  public static Optional<IndexPredicate> of(RexNode conjunction, List<String> fieldNames) {
+    if (!(conjunction instanceof RexCall)) {
+      return Optional.empty();
+    }
+    RexCall call = (RexCall) conjunction;
+    List<RexNode> operands = call.getOperands();
+    SqlKind kind = call.getKind();
+    switch (kind) {
+      case IS_NULL:
+      case IS_NOT_NULL:
+        if (operands.get(0) instanceof RexInputRef) {
+          int column = ((RexInputRef) operands.get(0)).getIndex();
+          return Optional.of(new IndexPredicate(column, fieldNames.get(column), kind, null));
+        }
+        return Optional.empty();
+      case EQUALS:
+      case NOT_EQUALS:
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+        RexNode left = operands.get(0), right = operands.get(1);
+        if (right instanceof RexInputRef && left instanceof RexLiteral) {
+          RexNode tmp = left;
+          left = right;
+          right = tmp;
+          kind = kind.reverse();
+        }
+        if (left instanceof RexInputRef && right instanceof RexLiteral
+            && isSupported((RexLiteral) right)) {
+          int column = ((RexInputRef) left).getIndex();
+          return Optional.of(new IndexPredicate(column, fieldNames.get(column), kind,
+              (RexLiteral) right));
+        }
+        return Optional.empty();
+      default:
+        return Optional.empty();
+    }
+  }
+
+  private static boolean isSupported(RexLiteral literal) {
+    if (literal.isNull()) {
+      return false;
+    }
+    switch (literal.getType().getSqlTypeName()) {
+      case CHAR:
+      case VARCHAR:
+      case BOOLEAN:
+      case TINYINT:
+      case SMALLINT:
+      case INTEGER:
+      case BIGINT:
+      case DECIMAL:
+      case FLOAT:
+      case REAL:
+      case DOUBLE:
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * @param column the quoted identifier of the column
+   * @return the predicate as a SQL expression
+   */
+  public String toSql(String column) {
+    switch (kind) {
+      case IS_NULL:
+        return column + " IS NULL";
+      case IS_NOT_NULL:
+        return column + " IS NOT NULL";
+      default:
+        return column + " " + kind.sql + " " + getValueSql();
+    }
+  }
+
+  private String getValueSql() {
+    switch (value.getType().getSqlTypeName()) {
+      case CHAR:
+      case VARCHAR:
+        return "'" + value.getValueAs(String.class).replace("'", "''") + "'";
+      case BOOLEAN:
+        return value.getValueAs(Boolean.class) ? "TRUE" : "FALSE";
+      default:
+        return value.getValueAs(BigDecimal.class).toPlainString();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return toSql(columnName);
+  }
+}
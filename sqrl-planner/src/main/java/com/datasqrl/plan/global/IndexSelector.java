@@ -9,6 +9,7 @@ import com.datasqrl.plan.OptimizationStage;
 import com.datasqrl.plan.RelStageRunner;
 import com.datasqrl.plan.global.QueryIndexSummary.IndexableFunctionCall;
 import com.datasqrl.plan.hints.IndexHint;
+import com.datasqrl.plan.rules.SqrlRelMdSelectivity;
 import com.datasqrl.plan.table.PhysicalRelationalTable;
 import com.datasqrl.plan.table.PhysicalTable;
 import com.datasqrl.plan.table.QueryRelationalTable;
@@ -16,10 +17,13 @@ import com.datasqrl.util.ArrayUtil;
 import com.datasqrl.calcite.SqrlRexUtil;
 import com.datasqrl.util.StreamUtil;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.Multimap;
 import com.google.common.primitives.Ints;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 import java.util.stream.Collectors;
 import lombok.AllArgsConstructor;
 import org.apache.calcite.adapter.enumerable.EnumerableFilter;
@@ -28,6 +32,7 @@ import org.apache.calcite.rel.RelFieldCollation;
 import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.RelVisitor;
 import org.apache.calcite.rel.core.*;
+import org.apache.calcite.rel.type.RelDataType;
 import org.apache.calcite.rel.type.RelDataTypeField;
 import org.apache.calcite.rex.RexDynamicParam;
 import org.apache.calcite.rex.RexInputRef;
@@ -46,6 +51,8 @@ public class IndexSelector {
 
   private static final int MAX_LIMIT_INDEX_SCAN = 10000;
 
+  private static final int MAX_INCLUDE_LENGTH = 64;
+
   private final SqrlFramework framework;
   private final IndexSelectorConfig config;
 
@@ -53,17 +60,19 @@ public class IndexSelector {
     RelNode optimized = RelStageRunner.runStage(READ_QUERY_OPTIMIZATION, query.getRelNode(), framework.getQueryPlanner()
         .getPlanner());
     IndexFinder indexFinder = new IndexFinder();
-    return indexFinder.find(optimized);
+    double frequency = config.getQueryFrequency(query.getQuery().getNameId());
+    return indexFinder.find(optimized).stream().map(idx -> idx.withCount(frequency))
+        .collect(Collectors.toList());
   }
 
   public Map<IndexDefinition, Double> optimizeIndexes(Collection<QueryIndexSummary> queryIndexSummaries) {
-    //Prune down to database indexes and remove duplicates
+    //Prune down to database indexes and remove duplicates while adding up their counts,
+    //so we preserve the relative frequency of each pattern
     Map<IndexDefinition, Double> optIndexes = new HashMap<>();
+    Map<QueryIndexSummary, QueryIndexSummary> merged = new LinkedHashMap<>();
+    queryIndexSummaries.forEach(idx -> merged.merge(idx, idx, QueryIndexSummary::merge));
     LinkedHashMultimap<PhysicalRelationalTable, QueryIndexSummary> callsByTable = LinkedHashMultimap.create();
-    queryIndexSummaries.forEach(idx -> {
-      //TODO: Add up counts so we preserve relative frequency
-      callsByTable.put(idx.getTable(), idx);
-    });
+    merged.values().forEach(idx -> callsByTable.put(idx.getTable(), idx));
 
     for (PhysicalRelationalTable table : callsByTable.keySet()) {
       optIndexes.putAll(optimizeIndexes(table, callsByTable.get(table)));
@@ -147,15 +156,15 @@ public class IndexSelector {
       initialCost = idx -> idx.getCost(pkIdx);
       candidates.remove(pkIdx);
     }
-    //Set initial costs
+    //Set initial costs, weighted by the relative frequency of each query pattern
     Map<QueryIndexSummary, Double> currentCost = new HashMap<>();
     for (QueryIndexSummary idx : indexes) {
-      currentCost.put(idx, initialCost.apply(idx));
+      currentCost.put(idx, idx.getCount() * initialCost.apply(idx));
     }
     //Determine which index candidates reduce the cost the most
     double beforeTotal = total(currentCost);
     for (; ; ) {
-      if (optIndexes.size() >= config.maxIndexes()) {
+      if (optIndexes.size() >= config.maxIndexes() || beforeTotal <= 0) {
         break;
       }
       IndexDefinition bestCandidate = null;
@@ -164,13 +173,14 @@ public class IndexSelector {
       for (IndexDefinition candidate : candidates) {
         Map<QueryIndexSummary, Double> costs = new HashMap<>();
         currentCost.forEach((call, cost) -> {
-          double newcost = call.getCost(candidate);
+          double newcost = call.getCount() * call.getCost(candidate);
             if (newcost > cost) {
                 newcost = cost;
             }
           costs.put(call, newcost);
         });
-        double total = total(costs);
+        //Each index adds to the cost of every write to the table
+        double total = total(costs) + writeCost(table, candidate);
         if (total < beforeTotal && (total + EPSILON < bestTotal ||
             (Precision.equals(total,bestTotal, 2*EPSILON) && costLess(candidate,bestCandidate)))) {
           bestCandidate = candidate;
@@ -182,15 +192,108 @@ public class IndexSelector {
           && bestTotal / beforeTotal <= config.getCostImprovementThreshold()) {
         optIndexes.put(bestCandidate, beforeTotal - bestTotal);
         candidates.remove(bestCandidate);
-        beforeTotal = bestTotal;
+        beforeTotal = total(bestCosts);
         currentCost = bestCosts;
       } else {
         break;
       }
     }
+    if (config.maxIncludeColumns() > 0) {
+      optIndexes = addIncludeColumns(table, indexes, optIndexes, initialCost);
+    }
     return optIndexes;
   }
 
+  /**
+   * Adds the columns that the queries which are executed against a btree index read from the
+   * table to that index, if there are few enough of them and they are narrow, so those queries
+   * can be answered from the index alone.
+   */
+  private Map<IndexDefinition, Double> addIncludeColumns(PhysicalRelationalTable table,
+      Collection<QueryIndexSummary> indexes, Map<IndexDefinition, Double> optIndexes,
+      Function<QueryIndexSummary, Double> initialCost) {
+    //Assign each query to the selected index that is cheapest to execute it with
+    List<IndexDefinition> selected = new ArrayList<>(new TreeSet<>(optIndexes.keySet()));
+    Multimap<IndexDefinition, QueryIndexSummary> queriesByIndex = ArrayListMultimap.create();
+    for (QueryIndexSummary idx : indexes) {
+      IndexDefinition bestIndex = null;
+      double bestCost = initialCost.apply(idx);
+      for (IndexDefinition indexDef : selected) {
+        double cost = idx.getCost(indexDef);
+        if (cost + EPSILON < bestCost) {
+          bestIndex = indexDef;
+          bestCost = cost;
+        }
+      }
+      if (bestIndex != null) {
+        queriesByIndex.put(bestIndex, idx);
+      }
+    }
+    Map<IndexDefinition, Double> result = new HashMap<>();
+    optIndexes.forEach((indexDef, benefit) -> {
+      boolean covering = indexDef.getType() == IndexType.BTREE
+          && queriesByIndex.containsKey(indexDef);
+      Set<Integer> includeColumns = new TreeSet<>();
+      for (QueryIndexSummary idx : queriesByIndex.get(indexDef)) {
+        Optional<Set<Integer>> nonIndexed = idx.getNonIndexedColumns(indexDef);
+        if (nonIndexed.isPresent()) {
+          includeColumns.addAll(nonIndexed.get());
+        } else {
+          covering = false;
+        }
+      }
+      List<RelDataTypeField> fields = table.getRowType().getFieldList();
+      if (covering && !includeColumns.isEmpty()
+          && includeColumns.size() <= config.maxIncludeColumns()
+          && includeColumns.stream().allMatch(i -> isIncludable(fields.get(i).getType()))) {
+        indexDef = indexDef.withIncludeColumns(List.copyOf(includeColumns),
+            table.getRowType().getFieldNames());
+      }
+      result.put(indexDef, benefit);
+    });
+    return result;
+  }
+
+  /**
+   * Wide columns bloat the leaf pages of the index (and can exceed the maximum size of an index
+   * row), so only fixed-width columns and short strings are included.
+   */
+  static boolean isIncludable(RelDataType type) {
+    switch (type.getSqlTypeName()) {
+      case BOOLEAN:
+      case TINYINT:
+      case SMALLINT:
+      case INTEGER:
+      case BIGINT:
+      case DECIMAL:
+      case FLOAT:
+      case REAL:
+      case DOUBLE:
+      case DATE:
+      case TIME:
+      case TIMESTAMP:
+      case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+        return true;
+      case CHAR:
+      case VARCHAR:
+      case BINARY:
+      case VARBINARY:
+        return type.getPrecision() != RelDataType.PRECISION_NOT_SPECIFIED
+            && type.getPrecision() <= MAX_INCLUDE_LENGTH;
+      default:
+        return false;
+    }
+  }
+
+  private double writeCost(PhysicalRelationalTable table, IndexDefinition index) {
+    double writeCost = config.indexWriteCost(index);
+    //A partial index is only written for the rows that satisfy its predicates
+    for (IndexPredicate predicate : index.getPredicates()) {
+      writeCost *= SqrlRelMdSelectivity.getSelectivity(table, predicate);
+    }
+    return writeCost;
+  }
+
   private boolean costLess(IndexDefinition candidate, IndexDefinition bestCandidate) {
     double cost = config.relativeIndexCost(candidate);
     double bestcost = config.relativeIndexCost(bestCandidate);
@@ -242,6 +345,16 @@ public class IndexSelector {
             generatePermutations(new int[maxIndexCols],
                 0, eqCols, inequality, colPermutations);
           }
+          if (indexType.isOrdered() && !queryIndexSummary.sortColumns.isEmpty()) {
+            //Filter on the equality columns first and then read the rows in sort order
+            List<Integer> sortIndex = new ArrayList<>(new TreeSet<>(eqCols));
+            queryIndexSummary.getRemainingSortColumns().stream()
+                .filter(col -> !sortIndex.contains(col)).forEach(sortIndex::add);
+            int numCols = Math.min(sortIndex.size(), config.maxIndexColumns(indexType));
+            if (numCols > 0) {
+              colPermutations.add(List.copyOf(sortIndex.subList(0, numCols)));
+            }
+          }
           break;
         case TEXT:
         case VEC_COSINE:
@@ -266,6 +379,14 @@ public class IndexSelector {
                 queryIndexSummary.getTable().getRowType().getFieldNames(), -1, indexType)));
       }
     }
+    if (config.supportsPartialIndexes() && !queryIndexSummary.getPredicates().isEmpty()) {
+      //Restrict the indexes on the remaining constraints to the rows satisfying the predicates
+      List<String> fieldNames = queryIndexSummary.getTable().getRowType().getFieldNames();
+      generateIndexCandidates(queryIndexSummary.withoutPredicates()).stream()
+          .filter(idx -> idx.getType().isGeneralIndex() && !idx.getType().isPartitioned())
+          .map(idx -> idx.withPredicates(queryIndexSummary.getPredicates(), fieldNames))
+          .forEach(result::add);
+    }
     return result;
   }
 
@@ -319,47 +440,90 @@ public class IndexSelector {
         right = RelStageRunner.runStage(OptimizationStage.PUSH_DOWN_FILTERS, right, framework.getQueryPlanner()
             .getPlanner());
         visit(right, 1, node);
-      } else if (node instanceof TableScan && parent instanceof Filter) {
-        PhysicalRelationalTable table = ((TableScan) node).getTable()
-            .unwrap(PhysicalRelationalTable.class);
-        Filter filter = (Filter) parent;
-        QueryIndexSummary.ofFilter(table, filter.getCondition(), rexUtil).map(queryIndexSummaries::add);
-      } else if (node instanceof TableScan && parent instanceof Sort) {
-        PhysicalRelationalTable table = ((TableScan) node).getTable()
-            .unwrap(PhysicalRelationalTable.class);
-        Sort sort = (Sort) parent;
-        Optional<Integer> firstCollationIdx = getFirstCollation(sort);
-        if (firstCollationIdx.isPresent() && hasLimit(sort)) {
-          QueryIndexSummary.ofSort(table, firstCollationIdx.get()).map(queryIndexSummaries::add);
-        }
-      } else if (node instanceof Project && parent instanceof Sort && node.getInput(0) instanceof TableScan) {
-        PhysicalRelationalTable table = ((TableScan) node.getInput(0)).getTable()
-            .unwrap(PhysicalRelationalTable.class);
-        Sort sort = (Sort) parent;
-        Optional<Integer> firstCollationIdx = getFirstCollation(sort);
-        if (firstCollationIdx.isPresent() && hasLimit(sort)) {
-          Project project = (Project) node;
-          RexNode sortRex = project.getProjects().get(firstCollationIdx.get());
-          QueryIndexSummary.ofSort(table, sortRex).map(queryIndexSummaries::add);
-        }
-      } else {
+      } else if (!findTableAccess(node)) {
         super.visit(node, ordinal, parent);
       }
     }
 
-    private boolean hasLimit(Sort sort) {
-      //Check for limit. Can only use index scans if there is a limit, otherwise it's a table scan
-      return SqrlRexUtil.getLimit(sort.fetch).filter(limit -> limit <= MAX_LIMIT_INDEX_SCAN).isPresent();
+    /**
+     * Matches the pattern [Sort] -> [Project] -> [Filter] -> TableScan and summarizes the
+     * constraints, sort order, and projected columns of the table access.
+     *
+     * @return true if the node matched the pattern
+     */
+    private boolean findTableAccess(RelNode node) {
+      Sort sort = null;
+      Project project = null;
+      Filter filter = null;
+      RelNode input = node;
+      if (input instanceof Sort) {
+        sort = (Sort) input;
+        input = input.getInput(0);
+      }
+      if (input instanceof Project) {
+        project = (Project) input;
+        input = input.getInput(0);
+      }
+      if (input instanceof Filter) {
+        filter = (Filter) input;
+        input = input.getInput(0);
+      }
+      if (!(input instanceof TableScan)) {
+        return false;
+      }
+      PhysicalRelationalTable table = ((TableScan) input).getTable()
+          .unwrap(PhysicalRelationalTable.class);
+      QueryIndexSummary summary = QueryIndexSummary.of(table);
+      Set<Integer> projectedColumns = new HashSet<>();
+      if (filter != null) {
+        summary = QueryIndexSummary.ofFilter(table, filter.getCondition(), rexUtil)
+            .orElse(summary);
+        projectedColumns.addAll(SqrlRexUtil.findAllInputRefs(List.of(filter.getCondition())));
+      }
+      if (project != null) {
+        projectedColumns.addAll(SqrlRexUtil.findAllInputRefs(project.getProjects()));
+      } else {
+        IntStream.range(0, input.getRowType().getFieldCount()).forEach(projectedColumns::add);
+      }
+      summary = summary.withProjectedColumns(projectedColumns);
+      Optional<Integer> limit = sort == null ? Optional.empty() : getLimit(sort);
+      if (limit.isPresent() && !sort.collation.getFieldCollations().isEmpty()) {
+        List<RelFieldCollation> collations = sort.collation.getFieldCollations();
+        RelNode sortInput = sort.getInput();
+        Function<Integer, RexNode> sortExpression = project == null ?
+            idx -> RexInputRef.of(idx, sortInput.getRowType()) :
+            project.getProjects()::get;
+        RexNode firstSort = sortExpression.apply(collations.get(0).getFieldIndex());
+        if (firstSort instanceof RexInputRef) {
+          //Index scans return rows in one direction, so we only consider the sort columns up to
+          //the first change in direction
+          List<Integer> sortColumns = new ArrayList<>();
+          for (RelFieldCollation collation : collations) {
+            RexNode sortRex = sortExpression.apply(collation.getFieldIndex());
+            if (!(sortRex instanceof RexInputRef)
+                || collation.getDirection() != collations.get(0).getDirection()) {
+              break;
+            }
+            sortColumns.add(((RexInputRef) sortRex).getIndex());
+          }
+          summary = summary.withSort(sortColumns, limit.get());
+        } else {
+          QueryIndexSummary.ofSort(table, firstSort).map(queryIndexSummaries::add);
+        }
+      }
+      if (!summary.isEmpty()) {
+        queryIndexSummaries.add(summary);
+      }
+      return true;
     }
 
-    private Optional<Integer> getFirstCollation(Sort sort) {
-      List<RelFieldCollation> fieldCollations = sort.collation.getFieldCollations();
-      if (fieldCollations.isEmpty()) return Optional.empty();
-      RelFieldCollation firstCollation = fieldCollations.get(0);
-      return Optional.of(firstCollation.getFieldIndex());
+    private Optional<Integer> getLimit(Sort sort) {
+      //Check for limit. Can only use index scans if there is a limit, otherwise it's a table scan
+      return SqrlRexUtil.getLimit(sort.fetch).map(limit -> limit +
+              SqrlRexUtil.getLimit(sort.offset).orElse(0))
+          .filter(limit -> limit <= MAX_LIMIT_INDEX_SCAN);
     }
 
-
     private RexNode pushJoinConditionIntoRight(Join join) {
       return join.getCondition()
           .accept(new JoinConditionRewriter(join.getLeft().getRowType().getFieldCount(),
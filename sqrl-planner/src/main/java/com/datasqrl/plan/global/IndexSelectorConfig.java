@@ -56,6 +56,26 @@ public interface IndexSelectorConfig {
    */
   int maxIndexColumns(IndexType indexType);
 
+  /**
+   * The maximum number of additional columns that an index can include to answer queries from
+   * the index alone (i.e. a covering index), or 0 if the database does not support it.
+   *
+   * @return
+   */
+  default int maxIncludeColumns() {
+    return 0;
+  }
+
+  /**
+   * Whether the database supports partial indexes that only contain the rows which satisfy
+   * some predicate.
+   *
+   * @return
+   */
+  default boolean supportsPartialIndexes() {
+    return false;
+  }
+
   /**
    * The relative cost of creating this index against some fixed baseline.
    *
@@ -64,6 +84,28 @@ public interface IndexSelectorConfig {
    */
   double relativeIndexCost(IndexDefinition index);
 
+  /**
+   * The relative frequency with which the query of the given id is executed, so that indexes
+   * are chosen for the queries that dominate the load on the database.
+   *
+   * @param queryId
+   * @return
+   */
+  default double getQueryFrequency(String queryId) {
+    return 1.0;
+  }
+
+  /**
+   * The cost of maintaining this index on writes in the same unit as the query cost (i.e. rows
+   * read per query execution), which an index needs to outweigh to get selected.
+   *
+   * @param index
+   * @return
+   */
+  default double indexWriteCost(IndexDefinition index) {
+    return 0.0;
+  }
+
   public static final IndexType[] PREFERRED_GENERIC_INDEX = {IndexType.BTREE, IndexType.HASH};
 
   default IndexType getPreferredGenericIndexType() {
@@ -7,9 +7,12 @@ import com.datasqrl.function.IndexType;
 import com.datasqrl.function.IndexableFunction;
 import com.datasqrl.function.IndexableFunction.OperandSelector;
 import com.datasqrl.plan.rules.SqrlRelMdRowCount;
+import com.datasqrl.plan.rules.SqrlRelMdSelectivity;
 import com.datasqrl.plan.table.PhysicalRelationalTable;
 import com.datasqrl.util.FunctionUtil;
 import com.datasqrl.calcite.SqrlRexUtil;
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import lombok.*;
 import lombok.EqualsAndHashCode.Include;
@@ -24,8 +27,8 @@ import java.util.*;
 
 /**
  * This class represents the potentially indexable filters and sorts of a query.
- * Those include equality and inequality constraints on a single column and {@link IndexableFunction}
- * calls. <br />
+ * Those include equality and inequality constraints on a single column, {@link IndexableFunction}
+ * calls, constant {@link IndexPredicate}s, and the sort order of a query with a limit. <br />
  * This class provides the methods to create a {@link QueryIndexSummary} from a WHERE clause (i.e. {@link org.apache.calcite.rel.logical.LogicalFilter})
  * and estimating the cost of a {@link QueryIndexSummary} against an {@link IndexDefinition}.
  */
@@ -37,6 +40,8 @@ public class QueryIndexSummary {
   private static final QueryIndexSummary EMPTY = new QueryIndexSummary(null, Set.of(), Set.of(),
       Set.of(), 1.0);
 
+  public static final double NO_LIMIT = Double.POSITIVE_INFINITY;
+
   public static final String INDEX_NAME = "_index_";
 
   @Include
@@ -47,21 +52,48 @@ public class QueryIndexSummary {
   Set<Integer> inequalityColumns;
   @Include
   Set<IndexableFunctionCall> functionCalls;
-  //TODO: add support for sort orders
-  //List<IndexableSort> sorts;
+  /**
+   * The constant predicates of the query, which partial indexes can be restricted to
+   */
+  @Include
+  Set<IndexPredicate> predicates;
+  /**
+   * The columns the query result is sorted by in the same direction, which an ordered index can
+   * return in order so the query stops reading after {@link #limit} rows.
+   */
+  @Include
+  List<Integer> sortColumns;
+  double limit;
+  /**
+   * All columns the query reads from the table, or empty if unknown. An index that includes all
+   * of them answers the query without reading the table.
+   */
+  Set<Integer> projectedColumns;
 
   /**
    * Keeps track of the relative frequency of query conjunctions as we reduce them
    */
   double count = 1.0;
 
+  public QueryIndexSummary(PhysicalRelationalTable table, Set<Integer> equalityColumns,
+      Set<Integer> inequalityColumns, Set<IndexableFunctionCall> functionCalls, double count) {
+    this(table, equalityColumns, inequalityColumns, functionCalls, Set.of(), List.of(), NO_LIMIT,
+        Set.of(), count);
+  }
+
+  public static QueryIndexSummary of(@NonNull PhysicalRelationalTable table) {
+    return new QueryIndexSummary(table, Set.of(), Set.of(), Set.of(), 1.0);
+  }
+
   public static Optional<QueryIndexSummary> ofFilter(@NonNull PhysicalRelationalTable table, RexNode filter,
       SqrlRexUtil rexUtil) {
     List<RexNode> conjunctions = rexUtil.getConjunctions(filter);
     Set<Integer> equalityColumns = new HashSet<>();
     Set<Integer> inequalityColumns = new HashSet<>();
     Set<IndexableFunctionCall> functionCalls = new HashSet<>();
+    Set<IndexPredicate> predicates = new HashSet<>();
     for (RexNode conj : conjunctions) {
+      IndexPredicate.of(conj, table.getRowType().getFieldNames()).ifPresent(predicates::add);
       if (conj instanceof RexCall) {
         RexCall call = (RexCall) conj;
         IndexableFinder idxFinder = new IndexableFinder();
@@ -75,12 +107,14 @@ public class QueryIndexSummary {
         }
       }
     }
-    if (equalityColumns.isEmpty() && inequalityColumns.isEmpty() && functionCalls.isEmpty()) {
+    if (equalityColumns.isEmpty() && inequalityColumns.isEmpty() && functionCalls.isEmpty()
+        && predicates.isEmpty()) {
       return Optional.empty();
     } else {
       inequalityColumns.removeAll(equalityColumns); //only keep distinct inequalities
       return Optional.of(new QueryIndexSummary(table, ImmutableSet.copyOf(equalityColumns),
-          ImmutableSet.copyOf(inequalityColumns), ImmutableSet.copyOf(functionCalls), 1.0));
+          ImmutableSet.copyOf(inequalityColumns), ImmutableSet.copyOf(functionCalls),
+          ImmutableSet.copyOf(predicates), List.of(), NO_LIMIT, Set.of(), 1.0));
     }
   }
 
@@ -101,12 +135,115 @@ public class QueryIndexSummary {
     return Optional.of(new QueryIndexSummary(table, Set.of(), ImmutableSet.of(columnIndex), Set.of(), 1.0));
   }
 
+  /**
+   * @return a copy of this summary for a query that is sorted by the given columns and returns at
+   * most limit rows
+   */
+  public QueryIndexSummary withSort(List<Integer> sortColumns, double limit) {
+    return new QueryIndexSummary(table, equalityColumns, inequalityColumns, functionCalls,
+        predicates, ImmutableList.copyOf(sortColumns), limit, projectedColumns, count);
+  }
+
+  public QueryIndexSummary withProjectedColumns(Set<Integer> projectedColumns) {
+    return new QueryIndexSummary(table, equalityColumns, inequalityColumns, functionCalls,
+        predicates, sortColumns, limit, ImmutableSet.copyOf(projectedColumns), count);
+  }
+
+  /**
+   * @return a copy of this summary without the predicates and the constraints on the columns
+   * they constrain, i.e. the remainder of the query against a partial index on the predicates
+   */
+  public QueryIndexSummary withoutPredicates() {
+    Set<Integer> eqCols = new HashSet<>(equalityColumns), ineqCols = new HashSet<>(inequalityColumns);
+    for (IndexPredicate predicate : predicates) {
+      (predicate.isEquality() ? eqCols : ineqCols).remove(predicate.getColumnIndex());
+    }
+    return new QueryIndexSummary(table, ImmutableSet.copyOf(eqCols), ImmutableSet.copyOf(ineqCols),
+        functionCalls, Set.of(), sortColumns, limit, projectedColumns, count);
+  }
+
+  public boolean isEmpty() {
+    return equalityColumns.isEmpty() && inequalityColumns.isEmpty() && functionCalls.isEmpty()
+        && predicates.isEmpty() && sortColumns.isEmpty();
+  }
+
+  /**
+   * Merges the other summary of the same indexing pattern into this one by adding up the counts
+   * and combining the limits and projected columns.
+   */
+  public QueryIndexSummary merge(QueryIndexSummary other) {
+    Preconditions.checkArgument(this.equals(other));
+    Set<Integer> projected = Set.of();
+    if (!projectedColumns.isEmpty() && !other.projectedColumns.isEmpty()) {
+      projected = ImmutableSet.<Integer>builder().addAll(projectedColumns)
+          .addAll(other.projectedColumns).build();
+    }
+    return new QueryIndexSummary(table, equalityColumns, inequalityColumns, functionCalls,
+        predicates, sortColumns, Math.max(limit, other.limit), projected, count + other.count);
+  }
+
+  /**
+   * @return the columns the query reads from the table that are not part of the given index, or
+   * empty if the columns the query reads are unknown
+   */
+  public Optional<Set<Integer>> getNonIndexedColumns(IndexDefinition indexDef) {
+    if (projectedColumns.isEmpty()) {
+      return Optional.empty();
+    }
+    Set<Integer> columns = new TreeSet<>(projectedColumns);
+    columns.addAll(equalityColumns);
+    columns.addAll(inequalityColumns);
+    columns.addAll(sortColumns);
+    columns.removeAll(indexDef.getColumns());
+    return Optional.of(columns);
+  }
+
+  /**
+   * @return the sort columns that are not fixed by an equality constraint
+   */
+  public List<Integer> getRemainingSortColumns() {
+    List<Integer> remaining = new ArrayList<>();
+    for (int col : sortColumns) {
+      if (!equalityColumns.contains(col)) remaining.add(col);
+    }
+    return remaining;
+  }
+
+  private boolean satisfiesSortOrder(IndexDefinition indexDef) {
+    if (sortColumns.isEmpty() || !indexDef.getType().isOrdered()) {
+      return false;
+    }
+    List<Integer> indexColumns = indexDef.getColumns();
+    int prefix = 0;
+    while (prefix < indexColumns.size() && equalityColumns.contains(indexColumns.get(prefix))) {
+      prefix++;
+    }
+    List<Integer> remaining = getRemainingSortColumns();
+    return indexColumns.size() - prefix >= remaining.size()
+        && indexColumns.subList(prefix, prefix + remaining.size()).equals(remaining);
+  }
+
   public double getCost(@NonNull IndexDefinition indexDef) {
     IndexType indexType = indexDef.getType();
     QueryIndexSummary coveredConjunction;
-    if (indexType.isGeneralIndex()) {
+    if (!predicates.containsAll(indexDef.getPredicates())) {
+      //A partial index only contains the rows that satisfy its predicates
+      coveredConjunction = EMPTY;
+    } else if (indexType.isGeneralIndex()) {
       Set<Integer> equalityCols = new HashSet<>();
       Set<Integer> inequalityCols = new HashSet<>();
+      //The predicates of a partial index constrain all its rows
+      double predicateSelectivity = 1.0;
+      for (IndexPredicate predicate : indexDef.getPredicates()) {
+        int colIndex = predicate.getColumnIndex();
+        if (predicate.isEquality() && this.equalityColumns.contains(colIndex)) {
+          equalityCols.add(colIndex);
+        } else if (!predicate.isEquality() && this.inequalityColumns.contains(colIndex)) {
+          inequalityCols.add(colIndex);
+        } else {
+          predicateSelectivity *= SqrlRelMdSelectivity.getSelectivity(table, predicate);
+        }
+      }
 
       int i = 0;
       for (; i < indexDef.getColumns().size(); i++) {
@@ -122,6 +259,20 @@ public class QueryIndexSummary {
         coveredConjunction = EMPTY;
       } else {
         coveredConjunction = new QueryIndexSummary(this.table, equalityCols, inequalityCols, Set.of(), this.count);
+        double rowCount = predicateSelectivity * SqrlRelMdRowCount.getRowCount(table,
+            coveredConjunction);
+        if (satisfiesSortOrder(indexDef)) {
+          //The index returns the rows in sort order, so we only read as many rows as it takes to
+          //find the limit of rows that also match the constraints the index does not cover
+          double coveredSelectivity = predicateSelectivity
+              * SqrlRelMdSelectivity.getSelectivity(table, coveredConjunction);
+          double selectivity = predicateSelectivity
+              * SqrlRelMdSelectivity.getSelectivity(table, this);
+          if (coveredSelectivity > 0 && selectivity > 0) {
+            return Math.min(rowCount, limit * coveredSelectivity / selectivity);
+          }
+        }
+        return rowCount;
       }
     } else {
       //See which of the indexable function calls are covered
@@ -143,6 +294,14 @@ public class QueryIndexSummary {
     return SqrlRelMdRowCount.getRowCount(table, coveredConjunction);
   }
 
+  /**
+   * @return a copy of this summary with the given relative frequency
+   */
+  public QueryIndexSummary withCount(double count) {
+    return new QueryIndexSummary(table, equalityColumns, inequalityColumns, functionCalls,
+        predicates, sortColumns, limit, projectedColumns, count);
+  }
+
   public double getBaseCost() {
     return SqrlRelMdRowCount.getRowCount(table, EMPTY);
   }
@@ -152,7 +311,9 @@ public class QueryIndexSummary {
     return table.getNameId() +
         "eq" + equalityColumns.toString() +
         "iq" + inequalityColumns.toString() +
-        functionCalls.toString();
+        functionCalls.toString() +
+        (predicates.isEmpty() ? "" : "where" + predicates.toString()) +
+        (sortColumns.isEmpty() ? "" : "sort" + sortColumns.toString());
   }
 
   @Value
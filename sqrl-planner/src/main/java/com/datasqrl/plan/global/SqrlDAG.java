@@ -13,6 +13,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import java.util.Comparator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -20,10 +21,17 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.Value;
 
 public class SqrlDAG extends AbstractDAG<SqrlNode, SqrlDAG> {
 
+  /**
+   * The cost of the stage assignment chosen by the {@link DAGPlanner}, if it was optimized globally
+   */
+  @Getter
+  @Setter
+  private StageAssignment.Result stageAssignment;
 
   protected SqrlDAG(Multimap<SqrlNode, SqrlNode> inputs) {
     super(inputs);
@@ -103,6 +111,26 @@ public class SqrlDAG extends AbstractDAG<SqrlNode, SqrlDAG> {
               stageAnalysis.put(other.getStage(), other.tooExpensive())).count()>0;
     }
 
+    /**
+     * Sets the given execution stage and eliminates all others.
+     */
+    public void setStage(ExecutionStage stage) {
+      StreamUtil.filterByClass(stageAnalysis.values(), StageAnalysis.Cost.class)
+          .filter(other -> other.isSupported() && !other.getStage().equals(stage))
+          .collect(Collectors.toList())
+          .forEach(other -> stageAnalysis.put(other.getStage(), other.tooExpensive()));
+    }
+
+    /**
+     * @return the supported stages of this node ordered by cost
+     */
+    public List<StageAnalysis.Cost> getViableStages() {
+      return StreamUtil.filterByClass(stageAnalysis.values(), StageAnalysis.Cost.class)
+          .filter(StageAnalysis::isSupported)
+          .sorted(Comparator.comparing(StageAnalysis.Cost::getCost))
+          .collect(Collectors.toList());
+    }
+
     public static StageAnalysis.Cost findCheapestStage(Map<ExecutionStage, StageAnalysis> stageAnalysis) {
       Optional<StageAnalysis.Cost> stage = StreamUtil.filterByClass(stageAnalysis.values(),
               StageAnalysis.Cost.class)
@@ -27,6 +27,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Value
@@ -118,6 +119,15 @@ public class SqrlDAGExporter {
         return result;
     }
 
+    /**
+     * @return the total cost of the chosen stage assignment compared to the greedy assignment
+     * that picks the cheapest stage for each node, if the stages were assigned globally
+     */
+    public Optional<StageCost> exportCost(SqrlDAG dag) {
+        return Optional.ofNullable(dag.getStageAssignment())
+                .map(assignment -> new StageCost(assignment.getCost(), assignment.getGreedyCost()));
+    }
+
     private String explain(RelNode relNode) {
         if (!includeLogicalPlan) return null;
         CalciteHacks.resetToSqrlMetadataProvider();
@@ -301,6 +311,21 @@ public class SqrlDAGExporter {
     }
 
 
+    @Value
+    public static class StageCost {
+        double cost;
+        double greedy_cost;
+
+        @Override
+        public String toString() {
+            StringBuilder s = new StringBuilder();
+            s.append("=== Stage Assignment Cost").append(LINEBREAK);
+            s.append("Chosen: ").append(String.format("%.3f", cost)).append(LINEBREAK);
+            s.append("Greedy: ").append(String.format("%.3f", greedy_cost)).append(LINEBREAK);
+            return s.toString();
+        }
+    }
+
     @Value
     public static class PostProcessor {
         String name;
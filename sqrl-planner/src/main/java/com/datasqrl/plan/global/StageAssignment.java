@@ -0,0 +1,290 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.plan.global;
+
+import com.datasqrl.engine.pipeline.ExecutionPipeline;
+import com.datasqrl.engine.pipeline.ExecutionStage;
+import com.datasqrl.plan.global.SqrlDAG.SqrlNode;
+import com.datasqrl.plan.rules.SimpleCostModel;
+import com.google.common.collect.Iterables;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+/**
+ * Assigns an execution stage to each node of the {@link SqrlDAG} such that the total cost of the
+ * pipeline is minimal, i.e. the sum of the compute cost of each node in its stage and the cost of
+ * transferring the data of each node to the other stages that read it (see
+ * {@link SimpleCostModel#transferCost}).
+ *
+ * Unlike picking the cheapest stage for each node individually, this can trade a more expensive
+ * stage for one node against cheaper stages or fewer transfers downstream. The assignment is
+ * found by branch-and-bound over the nodes in topological order: the stages of each node are
+ * tried from cheapest to most expensive and branches are pruned when they cannot beat the best
+ * assignment found so far. The search stops after {@link #MAX_STEPS} stage assignments and returns
+ * the best assignment found by then.
+ *
+ * For comparison, the cost of the greedy assignment is computed separately by replaying the
+ * per-node selection of {@link SqrlNode#setCheapestStage()} followed by
+ * {@link SqrlDAG#eliminateInviableStages}.
+ */
+@AllArgsConstructor
+public class StageAssignment {
+
+  public static final int MAX_STEPS = 100000;
+
+  private static final double EPSILON = 1e-9;
+
+  private final ExecutionPipeline pipeline;
+
+  /**
+   * @return the optimal assignment of stages to nodes or empty if no viable assignment exists
+   */
+  public Optional<Result> optimize(SqrlDAG dag) {
+    Search search = new Search(dag);
+    if (search.nodes.size() != Iterables.size(dag)) {
+      return Optional.empty();
+    }
+    return search.run();
+  }
+
+  @Value
+  public static class Result {
+
+    Map<SqrlNode, ExecutionStage> stages;
+    /**
+     * The total cost of the chosen assignment
+     */
+    double cost;
+    /**
+     * The total cost of the greedy assignment where each node gets the cheapest viable stage, or
+     * NaN if the greedy assignment runs into a node without a viable stage
+     */
+    double greedyCost;
+
+  }
+
+  private class Search {
+
+    final SqrlDAG dag;
+    final List<SqrlNode> nodes;
+    final Map<SqrlNode, Integer> position = new HashMap<>();
+    final List<List<StageAnalysis.Cost>> viableStages = new ArrayList<>();
+    /**
+     * The lower bound on the cost of all nodes from the given position onwards
+     */
+    final double[] remainingCost;
+    final ExecutionStage[] assignment;
+
+    ExecutionStage[] best = null;
+    double bestCost = Double.POSITIVE_INFINITY;
+    int steps = 0;
+
+    Search(SqrlDAG dag) {
+      this.dag = dag;
+      this.nodes = topologicalOrder(dag);
+      for (int i = 0; i < nodes.size(); i++) {
+        position.put(nodes.get(i), i);
+        viableStages.add(nodes.get(i).getViableStages());
+      }
+      remainingCost = new double[nodes.size() + 1];
+      for (int i = nodes.size() - 1; i >= 0; i--) {
+        remainingCost[i] = remainingCost[i + 1] + viableStages.get(i).stream()
+            .mapToDouble(stage -> stage.getCost().getCost()).min().orElse(0.0);
+      }
+      assignment = new ExecutionStage[nodes.size()];
+    }
+
+    Optional<Result> run() {
+      double greedyCost = greedyCost();
+      search(0, 0.0);
+      if (best == null) {
+        return Optional.empty();
+      }
+      Map<SqrlNode, ExecutionStage> stages = new LinkedHashMap<>();
+      for (int i = 0; i < nodes.size(); i++) {
+        stages.put(nodes.get(i), best[i]);
+      }
+      return Optional.of(new Result(stages, bestCost, greedyCost));
+    }
+
+    private void search(int index, double cost) {
+      if (index == nodes.size()) {
+        best = assignment.clone();
+        bestCost = cost;
+        return;
+      }
+      SqrlNode node = nodes.get(index);
+      for (StageAnalysis.Cost stageCost : viableStages.get(index)) {
+        if (steps >= MAX_STEPS) {
+          return;
+        }
+        ExecutionStage stage = stageCost.getStage();
+        Optional<Double> inputCost = getInputCost(node, stage);
+        if (inputCost.isEmpty() || !hasViableOutputs(node, stage)) {
+          continue;
+        }
+        double newCost = cost + stageCost.getCost().getCost() + inputCost.get();
+        if (newCost + remainingCost[index + 1] + EPSILON >= bestCost) {
+          continue;
+        }
+        steps++;
+        assignment[index] = stage;
+        search(index + 1, newCost);
+        assignment[index] = null;
+      }
+    }
+
+    /**
+     * Replays the greedy assignment which visits the nodes in the order of the DAG, picks the
+     * cheapest remaining stage for each node, and then eliminates the stages of all nodes that
+     * are no longer viable.
+     *
+     * @return the total cost of the greedy assignment or NaN if a node has no viable stage left
+     */
+    private double greedyCost() {
+      List<Set<ExecutionStage>> remaining = viableStages.stream()
+          .map(stages -> stages.stream().map(StageAnalysis::getStage)
+              .collect(Collectors.toCollection(HashSet::new)))
+          .collect(Collectors.toList());
+      for (SqrlNode node : dag) {
+        int index = position.get(node);
+        Optional<ExecutionStage> cheapest = viableStages.get(index).stream()
+            .map(StageAnalysis::getStage)
+            .filter(remaining.get(index)::contains)
+            .findFirst();
+        if (cheapest.isEmpty()) {
+          return Double.NaN;
+        }
+        remaining.get(index).retainAll(Set.of(cheapest.get()));
+        if (!eliminateInviableStages(remaining)) {
+          return Double.NaN;
+        }
+      }
+      double cost = 0.0;
+      for (int i = 0; i < nodes.size(); i++) {
+        ExecutionStage stage = Iterables.getOnlyElement(remaining.get(i));
+        cost += viableStages.get(i).stream().filter(s -> s.getStage().equals(stage))
+            .findFirst().get().getCost().getCost();
+        cost += getInputCost(nodes.get(i), stage).orElse(Double.NaN);
+        assignment[i] = stage;
+      }
+      Arrays.fill(assignment, null);
+      return cost;
+    }
+
+    /**
+     * Removes the stages of each node for which an input has no remaining upstream stage or an
+     * output has no remaining downstream stage until no more stages are removed.
+     *
+     * @return false if a node has no remaining stage, else true
+     */
+    private boolean eliminateInviableStages(List<Set<ExecutionStage>> remaining) {
+      boolean changed = true;
+      while (changed) {
+        changed = false;
+        for (int i = 0; i < nodes.size(); i++) {
+          SqrlNode node = nodes.get(i);
+          changed |= remaining.get(i).removeIf(stage ->
+              dag.getInputs(node).stream().anyMatch(input -> remaining.get(position.get(input))
+                  .stream().noneMatch(pipeline.getUpStreamFrom(stage)::contains))
+              || dag.getOutputs(node).stream().anyMatch(output -> remaining.get(
+                  position.get(output)).stream().noneMatch(outputStage ->
+                  pipeline.getUpStreamFrom(outputStage).contains(stage))));
+          if (remaining.get(i).isEmpty()) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    /**
+     * @return the cost of transferring the data from all inputs to the node in the given stage, or
+     * empty if an input is assigned to a stage that isn't upstream from it. The data of an input is
+     * transferred to a stage only once, no matter how many of its outputs read it in that stage.
+     */
+    private Optional<Double> getInputCost(SqrlNode node, ExecutionStage stage) {
+      double cost = 0.0;
+      for (SqrlNode input : dag.getInputs(node)) {
+        ExecutionStage inputStage = assignment[position.get(input)];
+        if (!pipeline.getUpStreamFrom(stage).contains(inputStage)) {
+          return Optional.empty();
+        }
+        if (!isTransferred(input, stage)) {
+          cost += SimpleCostModel.transferCost(inputStage, stage);
+        }
+      }
+      return Optional.of(cost);
+    }
+
+    /**
+     * @return true if another output of the input that has already been assigned reads it in the
+     * given stage
+     */
+    private boolean isTransferred(SqrlNode input, ExecutionStage stage) {
+      return dag.getOutputs(input).stream()
+          .anyMatch(output -> stage.equals(assignment[position.get(output)]));
+    }
+
+    /**
+     * Checks that each output of the node has a viable stage that is compatible with the stages
+     * assigned to its inputs if the node is in the given stage.
+     */
+    private boolean hasViableOutputs(SqrlNode node, ExecutionStage stage) {
+      for (SqrlNode output : dag.getOutputs(node)) {
+        boolean hasViable = viableStages.get(position.get(output)).stream()
+            .map(StageAnalysis::getStage)
+            .anyMatch(outputStage -> dag.getInputs(output).stream().allMatch(input -> {
+              ExecutionStage inputStage = input.equals(node) ? stage
+                  : assignment[position.get(input)];
+              return inputStage == null || pipeline.getUpStreamFrom(outputStage)
+                  .contains(inputStage);
+            }));
+        if (!hasViable) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * @return the nodes of the DAG ordered such that each node comes after all of its inputs, with
+   * ties broken by name to make the order deterministic
+   */
+  private static List<SqrlNode> topologicalOrder(SqrlDAG dag) {
+    Map<SqrlNode, Integer> numInputs = new HashMap<>();
+    PriorityQueue<SqrlNode> ready = new PriorityQueue<>();
+    for (SqrlNode node : dag) {
+      int inputs = dag.getInputs(node).size();
+      numInputs.put(node, inputs);
+      if (inputs == 0) {
+        ready.add(node);
+      }
+    }
+    List<SqrlNode> order = new ArrayList<>();
+    while (!ready.isEmpty()) {
+      SqrlNode node = ready.poll();
+      order.add(node);
+      for (SqrlNode output : dag.getOutputs(node)) {
+        if (numInputs.merge(output, -1, Integer::sum) == 0) {
+          ready.add(output);
+        }
+      }
+    }
+    return order;
+  }
+
+}
@@ -18,13 +18,21 @@ public class TemporalJoinHint implements SqrlHint {
 
 
   final int streamTimestampIdx;
+  /**
+   * Whether the state side of the join is a lookup table that is joined at processing time
+   * instead of the timestamp of the stream.
+   */
+  final boolean lookup;
 
   @Override
   public RelHint getHint() {
-    return RelHint.builder(HINT_NAME).hintOption(String.valueOf(streamTimestampIdx)).build();
+    List<String> options = lookup ? List.of(String.valueOf(streamTimestampIdx), LOOKUP_OPTION)
+        : List.of(String.valueOf(streamTimestampIdx));
+    return RelHint.builder(HINT_NAME).hintOptions(options).build();
   }
 
   public static final String HINT_NAME = TemporalJoinHint.class.getSimpleName();
+  public static final String LOOKUP_OPTION = "lookup";
 
   @Override
   public String getHintName() {
@@ -43,9 +51,11 @@ public class TemporalJoinHint implements SqrlHint {
     @Override
     public TemporalJoinHint fromHint(RelHint hint) {
       List<String> options = hint.listOptions;
-      Preconditions.checkArgument(options.size() == 1, "Invalid hint: %s", hint);
+      Preconditions.checkArgument(options.size() == 1 || (options.size() == 2
+          && options.get(1).equals(LOOKUP_OPTION)), "Invalid hint: %s", hint);
       int streamTimeIdx = Integer.valueOf(options.get(0));
-      return new TemporalJoinHint(streamTimeIdx);
+      boolean lookup = options.size() == 2;
+      return new TemporalJoinHint(streamTimeIdx, lookup);
     }
   }
 
@@ -22,6 +22,7 @@ import com.datasqrl.plan.table.PrimaryKey;
 import com.datasqrl.plan.table.ProxyImportRelationalTable;
 import com.datasqrl.plan.table.TableConverter;
 import com.datasqrl.plan.table.TableConverter.SourceTableDefinition;
+import com.datasqrl.plan.table.TableStatistic;
 import com.datasqrl.schema.Multiplicity;
 import com.datasqrl.schema.NestedRelationship;
 import com.datasqrl.schema.Relationship;
@@ -60,16 +61,16 @@ public abstract class AbstractTableNamespaceObject<T> implements TableNamespaceO
   }
 
   protected boolean importSourceTable(Optional<String> objectName, TableSource table,
-      SqrlFramework framework, ErrorCollector errors) {
+      Optional<TableStatistic> statistic, SqrlFramework framework, ErrorCollector errors) {
     ProxyImportRelationalTable importTable = importTable(table,
-        objectName.map(canonicalizer::name).orElse(table.getName()), errors);
+        objectName.map(canonicalizer::name).orElse(table.getName()), statistic, errors);
     registerScriptTable(importTable, framework, Optional.empty(), Optional.empty(), false, true,
         Optional.empty());
     return true;
   }
 
   public ProxyImportRelationalTable importTable(TableSource tableSource, Name tableName,
-      ErrorCollector errors) {
+      Optional<TableStatistic> statistic, ErrorCollector errors) {
     // Convert the source schema to a universal table
     SourceTableDefinition tableDef = tableConverter.sourceToTable(
         tableSource.getTableSchema().get(),
@@ -79,10 +80,17 @@ public abstract class AbstractTableNamespaceObject<T> implements TableNamespaceO
         errors
     );
 
+    statistic.ifPresent(stats -> {
+      List<String> unknownColumns = stats.getUnknownColumns(tableDef.getDataType());
+      errors.checkFatal(unknownColumns.isEmpty(), "Statistics for table [%s] contain unknown columns: %s",
+          tableName, unknownColumns);
+    });
+
     // Create imported table and its proxy with unique IDs
     ImportedRelationalTableImpl importedTable = tableFactory.createImportedTable(tableDef.getDataType(), tableSource, tableName);
     ProxyImportRelationalTable proxyTable = tableFactory.createProxyTable(tableDef.getDataType(), NamePath.of(tableName),
-        importedTable, tableDef.getTableType(), tableDef.getTimestampIndex(), tableDef.getPrimaryKey());
+        importedTable, tableDef.getTableType(), tableDef.getTimestampIndex(), tableDef.getPrimaryKey(),
+        statistic);
 
     // Generate the script tables based on the provided root table
     return proxyTable;
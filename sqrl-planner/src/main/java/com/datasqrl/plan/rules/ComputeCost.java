@@ -6,4 +6,9 @@ package com.datasqrl.plan.rules;
 
 public interface ComputeCost extends Comparable<ComputeCost> {
 
+  /**
+   * @return the cost as a number so that costs can be added up across the pipeline
+   */
+  double getCost();
+
 }
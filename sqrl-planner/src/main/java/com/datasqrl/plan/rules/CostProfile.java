@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.plan.rules;
+
+import com.datasqrl.config.EngineFactory.Type;
+import com.datasqrl.engine.IExecutionEngine;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.base.Preconditions;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.DoubleStream;
+import lombok.NonNull;
+import lombok.SneakyThrows;
+import lombok.Value;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.RelVisitor;
+import org.apache.calcite.rel.core.Aggregate;
+import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.Sort;
+import org.apache.calcite.rel.core.TableScan;
+
+/**
+ * The weights that the {@link SimpleCostModel} uses to compute the cost of executing a query in an
+ * engine. The cost is the base cost of the engine plus the weighted number of table scans, the
+ * weighted join cost (see {@link SimpleCostModel#joinCost}), the weighted number of aggregations,
+ * and the weighted number of stateful operators (joins, aggregations, and top-n sorts).
+ *
+ * The weights are configured per engine under {@link #ENGINES_KEY} by engine name or engine type
+ * (e.g. {@code database}) relative to the default weights, which use database execution as the
+ * baseline of 1. Weights that aren't configured fall back to the defaults for the engine.
+ *
+ * The default weights are loaded from {@link #DEFAULT_PROFILE_RESOURCE}, which has the same format.
+ * Streams pre-compute results, which is generally cheaper by a factor of 10, so they only pay for
+ * joins, which can lead to combinatorial explosion. Table formats (i.e. iceberg) pay a penalty
+ * because query engines are less efficient than databases.
+ */
+@Value
+public class CostProfile {
+
+  public static final String ENGINES_KEY = "engines";
+
+  public static final String DEFAULT_PROFILE_RESOURCE = "/cost-profile.json";
+
+  public static final CostProfile DEFAULT = new CostProfile(Map.of());
+
+  private static final Map<String, EngineCost> DEFAULT_ENGINES = loadDefaultEngines();
+
+  /**
+   * The configured weights by engine name or type
+   */
+  Map<String, EngineCost> engines;
+
+  public EngineCost getEngineCost(@NonNull IExecutionEngine engine) {
+    EngineCost defaultCost = getDefault(engine);
+    return lookup(engines, engine)
+        .map(cost -> cost.withDefaults(defaultCost))
+        .orElse(defaultCost);
+  }
+
+  public double getCost(@NonNull IExecutionEngine engine, @NonNull RelNode relNode) {
+    return getEngineCost(engine).getCost(relNode);
+  }
+
+  private static EngineCost getDefault(IExecutionEngine engine) {
+    EngineCost typeCost = DEFAULT_ENGINES.get(getTypeKey(engine.getType()));
+    if (typeCost == null) {
+      throw new UnsupportedOperationException("Unsupported engine type: " + engine.getType());
+    }
+    return Optional.ofNullable(DEFAULT_ENGINES.get(engine.getName()))
+        .map(cost -> cost.withDefaults(typeCost))
+        .orElse(typeCost);
+  }
+
+  private static Optional<EngineCost> lookup(Map<String, EngineCost> engines,
+      IExecutionEngine engine) {
+    return Optional.ofNullable(engines.get(engine.getName()))
+        .or(() -> Optional.ofNullable(engines.get(getTypeKey(engine.getType()))));
+  }
+
+  @SneakyThrows
+  private static Map<String, EngineCost> loadDefaultEngines() {
+    try (InputStream in = CostProfile.class.getResourceAsStream(DEFAULT_PROFILE_RESOURCE)) {
+      Preconditions.checkState(in != null, "Missing default cost profile: %s",
+          DEFAULT_PROFILE_RESOURCE);
+      Map<String, Object> profile = new ObjectMapper().readValue(in, Map.class);
+      Map<String, EngineCost> engines = fromMap(profile).getEngines();
+      //The defaults for the engine types are the fallback for all other weights and must be complete
+      for (Type type : List.of(Type.DATABASE, Type.STREAMS, Type.SERVER)) {
+        EngineCost cost = engines.get(getTypeKey(type));
+        Preconditions.checkState(cost != null && cost.isComplete(),
+            "Default cost profile must configure all weights for engine type [%s]",
+            getTypeKey(type));
+      }
+      return engines;
+    }
+  }
+
+  private static String getTypeKey(Type type) {
+    return type.name().toLowerCase();
+  }
+
+  /**
+   * Parses the cost profile from a map with the optional key {@link #ENGINES_KEY}, which maps
+   * engine names or types to their weights (see {@link EngineCost#fromMap}).
+   */
+  public static CostProfile fromMap(Map<String, Object> profile) {
+    if (profile == null || profile.isEmpty()) {
+      return DEFAULT;
+    }
+    Map<String, EngineCost> engines = new LinkedHashMap<>();
+    Object engineConfigs = profile.get(ENGINES_KEY);
+    if (engineConfigs != null) {
+      Preconditions.checkArgument(engineConfigs instanceof Map,
+          "Expected a map of engines for the cost profile: %s", engineConfigs);
+      ((Map<String, Object>) engineConfigs).forEach((engine, weights) -> {
+        Preconditions.checkArgument(weights instanceof Map,
+            "Expected a map of weights for engine [%s] in the cost profile: %s", engine, weights);
+        engines.put(engine, EngineCost.fromMap(engine, (Map<String, Object>) weights));
+      });
+    }
+    return new CostProfile(Map.copyOf(engines));
+  }
+
+  /**
+   * The weights of a single engine. Weights that are NaN are not configured.
+   */
+  @Value
+  public static class EngineCost {
+
+    public static final String BASE_KEY = "base";
+    public static final String SCAN_KEY = "scan";
+    public static final String JOIN_KEY = "join";
+    public static final String AGGREGATE_KEY = "aggregate";
+    public static final String STATE_KEY = "state";
+
+    double base;
+    double scan;
+    double join;
+    double aggregate;
+    double state;
+
+    public double getCost(RelNode relNode) {
+      OperatorCounter counter = new OperatorCounter();
+      counter.go(relNode);
+      double cost = base + scan * counter.scans + aggregate * counter.aggregates
+          + state * counter.stateful;
+      if (join > 0) {
+        cost += join * SimpleCostModel.joinCost(relNode);
+      }
+      return cost;
+    }
+
+    boolean isComplete() {
+      return DoubleStream.of(base, scan, join, aggregate, state).noneMatch(Double::isNaN);
+    }
+
+    EngineCost withDefaults(EngineCost defaults) {
+      return new EngineCost(orDefault(base, defaults.base), orDefault(scan, defaults.scan),
+          orDefault(join, defaults.join), orDefault(aggregate, defaults.aggregate),
+          orDefault(state, defaults.state));
+    }
+
+    private static double orDefault(double weight, double defaultWeight) {
+      return Double.isNaN(weight) ? defaultWeight : weight;
+    }
+
+    /**
+     * Parses the weights of an engine from a map with the keys {@link #BASE_KEY},
+     * {@link #SCAN_KEY}, {@link #JOIN_KEY}, {@link #AGGREGATE_KEY}, and {@link #STATE_KEY}, all of
+     * which are optional.
+     */
+    public static EngineCost fromMap(String engine, Map<String, Object> weights) {
+      return new EngineCost(getWeight(engine, BASE_KEY, weights),
+          getWeight(engine, SCAN_KEY, weights), getWeight(engine, JOIN_KEY, weights),
+          getWeight(engine, AGGREGATE_KEY, weights), getWeight(engine, STATE_KEY, weights));
+    }
+
+    private static double getWeight(String engine, String key, Map<String, Object> weights) {
+      Object value = weights.get(key);
+      if (value == null) {
+        return Double.NaN;
+      }
+      double weight;
+      try {
+        weight = Double.parseDouble(value.toString());
+      } catch (NumberFormatException e) {
+        throw new IllegalArgumentException(String.format(
+            "Expected a number for [%s] of engine [%s] but found: %s", key, engine, value));
+      }
+      Preconditions.checkArgument(weight >= 0, "Invalid weight for [%s] of engine [%s]: %s", key,
+          engine, weight);
+      return weight;
+    }
+  }
+
+  private static class OperatorCounter extends RelVisitor {
+
+    int scans = 0;
+    int aggregates = 0;
+    int stateful = 0;
+
+    @Override
+    public void visit(RelNode node, int ordinal, RelNode parent) {
+      if (node instanceof TableScan) {
+        scans++;
+      } else if (node instanceof Aggregate) {
+        aggregates++;
+        stateful++;
+      } else if (node instanceof Join) {
+        stateful++;
+      } else if (node instanceof Sort && ((Sort) node).fetch != null) {
+        stateful++;
+      }
+      super.visit(node, ordinal, parent);
+    }
+  }
+
+}
@@ -3,8 +3,6 @@
  */
 package com.datasqrl.plan.rules;
 
-import com.datasqrl.config.EngineFactory.Type;
-import com.datasqrl.engine.database.AnalyticDatabaseEngine;
 import com.datasqrl.engine.pipeline.ExecutionStage;
 import com.datasqrl.plan.hints.JoinCostHint;
 import com.datasqrl.plan.hints.SqrlHint;
@@ -22,6 +20,12 @@ import org.apache.calcite.rel.core.Join;
 public
 class SimpleCostModel implements ComputeCost {
 
+  /**
+   * The cost of moving the data of a table from one stage to another, e.g. writing the result of
+   * the stream stage to the database, relative to the database baseline of 1
+   */
+  public static final double TRANSFER_COST = 0.1;
+
   private final double cost;
 
   private SimpleCostModel(double cost) {
@@ -29,31 +33,16 @@ class SimpleCostModel implements ComputeCost {
   }
 
   public static SimpleCostModel of(ExecutionStage executionStage, RelNode relNode) {
-    double cost = 1.0;
-    switch (executionStage.getEngine().getType()) {
-      case DATABASE:
-        //Currently we make the simplifying assumption that database execution is the baseline and we compare
-        //other engines against it
-        //However, if the database is a table format, we apply a penalty because query engines are less efficient.
-        if (executionStage.getEngine() instanceof AnalyticDatabaseEngine) {
-          cost = cost * 1.3;
-        }
-        break;
-      case STREAMS:
-        //We assume that pre-computing is generally cheaper (by factor of 10) unless (standard) joins are
-        //involved which can lead to combinatorial explosion. So, we primarily cost the joins
-        cost = joinCost(relNode);
-        cost = cost / 10;
-        break;
-      case SERVER:
-        cost = cost * 2;
-        break;
-//      case STATIC:
-//        return 1;
-      default:
-        throw new UnsupportedOperationException("Unsupported engine type: " + executionStage.getEngine().getType());
-    }
-    return new SimpleCostModel(cost);
+    return of(CostProfile.DEFAULT, executionStage, relNode);
+  }
+
+  public static SimpleCostModel of(CostProfile profile, ExecutionStage executionStage,
+      RelNode relNode) {
+    return new SimpleCostModel(profile.getCost(executionStage.getEngine(), relNode));
+  }
+
+  public static double transferCost(ExecutionStage from, ExecutionStage to) {
+    return from.equals(to) ? 0.0 : TRANSFER_COST;
   }
 
   @Override
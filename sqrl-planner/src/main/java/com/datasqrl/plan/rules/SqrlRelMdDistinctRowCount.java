@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.plan.rules;
+
+import com.datasqrl.plan.table.ColumnStatistic;
+import com.datasqrl.plan.table.ScriptRelationalTable;
+import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.metadata.*;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.util.BuiltInMethod;
+import org.apache.calcite.util.ImmutableBitSet;
+
+/**
+ * Uses the number of distinct values from the column statistics of a table for the distinct row
+ * count of a single column, which drives the row count estimates of aggregations and joins.
+ */
+public class SqrlRelMdDistinctRowCount extends RelMdDistinctRowCount
+    implements BuiltInMetadata.DistinctRowCount.Handler {
+
+  public static final RelMetadataProvider SOURCE =
+      ReflectiveRelMetadataProvider.reflectiveSource(
+          BuiltInMethod.DISTINCT_ROW_COUNT.method, new SqrlRelMdDistinctRowCount());
+
+  @Override
+  public Double getDistinctRowCount(RelNode rel, RelMetadataQuery mq, ImmutableBitSet groupKey,
+      RexNode predicate) {
+    if (rel instanceof TableScan) {
+      return getDistinctRowCount((TableScan) rel, mq, groupKey, predicate);
+    }
+    return super.getDistinctRowCount(rel, mq, groupKey, predicate);
+  }
+
+  public Double getDistinctRowCount(TableScan rel, RelMetadataQuery mq, ImmutableBitSet groupKey,
+      RexNode predicate) {
+    ScriptRelationalTable table = rel.getTable().unwrap(ScriptRelationalTable.class);
+    if (table != null && groupKey.cardinality() == 1
+        && (predicate == null || predicate.isAlwaysTrue())) {
+      ColumnStatistic column = table.getTableStatistic()
+          .getColumn(table.getRowType(), groupKey.nth(0));
+      if (column.hasNdv()) {
+        return column.getNdv();
+      }
+    }
+    //The catch-all since the table scan handler of the super class calls back into this class
+    return super.getDistinctRowCount((RelNode) rel, mq, groupKey, predicate);
+  }
+
+}
@@ -3,12 +3,24 @@
  */
 package com.datasqrl.plan.rules;
 
+import com.datasqrl.plan.global.IndexPredicate;
 import com.datasqrl.plan.global.QueryIndexSummary;
 import com.datasqrl.plan.global.QueryIndexSummary.IndexableFunctionCall;
+import com.datasqrl.plan.table.ColumnStatistic;
 import com.datasqrl.plan.table.ScriptRelationalTable;
+import com.datasqrl.plan.table.TableStatistic;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.apache.calcite.plan.RelOptUtil;
+import org.apache.calcite.rel.RelNode;
 import org.apache.calcite.rel.core.Join;
+import org.apache.calcite.rel.core.TableScan;
 import org.apache.calcite.rel.metadata.*;
+import org.apache.calcite.rex.RexCall;
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexLiteral;
 import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
 import org.apache.calcite.util.BuiltInMethod;
 
 public class SqrlRelMdSelectivity extends RelMdSelectivity
@@ -23,17 +35,153 @@ public class SqrlRelMdSelectivity extends RelMdSelectivity
     return super.getSelectivity(rel, mq, predicate);
   }
 
+  @Override
+  public Double getSelectivity(RelNode rel, RelMetadataQuery mq, RexNode predicate) {
+    if (rel instanceof TableScan) {
+      return getSelectivity((TableScan) rel, mq, predicate);
+    }
+    return super.getSelectivity(rel, mq, predicate);
+  }
+
+  public Double getSelectivity(TableScan rel, RelMetadataQuery mq, RexNode predicate) {
+    ScriptRelationalTable table = rel.getTable().unwrap(ScriptRelationalTable.class);
+    if (predicate == null || table == null || !table.getTableStatistic().hasColumnStatistics()) {
+      //The catch-all since the table scan handler of the super class calls back into this class
+      return super.getSelectivity((RelNode) rel, mq, predicate);
+    }
+    //Estimate each conjunction from the column statistics where possible
+    double selectivity = 1.0d;
+    for (RexNode conjunction : RelOptUtil.conjunctions(predicate)) {
+      selectivity *= getSelectivity(table, conjunction)
+          .orElseGet(() -> RelMdUtil.guessSelectivity(conjunction));
+    }
+    return selectivity;
+  }
+
+  /**
+   * Estimates the selectivity of a comparison between a column and a literal from the column
+   * statistics of the table.
+   */
+  private static Optional<Double> getSelectivity(ScriptRelationalTable table, RexNode conjunction) {
+    if (!(conjunction instanceof RexCall) || !conjunction.isA(SqlKind.COMPARISON)
+        || ((RexCall) conjunction).getOperands().size() != 2) {
+      return Optional.empty();
+    }
+    RexCall call = (RexCall) conjunction;
+    RexNode left = call.getOperands().get(0), right = call.getOperands().get(1);
+    SqlKind kind = call.getKind();
+    if (right instanceof RexInputRef && !(left instanceof RexInputRef)) {
+      RexNode tmp = left;
+      left = right;
+      right = tmp;
+      kind = kind.reverse();
+    }
+    if (!(left instanceof RexInputRef)) {
+      return Optional.empty();
+    }
+    ColumnStatistic column = table.getTableStatistic()
+        .getColumn(table.getRowType(), ((RexInputRef) left).getIndex());
+    Optional<Double> value = right instanceof RexLiteral ? getNumericValue((RexLiteral) right)
+        : Optional.empty();
+    return getSelectivity(column, kind, value);
+  }
+
+  /**
+   * Estimates the fraction of rows of the table that satisfy the constant predicate of a partial
+   * index.
+   */
+  public static double getSelectivity(ScriptRelationalTable table, IndexPredicate predicate) {
+    ColumnStatistic column = table.getTableStatistic()
+        .getColumn(table.getRowType(), predicate.getColumnIndex());
+    double nullSelectivity = column == ColumnStatistic.UNKNOWN ?
+        ColumnStatistic.DEFAULT_NULL_SELECTIVITY : column.getNullFraction();
+    switch (predicate.getKind()) {
+      case IS_NULL:
+        return nullSelectivity;
+      case IS_NOT_NULL:
+        return 1 - nullSelectivity;
+      default:
+        Optional<Double> value = Optional.ofNullable(predicate.getValue())
+            .flatMap(SqrlRelMdSelectivity::getNumericValue);
+        return getSelectivity(column, predicate.getKind(), value)
+            .orElse(ColumnStatistic.DEFAULT_INEQUALITY_SELECTIVITY);
+    }
+  }
+
+  private static Optional<Double> getSelectivity(ColumnStatistic column, SqlKind kind,
+      Optional<Double> value) {
+    switch (kind) {
+      case EQUALS:
+        return Optional.of(value.map(column::getEqualitySelectivity)
+            .orElseGet(column::getEqualitySelectivity));
+      case NOT_EQUALS:
+        return Optional.of(1 - column.getNullFraction() - value.map(column::getEqualitySelectivity)
+            .orElseGet(column::getEqualitySelectivity));
+      case LESS_THAN:
+      case LESS_THAN_OR_EQUAL:
+        return Optional.of(value.map(v -> column.getRangeSelectivity(Double.NaN, v))
+            .orElseGet(column::getInequalitySelectivity));
+      case GREATER_THAN:
+      case GREATER_THAN_OR_EQUAL:
+        return Optional.of(value.map(v -> column.getRangeSelectivity(v, Double.NaN))
+            .orElseGet(column::getInequalitySelectivity));
+      default:
+        return Optional.empty();
+    }
+  }
+
+  /**
+   * Converts a literal to the unit of the column statistics (see {@link TableStatistic}): numbers
+   * are taken as is and temporal values are converted to epoch milliseconds, where a date is the
+   * start of the day in UTC.
+   */
+  static Optional<Double> getNumericValue(RexLiteral literal) {
+    if (literal.isNull()) {
+      return Optional.empty();
+    }
+    switch (literal.getType().getSqlTypeName()) {
+      case TINYINT:
+      case SMALLINT:
+      case INTEGER:
+      case BIGINT:
+      case DECIMAL:
+      case FLOAT:
+      case REAL:
+      case DOUBLE:
+        return Optional.ofNullable(literal.getValueAs(Double.class));
+      case DATE:
+        //Date literals are days since the epoch
+        return Optional.ofNullable(literal.getValueAs(Integer.class))
+            .map(days -> (double) TimeUnit.DAYS.toMillis(days));
+      case TIMESTAMP:
+      case TIMESTAMP_WITH_LOCAL_TIME_ZONE:
+        return Optional.ofNullable(literal.getValueAs(Long.class)).map(Long::doubleValue);
+      default:
+        return Optional.empty();
+    }
+  }
 
   public static Double getSelectivity(ScriptRelationalTable table,
                                       QueryIndexSummary constraints) {
-    //TODO: use actual selectivity statistics from table
+    TableStatistic statistic = table.getTableStatistic();
     double selectivity = 1.0d;
-    selectivity *= Math.pow(0.05,constraints.getEqualityColumns().size());
-    selectivity *= Math.pow(0.5,constraints.getInequalityColumns().size());
+    if (statistic.hasColumnStatistics()) {
+      for (int column : constraints.getEqualityColumns()) {
+        selectivity *= statistic.getColumn(table.getRowType(), column).getEqualitySelectivity();
+      }
+      for (int column : constraints.getInequalityColumns()) {
+        selectivity *= statistic.getColumn(table.getRowType(), column).getInequalitySelectivity();
+      }
+    } else {
+      selectivity *= Math.pow(ColumnStatistic.DEFAULT_EQUALITY_SELECTIVITY,
+          constraints.getEqualityColumns().size());
+      selectivity *= Math.pow(ColumnStatistic.DEFAULT_INEQUALITY_SELECTIVITY,
+          constraints.getInequalityColumns().size());
+    }
     for (IndexableFunctionCall fcall : constraints.getFunctionCalls()) {
       selectivity *= fcall.getFunction().estimateSelectivity();
     }
     return selectivity;
   }
 
-}
\ No newline at end of file
+}
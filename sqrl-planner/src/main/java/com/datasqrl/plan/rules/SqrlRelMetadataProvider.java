@@ -31,7 +31,7 @@ public class SqrlRelMetadataProvider extends ChainedRelMetadataProvider {
             RelMdDistribution.SOURCE,
             RelMdLowerBoundCost.SOURCE,
             RelMdMemory.SOURCE,
-            RelMdDistinctRowCount.SOURCE,
+            SqrlRelMdDistinctRowCount.SOURCE,
             SqrlRelMdSelectivity.SOURCE,
             RelMdExplainVisibility.SOURCE,
             RelMdPredicates.SOURCE,
@@ -35,7 +35,8 @@ public class CalciteTableFactory {
   }
 
   public ProxyImportRelationalTable createProxyTable(RelDataType rootType, NamePath tablePath,
-      ImportedRelationalTableImpl importedTable, TableType tableType, Optional<Integer> timestampIndex, PrimaryKey primaryKey) {
+      ImportedRelationalTableImpl importedTable, TableType tableType, Optional<Integer> timestampIndex, PrimaryKey primaryKey,
+      Optional<TableStatistic> statistic) {
     Name proxyName = tableIdFactory.createTableId(tablePath.getLast());
     return new ProxyImportRelationalTable(
         proxyName,
@@ -43,7 +44,7 @@ public class CalciteTableFactory {
         timestampIndex.map(Timestamps::ofFixed).orElse(Timestamps.UNDEFINED),
         rootType, tableType, primaryKey,
         importedTable,
-        TableStatistic.of(1000)
+        statistic.orElse(TableStatistic.of(1000))
     );
   }
 
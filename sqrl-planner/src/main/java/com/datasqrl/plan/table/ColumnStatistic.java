@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.plan.table;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.NonNull;
+import lombok.Value;
+
+/**
+ * Statistics on the value distribution of a single column: the number of distinct values (NDV),
+ * the fraction of null values, the minimum and maximum value, and an equi-depth histogram.
+ *
+ * The histogram is given as the sorted bucket boundaries, such that each of the buckets between
+ * two consecutive boundaries contains the same number of (non-null) rows. Values within a bucket
+ * are assumed to be uniformly distributed.
+ *
+ * Any of the statistics may be unknown (i.e. NaN or empty) in which case the selectivity
+ * estimates fall back to the default guesses.
+ */
+@Value
+public class ColumnStatistic {
+
+  public static final double DEFAULT_EQUALITY_SELECTIVITY = 0.05;
+  public static final double DEFAULT_INEQUALITY_SELECTIVITY = 0.5;
+  public static final double DEFAULT_NULL_SELECTIVITY = 0.1;
+
+  public static final ColumnStatistic UNKNOWN = new ColumnStatistic(Double.NaN, 0.0, Double.NaN,
+      Double.NaN, List.of());
+
+  double ndv;
+  double nullFraction;
+  double min;
+  double max;
+  @NonNull
+  List<Double> histogram;
+
+  public ColumnStatistic(double ndv, double nullFraction, double min, double max,
+      @NonNull List<Double> histogram) {
+    Preconditions.checkArgument(Double.isNaN(ndv) || ndv >= 0, "Invalid ndv: %s", ndv);
+    Preconditions.checkArgument(nullFraction >= 0 && nullFraction <= 1,
+        "Invalid null fraction: %s", nullFraction);
+    Preconditions.checkArgument(histogram.isEmpty() || histogram.size() >= 2,
+        "A histogram needs at least two bucket boundaries");
+    for (int i = 1; i < histogram.size(); i++) {
+      Preconditions.checkArgument(histogram.get(i - 1) <= histogram.get(i),
+          "Histogram bucket boundaries must be sorted: %s", histogram);
+    }
+    this.ndv = ndv;
+    this.nullFraction = nullFraction;
+    this.min = min;
+    this.max = max;
+    this.histogram = List.copyOf(histogram);
+  }
+
+  public boolean hasNdv() {
+    return !Double.isNaN(ndv);
+  }
+
+  public boolean hasRange() {
+    return !histogram.isEmpty() || (!Double.isNaN(min) && !Double.isNaN(max));
+  }
+
+  /**
+   * @return The selectivity of an equality constraint on this column with an unknown value
+   */
+  public double getEqualitySelectivity() {
+    if (!hasNdv()) {
+      return DEFAULT_EQUALITY_SELECTIVITY;
+    }
+    return ndv < 1 ? 0.0 : (1 - nullFraction) / ndv;
+  }
+
+  /**
+   * @return The selectivity of an equality constraint on this column with the given value
+   */
+  public double getEqualitySelectivity(double value) {
+    if (hasRange() && (value < getLowerBound() || value > getUpperBound())) {
+      return 0.0;
+    }
+    return getEqualitySelectivity();
+  }
+
+  /**
+   * @return The selectivity of an inequality constraint on this column with an unknown value
+   */
+  public double getInequalitySelectivity() {
+    return DEFAULT_INEQUALITY_SELECTIVITY * (1 - nullFraction);
+  }
+
+  /**
+   * Estimates the selectivity of a range constraint on this column.
+   *
+   * @param lower the lower bound of the range or NaN if it is unbounded
+   * @param upper the upper bound of the range or NaN if it is unbounded
+   * @return the fraction of rows with a value in the range
+   */
+  public double getRangeSelectivity(double lower, double upper) {
+    if (!hasRange()) {
+      return getInequalitySelectivity();
+    }
+    double fraction = getCumulativeFraction(Double.isNaN(upper) ? Double.POSITIVE_INFINITY : upper)
+        - getCumulativeFraction(Double.isNaN(lower) ? Double.NEGATIVE_INFINITY : lower);
+    return Math.max(0.0, fraction) * (1 - nullFraction);
+  }
+
+  private double getLowerBound() {
+    return histogram.isEmpty() ? min : histogram.get(0);
+  }
+
+  private double getUpperBound() {
+    return histogram.isEmpty() ? max : histogram.get(histogram.size() - 1);
+  }
+
+  /**
+   * @return the fraction of non-null values that are smaller than or equal to the given value
+   */
+  private double getCumulativeFraction(double value) {
+    List<Double> boundaries = histogram.isEmpty() ? List.of(min, max) : histogram;
+    if (value < boundaries.get(0)) {
+      return 0.0;
+    }
+    if (value >= boundaries.get(boundaries.size() - 1)) {
+      return 1.0;
+    }
+    int numBuckets = boundaries.size() - 1;
+    for (int i = 0; i < numBuckets; i++) {
+      double bucketLower = boundaries.get(i), bucketUpper = boundaries.get(i + 1);
+      if (value < bucketUpper) {
+        double withinBucket = bucketUpper > bucketLower ?
+            (value - bucketLower) / (bucketUpper - bucketLower) : 1.0;
+        return (i + withinBucket) / numBuckets;
+      }
+    }
+    return 1.0;
+  }
+
+  /**
+   * @return A copy of this statistic where the number of distinct values does not exceed the
+   * given row count, e.g. after the rows of the column have been filtered.
+   */
+  public ColumnStatistic capNdv(double rowCount) {
+    if (!hasNdv() || ndv <= rowCount) {
+      return this;
+    }
+    return new ColumnStatistic(rowCount, nullFraction, min, max, histogram);
+  }
+
+  /**
+   * Parses the column statistic from a map with the keys {@code ndv}, {@code null-fraction},
+   * {@code min}, {@code max}, and {@code histogram}, all of which are optional.
+   */
+  public static ColumnStatistic fromMap(String column, Map<String, Object> statistic) {
+    List<Double> histogram = new ArrayList<>();
+    Object boundaries = statistic.get("histogram");
+    if (boundaries != null) {
+      Preconditions.checkArgument(boundaries instanceof List,
+          "Expected a list of bucket boundaries for the histogram of column [%s]: %s", column,
+          boundaries);
+      ((List<?>) boundaries).forEach(b -> histogram.add(getDouble(column, "histogram", b)));
+    }
+    return new ColumnStatistic(getDouble(column, "ndv", statistic.get("ndv")),
+        statistic.containsKey("null-fraction") ?
+            getDouble(column, "null-fraction", statistic.get("null-fraction")) : 0.0,
+        getDouble(column, "min", statistic.get("min")),
+        getDouble(column, "max", statistic.get("max")), histogram);
+  }
+
+  private static double getDouble(String column, String key, Object value) {
+    if (value == null) {
+      return Double.NaN;
+    }
+    try {
+      return Double.parseDouble(value.toString());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(String.format(
+          "Expected a number for [%s] of column [%s] but found: %s", key, column, value));
+    }
+  }
+
+}
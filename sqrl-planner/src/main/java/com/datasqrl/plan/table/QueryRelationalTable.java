@@ -6,16 +6,24 @@ import com.datasqrl.engine.pipeline.ExecutionStage;
 import com.datasqrl.error.ErrorCollector;
 import com.datasqrl.canonicalizer.Name;
 import com.datasqrl.plan.hints.OptimizerHint;
+import com.datasqrl.plan.rules.AnnotatedLP;
 import com.datasqrl.plan.rules.LPAnalysis;
 import com.datasqrl.plan.rules.SqrlConverterConfig;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
 import lombok.Getter;
 import lombok.NonNull;
+import org.apache.calcite.plan.RelOptUtil;
 import org.apache.calcite.rel.RelNode;
+import org.apache.calcite.rel.metadata.RelColumnOrigin;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataTypeField;
 
 public class QueryRelationalTable extends PhysicalRelationalTable {
 
@@ -31,12 +39,44 @@ public class QueryRelationalTable extends PhysicalRelationalTable {
         analyzedLP.getConvertedRelnode().getTimestamp(),
         PrimaryKey.of(analyzedLP.getConvertedRelnode().getPrimaryKey()),
         analyzedLP.getConvertedRelnode().getPullups(),
-        TableStatistic.of(analyzedLP.getConvertedRelnode().estimateRowCount()));
+        deriveStatistic(analyzedLP.getConvertedRelnode()));
     Preconditions.checkArgument(analyzedLP.getConvertedRelnode().select.isIdentity(), "We assume an identity select");
     this.analyzedLP = analyzedLP;
     this.streamRoot = analyzedLP.getConvertedRelnode().getStreamRoot();
   }
 
+  /**
+   * Estimates the row count of the table and passes through the statistics of the columns that
+   * are selected unchanged from tables with column statistics.
+   */
+  private static TableStatistic deriveStatistic(AnnotatedLP convertedRelnode) {
+    RelNode relNode = convertedRelnode.getRelNode();
+    double rowCount = convertedRelnode.estimateRowCount();
+    if (RelOptUtil.findAllTables(relNode).stream()
+        .map(table -> table.unwrap(ScriptRelationalTable.class)).filter(Objects::nonNull)
+        .noneMatch(table -> table.getTableStatistic().hasColumnStatistics())) {
+      return TableStatistic.of(rowCount);
+    }
+    RelMetadataQuery mq = relNode.getCluster().getMetadataQuery();
+    Map<String, ColumnStatistic> columns = new LinkedHashMap<>();
+    List<RelDataTypeField> fields = relNode.getRowType().getFieldList();
+    for (int i = 0; i < fields.size(); i++) {
+      RelColumnOrigin origin = mq.getColumnOrigin(relNode, i);
+      if (origin == null || origin.isDerived()) {
+        continue;
+      }
+      ScriptRelationalTable table = origin.getOriginTable().unwrap(ScriptRelationalTable.class);
+      if (table != null) {
+        ColumnStatistic column = table.getTableStatistic()
+            .getColumn(table.getRowType(), origin.getOriginColumnOrdinal());
+        if (column != ColumnStatistic.UNKNOWN) {
+          columns.put(fields.get(i).getName(), column);
+        }
+      }
+    }
+    return TableStatistic.of(rowCount, columns);
+  }
+
   public List<OptimizerHint> getOptimizerHints() {
     return analyzedLP.getSqrlHints();
   }
@@ -3,22 +3,62 @@
  */
 package com.datasqrl.plan.table;
 
+import com.datasqrl.canonicalizer.Name;
+import com.google.common.base.Preconditions;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import lombok.NonNull;
 import lombok.Value;
+import org.apache.calcite.rel.type.RelDataType;
 
+/**
+ * The statistics of a table: the number of rows and, optionally, {@link ColumnStatistic}s for
+ * individual columns by canonical column name.
+ *
+ * Column statistics are provided for imported tables through a statistics file next to the
+ * table configuration (see {@link #STATISTICS_FILE_SUFFIX}) and derived for the tables computed
+ * from them where columns are passed through. Minimum, maximum, and histogram boundaries of
+ * temporal columns are in epoch milliseconds, for date columns that is the start of the day in
+ * UTC (e.g. {@code 86400000} for {@code 1970-01-02}).
+ */
 @Value
 public class TableStatistic {
 
+  public static final String STATISTICS_FILE_SUFFIX = ".stats.json";
+
   private static final double DEFAULT_ROW_COUNT = 1e15;
 
   public static final TableStatistic UNKNOWN = new TableStatistic(Double.NaN);
   public static final double DEFAULT_NESTED_MULTIPLIER = 2.0;
 
   private final double rowCount;
+  @NonNull
+  private final Map<String, ColumnStatistic> columns;
+
+  private TableStatistic(double rowCount) {
+    this(rowCount, Map.of());
+  }
+
+  private TableStatistic(double rowCount, @NonNull Map<String, ColumnStatistic> columns) {
+    this.rowCount = rowCount;
+    this.columns = columns;
+  }
 
   public static TableStatistic of(double rowCount) {
     return new TableStatistic(rowCount);
   }
 
+  public static TableStatistic of(double rowCount, Map<String, ColumnStatistic> columns) {
+    Map<String, ColumnStatistic> canonicalColumns = new LinkedHashMap<>();
+    columns.forEach((name, stat) -> canonicalColumns.put(Name.system(name).getCanonical(),
+        Double.isNaN(rowCount) ? stat : stat.capNdv(rowCount)));
+    return new TableStatistic(rowCount, canonicalColumns);
+  }
+
   @Override
   public String toString() {
     return "Stats=" + rowCount;
@@ -28,6 +68,26 @@ public class TableStatistic {
     return Double.isNaN(rowCount);
   }
 
+  public boolean hasColumnStatistics() {
+    return !columns.isEmpty();
+  }
+
+  public Optional<ColumnStatistic> getColumn(String columnName) {
+    return Optional.ofNullable(columns.get(Name.system(columnName).getCanonical()));
+  }
+
+  /**
+   * @return The statistic for the column at the given index of the row type or
+   * {@link ColumnStatistic#UNKNOWN} if there is none.
+   */
+  public ColumnStatistic getColumn(RelDataType rowType, int columnIndex) {
+    if (columns.isEmpty() || columnIndex >= rowType.getFieldCount()) {
+      return ColumnStatistic.UNKNOWN;
+    }
+    return getColumn(rowType.getFieldList().get(columnIndex).getName())
+        .orElse(ColumnStatistic.UNKNOWN);
+  }
+
   public TableStatistic nested() {
     return nested(DEFAULT_NESTED_MULTIPLIER);
   }
@@ -47,4 +107,43 @@ public class TableStatistic {
     }
   }
 
+  /**
+   * Parses the statistics of a table from a map with the keys {@code row-count} and
+   * {@code columns}, which maps column names to their statistics (see
+   * {@link ColumnStatistic#fromMap(String, Map)}).
+   */
+  public static TableStatistic fromMap(Map<String, Object> statistic) {
+    Object rowCount = statistic.get("row-count");
+    Preconditions.checkArgument(rowCount != null, "Table statistics require a [row-count]");
+    double numRows;
+    try {
+      numRows = Double.parseDouble(rowCount.toString());
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Expected a number for [row-count] but found: " + rowCount);
+    }
+    Preconditions.checkArgument(numRows >= 0, "Invalid row count: %s", numRows);
+    Map<String, ColumnStatistic> columns = new LinkedHashMap<>();
+    Object columnStats = statistic.get("columns");
+    if (columnStats != null) {
+      Preconditions.checkArgument(columnStats instanceof Map,
+          "Expected a map of column names to statistics for [columns] but found: %s", columnStats);
+      ((Map<String, Object>) columnStats).forEach((column, columnStat) -> {
+        Preconditions.checkArgument(columnStat instanceof Map,
+            "Expected a map of statistics for column [%s] but found: %s", column, columnStat);
+        columns.put(column, ColumnStatistic.fromMap(column, (Map<String, Object>) columnStat));
+      });
+    }
+    return of(numRows, columns);
+  }
+
+  /**
+   * @return The columns with statistics that are not part of the given row type
+   */
+  public List<String> getUnknownColumns(RelDataType rowType) {
+    Set<String> fieldNames = rowType.getFieldNames().stream()
+        .map(name -> Name.system(name).getCanonical()).collect(Collectors.toSet());
+    return columns.keySet().stream().filter(column -> !fieldNames.contains(column))
+        .collect(Collectors.toList());
+  }
+
 }
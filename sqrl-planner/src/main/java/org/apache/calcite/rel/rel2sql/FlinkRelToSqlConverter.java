@@ -36,6 +36,7 @@ import org.apache.calcite.sql.SqlSelect;
 import org.apache.calcite.sql.SqlSnapshot;
 import org.apache.calcite.sql.fun.SqlStdOperatorTable;
 import org.apache.calcite.sql.parser.SqlParserPos;
+import org.apache.calcite.util.Util;
 import org.apache.flink.calcite.shaded.com.google.common.collect.ImmutableList;
 import org.apache.flink.table.planner.calcite.FlinkTypeFactory;
 import org.apache.flink.table.planner.calcite.FlinkTypeSystem;
@@ -113,11 +114,17 @@ public class FlinkRelToSqlConverter extends RelToSqlConverter {
     //1 visit snapshot input and put in subquery
     Result snapshotInput = visitInput(snapshot, 0);
 
-    SqlNode stmt = snapshotInput.asStatement();
-
-    QueryPipelineItem q = create(stmt);
-
-    SqlNode tableRef = new SqlIdentifier(q.getTableName(), SqlParserPos.ZERO);
+    SqlNode tableRef;
+    String snapshotAlias;
+    if (snapshotInput.node instanceof SqlIdentifier) {
+      //Lookup tables are referenced directly so that Flink plans a lookup join
+      tableRef = snapshotInput.node;
+      snapshotAlias = Util.last(((SqlIdentifier) snapshotInput.node).names);
+    } else {
+      QueryPipelineItem q = create(snapshotInput.asStatement());
+      tableRef = new SqlIdentifier(q.getTableName(), SqlParserPos.ZERO);
+      snapshotAlias = snapshotInput.neededAlias;
+    }
 
     //2 create snapshot node, walk left first
     final Result leftResult =
@@ -133,7 +140,7 @@ public class FlinkRelToSqlConverter extends RelToSqlConverter {
         tableRef, period);
     final SqlNode rightAs =
         SqlStdOperatorTable.AS.createCall(POS, snapshotNode,
-            new SqlIdentifier(snapshotInput.neededAlias, POS));
+            new SqlIdentifier(snapshotAlias, POS));
 
     //last create join
 
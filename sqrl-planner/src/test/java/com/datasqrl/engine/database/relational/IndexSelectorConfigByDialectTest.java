@@ -0,0 +1,47 @@
+package com.datasqrl.engine.database.relational;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.datasqrl.config.JdbcDialect;
+import com.datasqrl.function.IndexType;
+import com.datasqrl.plan.global.IndexDefinition;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class IndexSelectorConfigByDialectTest {
+
+  @Test
+  public void testDefaults() {
+    IndexSelectorConfigByDialect config = IndexSelectorConfigByDialect.of(JdbcDialect.Postgres,
+        Map.of());
+    assertEquals(1.0, config.getQueryFrequency("Query.orders-1"));
+    assertEquals(0.0, config.indexWriteCost(index(IndexType.BTREE)));
+  }
+
+  @Test
+  public void testQueryFrequencyProfile() {
+    IndexSelectorConfigByDialect config = IndexSelectorConfigByDialect.of(JdbcDialect.Postgres,
+        Map.of("query-frequencies", Map.of("Query.orders", 250, "Query.orders-2", 0.5,
+            "customers", "3"), "index-write-cost", 10));
+    assertEquals(250.0, config.getQueryFrequency("Query.orders-1"));
+    assertEquals(0.5, config.getQueryFrequency("Query.orders-2"));
+    assertEquals(3.0, config.getQueryFrequency("customers"));
+    assertEquals(1.0, config.getQueryFrequency("Query.customers-3"));
+    assertEquals(10.0, config.indexWriteCost(index(IndexType.HASH)));
+    assertEquals(16.0, config.indexWriteCost(index(IndexType.BTREE)), 1e-9);
+  }
+
+  @Test
+  public void testInvalidProfile() {
+    assertThrows(IllegalArgumentException.class, () -> IndexSelectorConfigByDialect.of(
+        JdbcDialect.Postgres, Map.of("query-frequencies", Map.of("Query.orders", "often"))));
+    assertThrows(IllegalArgumentException.class, () -> IndexSelectorConfigByDialect.of(
+        JdbcDialect.Postgres, Map.of("index-write-cost", -1)));
+  }
+
+  private static IndexDefinition index(IndexType type) {
+    return new IndexDefinition("orders_1", List.of(1), List.of("id", "customerid"), -1, type);
+  }
+}
@@ -0,0 +1,34 @@
+package com.datasqrl.engine.database.relational.ddl.statements;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.datasqrl.function.IndexType;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public class CreateIndexDDLTest {
+
+  @Test
+  public void testGetSql() {
+    CreateIndexDDL ddl = new CreateIndexDDL("orders_btree_c1c3", "orders",
+        List.of("customerid", "time"), IndexType.BTREE);
+    assertEquals("CREATE INDEX IF NOT EXISTS orders_btree_c1c3 ON orders USING btree "
+        + "(\"customerid\",\"time\");", ddl.getSql());
+  }
+
+  @Test
+  public void testGetSqlWithIncludeColumns() {
+    CreateIndexDDL ddl = new CreateIndexDDL("orders_btree_c1c3", "orders",
+        List.of("customerid", "time"), IndexType.BTREE, List.of("total"), "");
+    assertEquals("CREATE INDEX IF NOT EXISTS orders_btree_c1c3 ON orders USING btree "
+        + "(\"customerid\",\"time\") INCLUDE (\"total\");", ddl.getSql());
+  }
+
+  @Test
+  public void testGetSqlPartialIndex() {
+    CreateIndexDDL ddl = new CreateIndexDDL("orders_btree_c1_p1f", "orders",
+        List.of("customerid"), IndexType.BTREE, List.of(), "\"status\" = 'active'");
+    assertEquals("CREATE INDEX IF NOT EXISTS orders_btree_c1_p1f ON orders USING btree "
+        + "(\"customerid\") WHERE \"status\" = 'active';", ddl.getSql());
+  }
+}
@@ -25,6 +25,40 @@ public class CreateNotifyTriggerDDLTest {
     assertEquals(expectedSql, ddl.getSql());
   }
 
+  @Test
+  public void testGetSqlFullRow() {
+    CreateNotifyTriggerDDL ddl = new CreateNotifyTriggerDDL("test_table", Arrays.asList("id"), true);
+    String expectedSql = "CREATE OR REPLACE FUNCTION notify_on_test_table_insert()\n" +
+        "RETURNS TRIGGER AS $$\n" +
+        "DECLARE\n" +
+        "   payload text;\n" +
+        "BEGIN\n" +
+        "   payload := jsonb_build_object('$row', to_jsonb(NEW))::text;\n" +
+        "   IF octet_length(payload) > 7999 THEN\n" +
+        "      payload := jsonb_build_object('id', NEW.\"id\")::text;\n" +
+        "   END IF;\n" +
+        "   PERFORM pg_notify('test_table_notify', payload);\n" +
+        "   RETURN NEW;\n" +
+        "END;\n" +
+        "$$ LANGUAGE plpgsql;\n" +
+        "\n" +
+        "CREATE TRIGGER insert_notify_trigger\n" +
+        "AFTER INSERT ON \"test_table\"\n" +
+        "FOR EACH ROW EXECUTE PROCEDURE notify_on_test_table_insert();";
+    assertEquals(expectedSql, ddl.getSql());
+  }
+
+  @Test
+  public void testPrimaryKeyNamedLikeRowPayloadKey() {
+    Exception exception = assertThrows(IllegalStateException.class, () -> {
+      new CreateNotifyTriggerDDL("test_table", Arrays.asList("$row"), true);
+    });
+    assertEquals("Primary key column cannot be named [$row] when notifying with the full row.",
+        exception.getMessage());
+    //Without the full row the key is not used
+    new CreateNotifyTriggerDDL("test_table", Arrays.asList("$row"));
+  }
+
   @Test
   public void testEmptyPrimaryKeys() {
     Exception exception = assertThrows(IllegalStateException.class, () -> {
@@ -0,0 +1,29 @@
+package com.datasqrl.engine.database.relational.ddl.statements.notify;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rel.type.RelDataTypeFieldImpl;
+import org.apache.calcite.rel.type.RelDataTypeSystem;
+import org.apache.calcite.sql.type.SqlTypeFactoryImpl;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.junit.jupiter.api.Test;
+
+public class OnNotifyBatchQueryTest {
+
+  @Test
+  public void testGetSql() {
+    RelDataTypeFactory typeFactory = new SqlTypeFactoryImpl(RelDataTypeSystem.DEFAULT);
+    OnNotifyBatchQuery query = new OnNotifyBatchQuery("test_table", List.of(
+        new Parameter("id", new RelDataTypeFieldImpl("id", 0,
+            typeFactory.createSqlType(SqlTypeName.BIGINT))),
+        new Parameter("name", new RelDataTypeFieldImpl("name", 1,
+            typeFactory.createSqlType(SqlTypeName.VARCHAR)))));
+    String expectedSql = "SELECT t.*\n"
+        + "FROM UNNEST($1::text[], $2::text[]) WITH ORDINALITY AS k(\"id\", \"name\", \"__ordinal\")\n"
+        + "JOIN \"test_table\" t ON t.\"id\" = CAST(k.\"id\" AS BIGINT) AND t.\"name\" = CAST(k.\"name\" AS TEXT)\n"
+        + "ORDER BY k.\"__ordinal\"";
+    assertEquals(expectedSql, query.getSql());
+  }
+}
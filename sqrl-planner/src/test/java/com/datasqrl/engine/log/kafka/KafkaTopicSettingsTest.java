@@ -0,0 +1,53 @@
+package com.datasqrl.engine.log.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.datasqrl.canonicalizer.Name;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class KafkaTopicSettingsTest {
+
+  @Test
+  public void testDefaults() {
+    NewTopic topic = new KafkaTopicSettings(Map.of())
+        .createTopic("orders-1", Name.system("orders"), List.of("id"));
+    assertEquals(1, topic.getNumPartitions());
+    assertEquals(1, topic.getReplicationFactor());
+    assertEquals(Map.of(), topic.getConfig());
+  }
+
+  @Test
+  public void testPartitionsFromThroughput() {
+    KafkaTopicSettings settings = new KafkaTopicSettings(Map.of("throughput", 12000,
+        "replication-factor", 3, "retention-ms", "86400000"));
+    NewTopic topic = settings.createTopic("orders-1", Name.system("orders"), List.of("id"));
+    assertEquals(3, topic.getNumPartitions());
+    assertEquals(3, topic.getReplicationFactor());
+    assertEquals(Map.of("retention.ms", "86400000"), topic.getConfig());
+    //Records without a key cannot be spread across partitions
+    assertEquals(1, settings.createTopic("events-1", Name.system("events"), List.of())
+        .getNumPartitions());
+  }
+
+  @Test
+  public void testTopicOverrides() {
+    KafkaTopicSettings settings = new KafkaTopicSettings(Map.of("partitions", 2,
+        "topics", Map.of("Orders", Map.of("partitions", 8, "compaction", true))));
+    NewTopic topic = settings.createTopic("orders-1", Name.system("orders"), List.of("id"));
+    assertEquals(8, topic.getNumPartitions());
+    assertEquals(Map.of("cleanup.policy", "compact"), topic.getConfig());
+    assertEquals(2, settings.createTopic("customers-1", Name.system("customers"),
+        List.of("id")).getNumPartitions());
+  }
+
+  @Test
+  public void testInvalidSettings() {
+    assertThrows(IllegalArgumentException.class, () -> new KafkaTopicSettings(
+        Map.of("compaction", true)).createTopic("events-1", Name.system("events"), List.of()));
+    assertThrows(IllegalArgumentException.class, () -> new KafkaTopicSettings(
+        Map.of("partitions", "many")).createTopic("events-1", Name.system("events"), List.of()));
+  }
+}
@@ -1,13 +1,19 @@
 package com.datasqrl.functions.vector;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.datasqrl.vector.CenterAccumulator;
 import com.datasqrl.vector.FlinkVectorType;
+import com.datasqrl.vector.FlinkVectorTypeSerializer;
 import com.datasqrl.vector.VectorFunctions;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import lombok.SneakyThrows;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
@@ -85,5 +91,52 @@ public class StdVectorLibraryTest {
         VectorFunctions.CENTER.getValue(combined),center),1.0, 0.0000001);
   }
 
+  @Test
+  public void testSinglePrecisionVectors() {
+    FlinkVectorType[] doubles = new FlinkVectorType[VECTORS.length];
+    FlinkVectorType[] floats = new FlinkVectorType[VECTORS.length];
+    for (int i = 0; i < VECTORS.length; i++) {
+      doubles[i] = VectorFunctions.DOUBLE_TO_VECTOR.eval(VECTORS[i]);
+      float[] values = new float[VECTORS[i].length];
+      for (int j = 0; j < values.length; j++) {
+        values[j] = (float) VECTORS[i][j];
+      }
+      floats[i] = VectorFunctions.convert(values);
+    }
+    assertEquals(VectorFunctions.COSINE_SIMILARITY.eval(doubles[1], doubles[0]),
+        VectorFunctions.COSINE_SIMILARITY.eval(floats[1], floats[0]), 0.000001);
+    assertEquals(VectorFunctions.COSINE_DISTANCE.eval(doubles[2], doubles[0]),
+        VectorFunctions.COSINE_DISTANCE.eval(floats[2], doubles[0]), 0.000001);
+    assertEquals(VectorFunctions.EUCLIDEAN_DISTANCE.eval(doubles[2], doubles[1]),
+        VectorFunctions.EUCLIDEAN_DISTANCE.eval(floats[2], floats[1]), 0.000001);
+    assertEquals(VECTORS[0][3], VectorFunctions.VEC_TO_DOUBLE.eval(floats[0])[3], 0.000001);
+  }
 
+  @Test
+  @SneakyThrows
+  public void testSerializer() {
+    FlinkVectorTypeSerializer serializer = new FlinkVectorTypeSerializer();
+    FlinkVectorType doubles = VectorFunctions.DOUBLE_TO_VECTOR.eval(VECTORS[0]);
+    FlinkVectorType floats = VectorFunctions.ASCII_TEXT_TEST_EMBED.eval("hello world");
+
+    DataOutputSerializer out = new DataOutputSerializer(64);
+    serializer.serialize(doubles, out);
+    int doubleSize = out.length();
+    serializer.serialize(floats, out);
+    assertEquals(4 + 8 * VECTORS[0].length, doubleSize);
+    assertEquals(4 + 4 * 256, out.length() - doubleSize);
+
+    //Copying must consume exactly one record from the stream
+    DataInputDeserializer in = new DataInputDeserializer(out.getCopyOfBuffer());
+    DataOutputSerializer copy = new DataOutputSerializer(64);
+    serializer.copy(in, copy);
+    serializer.copy(in, copy);
+    assertEquals(0, in.available());
+
+    in = new DataInputDeserializer(copy.getCopyOfBuffer());
+    assertArrayEquals(doubles.getValue(), serializer.deserialize(in).getValue());
+    FlinkVectorType restored = serializer.deserialize(in);
+    assertTrue(restored.isSinglePrecision());
+    assertArrayEquals(floats.getFloatValue(), restored.getFloatValue());
+  }
 }
@@ -0,0 +1,86 @@
+package com.datasqrl.plan.global;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rel.type.RelDataTypeSystem;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeFactoryImpl;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.DateString;
+import org.junit.jupiter.api.Test;
+
+class IndexPredicateTest {
+
+  static final List<String> FIELDS = List.of("id", "amount", "status", "day");
+
+  RelDataTypeFactory typeFactory = new SqlTypeFactoryImpl(RelDataTypeSystem.DEFAULT);
+  RexBuilder rexBuilder = new RexBuilder(typeFactory);
+
+  @Test
+  public void testColumnComparedToLiteral() {
+    IndexPredicate predicate = IndexPredicate.of(rexBuilder.makeCall(SqlStdOperatorTable.EQUALS,
+        column(2, SqlTypeName.VARCHAR), rexBuilder.makeLiteral("it's")), FIELDS).get();
+    assertEquals(2, predicate.getColumnIndex());
+    assertEquals(SqlKind.EQUALS, predicate.getKind());
+    assertTrue(predicate.isEquality());
+    assertEquals("status = 'it''s'", predicate.toString());
+  }
+
+  @Test
+  public void testLiteralOnTheLeftIsReversed() {
+    IndexPredicate predicate = IndexPredicate.of(rexBuilder.makeCall(
+        SqlStdOperatorTable.LESS_THAN, amount(10), column(1, SqlTypeName.DECIMAL)), FIELDS).get();
+    assertEquals(1, predicate.getColumnIndex());
+    assertEquals(SqlKind.GREATER_THAN, predicate.getKind());
+    assertEquals("amount > 10", predicate.toString());
+  }
+
+  @Test
+  public void testNullChecks() {
+    IndexPredicate isNull = IndexPredicate.of(rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL,
+        column(3, SqlTypeName.DATE)), FIELDS).get();
+    assertEquals(SqlKind.IS_NULL, isNull.getKind());
+    assertNull(isNull.getValue());
+    assertEquals("day IS NULL", isNull.toString());
+    IndexPredicate isNotNull = IndexPredicate.of(rexBuilder.makeCall(
+        SqlStdOperatorTable.IS_NOT_NULL, column(2, SqlTypeName.VARCHAR)), FIELDS).get();
+    assertEquals("status IS NOT NULL", isNotNull.toString());
+  }
+
+  @Test
+  public void testUnsupportedPredicates() {
+    //Literal types that are not supported
+    assertEquals(Optional.empty(), IndexPredicate.of(rexBuilder.makeCall(
+        SqlStdOperatorTable.EQUALS, column(3, SqlTypeName.DATE),
+        rexBuilder.makeDateLiteral(new DateString("2024-01-02"))), FIELDS));
+    assertEquals(Optional.empty(), IndexPredicate.of(rexBuilder.makeCall(
+        SqlStdOperatorTable.EQUALS, column(1, SqlTypeName.DECIMAL),
+        rexBuilder.makeNullLiteral(typeFactory.createSqlType(SqlTypeName.DECIMAL))), FIELDS));
+    //Comparisons that aren't against a constant
+    assertEquals(Optional.empty(), IndexPredicate.of(rexBuilder.makeCall(
+        SqlStdOperatorTable.EQUALS, column(0, SqlTypeName.BIGINT),
+        column(1, SqlTypeName.BIGINT)), FIELDS));
+    assertEquals(Optional.empty(), IndexPredicate.of(rexBuilder.makeCall(
+        SqlStdOperatorTable.IS_NULL, rexBuilder.makeCall(SqlStdOperatorTable.PLUS,
+            column(1, SqlTypeName.DECIMAL), amount(1))), FIELDS));
+    //Not a comparison
+    assertEquals(Optional.empty(), IndexPredicate.of(column(1, SqlTypeName.DECIMAL), FIELDS));
+  }
+
+  private RexNode column(int index, SqlTypeName type) {
+    return rexBuilder.makeInputRef(typeFactory.createSqlType(type), index);
+  }
+
+  private RexNode amount(int amount) {
+    return rexBuilder.makeExactLiteral(BigDecimal.valueOf(amount));
+  }
+}
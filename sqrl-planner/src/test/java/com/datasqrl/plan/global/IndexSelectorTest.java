@@ -0,0 +1,152 @@
+package com.datasqrl.plan.global;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datasqrl.config.JdbcDialect;
+import com.datasqrl.engine.database.relational.IndexSelectorConfigByDialect;
+import com.datasqrl.function.IndexType;
+import com.datasqrl.plan.table.ColumnStatistic;
+import com.datasqrl.plan.table.PhysicalRelationalTable;
+import com.datasqrl.plan.table.PrimaryKey;
+import com.datasqrl.plan.table.TableStatistic;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rel.type.RelDataTypeSystem;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.type.SqlTypeFactoryImpl;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class IndexSelectorTest {
+
+  static final int ID = 0, CUSTOMER = 1, TIME = 2, AMOUNT = 3, STATUS = 4, NOTE = 5, TOTAL = 6;
+
+  static final IndexPredicate ACTIVE = new IndexPredicate(STATUS, "status", SqlKind.EQUALS,
+      new RexBuilder(new SqlTypeFactoryImpl(RelDataTypeSystem.DEFAULT)).makeLiteral("active"));
+
+  RelDataTypeFactory typeFactory = new SqlTypeFactoryImpl(RelDataTypeSystem.DEFAULT);
+  PhysicalRelationalTable table;
+
+  @BeforeEach
+  public void setup() {
+    table = mock(PhysicalRelationalTable.class);
+    when(table.getNameId()).thenReturn("orders_1");
+    when(table.getRowType()).thenReturn(typeFactory.builder()
+        .add("id", SqlTypeName.BIGINT)
+        .add("customerid", SqlTypeName.BIGINT)
+        .add("time", SqlTypeName.TIMESTAMP, 3)
+        .add("amount", SqlTypeName.DOUBLE)
+        .add("status", SqlTypeName.VARCHAR)
+        .add("note", SqlTypeName.VARCHAR)
+        .add("total", SqlTypeName.DOUBLE)
+        .build());
+    when(table.getPrimaryKey()).thenReturn(new PrimaryKey(new int[]{ID}));
+    //A customer has 1000 orders
+    when(table.getTableStatistic()).thenReturn(TableStatistic.of(1e6, Map.of(
+        "customerid", new ColumnStatistic(1000, 0.0, Double.NaN, Double.NaN, List.of()),
+        "status", new ColumnStatistic(4, 0.0, Double.NaN, Double.NaN, List.of()))));
+  }
+
+  @Test
+  public void testFilterWithSortAndLimit() {
+    //WHERE customerid = ? ORDER BY time LIMIT 10
+    QueryIndexSummary query = sortedQuery(Set.of(ID, CUSTOMER, TIME));
+    IndexDefinition index = selectIndex(postgres(), query);
+    //The index on the equality column followed by the sort column reads only the first 10 rows
+    assertEquals(IndexType.BTREE, index.getType());
+    assertEquals(List.of(CUSTOMER, TIME), index.getColumns());
+    assertEquals(10.0, query.getCost(index), 1e-9);
+    assertEquals(1000.0, query.getCost(new IndexDefinition("orders_1", List.of(CUSTOMER),
+        table.getRowType().getFieldNames(), -1, IndexType.HASH)), 1e-9);
+  }
+
+  @Test
+  public void testIncludeColumnsUnderThreshold() {
+    IndexDefinition index = selectIndex(postgres(), sortedQuery(Set.of(ID, CUSTOMER, TIME, AMOUNT)));
+    assertEquals(List.of(CUSTOMER, TIME), index.getColumns());
+    assertEquals(List.of(ID, AMOUNT), index.getIncludeColumns());
+    assertEquals(List.of("id", "amount"), index.getIncludeColumnNames());
+
+    //Reading more columns than the maximum number of included columns requires the table anyway
+    index = selectIndex(postgres(),
+        sortedQuery(Set.of(ID, CUSTOMER, TIME, AMOUNT, STATUS, NOTE, TOTAL)));
+    assertEquals(List.of(CUSTOMER, TIME), index.getColumns());
+    assertEquals(List.of(), index.getIncludeColumns());
+  }
+
+  @Test
+  public void testNoIncludeColumnsForWideColumns() {
+    //The note is a string of unbounded length
+    IndexDefinition index = selectIndex(postgres(), sortedQuery(Set.of(ID, CUSTOMER, TIME, NOTE)));
+    assertEquals(List.of(CUSTOMER, TIME), index.getColumns());
+    assertEquals(List.of(), index.getIncludeColumns());
+
+    assertTrue(IndexSelector.isIncludable(typeFactory.createSqlType(SqlTypeName.VARCHAR, 32)));
+    assertFalse(IndexSelector.isIncludable(typeFactory.createArrayType(
+        typeFactory.createSqlType(SqlTypeName.BIGINT), -1)));
+  }
+
+  @Test
+  public void testNoIncludeColumnsForOtherDialects() {
+    IndexDefinition index = selectIndex(IndexSelectorConfigByDialect.of(JdbcDialect.H2),
+        sortedQuery(Set.of(ID, CUSTOMER, TIME, AMOUNT)));
+    assertEquals(IndexType.BTREE, index.getType());
+    assertEquals(List.of(CUSTOMER, TIME), index.getColumns());
+    assertEquals(List.of(), index.getIncludeColumns());
+  }
+
+  @Test
+  public void testPartialIndexOnlyServesQueriesWithItsPredicates() {
+    IndexDefinition partial = new IndexDefinition("orders_1", List.of(CUSTOMER),
+        table.getRowType().getFieldNames(), -1, IndexType.HASH)
+        .withPredicates(List.of(ACTIVE), table.getRowType().getFieldNames());
+    //WHERE customerid = ? AND status = 'active'
+    assertEquals(250.0, activeQuery().getCost(partial), 1e-9);
+    //WHERE customerid = ? cannot use the index since it lacks the rows of other statuses
+    QueryIndexSummary query = new QueryIndexSummary(table, Set.of(CUSTOMER), Set.of(), Set.of(),
+        1.0);
+    assertEquals(query.getBaseCost(), query.getCost(partial), 1e-9);
+  }
+
+  @Test
+  public void testPartialIndexPreferredOverFullIndex() {
+    //A full index on (customerid, status) is as fast, but is written for every row
+    IndexSelectorConfigByDialect config = IndexSelectorConfigByDialect.builder()
+        .dialect(JdbcDialect.Postgres).indexWriteCost(10).build();
+    IndexDefinition index = selectIndex(config, activeQuery());
+    assertEquals(List.of(CUSTOMER), index.getColumns());
+    assertEquals(List.of(ACTIVE), index.getPredicates());
+    assertEquals(250.0, activeQuery().getCost(index), 1e-9);
+  }
+
+  private QueryIndexSummary activeQuery() {
+    return new QueryIndexSummary(table, Set.of(CUSTOMER, STATUS), Set.of(), Set.of(),
+        Set.of(ACTIVE), List.of(), QueryIndexSummary.NO_LIMIT, Set.of(), 1.0);
+  }
+
+  private QueryIndexSummary sortedQuery(Set<Integer> projectedColumns) {
+    return new QueryIndexSummary(table, Set.of(CUSTOMER), Set.of(), Set.of(), 1.0)
+        .withSort(List.of(TIME), 10)
+        .withProjectedColumns(projectedColumns);
+  }
+
+  private static IndexSelectorConfigByDialect postgres() {
+    return IndexSelectorConfigByDialect.of(JdbcDialect.Postgres);
+  }
+
+  private static IndexDefinition selectIndex(IndexSelectorConfig config,
+      QueryIndexSummary... queries) {
+    Map<IndexDefinition, Double> indexes = new IndexSelector(null, config)
+        .optimizeIndexes(List.of(queries));
+    assertEquals(1, indexes.size(), indexes::toString);
+    return indexes.keySet().iterator().next();
+  }
+}
@@ -0,0 +1,128 @@
+package com.datasqrl.plan.global;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datasqrl.engine.pipeline.ExecutionPipeline;
+import com.datasqrl.engine.pipeline.ExecutionStage;
+import com.datasqrl.plan.global.SqrlDAG.SqrlNode;
+import com.datasqrl.plan.global.SqrlDAG.TableNode;
+import com.datasqrl.plan.rules.ComputeCost;
+import com.datasqrl.plan.rules.SimpleCostModel;
+import com.datasqrl.plan.table.PhysicalTable;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import lombok.Value;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class StageAssignmentTest {
+
+  ExecutionStage stream, database;
+  ExecutionPipeline pipeline;
+
+  @BeforeEach
+  public void setup() {
+    stream = mock(ExecutionStage.class);
+    database = mock(ExecutionStage.class);
+    pipeline = mock(ExecutionPipeline.class);
+    when(pipeline.getUpStreamFrom(stream)).thenReturn(Set.of(stream));
+    when(pipeline.getUpStreamFrom(database)).thenReturn(Set.of(stream, database));
+  }
+
+  @Test
+  public void testGlobalAssignmentBeatsGreedy() {
+    //The database is slightly cheaper for a but forces the expensive database stage on b
+    SqrlNode a = node("a", 1.0, 0.9);
+    SqrlNode b = node("b", 0.1, 5.0);
+    SqrlDAG dag = dag(b, a);
+
+    StageAssignment.Result result = new StageAssignment(pipeline).optimize(dag).get();
+    assertEquals(stream, result.getStages().get(a));
+    assertEquals(stream, result.getStages().get(b));
+    assertEquals(1.1, result.getCost(), 0.0001);
+    assertEquals(5.9, result.getGreedyCost(), 0.0001);
+  }
+
+  @Test
+  public void testTransferCost() {
+    SqrlNode a = node("a", 0.1, 1.0);
+    SqrlNode b = node("b", 2.0, 1.0);
+    SqrlDAG dag = dag(b, a);
+
+    StageAssignment.Result result = new StageAssignment(pipeline).optimize(dag).get();
+    assertEquals(stream, result.getStages().get(a));
+    assertEquals(database, result.getStages().get(b));
+    assertEquals(1.1 + SimpleCostModel.TRANSFER_COST, result.getCost(), 0.0001);
+    assertEquals(result.getGreedyCost(), result.getCost(), 0.0001);
+  }
+
+  @Test
+  public void testTransferCostPerStage() {
+    //b and c read a in the database, which requires a single transfer of a
+    SqrlNode a = node("a", 0.1, 1.0);
+    SqrlNode b = node("b", 2.0, 1.0);
+    SqrlNode c = node("c", 2.0, 1.0);
+    Multimap<SqrlNode, SqrlNode> inputs = HashMultimap.create();
+    inputs.put(b, a);
+    inputs.put(c, a);
+
+    StageAssignment.Result result = new StageAssignment(pipeline).optimize(new SqrlDAG(inputs))
+        .get();
+    assertEquals(database, result.getStages().get(b));
+    assertEquals(database, result.getStages().get(c));
+    assertEquals(2.1 + SimpleCostModel.TRANSFER_COST, result.getCost(), 0.0001);
+  }
+
+  @Test
+  public void testGreedyCostFollowsDagOrder() {
+    //The DAG visits d before c, so the greedy assignment keeps c in the stream with d
+    SqrlNode a = node("a", 1.0, 1.0);
+    SqrlNode b = node("b", 1.0, 1.0);
+    SqrlNode c = node("c", 1.0, 0.9);
+    SqrlNode d = node("d", 0.1, 5.0);
+    Multimap<SqrlNode, SqrlNode> inputs = HashMultimap.create();
+    inputs.put(b, a);
+    inputs.put(c, b);
+    inputs.put(d, c);
+    inputs.put(d, a);
+
+    StageAssignment.Result result = new StageAssignment(pipeline).optimize(new SqrlDAG(inputs))
+        .get();
+    assertEquals(stream, result.getStages().get(c));
+    assertEquals(stream, result.getStages().get(d));
+    assertEquals(3.1, result.getCost(), 0.0001);
+    assertEquals(3.1, result.getGreedyCost(), 0.0001);
+  }
+
+  private SqrlDAG dag(SqrlNode output, SqrlNode input) {
+    Multimap<SqrlNode, SqrlNode> inputs = HashMultimap.create();
+    inputs.put(output, input);
+    return new SqrlDAG(inputs);
+  }
+
+  private SqrlNode node(String name, double streamCost, double databaseCost) {
+    PhysicalTable table = mock(PhysicalTable.class);
+    when(table.getNameId()).thenReturn(name);
+    Map<ExecutionStage, StageAnalysis> stageAnalysis = new LinkedHashMap<>();
+    stageAnalysis.put(stream, new StageAnalysis.Cost(stream, new TestCost(streamCost), true, null));
+    stageAnalysis.put(database,
+        new StageAnalysis.Cost(database, new TestCost(databaseCost), true, null));
+    return new TableNode(stageAnalysis, table);
+  }
+
+  @Value
+  static class TestCost implements ComputeCost {
+
+    double cost;
+
+    @Override
+    public int compareTo(ComputeCost o) {
+      return Double.compare(cost, o.getCost());
+    }
+  }
+}
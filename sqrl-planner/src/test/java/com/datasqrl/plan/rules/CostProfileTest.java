@@ -0,0 +1,66 @@
+package com.datasqrl.plan.rules;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datasqrl.config.EngineFactory.Type;
+import com.datasqrl.engine.ExecutionEngine;
+import com.datasqrl.plan.rules.CostProfile.EngineCost;
+import java.util.Map;
+import org.apache.calcite.rel.RelNode;
+import org.junit.jupiter.api.Test;
+
+public class CostProfileTest {
+
+  @Test
+  public void testDefaults() {
+    ExecutionEngine database = engine("postgres", Type.DATABASE);
+    ExecutionEngine server = engine("vertx", Type.SERVER);
+    assertSame(CostProfile.DEFAULT, CostProfile.fromMap(Map.of()));
+    assertEquals(new EngineCost(1.0, 0.0, 0.0, 0.0, 0.0),
+        CostProfile.DEFAULT.getEngineCost(database));
+    assertEquals(new EngineCost(0.0, 0.0, 0.1, 0.0, 0.0),
+        CostProfile.DEFAULT.getEngineCost(engine("flink", Type.STREAMS)));
+    assertEquals(2.0, CostProfile.DEFAULT.getCost(server, mock(RelNode.class)), 1e-9);
+    //Engine defaults fall back to the defaults of their type
+    assertEquals(new EngineCost(1.3, 0.0, 0.0, 0.0, 0.0),
+        CostProfile.DEFAULT.getEngineCost(engine("iceberg", Type.DATABASE)));
+  }
+
+  @Test
+  public void testConfiguredProfile() {
+    CostProfile profile = CostProfile.fromMap(Map.of(
+        CostProfile.ENGINES_KEY, Map.of(
+            "postgres", Map.of("base", 1.0, "scan", "0.5"),
+            "streams", Map.of("join", 0.2, "state", 0.3))));
+    //Engines are matched by name and then by type
+    assertEquals(new EngineCost(1.0, 0.5, 0.0, 0.0, 0.0),
+        profile.getEngineCost(engine("postgres", Type.DATABASE)));
+    assertEquals(new EngineCost(0.0, 0.0, 0.2, 0.0, 0.3),
+        profile.getEngineCost(engine("flink", Type.STREAMS)));
+    //Engines that aren't configured keep the defaults
+    assertEquals(new EngineCost(2.0, 0.0, 0.0, 0.0, 0.0),
+        profile.getEngineCost(engine("vertx", Type.SERVER)));
+    //Configured types apply to engines that have their own defaults
+    assertEquals(new EngineCost(1.3, 0.0, 0.0, 0.0, 0.0),
+        profile.getEngineCost(engine("iceberg", Type.DATABASE)));
+  }
+
+  @Test
+  public void testInvalidProfile() {
+    assertThrows(IllegalArgumentException.class, () -> CostProfile.fromMap(Map.of(
+        CostProfile.ENGINES_KEY, Map.of("postgres", Map.of("scan", "fast")))));
+    assertThrows(IllegalArgumentException.class, () -> CostProfile.fromMap(Map.of(
+        CostProfile.ENGINES_KEY, Map.of("postgres", Map.of("join", -1)))));
+  }
+
+  private static ExecutionEngine engine(String name, Type type) {
+    ExecutionEngine engine = mock(ExecutionEngine.class);
+    when(engine.getName()).thenReturn(name);
+    when(engine.getType()).thenReturn(type);
+    return engine;
+  }
+}
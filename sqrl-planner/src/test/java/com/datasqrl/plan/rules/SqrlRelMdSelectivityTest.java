@@ -0,0 +1,100 @@
+package com.datasqrl.plan.rules;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datasqrl.plan.global.IndexPredicate;
+import com.datasqrl.plan.table.ColumnStatistic;
+import com.datasqrl.plan.table.ScriptRelationalTable;
+import com.datasqrl.plan.table.TableStatistic;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.calcite.plan.RelOptTable;
+import org.apache.calcite.rel.core.TableScan;
+import org.apache.calcite.rel.metadata.RelMdUtil;
+import org.apache.calcite.rel.metadata.RelMetadataQuery;
+import org.apache.calcite.rel.type.RelDataTypeFactory;
+import org.apache.calcite.rel.type.RelDataTypeSystem;
+import org.apache.calcite.rex.RexBuilder;
+import org.apache.calcite.rex.RexLiteral;
+import org.apache.calcite.rex.RexNode;
+import org.apache.calcite.sql.SqlKind;
+import org.apache.calcite.sql.fun.SqlStdOperatorTable;
+import org.apache.calcite.sql.type.SqlTypeFactoryImpl;
+import org.apache.calcite.sql.type.SqlTypeName;
+import org.apache.calcite.util.DateString;
+import org.apache.calcite.util.TimestampString;
+import org.junit.jupiter.api.Test;
+
+class SqrlRelMdSelectivityTest {
+
+  private static final double DELTA = 1e-9;
+
+  RelDataTypeFactory typeFactory = new SqlTypeFactoryImpl(RelDataTypeSystem.DEFAULT);
+  RexBuilder rexBuilder = new RexBuilder(typeFactory);
+
+  @Test
+  public void testTemporalLiteralsInEpochMillis() {
+    long millis = Instant.parse("2024-01-02T00:00:00Z").toEpochMilli();
+    assertEquals(Optional.of((double) millis),
+        SqrlRelMdSelectivity.getNumericValue(date("2024-01-02")));
+    assertEquals(Optional.of((double) millis + 3_600_000),
+        SqrlRelMdSelectivity.getNumericValue(timestamp("2024-01-02 01:00:00")));
+    assertEquals(Optional.of((double) millis + 3_600_000),
+        SqrlRelMdSelectivity.getNumericValue(rexBuilder.makeTimestampWithLocalTimeZoneLiteral(
+            new TimestampString("2024-01-02 01:00:00"), 3)));
+    assertEquals(Optional.of(2.5),
+        SqrlRelMdSelectivity.getNumericValue(rexBuilder.makeExactLiteral(new BigDecimal("2.5"))));
+    assertEquals(Optional.empty(),
+        SqrlRelMdSelectivity.getNumericValue(rexBuilder.makeLiteral("2024-01-02")));
+  }
+
+  @Test
+  public void testTemporalPredicateSelectivity() {
+    //Both columns cover the days from 2024-01-01 until 2024-01-05
+    double start = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    double end = Instant.parse("2024-01-05T00:00:00Z").toEpochMilli();
+    ColumnStatistic range = new ColumnStatistic(Double.NaN, 0.0, start, end, List.of());
+    ScriptRelationalTable table = table(Map.of("day", range, "time", range));
+
+    assertEquals(0.25, SqrlRelMdSelectivity.getSelectivity(table,
+        new IndexPredicate(0, "day", SqlKind.LESS_THAN, date("2024-01-02"))), DELTA);
+    assertEquals(0.0, SqrlRelMdSelectivity.getSelectivity(table,
+        new IndexPredicate(0, "day", SqlKind.EQUALS, date("2024-02-01"))), DELTA);
+    assertEquals(0.5, SqrlRelMdSelectivity.getSelectivity(table,
+        new IndexPredicate(1, "time", SqlKind.GREATER_THAN, timestamp("2024-01-03 00:00:00"))),
+        DELTA);
+  }
+
+  @Test
+  public void testTableScanWithoutStatistics() {
+    TableScan scan = mock(TableScan.class);
+    when(scan.getTable()).thenReturn(mock(RelOptTable.class));
+    RexNode predicate = rexBuilder.makeCall(SqlStdOperatorTable.IS_NULL,
+        rexBuilder.makeInputRef(typeFactory.createSqlType(SqlTypeName.DATE), 0));
+    assertEquals(RelMdUtil.guessSelectivity(predicate), new SqrlRelMdSelectivity()
+        .getSelectivity(scan, mock(RelMetadataQuery.class), predicate), DELTA);
+  }
+
+  private ScriptRelationalTable table(Map<String, ColumnStatistic> columns) {
+    ScriptRelationalTable table = mock(ScriptRelationalTable.class);
+    when(table.getTableStatistic()).thenReturn(TableStatistic.of(100, columns));
+    when(table.getRowType()).thenReturn(typeFactory.builder()
+        .add("day", SqlTypeName.DATE)
+        .add("time", SqlTypeName.TIMESTAMP, 3)
+        .build());
+    return table;
+  }
+
+  private RexLiteral date(String date) {
+    return rexBuilder.makeDateLiteral(new DateString(date));
+  }
+
+  private RexLiteral timestamp(String timestamp) {
+    return rexBuilder.makeTimestampLiteral(new TimestampString(timestamp), 3);
+  }
+}
@@ -0,0 +1,67 @@
+package com.datasqrl.plan.table;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class TableStatisticTest {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testUnknownColumn() {
+    ColumnStatistic column = ColumnStatistic.UNKNOWN;
+    assertEquals(ColumnStatistic.DEFAULT_EQUALITY_SELECTIVITY, column.getEqualitySelectivity());
+    assertEquals(ColumnStatistic.DEFAULT_INEQUALITY_SELECTIVITY, column.getInequalitySelectivity());
+    assertEquals(ColumnStatistic.DEFAULT_INEQUALITY_SELECTIVITY,
+        column.getRangeSelectivity(1, Double.NaN));
+  }
+
+  @Test
+  public void testSkewedHistogram() {
+    //Half of the values are between 0 and 10, the other half between 10 and 1000
+    ColumnStatistic column = new ColumnStatistic(100, 0.2, 0, 1000, List.of(0.0, 10.0, 1000.0));
+    assertEquals(0.008, column.getEqualitySelectivity(), DELTA);
+    assertEquals(0.0, column.getEqualitySelectivity(2000), DELTA);
+    assertEquals(0.4, column.getRangeSelectivity(Double.NaN, 10), DELTA);
+    assertEquals(0.2, column.getRangeSelectivity(Double.NaN, 5), DELTA);
+    assertEquals(0.2, column.getRangeSelectivity(505, Double.NaN), DELTA);
+    assertEquals(0.0, column.getRangeSelectivity(2000, Double.NaN), DELTA);
+  }
+
+  @Test
+  public void testMinMaxWithoutHistogram() {
+    ColumnStatistic column = new ColumnStatistic(Double.NaN, 0.0, 0, 100, List.of());
+    assertEquals(0.25, column.getRangeSelectivity(50, 75), DELTA);
+    assertEquals(ColumnStatistic.DEFAULT_EQUALITY_SELECTIVITY, column.getEqualitySelectivity(50));
+  }
+
+  @Test
+  public void testFromMap() {
+    TableStatistic statistic = TableStatistic.fromMap(Map.of("row-count", 1000,
+        "columns", Map.of("customerId", Map.of("ndv", 5000, "null-fraction", "0.1"),
+            "time", Map.of("min", 0, "max", 100, "histogram", List.of(0, 50, 100)))));
+    assertEquals(1000.0, statistic.getRowCount());
+    assertTrue(statistic.hasColumnStatistics());
+    //The number of distinct values cannot exceed the number of rows
+    assertEquals(1000.0, statistic.getColumn("customerid").get().getNdv());
+    assertEquals(0.1, statistic.getColumn("CustomerId").get().getNullFraction(), DELTA);
+    assertEquals(List.of(0.0, 50.0, 100.0), statistic.getColumn("time").get().getHistogram());
+    assertFalse(statistic.getColumn("name").isPresent());
+    assertEquals("Stats=1000.0", statistic.toString());
+  }
+
+  @Test
+  public void testInvalidStatistics() {
+    assertThrows(IllegalArgumentException.class, () -> TableStatistic.fromMap(Map.of()));
+    assertThrows(IllegalArgumentException.class, () -> TableStatistic.fromMap(Map.of(
+        "row-count", 10, "columns", Map.of("id", Map.of("histogram", List.of(5, 1))))));
+    assertThrows(IllegalArgumentException.class, () -> TableStatistic.fromMap(Map.of(
+        "row-count", 10, "columns", Map.of("id", Map.of("ndv", "many")))));
+  }
+}
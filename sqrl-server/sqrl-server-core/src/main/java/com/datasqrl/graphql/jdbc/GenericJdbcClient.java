@@ -3,9 +3,12 @@ package com.datasqrl.graphql.jdbc;
 import com.datasqrl.graphql.server.Context;
 import com.datasqrl.graphql.server.JdbcClient;
 import com.datasqrl.graphql.server.RootGraphqlModel.JdbcQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.PagedJdbcQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedJdbcQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedPagedJdbcQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedQuery;
 import java.sql.Connection;
+import java.util.List;
 import lombok.Value;
 
 @Value
@@ -23,4 +26,21 @@ public class GenericJdbcClient implements JdbcClient {
   public ResolvedQuery noPrepareQuery(JdbcQuery jdbcQuery, Context context) {
     throw new RuntimeException("Not yet implemented");
   }
+
+  @Override
+  public ResolvedQuery preparePagedQuery(PagedJdbcQuery pagedQuery, Context context) {
+    int numParams = pagedQuery.getParameters().size();
+    if (KeysetPaging.isKeysetPaged(pagedQuery)) {
+      List<String> keyColumns = pagedQuery.getKeyColumns();
+      return new ResolvedPagedJdbcQuery(pagedQuery,
+          new PreparedSqrlQueryImpl(connection,
+              KeysetPaging.firstPageSql(pagedQuery.getSql(), keyColumns, numParams)),
+          new PreparedSqrlQueryImpl(connection,
+              KeysetPaging.nextPageSql(pagedQuery.getSql(), keyColumns, numParams)));
+    }
+    String sql = String.format("SELECT * FROM (%s) x LIMIT $%s OFFSET $%s",
+        pagedQuery.getSql(), numParams + 1, numParams + 2);
+    return new ResolvedPagedJdbcQuery(pagedQuery,
+        new PreparedSqrlQueryImpl(connection, sql));
+  }
 }
@@ -41,6 +41,10 @@ public class JdbcContext implements Context {
       //Map args
       Set<Argument> argumentSet = new HashSet<>();
       for (GraphQLArgument argument : env.getFieldDefinition().getArguments()) {
+        //The cursor only selects the page, not the query
+        if (argument.getName().equals(SchemaConstants.AFTER)) {
+          continue;
+        }
         VariableArgument arg = new VariableArgument(argument.getName(),
             env.getArguments().get(argument.getName()));
         argumentSet.add(arg);
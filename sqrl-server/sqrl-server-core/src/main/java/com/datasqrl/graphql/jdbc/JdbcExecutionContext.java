@@ -1,10 +1,13 @@
 package com.datasqrl.graphql.jdbc;
 
+import static com.datasqrl.graphql.jdbc.SchemaConstants.AFTER;
+import static com.datasqrl.graphql.jdbc.SchemaConstants.CURSOR;
 import static com.datasqrl.graphql.jdbc.SchemaConstants.LIMIT;
 import static com.datasqrl.graphql.jdbc.SchemaConstants.OFFSET;
 
 import com.datasqrl.graphql.server.RootGraphqlModel.Argument;
 import com.datasqrl.graphql.server.RootGraphqlModel.ArgumentParameter;
+import com.datasqrl.graphql.server.RootGraphqlModel.PagedJdbcQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.ParameterHandlerVisitor;
 import com.datasqrl.graphql.server.RootGraphqlModel.JdbcParameterHandler;
 import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedPagedJdbcQuery;
@@ -77,30 +80,50 @@ public class JdbcExecutionContext implements QueryExecutionContext,
       boolean isList, QueryExecutionContext context) {
     Optional<Integer> limit = Optional.ofNullable(getEnvironment().getArgument(LIMIT));
     Optional<Integer> offset = Optional.ofNullable(getEnvironment().getArgument(OFFSET));
-    Object[] paramObj = new Object[pgQuery.getQuery().getParameters().size()];
-    for (int i = 0; i < pgQuery.getQuery().getParameters().size(); i++) {
-      JdbcParameterHandler param = pgQuery.getQuery().getParameters().get(i);
-      Object o = param.accept(this, this);
-      paramObj[i] = o;
+    Optional<String> after = Optional.ofNullable(getEnvironment().getArgument(AFTER));
+    PagedJdbcQuery pagedQuery = pgQuery.getQuery();
+    PreparedSqrlQueryImpl p = ((PreparedSqrlQueryImpl) pgQuery.getPreparedQueryContainer());
+    boolean keyset = p != null && KeysetPaging.isKeysetPaged(pagedQuery);
+    List<Object> paramObj = new ArrayList<>();
+    for (JdbcParameterHandler param : pagedQuery.getParameters()) {
+      paramObj.add(param.accept(this, this));
     }
 
     //Add limit + offset
-    final String query = String.format("SELECT * FROM (%s) x LIMIT %s OFFSET %s",
-        pgQuery.getQuery().getSql(),
-        limit.map(Object::toString).orElse("ALL"),
-        offset.orElse(0)
-    );
+    final String query;
+    if (p != null) {
+      if (keyset && after.isPresent()) {
+        //Seek past the key of the cursor
+        paramObj.addAll(KeysetPaging.fromCursor(after.get(), pagedQuery.getKeyColumns()));
+        p = (PreparedSqrlQueryImpl) pgQuery.getNextPageQueryContainer();
+      }
+      query = p.getPreparedQuery();
+      paramObj.add(limit.orElse(null)); //null is no limit
+      paramObj.add(offset.orElse(0));
+    } else {
+      query = String.format("SELECT * FROM (%s) x LIMIT %s OFFSET %s",
+          pagedQuery.getSql(),
+          limit.map(Object::toString).orElse("ALL"),
+          offset.orElse(0)
+      );
+    }
 
+    Connection connection = p != null ? p.getConnection()
+        : this.context.getClient().getConnection();
     return CompletableFuture.supplyAsync(()-> {
-      Connection connection = this.context.getClient().getConnection();
-
       try (PreparedStatement statement = connection.prepareStatement(query)) {
-        for (int i = 0; i < paramObj.length; i++) {
-          statement.setObject(i + 1, paramObj[i]);
+        for (int i = 0; i < paramObj.size(); i++) {
+          statement.setObject(i + 1, paramObj.get(i));
         }
         ResultSet resultSet = statement.executeQuery();
 
-        return unboxList(resultSetToList(resultSet), isList);
+        List<Map<String, Object>> rows = resultSetToList(resultSet);
+        if (keyset) {
+          //Each row carries the cursor to continue after it
+          rows.forEach(row -> row.put(CURSOR,
+              KeysetPaging.toCursor(row, pagedQuery.getKeyColumns())));
+        }
+        return unboxList(rows, isList);
       } catch (SQLException e) {
         throw new RuntimeException(e);
       }
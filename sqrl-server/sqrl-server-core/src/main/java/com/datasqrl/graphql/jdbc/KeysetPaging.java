@@ -0,0 +1,89 @@
+package com.datasqrl.graphql.jdbc;
+
+import com.datasqrl.graphql.server.RootGraphqlModel.PagedJdbcQuery;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Keyset (seek) paging for paged queries whose result is ordered uniquely by a set of key
+ * columns. The next page starts after the key of the last row of the previous page, which the
+ * client passes back as an opaque cursor, instead of skipping rows with an offset. Deep pages
+ * then cost the same as the first page.
+ *
+ * <p>Like offset paging, the limit and offset are bound as the two trailing parameters.
+ */
+public class KeysetPaging {
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+
+  public static boolean isKeysetPaged(PagedJdbcQuery query) {
+    return query.getKeyColumns() != null && !query.getKeyColumns().isEmpty();
+  }
+
+  /**
+   * The query for the first page: {@code SELECT * FROM (sql) x ORDER BY k LIMIT $n OFFSET $n+1}
+   */
+  public static String firstPageSql(String sql, List<String> keyColumns, int numParams) {
+    return String.format("SELECT * FROM (%s) x ORDER BY %s LIMIT $%s OFFSET $%s",
+        sql, columnList(keyColumns), numParams + 1, numParams + 2);
+  }
+
+  /**
+   * The query for the pages after a cursor, the key values of the cursor are bound after the
+   * query parameters: {@code SELECT * FROM (sql) x WHERE (k) > ($n) ORDER BY k LIMIT $m OFFSET $m+1}
+   */
+  public static String nextPageSql(String sql, List<String> keyColumns, int numParams) {
+    String keyParams = IntStream.range(0, keyColumns.size())
+        .mapToObj(i -> "$" + (numParams + i + 1))
+        .collect(Collectors.joining(", "));
+    int limitParam = numParams + keyColumns.size() + 1;
+    return String.format("SELECT * FROM (%s) x WHERE (%s) > (%s) ORDER BY %s LIMIT $%s OFFSET $%s",
+        sql, columnList(keyColumns), keyParams, columnList(keyColumns), limitParam,
+        limitParam + 1);
+  }
+
+  private static String columnList(List<String> keyColumns) {
+    return keyColumns.stream()
+        .map(c -> "\"" + c + "\"")
+        .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * Encodes the key values of a row as an opaque cursor.
+   */
+  public static String toCursor(Map<String, Object> row, List<String> keyColumns) {
+    List<Object> values = keyColumns.stream()
+        .map(row::get)
+        .collect(Collectors.toList());
+    try {
+      return Base64.getUrlEncoder().withoutPadding()
+          .encodeToString(MAPPER.writeValueAsBytes(values));
+    } catch (JsonProcessingException e) {
+      throw new RuntimeException("Could not encode cursor", e);
+    }
+  }
+
+  /**
+   * Decodes the key values of a cursor.
+   */
+  public static List<Object> fromCursor(String cursor, List<String> keyColumns) {
+    List<Object> values;
+    try {
+      values = MAPPER.readValue(new String(Base64.getUrlDecoder().decode(cursor),
+          StandardCharsets.UTF_8), new TypeReference<>() {});
+    } catch (IllegalArgumentException | JsonProcessingException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+    if (values.size() != keyColumns.size()) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+    return values;
+  }
+}
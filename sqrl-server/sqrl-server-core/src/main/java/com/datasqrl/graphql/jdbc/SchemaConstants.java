@@ -4,4 +4,7 @@ public class SchemaConstants {
 
   public static final String LIMIT = "limit";
   public static final String OFFSET = "offset";
+  //The cursor argument of keyset paged queries and the field of each row that holds its cursor
+  public static final String AFTER = "after";
+  public static final String CURSOR = "_cursor";
 }
@@ -176,16 +176,18 @@ public class GraphQLEngineBuilder implements
 
   @Override
   public ResolvedQuery visitPagedJdbcQuery(PagedJdbcQuery jdbcQuery, Context context) {
-    return new ResolvedPagedJdbcQuery(jdbcQuery);
+    return context.getClient()
+        .preparePagedQuery(jdbcQuery, context);
   }
 
   @Override
   public ResolvedQuery visitPagedDuckDbQuery(PagedDuckDbQuery jdbcQuery, Context context) {
-    return new ResolvedPagedJdbcQuery(jdbcQuery);
+    return context.getClient()
+        .preparePagedQuery(jdbcQuery, context);
   }
   @Override
   public ResolvedQuery visitPagedSnowflakeDbQuery(PagedSnowflakeDbQuery jdbcQuery, Context context) {
-    return new ResolvedPagedJdbcQuery(jdbcQuery);
+    return new ResolvedPagedJdbcQuery(jdbcQuery, null);
   }
 
   @Override
@@ -1,6 +1,7 @@
 package com.datasqrl.graphql.server;
 
 import com.datasqrl.graphql.server.RootGraphqlModel.JdbcQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.PagedJdbcQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.SnowflakeDbQuery;
 
@@ -8,4 +9,10 @@ public interface JdbcClient {
   ResolvedQuery prepareQuery(JdbcQuery pgQuery, Context context);
 
   ResolvedQuery noPrepareQuery(JdbcQuery jdbcQuery, Context context);
+
+  /**
+   * Prepares the paged query with limit and offset as the two trailing parameters so that
+   * the statement is identical for all pages.
+   */
+  ResolvedQuery preparePagedQuery(PagedJdbcQuery pagedQuery, Context context);
 }
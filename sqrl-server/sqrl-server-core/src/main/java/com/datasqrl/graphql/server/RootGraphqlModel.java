@@ -5,6 +5,8 @@ package com.datasqrl.graphql.server;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonSubTypes.Type;
@@ -114,11 +116,19 @@ public class RootGraphqlModel {
     protected String fieldName;
     protected String topic;
     protected Map<String, String> sinkConfig;
+    //The fields of the record key, empty if the records of the topic are not keyed
+    protected List<String> keyFields = List.of();
 
     public KafkaMutationCoords(String fieldName, String topic, Map<String, String> sinkConfig) {
+      this(fieldName, topic, sinkConfig, List.of());
+    }
+
+    public KafkaMutationCoords(String fieldName, String topic, Map<String, String> sinkConfig,
+        List<String> keyFields) {
       this.fieldName = fieldName;
       this.topic = topic;
       this.sinkConfig = sinkConfig;
+      this.keyFields = keyFields;
     }
 
     @Override
@@ -198,6 +208,9 @@ public class RootGraphqlModel {
   public static class PostgresSubscriptionCoords extends SubscriptionCoords {
 
     private static final String type = "postgres_log";
+    //Key of the full row in notify payloads that carry the row instead of its primary key,
+    //primary key columns of that name are rejected
+    public static final String ROW_PAYLOAD_KEY = "$row";
 
     protected String fieldName;
     protected String tableName;
@@ -205,6 +218,8 @@ public class RootGraphqlModel {
     protected String listenQuery;
     protected String onNotifyQuery;
     protected List<String> parameters;
+    //Fetches the rows of multiple notifications at once, absent in models of older versions
+    protected String onNotifyBatchQuery;
 
     @Override
     public <R, C> R accept(SubscriptionCoordsVisitor<R, C> visitor, C context) {
@@ -377,6 +392,14 @@ public class RootGraphqlModel {
     String sql;
     @Singular
     List<JdbcParameterHandler> parameters;
+    //The columns that order the result uniquely, pages are then seeked by a cursor instead of
+    //an offset. Empty for offset paging.
+    @JsonInclude(Include.NON_EMPTY)
+    List<String> keyColumns = List.of();
+
+    public PagedJdbcQuery(String sql, List<JdbcParameterHandler> parameters) {
+      this(sql, parameters, List.of());
+    }
 
     @Override
     public <R, C> R accept(QueryBaseVisitor<R, C> visitor, C context) {
@@ -393,6 +416,12 @@ public class RootGraphqlModel {
     String sql;
     @Singular
     List<JdbcParameterHandler> parameters;
+    @JsonInclude(Include.NON_EMPTY)
+    List<String> keyColumns = List.of();
+
+    public PagedDuckDbQuery(String sql, List<JdbcParameterHandler> parameters) {
+      this(sql, parameters, List.of());
+    }
 
     @Override
     public <R, C> R accept(QueryBaseVisitor<R, C> visitor, C context) {
@@ -590,6 +619,14 @@ public class RootGraphqlModel {
   public static class ResolvedPagedJdbcQuery implements ResolvedQuery {
 
     PagedJdbcQuery query;
+    //The query with limit and offset bound as the trailing parameters, null if not prepared
+    PreparedSqrlQuery preparedQueryContainer;
+    //For keyset paging, the query for the pages after a cursor. Null for offset paging.
+    PreparedSqrlQuery nextPageQueryContainer;
+
+    public ResolvedPagedJdbcQuery(PagedJdbcQuery query, PreparedSqrlQuery preparedQueryContainer) {
+      this(query, preparedQueryContainer, null);
+    }
 
     @Override
     public <R, C> R accept(ResolvedQueryVisitor<R, C> visitor, C context) {
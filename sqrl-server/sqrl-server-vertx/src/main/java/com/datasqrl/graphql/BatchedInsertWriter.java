@@ -0,0 +1,116 @@
+package com.datasqrl.graphql;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Coalesces the inserts of concurrent mutations into batch executions of the prepared insert
+ * statement. An insert is buffered until either {@link #maxBatchSize} inserts are pending or
+ * {@link #lingerMs} have passed since the first pending insert, whichever comes first. A linger
+ * time of 0 or less disables batching and executes each insert right away. Each caller's future
+ * completes with the batch its insert was part of. If the batch fails, its inserts are retried one
+ * at a time so that only the callers whose inserts fail are failed.
+ */
+@Slf4j
+public class BatchedInsertWriter {
+
+  public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+  public static final long DEFAULT_LINGER_MS = 2;
+
+  private final Vertx vertx;
+  private final PreparedQuery<RowSet<Row>> preparedQuery;
+  private final int maxBatchSize;
+  private final long lingerMs;
+
+  private List<PendingInsert> pending = new ArrayList<>();
+  private long timerId = -1;
+
+  public BatchedInsertWriter(Vertx vertx, PreparedQuery<RowSet<Row>> preparedQuery) {
+    this(vertx, preparedQuery, DEFAULT_MAX_BATCH_SIZE, DEFAULT_LINGER_MS);
+  }
+
+  public BatchedInsertWriter(Vertx vertx, PreparedQuery<RowSet<Row>> preparedQuery,
+      int maxBatchSize, long lingerMs) {
+    this.vertx = vertx;
+    this.preparedQuery = preparedQuery;
+    this.maxBatchSize = maxBatchSize;
+    this.lingerMs = lingerMs;
+  }
+
+  public Future<Void> insert(Tuple tuple) {
+    Promise<Void> promise = Promise.promise();
+    List<PendingInsert> batch = null;
+    //Mutations of all server verticles share the writer
+    synchronized (this) {
+      pending.add(new PendingInsert(tuple, promise));
+      if (pending.size() >= maxBatchSize || lingerMs <= 0) {
+        batch = takePending();
+      } else if (timerId == -1) {
+        timerId = vertx.setTimer(lingerMs, id -> flush());
+      }
+    }
+    if (batch != null) {
+      execute(batch);
+    }
+    return promise.future();
+  }
+
+  private void flush() {
+    List<PendingInsert> batch;
+    synchronized (this) {
+      batch = takePending();
+    }
+    if (!batch.isEmpty()) {
+      execute(batch);
+    }
+  }
+
+  private List<PendingInsert> takePending() {
+    List<PendingInsert> batch = pending;
+    pending = new ArrayList<>();
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+    return batch;
+  }
+
+  private void execute(List<PendingInsert> batch) {
+    List<Tuple> tuples = batch.stream()
+        .map(PendingInsert::getTuple)
+        .collect(Collectors.toList());
+    //A batch of a single insert is executed as a plain statement
+    Future<RowSet<Row>> result = tuples.size() == 1
+        ? preparedQuery.execute(tuples.get(0))
+        : preparedQuery.executeBatch(tuples);
+    result
+        .onSuccess(r -> batch.forEach(p -> p.getPromise().complete()))
+        .onFailure(e -> {
+          if (batch.size() == 1) {
+            log.error("An error happened while executing an insert", e);
+            batch.get(0).getPromise().fail(e);
+          } else {
+            //Any single insert fails the entire batch, hence we retry the inserts individually
+            log.warn("A batch of {} inserts failed, retrying the inserts individually", batch.size(), e);
+            batch.forEach(p -> execute(List.of(p)));
+          }
+        });
+  }
+
+  @Value
+  private static class PendingInsert {
+
+    Tuple tuple;
+    Promise<Void> promise;
+  }
+}
@@ -5,6 +5,7 @@ package com.datasqrl.graphql;
 
 import com.datasqrl.canonicalizer.NameCanonicalizer;
 import com.datasqrl.graphql.config.CorsHandlerOptions;
+import com.datasqrl.graphql.config.DuckDbConfig;
 import com.datasqrl.graphql.config.ServerConfig;
 import com.datasqrl.graphql.server.GraphQLEngineBuilder;
 import com.datasqrl.graphql.server.RootGraphqlModel;
@@ -14,10 +15,13 @@ import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.google.common.base.Strings;
 import com.symbaloo.graphqlmicrometer.MicrometerInstrumentation;
 import graphql.GraphQL;
+import io.agroal.api.AgroalDataSource;
+import io.agroal.api.configuration.supplier.AgroalDataSourceConfigurationSupplier;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.prometheusmetrics.PrometheusConfig;
 import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
@@ -25,8 +29,11 @@ import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.LocalMap;
+import io.vertx.core.shareddata.Shareable;
 import io.vertx.ext.auth.jwt.JWTAuth;
 import io.vertx.ext.healthchecks.HealthCheckHandler;
+import io.vertx.ext.jdbc.spi.DataSourceProvider;
 import io.vertx.ext.web.Route;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.handler.BodyHandler;
@@ -44,13 +51,19 @@ import io.vertx.pgclient.PgPool;
 import io.vertx.pgclient.impl.PgPoolOptions;
 import io.vertx.sqlclient.SqlClient;
 import java.io.File;
+import java.sql.SQLException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
+import org.dataloader.DataLoaderRegistry;
 import org.duckdb.DuckDBDriver;
 
 @Slf4j
@@ -60,6 +73,14 @@ public class GraphQLServer extends AbstractVerticle {
   private final NameCanonicalizer canonicalizer;
   private final Optional<String> snowflakeUrl;
   private ServerConfig config;
+  private GraphQL graphQL;
+  private final Map<String, SqlClient> clients = new HashMap<>();
+  //The url of the shared duckdb data source used by this instance
+  private String duckDbUrl;
+
+  static final String SHARED_POSTGRES_POOL = "sqrl.postgres";
+  static final String SHARED_DATASOURCE_MAP = "sqrl.datasources";
+  private static final Object SHARED_DATASOURCE_LOCK = new Object();
 
   public static void main(String[] args) {
     PrometheusMeterRegistry prometheusMeterRegistry = new PrometheusMeterRegistry(
@@ -69,13 +90,28 @@ public class GraphQLServer extends AbstractVerticle {
         .setEnabled(true);
     Vertx vertx = Vertx.vertx(new VertxOptions().setMetricsOptions(metricsOptions));
 
-    vertx.deployVerticle(new GraphQLServer(), res -> {
-      if (res.succeeded()) {
-        System.out.println("Deployment id is: " + res.result());
-      } else {
-        System.out.println("Deployment failed!");
-      }
-    });
+    deploy(vertx, readModel(), readConfig(), NameCanonicalizer.SYSTEM, readSnowflakeUrl())
+        .onComplete(res -> {
+          if (res.succeeded()) {
+            System.out.println("Deployment id is: " + res.result());
+          } else {
+            System.out.println("Deployment failed!");
+          }
+        });
+  }
+
+  /**
+   * Deploys {@link ServerConfig#getVerticleInstances()} instances of the server. The instances
+   * share the http port and the database pools.
+   */
+  public static Future<String> deploy(Vertx vertx, RootGraphqlModel model, ServerConfig config,
+      NameCanonicalizer canonicalizer, Optional<String> snowflakeUrl) {
+    return deploy(vertx, () -> new GraphQLServer(model, config, canonicalizer, snowflakeUrl),
+        config.getVerticleInstances());
+  }
+
+  static Future<String> deploy(Vertx vertx, Supplier<GraphQLServer> server, int instances) {
+    return vertx.deployVerticle(server::get, new DeploymentOptions().setInstances(instances));
   }
 
   public GraphQLServer() {
@@ -117,6 +153,14 @@ public class GraphQLServer extends AbstractVerticle {
         RootGraphqlModel.class);
   }
 
+  @SneakyThrows
+  private static ServerConfig readConfig() {
+    Map configMap = getObjectMapper().readValue(
+        new File("server-config.json"),
+        Map.class);
+    return new ServerConfig(new JsonObject(configMap));
+  }
+
   public static ObjectMapper getObjectMapper() {
     ObjectMapper objectMapper = new ObjectMapper();
 
@@ -181,7 +225,7 @@ public class GraphQLServer extends AbstractVerticle {
   }
 
   protected void setupServer(Promise<Void> startPromise) {
-    Router router = Router.router(vertx);
+    Router router = createRouter();
     router.route().handler(LoggerHandler.create());
 
     MeterRegistry registry = BackendRegistries.getDefaultNow();
@@ -212,13 +256,13 @@ public class GraphQLServer extends AbstractVerticle {
       ctx.response().setStatusCode(500).end();
     });
 
-    SqlClient client = getPostgresSqlClient();
-    Map<String, SqlClient> clients = new HashMap<>();
-    clients.put("postgres", client);
+    //Each instance has its own engine and clients, so that requests and their queries are handled
+    //on the event loop of the instance. The clients are backed by pools shared by all instances.
+    clients.put("postgres", getPostgresSqlClient());
     clients.put("duckdb", getDuckdbSqlClient());
     snowflakeUrl.map(s-> clients.put("snowflake", getSnowflakeClient(s)));
 
-    GraphQL graphQL = createGraphQL(clients, startPromise);
+    this.graphQL = createGraphQL(clients, startPromise);
 
     CorsHandler corsHandler = toCorsHandler(this.config.getCorsHandlerOptions());
     router.route().handler(corsHandler);
@@ -235,8 +279,11 @@ public class GraphQLServer extends AbstractVerticle {
       System.setProperty("io.vertx.web.router.setup.lenient", "true");
       handler.handler(JWTAuthHandler.create(auth));
     });
-    handler.handler(GraphQLWSHandler.create(graphQL))
-        .handler(GraphQLHandler.create(graphQL,this.config.getGraphQLHandlerOptions()));
+    //Each request gets its own data loaders so nested queries are batched within the request
+    handler.handler(GraphQLWSHandler.create(graphQL)
+            .beforeExecute(e -> e.builder().dataLoaderRegistry(new DataLoaderRegistry())))
+        .handler(GraphQLHandler.create(graphQL,this.config.getGraphQLHandlerOptions())
+            .beforeExecute(e -> e.builder().dataLoaderRegistry(new DataLoaderRegistry())));
 
     vertx.createHttpServer(this.config.getHttpServerOptions()).requestHandler(router)
         .listen(this.config.getHttpServerOptions().getPort())
@@ -254,6 +301,30 @@ public class GraphQLServer extends AbstractVerticle {
         });
   }
 
+  protected Router createRouter() {
+    return Router.router(vertx);
+  }
+
+  GraphQL getGraphQL() {
+    return graphQL;
+  }
+
+  /**
+   * Closes the database clients of this instance. The shared pools are closed with the last
+   * instance that uses them.
+   */
+  @Override
+  public void stop(Promise<Void> stopPromise) {
+    List<Future<Void>> closed = clients.values().stream()
+        .map(SqlClient::close)
+        .collect(Collectors.toList());
+    clients.clear();
+    Future.join(closed).onComplete(r -> {
+      releaseDuckDbDataSource();
+      stopPromise.complete();
+    });
+  }
+
   @SneakyThrows
   private SqlClient getSnowflakeClient(String url) {
     try {
@@ -271,27 +342,85 @@ public class GraphQLServer extends AbstractVerticle {
     return pool;
   }
 
-  @SneakyThrows
   private SqlClient getDuckdbSqlClient() {
-    String url = "jdbc:duckdb:"; // In-memory DuckDB instance or you can specify a file path for persistence
+    DuckDbConfig duckDbConfig = this.config.getDuckDbConfig() != null
+        ? this.config.getDuckDbConfig() : new DuckDbConfig();
+
+    //Extensions and settings are applied once per physical connection instead of per query
+    List<String> initStatements = duckDbConfig.toInitStatements();
+
+    //All instances share one data source, so that they use the same database and connections
+    synchronized (SHARED_DATASOURCE_LOCK) {
+      LocalMap<String, SharedDataSource> shared = vertx.sharedData()
+          .getLocalMap(SHARED_DATASOURCE_MAP);
+      SharedDataSource dataSource = shared.get(duckDbConfig.getUrl());
+      if (dataSource == null) {
+        try {
+          dataSource = new SharedDataSource(AgroalDataSource.from(
+              new AgroalDataSourceConfigurationSupplier()
+                  .connectionPoolConfiguration(pool -> pool
+                      .maxSize(duckDbConfig.getMaxPoolSize())
+                      .connectionFactoryConfiguration(factory -> factory
+                          .connectionProviderClassName("org.duckdb.DuckDBDriver")
+                          .jdbcUrl(duckDbConfig.getUrl())
+                          .jdbcProperty(DuckDBDriver.JDBC_STREAM_RESULTS, String.valueOf(true))
+                          .initialSql(String.join("; ", initStatements))))));
+        } catch (SQLException e) {
+          throw new RuntimeException("Could not create duckdb pool", e);
+        }
+        shared.put(duckDbConfig.getUrl(), dataSource);
+      }
+      dataSource.references++;
+      this.duckDbUrl = duckDbConfig.getUrl();
+      return JDBCPool.pool(vertx, new SharedDataSourceProvider(dataSource.getDataSource()));
+    }
+  }
 
-    try {
-      Class.forName("org.duckdb.DuckDBDriver");
-    } catch (ClassNotFoundException e) {
-      e.printStackTrace();
+  private void releaseDuckDbDataSource() {
+    if (duckDbUrl == null) {
+      return;
     }
+    synchronized (SHARED_DATASOURCE_LOCK) {
+      LocalMap<String, SharedDataSource> shared = vertx.sharedData()
+          .getLocalMap(SHARED_DATASOURCE_MAP);
+      SharedDataSource dataSource = shared.get(duckDbUrl);
+      if (dataSource != null && --dataSource.references == 0) {
+        shared.remove(duckDbUrl);
+        dataSource.getDataSource().close();
+      }
+      duckDbUrl = null;
+    }
+  }
 
-    final JsonObject config = new JsonObject()
-        .put("driver_class", "org.duckdb.DuckDBDriver")
-        .put("datasourceName", "pool-name")
-        .put("url", url)
-//        .put("max_pool_size", 1)
-        .put(DuckDBDriver.JDBC_STREAM_RESULTS, String.valueOf(true))
-    ;
+  @Getter
+  @RequiredArgsConstructor
+  static class SharedDataSource implements Shareable {
+    private final AgroalDataSource dataSource;
+    //The number of server instances using the data source
+    private int references = 0;
+  }
 
-    JDBCPool pool = JDBCPool.pool(vertx, config);
+  /**
+   * Provides the shared data source to the pool of an instance. Closing the pool leaves the data
+   * source open, it is closed when the last instance releases it.
+   */
+  @RequiredArgsConstructor
+  static class SharedDataSourceProvider implements DataSourceProvider {
+    private final AgroalDataSource dataSource;
+
+    @Override
+    public int maximumPoolSize(DataSource dataSource, JsonObject config) {
+      return this.dataSource.getConfiguration().connectionPoolConfiguration().maxSize();
+    }
 
-    return pool;
+    @Override
+    public DataSource getDataSource(JsonObject config) {
+      return dataSource;
+    }
+
+    @Override
+    public void close(DataSource dataSource) {
+    }
   }
 
   private CorsHandler toCorsHandler(CorsHandlerOptions corsHandlerOptions) {
@@ -318,9 +447,15 @@ public class GraphQLServer extends AbstractVerticle {
   }
 
   private SqlClient getPostgresSqlClient() {
-    return PgPool.client(vertx, this.config.getPgConnectOptions(),
-        new PgPoolOptions(this.config.getPoolOptions())
-            .setPipelined(true));
+    PgPoolOptions poolOptions = new PgPoolOptions(this.config.getPoolOptions())
+        .setPipelined(true);
+    //The pool is shared by all instances and its connections are spread over their event loops
+    poolOptions.setShared(true)
+        .setName(SHARED_POSTGRES_POOL);
+    if (poolOptions.getEventLoopSize() == 0) {
+      poolOptions.setEventLoopSize(this.config.getVerticleInstances());
+    }
+    return PgPool.client(vertx, this.config.getPgConnectOptions(), poolOptions);
   }
 
   public GraphQL createGraphQL(Map<String, SqlClient> client, Promise<Void> startPromise) {
@@ -342,7 +477,7 @@ public class GraphQLServer extends AbstractVerticle {
       }
       return graphQL.build();
     } catch (Exception e) {
-      startPromise.fail(e.getMessage());
+      startPromise.tryFail(e);
       log.error("Unable to create GraphQL", e);
       throw e;
     }
@@ -0,0 +1,55 @@
+package com.datasqrl.graphql;
+
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import lombok.Value;
+import org.dataloader.BatchLoader;
+
+/**
+ * Batches the executions of a query that depends on the parent row (i.e. has a
+ * {@link com.datasqrl.graphql.server.RootGraphqlModel.SourceParameter}) across all sibling rows
+ * that are resolved in the same request.
+ * <p>
+ * The keys are the bound parameter values of each execution. All keys of a batch are sent as a
+ * single pipelined batch execution of the prepared statement so that resolving a nested field
+ * for N parent rows takes one database round-trip instead of N. Executing the statement per key
+ * (rather than rewriting it into an {@code IN}/{@code = ANY} query) preserves the per-parent
+ * semantics of ORDER BY and LIMIT clauses in the generated SQL.
+ */
+@Value
+public class JdbcBatchLoader implements BatchLoader<List<Object>, List<JsonObject>> {
+
+  PreparedQuery<RowSet<Row>> preparedQuery;
+
+  @Override
+  public CompletionStage<List<List<JsonObject>>> load(List<List<Object>> keys) {
+    List<Tuple> tuples = keys.stream()
+        .map(Tuple::from)
+        .collect(Collectors.toList());
+
+    //The result of each execution is chained through RowSet#next in the order of the tuples
+    return preparedQuery.executeBatch(tuples)
+        .map(rowSet -> {
+          List<List<JsonObject>> results = new ArrayList<>(keys.size());
+          for (RowSet<Row> r = rowSet; r != null; r = r.next()) {
+            results.add(toJson(r));
+          }
+          return results;
+        })
+        .toCompletionStage();
+  }
+
+  public static List<JsonObject> toJson(RowSet<Row> r) {
+    return StreamSupport.stream(r.spliterator(), false)
+        .map(Row::toJson)
+        .collect(Collectors.toList());
+  }
+}
@@ -1,11 +1,17 @@
 package com.datasqrl.graphql;
 
-import static org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG;
-import static org.apache.kafka.clients.consumer.ConsumerConfig.GROUP_ID_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.ACKS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.BATCH_SIZE_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.BOOTSTRAP_SERVERS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.COMPRESSION_TYPE_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG;
 import static org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.LINGER_MS_CONFIG;
 import static org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG;
 
 import com.datasqrl.canonicalizer.ReservedName;
+import com.datasqrl.graphql.config.KafkaMutationConfig;
+import com.datasqrl.graphql.config.PostgresMutationConfig;
 import com.datasqrl.graphql.config.ServerConfig;
 import com.datasqrl.graphql.io.SinkProducer;
 import com.datasqrl.graphql.kafka.KafkaSinkProducer;
@@ -13,10 +19,8 @@ import com.datasqrl.graphql.server.Context;
 import com.datasqrl.graphql.server.MutationConfiguration;
 import com.datasqrl.graphql.server.RootGraphqlModel;
 import com.datasqrl.graphql.server.RootGraphqlModel.KafkaMutationCoords;
-import com.datasqrl.graphql.server.RootGraphqlModel.MutationCoords;
 import com.datasqrl.graphql.server.RootGraphqlModel.MutationCoordsVisitor;
 import com.datasqrl.graphql.server.RootGraphqlModel.PostgresLogMutationCoords;
-import com.google.common.base.Preconditions;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
 import io.vertx.core.Vertx;
@@ -34,33 +38,39 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.UUID;
-import lombok.AllArgsConstructor;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@AllArgsConstructor
 public class MutationConfigurationImpl implements MutationConfiguration<DataFetcher<?>> {
 
   private RootGraphqlModel root;
   private Vertx vertx;
   private ServerConfig config;
+  //One producer per distinct sink configuration (i.e. kafka cluster), shared by all mutations
+  //writing to it so that records of concurrent mutations are batched together
+  private final Map<Map<String, String>, KafkaProducer<Map, Map>> producers = new ConcurrentHashMap<>();
+
+  public MutationConfigurationImpl(RootGraphqlModel root, Vertx vertx, ServerConfig config) {
+    this.root = root;
+    this.vertx = vertx;
+    this.config = config;
+  }
 
   @Override
   public MutationCoordsVisitor<DataFetcher<?>, Context> createSinkFetcherVisitor() {
     return new MutationCoordsVisitor<>() {
       @Override
       public DataFetcher<?> visit(KafkaMutationCoords coords, Context context) {
-        Map<String, SinkProducer> sinks = new HashMap<>();
-        for (MutationCoords mut : root.getMutations()) {
-          KafkaMutationCoords kafkaMut = (KafkaMutationCoords) mut;
-          KafkaProducer<String, String> producer = KafkaProducer.create(vertx, getSinkConfig());
-          KafkaSinkProducer sinkProducer = new KafkaSinkProducer<>(kafkaMut.getTopic(), producer);
-          sinks.put(mut.getFieldName(), sinkProducer);
+        Map<String, String> sinkConfig = getSinkConfig();
+        if (coords.getSinkConfig() != null) {
+          sinkConfig.putAll(coords.getSinkConfig());
         }
+        KafkaProducer<Map, Map> producer = producers.computeIfAbsent(sinkConfig,
+            MutationConfigurationImpl.this::createProducer);
+        SinkProducer emitter = new KafkaSinkProducer(coords.getTopic(), producer,
+            coords.getKeyFields());
 
-        SinkProducer emitter = sinks.get(coords.getFieldName());
-
-        Preconditions.checkNotNull(emitter, "Could not find sink for field: %s", coords.getFieldName());
         return VertxDataFetcher.create((env, fut) -> {
 
           Map entry = getEntry(env);
@@ -81,6 +91,15 @@ public class MutationConfigurationImpl implements MutationConfiguration<DataFetc
 
       @Override
       public DataFetcher<?> visit(PostgresLogMutationCoords coords, Context context) {
+        String insertStatement = coords.getInsertStatement();
+        PreparedQuery<RowSet<Row>> preparedQuery = ((VertxJdbcClient) context.getClient())
+            .getClients().get("postgres")
+            .preparedQuery(insertStatement);
+        PostgresMutationConfig mutationConfig = config.getPostgresMutationConfig() == null
+            ? new PostgresMutationConfig() : config.getPostgresMutationConfig();
+        BatchedInsertWriter writer = new BatchedInsertWriter(vertx, preparedQuery,
+            mutationConfig.getMaxBatchSize(), mutationConfig.getLingerMs());
+
         return VertxDataFetcher.create((env, fut) -> {
           Map entry = getEntry(env);
           entry.put("event_time", Timestamp.from(Instant.now())); // TODO: better to do it in the db
@@ -97,14 +116,9 @@ public class MutationConfigurationImpl implements MutationConfiguration<DataFetc
             paramObj[i] = o;
           }
 
-          String insertStatement = coords.getInsertStatement();
-
-          PreparedQuery<RowSet<Row>> preparedQuery = ((VertxJdbcClient) context.getClient())
-              .getClients().get("postgres")
-              .preparedQuery(insertStatement);
-          preparedQuery.execute(Tuple.from(paramObj))
-              .onComplete(e -> fut.complete(entry))
-              .onFailure(e -> log.error("An error happened while executing the query: " + insertStatement, e));
+          writer.insert(Tuple.from(paramObj))
+              .onSuccess(v -> fut.complete(entry))
+              .onFailure(fut::fail);
         });
       }
     };
@@ -125,14 +139,27 @@ public class MutationConfigurationImpl implements MutationConfiguration<DataFetc
     return entry;
   }
 
-  // TODO: shouldn't it come from ServerConfig?
+  protected KafkaProducer<Map, Map> createProducer(Map<String, String> sinkConfig) {
+    return KafkaProducer.create(vertx, sinkConfig);
+  }
+
   Map<String, String> getSinkConfig() {
     Map<String, String> conf = new HashMap<>();
     conf.put(BOOTSTRAP_SERVERS_CONFIG, config.getEnvironmentVariable("PROPERTIES_BOOTSTRAP_SERVERS"));
-    conf.put(GROUP_ID_CONFIG, UUID.randomUUID().toString());
     conf.put(KEY_SERIALIZER_CLASS_CONFIG, "com.datasqrl.graphql.kafka.JsonSerializer");
     conf.put(VALUE_SERIALIZER_CLASS_CONFIG, "com.datasqrl.graphql.kafka.JsonSerializer");
 
+    KafkaMutationConfig mutationConfig = config.getKafkaMutationConfig() == null
+        ? new KafkaMutationConfig() : config.getKafkaMutationConfig();
+    conf.put(LINGER_MS_CONFIG, String.valueOf(mutationConfig.getLingerMs()));
+    conf.put(BATCH_SIZE_CONFIG, String.valueOf(mutationConfig.getBatchSize()));
+    conf.put(COMPRESSION_TYPE_CONFIG, mutationConfig.getCompressionType());
+    //Idempotence requires acknowledgement by all in-sync replicas
+    boolean ackAll = mutationConfig.getAcks().equals("all") || mutationConfig.getAcks().equals("-1");
+    conf.put(ENABLE_IDEMPOTENCE_CONFIG, String.valueOf(mutationConfig.isEnableIdempotence() && ackAll));
+    conf.put(ACKS_CONFIG, mutationConfig.getAcks());
+    conf.putAll(mutationConfig.getProperties());
+
     return conf;
   }
 
@@ -53,7 +53,7 @@ public class SubscriptionConfigurationImpl implements SubscriptionConfiguration<
               .onSuccess(v -> log.info("Subscribed to topic: {}", kafkaSub.getTopic()))
               .onFailure(err -> {
                 log.error("Failed to subscribe to topic: {}", kafkaSub.getTopic(), err);
-                startPromise.fail(err);
+                startPromise.tryFail(err);
               });
           subscriptions.put(sub.getFieldName(), new KafkaSinkConsumer<>(consumer));
         }
@@ -66,7 +66,8 @@ public class SubscriptionConfigurationImpl implements SubscriptionConfiguration<
         for (SubscriptionCoords sub: root.getSubscriptions()) {
           PostgresSubscriptionCoords pgSub = (PostgresSubscriptionCoords) sub;
           PostgresListenNotifyConsumer pgConsumer = new PostgresListenNotifyConsumer(client,
-              pgSub.getListenQuery(), pgSub.getOnNotifyQuery(), pgSub.getParameters(), vertx,
+              pgSub.getListenQuery(), pgSub.getOnNotifyQuery(), pgSub.getOnNotifyBatchQuery(),
+              pgSub.getParameters(), vertx,
               config.getPgConnectOptions());
 
           PostgresSinkConsumer pgSinkConsumer = new PostgresSinkConsumer(pgConsumer);
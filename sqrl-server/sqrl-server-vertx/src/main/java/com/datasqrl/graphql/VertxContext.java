@@ -3,6 +3,7 @@ package com.datasqrl.graphql;
 import com.datasqrl.canonicalizer.NameCanonicalizer;
 import com.datasqrl.canonicalizer.ReservedName;
 import com.datasqrl.graphql.io.SinkProducer;
+import com.datasqrl.graphql.jdbc.SchemaConstants;
 import com.datasqrl.graphql.kafka.KafkaDataFetcherFactory;
 import com.datasqrl.graphql.postgres_log.PostgresDataFetcherFactory;
 import com.datasqrl.graphql.server.GraphQLEngineBuilder;
@@ -84,9 +85,13 @@ public class VertxContext implements Context {
 
   @Override
   public DataFetcher<?> createArgumentLookupFetcher(GraphQLEngineBuilder server, Map<Set<Argument>, ResolvedQuery> lookupMap) {
+    //Invoked directly (without a context to defer to) so that nested queries are added to their
+    //data loader before graphql-java dispatches the field level
     return VertxDataFetcher.create((env, fut) -> {
       //Map args
+      //The cursor only selects the page, not the query
       Set<Argument> argumentSet = env.getArguments().entrySet().stream()
+          .filter(argument -> !argument.getKey().equals(SchemaConstants.AFTER))
           .map(argument -> new VariableArgument(argument.getKey(), argument.getValue()))
           .collect(Collectors.toSet());
 
@@ -100,7 +105,7 @@ public class VertxContext implements Context {
       QueryExecutionContext context = new VertxQueryExecutionContext(this,
           env, argumentSet, fut);
       resolvedQuery.accept(server, context);
-    });
+    }, env -> null);
   }
 
 }
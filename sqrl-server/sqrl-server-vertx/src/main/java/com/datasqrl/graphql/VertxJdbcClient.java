@@ -1,5 +1,6 @@
 package com.datasqrl.graphql;
 
+import com.datasqrl.graphql.jdbc.KeysetPaging;
 import com.datasqrl.graphql.server.Context;
 import com.datasqrl.graphql.server.JdbcClient;
 import com.datasqrl.graphql.server.RootGraphqlModel.DuckDbQuery;
@@ -10,14 +11,17 @@ import com.datasqrl.graphql.server.RootGraphqlModel.PagedSnowflakeDbQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.PreparedSqrlQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.QueryBase;
 import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedJdbcQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedPagedJdbcQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.SnowflakeDbQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.SourceParameter;
 import io.vertx.core.Future;
 import io.vertx.sqlclient.PreparedQuery;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.SqlClient;
 import io.vertx.sqlclient.Tuple;
+import java.util.List;
 import java.util.Map;
 import lombok.Value;
 import net.snowflake.client.jdbc.internal.google.api.Page;
@@ -38,8 +42,16 @@ public class VertxJdbcClient implements JdbcClient {
     PreparedQuery<RowSet<Row>> preparedQuery = sqlClient
         .preparedQuery(query.getSql());
 
+    //Queries that depend on the parent row are batched across siblings (postgres only, the
+    // jdbc pool cannot return result sets for batch executions)
+    JdbcBatchLoader batchLoader = null;
+    if (database.equals("postgres") && query.getParameters().stream()
+        .anyMatch(p -> p instanceof SourceParameter)) {
+      batchLoader = new JdbcBatchLoader(preparedQuery);
+    }
+
     return new ResolvedJdbcQuery(query,
-        new PreparedSqrlQueryImpl(preparedQuery));
+        new PreparedSqrlQueryImpl(preparedQuery, batchLoader));
   }
 
   //Todo Fix me
@@ -59,16 +71,35 @@ public class VertxJdbcClient implements JdbcClient {
     return new ResolvedJdbcQuery(jdbcQuery, null);
   }
 
-  public Future<RowSet<Row>> execute(String database, PreparedQuery query, Tuple tup) {
-    if (database == null) {
-      database = "postgres";
-    }
+  @Override
+  public ResolvedQuery preparePagedQuery(PagedJdbcQuery pagedQuery, Context context) {
+    String database = getDatabaseName(pagedQuery);
+
     SqlClient sqlClient = clients.get(database);
+    if (sqlClient == null) {
+      throw new RuntimeException("Could not find database engine: " + database);
+    }
 
-    if (database.equalsIgnoreCase("duckdb")) {
-      return sqlClient.query("INSTALL iceberg;").execute().compose(v ->
-          sqlClient.query("LOAD iceberg;").execute()).compose(t->query.execute(tup));
+    //Bind limit + offset so all pages share the same (cached) statement
+    int numParams = pagedQuery.getParameters().size();
+    if (KeysetPaging.isKeysetPaged(pagedQuery)) {
+      List<String> keyColumns = pagedQuery.getKeyColumns();
+      return new ResolvedPagedJdbcQuery(pagedQuery,
+          new PreparedSqrlQueryImpl(sqlClient.preparedQuery(
+              KeysetPaging.firstPageSql(pagedQuery.getSql(), keyColumns, numParams)), null),
+          new PreparedSqrlQueryImpl(sqlClient.preparedQuery(
+              KeysetPaging.nextPageSql(pagedQuery.getSql(), keyColumns, numParams)), null));
     }
+    PreparedQuery<RowSet<Row>> preparedQuery = sqlClient
+        .preparedQuery(String.format("SELECT * FROM (%s) x LIMIT $%s OFFSET $%s",
+            pagedQuery.getSql(), numParams + 1, numParams + 2));
+
+    return new ResolvedPagedJdbcQuery(pagedQuery,
+        new PreparedSqrlQueryImpl(preparedQuery, null));
+  }
+
+  public Future<RowSet<Row>> execute(String database, PreparedQuery query, Tuple tup) {
+    //Database specific setup (e.g. duckdb extensions) happens when the pool opens a connection
     return query.execute(tup);
   }
 
@@ -81,5 +112,7 @@ public class VertxJdbcClient implements JdbcClient {
   public static class PreparedSqrlQueryImpl
       implements PreparedSqrlQuery<PreparedQuery<RowSet<Row>>> {
     PreparedQuery<RowSet<Row>> preparedQuery;
+    //Null if the query cannot be batched
+    JdbcBatchLoader batchLoader;
   }
 }
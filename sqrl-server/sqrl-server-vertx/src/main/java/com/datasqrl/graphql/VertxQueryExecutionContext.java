@@ -1,14 +1,19 @@
 package com.datasqrl.graphql;
 
 import static com.datasqrl.graphql.VertxJdbcClient.getDatabaseName;
+import static com.datasqrl.graphql.jdbc.SchemaConstants.AFTER;
+import static com.datasqrl.graphql.jdbc.SchemaConstants.CURSOR;
 import static com.datasqrl.graphql.jdbc.SchemaConstants.LIMIT;
 import static com.datasqrl.graphql.jdbc.SchemaConstants.OFFSET;
+import static graphql.execution.instrumentation.dataloader.DataLoaderDispatcherInstrumentationState.EMPTY_DATALOADER_REGISTRY;
 
 import com.datasqrl.graphql.VertxJdbcClient.PreparedSqrlQueryImpl;
+import com.datasqrl.graphql.jdbc.KeysetPaging;
 import com.datasqrl.graphql.server.RootGraphqlModel.Argument;
 import com.datasqrl.graphql.server.RootGraphqlModel.ArgumentParameter;
 import com.datasqrl.graphql.server.RootGraphqlModel.DuckDbQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.PagedDuckDbQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.PagedJdbcQuery;
 import com.datasqrl.graphql.server.RootGraphqlModel.ParameterHandlerVisitor;
 import com.datasqrl.graphql.server.RootGraphqlModel.JdbcParameterHandler;
 import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedPagedJdbcQuery;
@@ -25,15 +30,19 @@ import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.SqlClient;
 import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 import lombok.SneakyThrows;
 import lombok.Value;
+import org.dataloader.DataLoader;
+import org.dataloader.DataLoaderFactory;
+import org.dataloader.DataLoaderRegistry;
 
 @Value
 public class VertxQueryExecutionContext implements QueryExecutionContext,
@@ -56,6 +65,25 @@ public class VertxQueryExecutionContext implements QueryExecutionContext,
     String database = getDatabaseName(pgQuery.getQuery());
 
     PreparedSqrlQueryImpl preparedQueryContainer = (PreparedSqrlQueryImpl) pgQuery.getPreparedQueryContainer();
+    DataLoaderRegistry registry = environment.getDataLoaderRegistry();
+    if (preparedQueryContainer != null && preparedQueryContainer.getBatchLoader() != null
+        && registry != null && registry != EMPTY_DATALOADER_REGISTRY) {
+      //Collect the keys of all sibling rows, the loader is dispatched once per field level
+      DataLoader<List<Object>, List<JsonObject>> loader = registry.computeIfAbsent(
+          database + ":" + pgQuery.getQuery().getSql(),
+          k -> DataLoaderFactory.newDataLoader(preparedQueryContainer.getBatchLoader()));
+      loader.load(Arrays.asList(paramObj))
+          .whenComplete((rows, f) -> {
+            if (f != null) {
+              f.printStackTrace();
+              fut.fail(f);
+            } else {
+              fut.complete(unboxList(rows, isList));
+            }
+          });
+      return fut.future().toCompletionStage().toCompletableFuture();
+    }
+
     Future<RowSet<Row>> future;
     if (preparedQueryContainer == null) {
       future = this.context.getSqlClient().execute(database,
@@ -74,7 +102,7 @@ public class VertxQueryExecutionContext implements QueryExecutionContext,
           f.printStackTrace();
           fut.fail(f);
         });
-    return new CompletableFuture();
+    return fut.future().toCompletionStage().toCompletableFuture();
   }
 
   @Override
@@ -82,41 +110,69 @@ public class VertxQueryExecutionContext implements QueryExecutionContext,
       boolean isList, QueryExecutionContext context) {
     Optional<Integer> limit = Optional.ofNullable(getEnvironment().getArgument(LIMIT));
     Optional<Integer> offset = Optional.ofNullable(getEnvironment().getArgument(OFFSET));
-    Object[] paramObj = new Object[databaseQuery.getQuery().getParameters().size()];
-    for (int i = 0; i < databaseQuery.getQuery().getParameters().size(); i++) {
-      JdbcParameterHandler param = databaseQuery.getQuery().getParameters().get(i);
-      Object o = param.accept(this, this);
-      paramObj[i] = o;
+    Optional<String> after = Optional.ofNullable(getEnvironment().getArgument(AFTER));
+    PagedJdbcQuery pagedQuery = databaseQuery.getQuery();
+    PreparedSqrlQueryImpl preparedQueryContainer = (PreparedSqrlQueryImpl) databaseQuery.getPreparedQueryContainer();
+    boolean keyset = preparedQueryContainer != null && KeysetPaging.isKeysetPaged(pagedQuery);
+    List<Object> paramObj = new ArrayList<>();
+    for (JdbcParameterHandler param : pagedQuery.getParameters()) {
+      paramObj.add(param.accept(this, this));
     }
 
-    //Add limit + offset
-    final String query = String.format("SELECT * FROM (%s) x LIMIT %s OFFSET %s",
-        databaseQuery.getQuery().getSql(),
-        limit.map(Object::toString).orElse("ALL"),
-        offset.orElse(0)
-    );
-
-    String database = getDatabaseName(databaseQuery.getQuery());
+    String database = getDatabaseName(pagedQuery);
 
-    Future<RowSet<Row>> future = this.context.getSqlClient().execute(database,
-        query,Tuple.from(paramObj));
+    Future<RowSet<Row>> future;
+    if (preparedQueryContainer != null) {
+      if (keyset && after.isPresent()) {
+        //Seek past the key of the cursor
+        try {
+          paramObj.addAll(KeysetPaging.fromCursor(after.get(), pagedQuery.getKeyColumns()));
+        } catch (IllegalArgumentException e) {
+          fut.fail(e);
+          return fut.future().toCompletionStage().toCompletableFuture();
+        }
+        preparedQueryContainer = (PreparedSqrlQueryImpl) databaseQuery.getNextPageQueryContainer();
+      }
+      //Add limit + offset as parameters, a null limit means no limit
+      paramObj.add(limit.map(Integer::longValue).orElse(null));
+      paramObj.add(offset.orElse(0).longValue());
+      future = this.context.getSqlClient().execute(database,
+          preparedQueryContainer.getPreparedQuery(), Tuple.from(paramObj));
+    } else {
+      //Add limit + offset
+      final String query = String.format("SELECT * FROM (%s) x LIMIT %s OFFSET %s",
+          pagedQuery.getSql(),
+          limit.map(Object::toString).orElse("ALL"),
+          offset.orElse(0)
+      );
+      future = this.context.getSqlClient().execute(database,
+          query, Tuple.from(paramObj));
+    }
 
     future
-      .map(r -> resultMapper(r, isList))
+      .map(r -> {
+        List<JsonObject> rows = JdbcBatchLoader.toJson(r);
+        if (keyset) {
+          //Each row carries the cursor to continue after it
+          rows.forEach(row -> row.put(CURSOR,
+              KeysetPaging.toCursor(row.getMap(), pagedQuery.getKeyColumns())));
+        }
+        return unboxList(rows, isList);
+      })
       .onSuccess(fut::complete)
       .onFailure(f -> {
         f.printStackTrace();
         fut.fail(f);
       });
 
-    return new CompletableFuture();
+    return fut.future().toCompletionStage().toCompletableFuture();
   }
 
   private Object resultMapper(RowSet<Row> r, boolean isList) {
-    List<JsonObject> o = StreamSupport.stream(r.spliterator(), false)
-        .map(Row::toJson)
-        .collect(Collectors.toList());
+    return unboxList(JdbcBatchLoader.toJson(r), isList);
+  }
 
+  private static Object unboxList(List<JsonObject> o, boolean isList) {
     return isList
         ? o
         : (o.size() > 0 ? o.get(0) : null);
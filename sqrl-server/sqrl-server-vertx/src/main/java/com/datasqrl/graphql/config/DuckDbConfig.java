@@ -0,0 +1,53 @@
+package com.datasqrl.graphql.config;
+
+import io.vertx.core.json.JsonObject;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the DuckDB connection pool. Extensions and settings are applied once when a
+ * physical connection is opened, not per query.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class DuckDbConfig {
+
+  public DuckDbConfig() {
+  }
+
+  public DuckDbConfig(JsonObject json) {
+    DuckDbConfigOptionsConverter.fromJson(json, this);
+  }
+
+  //In-memory by default, use a file path (e.g. jdbc:duckdb:/data/sqrl.duckdb) to persist across restarts
+  String url = "jdbc:duckdb:";
+  int maxPoolSize = 4;
+  //Number of DuckDB worker threads, null uses the DuckDB default (number of cores)
+  @Nullable
+  Integer threads;
+  //Caches Parquet metadata of scanned Iceberg data files across queries
+  boolean enableObjectCache = true;
+  List<String> extensions = new ArrayList<>(List.of("iceberg"));
+
+  /**
+   * @return the statements that install and load the extensions and apply the settings when a
+   * connection is opened
+   */
+  public List<String> toInitStatements() {
+    List<String> statements = new ArrayList<>();
+    for (String extension : extensions) {
+      statements.add("INSTALL " + extension);
+      statements.add("LOAD " + extension);
+    }
+    if (threads != null) {
+      statements.add("SET threads = " + threads);
+    }
+    statements.add("SET enable_object_cache = " + enableObjectCache);
+    return statements;
+  }
+}
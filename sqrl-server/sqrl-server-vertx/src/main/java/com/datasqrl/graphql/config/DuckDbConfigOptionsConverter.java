@@ -0,0 +1,46 @@
+package com.datasqrl.graphql.config;
+
+import io.vertx.core.json.JsonArray;
+import java.util.ArrayList;
+import java.util.List;
+
+public class DuckDbConfigOptionsConverter {
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, DuckDbConfig obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "url":
+          if (member.getValue() instanceof String) {
+            obj.setUrl(((String)member.getValue()));
+          }
+          break;
+        case "maxPoolSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxPoolSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "threads":
+          if (member.getValue() instanceof Number) {
+            obj.setThreads(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "enableObjectCache":
+          if (member.getValue() instanceof Boolean) {
+            obj.setEnableObjectCache(((Boolean)member.getValue()).booleanValue());
+          }
+          break;
+        case "extensions":
+          if (member.getValue() instanceof JsonArray) {
+            List<String> list = new ArrayList<>();
+            ((JsonArray)member.getValue()).forEach(item -> {
+              if (item instanceof String) {
+                list.add((String)item);
+              }
+            });
+            obj.setExtensions(list);
+          }
+          break;
+      }
+    }
+  }
+}
@@ -0,0 +1,33 @@
+package com.datasqrl.graphql.config;
+
+import io.vertx.core.json.JsonObject;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the kafka producer that is shared by all kafka mutations of the server.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class KafkaMutationConfig {
+
+  public KafkaMutationConfig() {
+  }
+
+  public KafkaMutationConfig(JsonObject json) {
+    KafkaMutationConfigOptionsConverter.fromJson(json, this);
+  }
+
+  int lingerMs = 5;
+  int batchSize = 65536;
+  String compressionType = "lz4";
+  boolean enableIdempotence = true;
+  //Acknowledgement the mutation waits for before it returns: 0, 1 or all
+  String acks = "all";
+  //Additional kafka producer properties, take precedence over the options above
+  Map<String, String> properties = new HashMap<>();
+}
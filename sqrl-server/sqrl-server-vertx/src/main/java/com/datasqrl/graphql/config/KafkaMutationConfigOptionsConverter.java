@@ -0,0 +1,48 @@
+package com.datasqrl.graphql.config;
+
+import io.vertx.core.json.JsonObject;
+import java.util.HashMap;
+import java.util.Map;
+
+public class KafkaMutationConfigOptionsConverter {
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, KafkaMutationConfig obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "lingerMs":
+          if (member.getValue() instanceof Number) {
+            obj.setLingerMs(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "batchSize":
+          if (member.getValue() instanceof Number) {
+            obj.setBatchSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "compressionType":
+          if (member.getValue() instanceof String) {
+            obj.setCompressionType(((String)member.getValue()));
+          }
+          break;
+        case "enableIdempotence":
+          if (member.getValue() instanceof Boolean) {
+            obj.setEnableIdempotence(((Boolean)member.getValue()).booleanValue());
+          }
+          break;
+        case "acks":
+          if (member.getValue() instanceof String) {
+            obj.setAcks(((String)member.getValue()));
+          }
+          break;
+        case "properties":
+          if (member.getValue() instanceof JsonObject) {
+            Map<String, String> properties = new HashMap<>();
+            ((JsonObject)member.getValue()).forEach(e ->
+                properties.put(e.getKey(), String.valueOf(e.getValue())));
+            obj.setProperties(properties);
+          }
+          break;
+      }
+    }
+  }
+}
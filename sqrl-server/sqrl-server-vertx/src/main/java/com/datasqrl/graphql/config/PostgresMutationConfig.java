@@ -0,0 +1,29 @@
+package com.datasqrl.graphql.config;
+
+import com.datasqrl.graphql.BatchedInsertWriter;
+import io.vertx.core.json.JsonObject;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Configuration of the batched inserts of the postgres mutations of the server (see
+ * {@link BatchedInsertWriter}).
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+public class PostgresMutationConfig {
+
+  public PostgresMutationConfig() {
+  }
+
+  public PostgresMutationConfig(JsonObject json) {
+    PostgresMutationConfigOptionsConverter.fromJson(json, this);
+  }
+
+  //Maximum number of inserts that are executed as one batch
+  int maxBatchSize = BatchedInsertWriter.DEFAULT_MAX_BATCH_SIZE;
+  //Maximum time an insert waits for other inserts to batch with
+  long lingerMs = BatchedInsertWriter.DEFAULT_LINGER_MS;
+}
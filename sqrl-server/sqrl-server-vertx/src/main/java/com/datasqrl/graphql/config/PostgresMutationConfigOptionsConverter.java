@@ -0,0 +1,21 @@
+package com.datasqrl.graphql.config;
+
+public class PostgresMutationConfigOptionsConverter {
+
+  public static void fromJson(Iterable<java.util.Map.Entry<String, Object>> json, PostgresMutationConfig obj) {
+    for (java.util.Map.Entry<String, Object> member : json) {
+      switch (member.getKey()) {
+        case "maxBatchSize":
+          if (member.getValue() instanceof Number) {
+            obj.setMaxBatchSize(((Number)member.getValue()).intValue());
+          }
+          break;
+        case "lingerMs":
+          if (member.getValue() instanceof Number) {
+            obj.setLingerMs(((Number)member.getValue()).longValue());
+          }
+          break;
+      }
+    }
+  }
+}
@@ -39,6 +39,14 @@ public class ServerConfig {
   CorsHandlerOptions corsHandlerOptions;
   @Nullable
   JWTAuthOptions authOptions;
+  @Nullable
+  DuckDbConfig duckDbConfig;
+  @Nullable
+  KafkaMutationConfig kafkaMutationConfig;
+  @Nullable
+  PostgresMutationConfig postgresMutationConfig;
+  //Number of server verticles sharing the http port, each runs on its own event loop
+  int verticleInstances = Runtime.getRuntime().availableProcessors();
 
   // I moved it here as I believe it belongs to the server configuration.
   // The method itself is needed for easier mocking.
@@ -38,5 +38,17 @@ public class ServerConfigOptionsConverter {
       serverConfig.setAuthOptions(
           new JWTAuthOptions(json.getJsonObject("authOptions")));
     }
+    if (json.getInteger("verticleInstances") != null) {
+      serverConfig.setVerticleInstances(json.getInteger("verticleInstances"));
+    }
+    serverConfig.setDuckDbConfig(
+        new DuckDbConfig(json.getJsonObject("duckDbConfig") == null
+            ? new JsonObject() : json.getJsonObject("duckDbConfig")));
+    serverConfig.setKafkaMutationConfig(
+        new KafkaMutationConfig(json.getJsonObject("kafkaMutationConfig") == null
+            ? new JsonObject() : json.getJsonObject("kafkaMutationConfig")));
+    serverConfig.setPostgresMutationConfig(
+        new PostgresMutationConfig(json.getJsonObject("postgresMutationConfig") == null
+            ? new JsonObject() : json.getJsonObject("postgresMutationConfig")));
   }
 }
@@ -0,0 +1,149 @@
+package com.datasqrl.graphql.io;
+
+import io.vertx.core.json.JsonObject;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+/**
+ * Fans the events of a {@link SinkConsumer} out to the subscribers of a subscription field.
+ * <p>
+ * Subscribers are indexed by the values of the filter arguments they subscribed with, so an
+ * event is routed to its matching subscribers with one hash lookup per distinct combination of
+ * provided filter arguments instead of evaluating the filters of every subscriber. Subscribers
+ * that provide no filter argument share the empty combination and receive every event. Numeric
+ * filter values are matched by value since the same column can be an Integer in one event and a
+ * Long in another, depending on whether the event was decoded from JSON or read from a row.
+ * <p>
+ * Once the consumer completes or fails, subscribers that register afterwards are completed or
+ * failed right away.
+ */
+@Slf4j
+public class SubscriptionDispatcher {
+
+  private final SinkConsumer consumer;
+  //filter argument name -> event field name
+  private final Map<String, String> filters;
+  private final AtomicBoolean listening = new AtomicBoolean();
+  private volatile boolean terminated = false;
+  private volatile Throwable failure = null;
+
+  //filter argument names -> argument values -> subscribers
+  private final Map<List<String>, Map<List<Object>, Set<FluxSink<Object>>>> subscribers =
+      new ConcurrentHashMap<>();
+
+  public SubscriptionDispatcher(SinkConsumer consumer, Map<String, String> filters) {
+    this.consumer = consumer;
+    this.filters = filters;
+  }
+
+  public Publisher<Object> subscribe(Map<String, Object> args) {
+    //Arguments that are not provided do not filter, same as an absent argument
+    Map<String, Object> filterValues = new TreeMap<>();
+    if (args != null) {
+      for (String argument : filters.keySet()) {
+        Object argValue = args.get(argument);
+        if (argValue != null) {
+          filterValues.put(argument, normalize(argValue));
+        }
+      }
+    }
+    List<String> arguments = new ArrayList<>(filterValues.keySet());
+    List<Object> values = new ArrayList<>(filterValues.values());
+
+    return Flux.create(sink -> {
+      subscribers.computeIfAbsent(arguments, a -> new ConcurrentHashMap<>())
+          .computeIfAbsent(values, v -> ConcurrentHashMap.newKeySet())
+          .add(sink);
+      sink.onDispose(() -> remove(arguments, values, sink));
+      //Checked after registering so that a concurrent termination reaches the sink either way
+      if (terminated) {
+        terminate(sink);
+        return;
+      }
+      if (listening.compareAndSet(false, true)) {
+        consumer.listen(this::dispatch, this::error, x -> complete());
+      }
+    });
+  }
+
+  private void remove(List<String> arguments, List<Object> values, FluxSink<Object> sink) {
+    Map<List<Object>, Set<FluxSink<Object>>> byValues = subscribers.get(arguments);
+    if (byValues != null) {
+      byValues.computeIfPresent(values, (v, sinks) -> {
+        sinks.remove(sink);
+        return sinks.isEmpty() ? null : sinks;
+      });
+    }
+  }
+
+  private void dispatch(Object data) {
+    Map<String, Object> objectMap;
+    if (data instanceof Map) {
+      objectMap = (Map) data;
+    } else if (data instanceof JsonObject) {
+      objectMap = ((JsonObject) data).getMap();
+    } else {
+      objectMap = Map.of();
+    }
+
+    for (Map.Entry<List<String>, Map<List<Object>, Set<FluxSink<Object>>>> entry : subscribers.entrySet()) {
+      List<String> arguments = entry.getKey();
+      List<Object> key = new ArrayList<>(arguments.size());
+      for (String argument : arguments) {
+        key.add(normalize(objectMap.get(filters.get(argument))));
+      }
+      Set<FluxSink<Object>> sinks = entry.getValue().get(key);
+      if (sinks != null) {
+        sinks.forEach(sink -> sink.next(data));
+      }
+    }
+  }
+
+  static Object normalize(Object value) {
+    if (value instanceof Number) {
+      try {
+        return new BigDecimal(value.toString()).stripTrailingZeros();
+      } catch (NumberFormatException e) {
+        //NaN and infinity
+        return value;
+      }
+    }
+    return value;
+  }
+
+  private void error(Throwable throwable) {
+    log.error("Subscription consumer failed", throwable);
+    failure = throwable;
+    terminated = true;
+    forEachSink(this::terminate);
+  }
+
+  private void complete() {
+    terminated = true;
+    forEachSink(this::terminate);
+  }
+
+  private void terminate(FluxSink<Object> sink) {
+    if (failure != null) {
+      sink.error(failure);
+    } else {
+      sink.complete();
+    }
+  }
+
+  private void forEachSink(Consumer<FluxSink<Object>> action) {
+    subscribers.values().forEach(byValues ->
+        byValues.values().forEach(sinks -> sinks.forEach(action)));
+  }
+}
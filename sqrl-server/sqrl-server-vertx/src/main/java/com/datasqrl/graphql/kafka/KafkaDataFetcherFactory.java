@@ -1,14 +1,13 @@
 package com.datasqrl.graphql.kafka;
 
 import com.datasqrl.graphql.io.SinkConsumer;
+import com.datasqrl.graphql.io.SubscriptionDispatcher;
 import com.datasqrl.graphql.server.RootGraphqlModel.KafkaSubscriptionCoords;
 import com.google.common.base.Preconditions;
 import graphql.schema.DataFetcher;
 import graphql.schema.DataFetchingEnvironment;
-import io.vertx.core.json.JsonObject;
 import java.util.Map;
 import org.reactivestreams.Publisher;
-import reactor.core.publisher.Flux;
 
 public class KafkaDataFetcherFactory {
 
@@ -16,39 +15,12 @@ public class KafkaDataFetcherFactory {
     SinkConsumer consumer = subscriptions.get(coords.getFieldName());
     Preconditions.checkNotNull(consumer, "Could not find subscription consumer: {}", coords.getFieldName());
 
-    Flux<Object> deferredFlux = Flux.create(sink ->
-        consumer.listen(sink::next, sink::error, (x) -> sink.complete())).share();
+    SubscriptionDispatcher dispatcher = new SubscriptionDispatcher(consumer, coords.getFilters());
 
     return new DataFetcher<>() {
       @Override
       public Publisher<Object> get(DataFetchingEnvironment env) throws Exception {
-        return deferredFlux.filter(entry -> !filterSubscription(entry, env.getArguments()));
-      }
-
-      private boolean filterSubscription(Object data, Map<String, Object> args) {
-        if (args == null) {
-          return false;
-        }
-        for (Map.Entry<String, String> filter : coords.getFilters().entrySet()) {
-          Object argValue = args.get(filter.getKey());
-          if (argValue == null) continue;
-
-          Map<String, Object> objectMap;
-          if (data instanceof Map) {
-            objectMap = (Map) data;
-          } else if (data instanceof JsonObject) {
-            objectMap = ((JsonObject)data).getMap();
-          } else {
-            objectMap = Map.of();
-          }
-
-          Object retrievedData = objectMap.get(filter.getValue());
-          if (!argValue.equals(retrievedData)) {
-            return true;
-          }
-        }
-
-        return false;
+        return dispatcher.subscribe(env.getArguments());
       }
     };
   }
@@ -3,36 +3,52 @@ package com.datasqrl.graphql.kafka;
 import com.datasqrl.graphql.io.SinkProducer;
 import com.datasqrl.graphql.io.SinkResult;
 import io.vertx.core.Future;
-import io.vertx.core.json.JsonObject;
 import io.vertx.kafka.client.producer.KafkaProducer;
 import io.vertx.kafka.client.producer.KafkaProducerRecord;
-import io.vertx.kafka.client.producer.RecordMetadata;
 import java.time.Instant;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.UUID;
 import lombok.AllArgsConstructor;
 
 @AllArgsConstructor
-public class KafkaSinkProducer<OUT> implements SinkProducer {
+public class KafkaSinkProducer implements SinkProducer {
 
   private final String topic;
-  private final KafkaProducer<String, OUT> kafkaProducer;
+  private final KafkaProducer<Map, Map> kafkaProducer;
+  //The fields of the entry that make up the record key, records are unkeyed if empty
+  private final List<String> keyFields;
+
+  public KafkaSinkProducer(String topic, KafkaProducer<Map, Map> kafkaProducer) {
+    this(topic, kafkaProducer, List.of());
+  }
 
   @Override
   public Future<SinkResult> send(Map entry) {
-    final KafkaProducerRecord producerRecord;
-
+    final KafkaProducerRecord<Map, Map> producerRecord;
 
     try {
-      producerRecord = KafkaProducerRecord.create(topic, entry);
+      producerRecord = KafkaProducerRecord.create(topic, createKey(entry), entry);
     } catch (Exception e) {
       return Future.failedFuture(e);
     }
     //TODO: generate UUID server side
     return kafkaProducer.send(producerRecord).map(result ->
-        new SinkResult(Instant.ofEpochMilli(((RecordMetadata)result).getTimestamp())));
+        new SinkResult(Instant.ofEpochMilli(result.getTimestamp())));
+  }
+
+  /**
+   * Keyed logs (i.e. partitioned or compacted topics) read the key fields from the record key,
+   * so the key must be set for the records to be consumed.
+   */
+  Map createKey(Map entry) {
+    if (keyFields == null || keyFields.isEmpty()) {
+      return null;
+    }
+    Map<String, Object> key = new LinkedHashMap<>();
+    for (String field : keyFields) {
+      key.put(field, entry.get(field));
+    }
+    return key;
   }
 }
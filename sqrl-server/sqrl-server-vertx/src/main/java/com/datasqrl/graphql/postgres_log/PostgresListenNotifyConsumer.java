@@ -1,5 +1,7 @@
 package com.datasqrl.graphql.postgres_log;
 
+import static com.datasqrl.graphql.server.RootGraphqlModel.PostgresSubscriptionCoords.ROW_PAYLOAD_KEY;
+
 import com.datasqrl.graphql.VertxJdbcClient;
 import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
@@ -11,23 +13,48 @@ import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.Tuple;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
-import lombok.AllArgsConstructor;
+import javax.annotation.Nullable;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
-@AllArgsConstructor
 public class PostgresListenNotifyConsumer {
 
+  //Time to buffer notifications before their rows are fetched in one query
+  public static final long BATCH_LINGER_MS = 5;
+  public static final int MAX_BATCH_SIZE = 1000;
+
   private VertxJdbcClient sqlClient;
   private String listenQuery;
   private String onNotifyQuery;
+  //null for models that have no batch query, rows are then fetched per notification
+  @Nullable
+  private String onNotifyBatchQuery;
   private List<String> parameters;
   private Vertx vertx;
   private PgConnectOptions pgConnectOptions;
 
+  //Primary keys of buffered notifications in notification order, only accessed on the context
+  //of the listening connection
+  private final Set<List<Object>> pendingKeys = new LinkedHashSet<>();
+  private long timerId = -1;
+
+  public PostgresListenNotifyConsumer(VertxJdbcClient sqlClient, String listenQuery,
+      String onNotifyQuery, @Nullable String onNotifyBatchQuery, List<String> parameters,
+      Vertx vertx, PgConnectOptions pgConnectOptions) {
+    this.sqlClient = sqlClient;
+    this.listenQuery = listenQuery;
+    this.onNotifyQuery = onNotifyQuery;
+    this.onNotifyBatchQuery = onNotifyBatchQuery;
+    this.parameters = parameters;
+    this.vertx = vertx;
+    this.pgConnectOptions = pgConnectOptions;
+  }
+
   @SneakyThrows
   public void subscribe(Consumer<Object> listener) {
     // Establish a direct PgConnection
@@ -60,6 +87,13 @@ public class PostgresListenNotifyConsumer {
   public void handleNotification(PgNotification notification, Consumer<Object> listener) {
     JsonObject jsonPayload = new JsonObject(notification.getPayload());
 
+    //The trigger sent the full row, nothing to fetch
+    JsonObject row = jsonPayload.getJsonObject(ROW_PAYLOAD_KEY);
+    if (row != null) {
+      listener.accept(row);
+      return;
+    }
+
     List<Object> paramObj = new ArrayList<>();
 
     // TODO: properly do datatype conversion
@@ -68,25 +102,70 @@ public class PostgresListenNotifyConsumer {
       paramObj.add(value);
     }
 
+    if (onNotifyBatchQuery == null) {
+      fetch(List.of(paramObj), listener);
+      return;
+    }
+
+    //Coalesce notifications that arrive in short succession to fetch their rows at once
+    pendingKeys.add(paramObj);
+    if (pendingKeys.size() >= MAX_BATCH_SIZE) {
+      flush(listener);
+    } else if (timerId == -1) {
+      timerId = vertx.setTimer(BATCH_LINGER_MS, id -> {
+        timerId = -1;
+        flush(listener);
+      });
+    }
+  }
+
+  private void flush(Consumer<Object> listener) {
+    if (timerId != -1) {
+      vertx.cancelTimer(timerId);
+      timerId = -1;
+    }
+    List<List<Object>> keys = new ArrayList<>(pendingKeys);
+    pendingKeys.clear();
+    fetch(keys, listener);
+  }
+
+  private void fetch(List<List<Object>> keys, Consumer<Object> listener) {
+    if (keys.isEmpty()) {
+      return;
+    }
+
     // TODO (Soma) - It feels odd that we are using vertx a bit differently compared to how we
     //  handle the notifications. This is the accepted way of running queries in the codebase
     //  however in case on notifications we are forced to use PGConnection since that's the
     //  only way currently to listen to notifications.
-    PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.getClients().get("postgres").preparedQuery(onNotifyQuery);
-
-    preparedQuery.execute(Tuple.from(paramObj))
-        .onComplete(asyncResult -> {
-          if (asyncResult.succeeded()) {
-            RowSet<Row> rows = asyncResult.result();
-            for (Row row : rows) {
-              listener.accept(row.toJson());
-            }
-          } else {
-            log.error("An error happened while executing the query: {}", onNotifyQuery,
-                asyncResult.cause());
+    String query;
+    Tuple tuple;
+    if (keys.size() == 1) {
+      query = onNotifyQuery;
+      tuple = Tuple.from(keys.get(0));
+    } else {
+      //One text array per primary key column, the batch query casts the elements back
+      query = onNotifyBatchQuery;
+      tuple = Tuple.tuple();
+      for (int i = 0; i < parameters.size(); i++) {
+        String[] values = new String[keys.size()];
+        for (int k = 0; k < keys.size(); k++) {
+          Object value = keys.get(k).get(i);
+          values[k] = value == null ? null : value.toString();
+        }
+        tuple.addArrayOfString(values);
+      }
+    }
+
+    PreparedQuery<RowSet<Row>> preparedQuery = sqlClient.getClients().get("postgres").preparedQuery(query);
+
+    preparedQuery.execute(tuple)
+        .onSuccess(rows -> {
+          for (Row row : rows) {
+            listener.accept(row.toJson());
           }
         })
-        .onFailure(e -> log.error("An error happened while executing the query: " + onNotifyQuery, e));
+        .onFailure(e -> log.error("An error happened while executing the query: " + query, e));
   }
 
 }
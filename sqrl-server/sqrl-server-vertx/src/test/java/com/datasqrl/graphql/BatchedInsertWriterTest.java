@@ -0,0 +1,109 @@
+package com.datasqrl.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BatchedInsertWriterTest {
+
+  Vertx vertx;
+  PreparedQuery<RowSet<Row>> query;
+  List<Integer> batchSizes = new ArrayList<>();
+  AtomicInteger inserted = new AtomicInteger();
+
+  @BeforeEach
+  public void init() {
+    vertx = Vertx.vertx();
+    query = mock(PreparedQuery.class);
+    when(query.execute(any(Tuple.class))).thenAnswer(i -> {
+      batchSizes.add(1);
+      inserted.incrementAndGet();
+      return Future.succeededFuture(mock(RowSet.class));
+    });
+    when(query.executeBatch(anyList())).thenAnswer(i -> {
+      List<Tuple> tuples = i.getArgument(0);
+      batchSizes.add(tuples.size());
+      inserted.addAndGet(tuples.size());
+      return Future.succeededFuture(mock(RowSet.class));
+    });
+  }
+
+  @SneakyThrows
+  @AfterEach
+  public void teardown() {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+  }
+
+  @SneakyThrows
+  @Test
+  public void testConcurrentInsertsAreBatched() {
+    BatchedInsertWriter writer = new BatchedInsertWriter(vertx, query, 64, 50);
+    List<Future<Void>> results = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      results.add(writer.insert(Tuple.of(i)));
+    }
+    Future.all(results).toCompletionStage().toCompletableFuture().get();
+
+    //One full batch of 64 and the remainder flushed by the linger timer
+    assertEquals(List.of(64, 36), batchSizes);
+    assertEquals(100, inserted.get());
+  }
+
+  @SneakyThrows
+  @Test
+  public void testZeroLingerExecutesInsertsRightAway() {
+    BatchedInsertWriter writer = new BatchedInsertWriter(vertx, query, 64, 0);
+    Future.all(writer.insert(Tuple.of(1)), writer.insert(Tuple.of(2)))
+        .toCompletionStage().toCompletableFuture().get();
+
+    assertEquals(List.of(1, 1), batchSizes);
+    assertEquals(2, inserted.get());
+  }
+
+  @SneakyThrows
+  @Test
+  public void testFailedBatchIsRetriedPerInsert() {
+    //The second insert violates a constraint which fails the batch
+    doReturn(Future.failedFuture("constraint violation")).when(query).executeBatch(anyList());
+    doAnswer(i -> {
+      Tuple tuple = i.getArgument(0);
+      batchSizes.add(1);
+      if (tuple.getInteger(0) == 2) {
+        return Future.failedFuture("constraint violation");
+      }
+      inserted.incrementAndGet();
+      return Future.succeededFuture(mock(RowSet.class));
+    }).when(query).execute(any(Tuple.class));
+    BatchedInsertWriter writer = new BatchedInsertWriter(vertx, query, 3, 1000);
+    Future<Void> first = writer.insert(Tuple.of(1));
+    Future<Void> second = writer.insert(Tuple.of(2));
+    Future<Void> third = writer.insert(Tuple.of(3));
+    Future.join(first, second, third).toCompletionStage().toCompletableFuture()
+        .exceptionally(e -> null).get();
+
+    assertTrue(first.succeeded());
+    assertTrue(second.failed());
+    assertTrue(third.succeeded());
+    assertEquals(List.of(1, 1, 1), batchSizes);
+    assertEquals(2, inserted.get());
+  }
+}
@@ -0,0 +1,165 @@
+package com.datasqrl.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.datasqrl.canonicalizer.NameCanonicalizer;
+import com.datasqrl.graphql.config.CorsHandlerOptions;
+import com.datasqrl.graphql.config.ServerConfig;
+import com.datasqrl.graphql.config.ServletConfig;
+import com.datasqrl.graphql.server.RootGraphqlModel;
+import com.datasqrl.graphql.server.RootGraphqlModel.StringSchema;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
+import io.vertx.pgclient.impl.PgPoolOptions;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Load harness for the multi-instance deployment: runs the same request load against 1 and N
+ * server instances, checks that the requests are spread over the event loops of the instances and
+ * reports the throughput of each.
+ */
+@Slf4j
+class GraphQLServerInstancesTest {
+
+  static final int REQUESTS = 500;
+  static final int CONCURRENCY = 64;
+
+  static RootGraphqlModel root = RootGraphqlModel.builder()
+      .schema(StringSchema.builder()
+          .schema("type Query { mock: String }")
+          .build())
+      .build();
+
+  Vertx vertx;
+  int port;
+  //Requests served by each server instance
+  Map<GraphQLServer, AtomicInteger> served = new ConcurrentHashMap<>();
+  //Event loop threads on which requests were served
+  Set<Thread> eventLoops = ConcurrentHashMap.newKeySet();
+
+  @SneakyThrows
+  @AfterEach
+  public void teardown() {
+    if (vertx != null) {
+      vertx.close().toCompletionStage().toCompletableFuture().get();
+    }
+  }
+
+  @Test
+  public void testThroughputScalesWithInstances() {
+    int instances = Math.min(CONCURRENCY, Math.max(2, Runtime.getRuntime().availableProcessors()));
+    double single = runLoad(1);
+    double multiple = runLoad(instances);
+    log.info("Throughput with 1 instance: {} req/s, with {} instances: {} req/s",
+        (long) single, instances, (long) multiple);
+  }
+
+  @SneakyThrows
+  private double runLoad(int instances) {
+    if (vertx != null) {
+      vertx.close().toCompletionStage().toCompletableFuture().get();
+    }
+    vertx = Vertx.vertx();
+    served.clear();
+    eventLoops.clear();
+    port = freePort();
+    ServerConfig serverConfig = new ServerConfig();
+    serverConfig.setPoolOptions(new PgPoolOptions());
+    serverConfig.setServletConfig(new ServletConfig());
+    serverConfig.setCorsHandlerOptions(new CorsHandlerOptions());
+    serverConfig.setHttpServerOptions(new HttpServerOptions().setPort(port).setHost("localhost"));
+    serverConfig.setVerticleInstances(instances);
+
+    String deploymentId = GraphQLServer.deploy(vertx,
+            () -> new CountingGraphQLServer(serverConfig), instances)
+        .toCompletionStage().toCompletableFuture().get();
+    assertEquals(instances, served.size());
+    //Each instance has its own engine, the instances share one duckdb data source
+    assertEquals(instances, served.keySet().stream().map(GraphQLServer::getGraphQL).distinct()
+        .count());
+    assertEquals(1, vertx.sharedData().getLocalMap(GraphQLServer.SHARED_DATASOURCE_MAP).size());
+
+    WebClient client = WebClient.create(vertx, new WebClientOptions().setMaxPoolSize(CONCURRENCY));
+    AtomicInteger remaining = new AtomicInteger(REQUESTS);
+    AtomicInteger succeeded = new AtomicInteger();
+    long start = System.nanoTime();
+    List<Future<Void>> workers = new ArrayList<>();
+    for (int i = 0; i < CONCURRENCY; i++) {
+      workers.add(sendNext(client, remaining, succeeded));
+    }
+    Future.all(workers).toCompletionStage().toCompletableFuture().get();
+    double seconds = (System.nanoTime() - start) / 1e9;
+
+    assertEquals(REQUESTS, succeeded.get());
+    //Connections are distributed over the instances
+    served.values().forEach(count -> assertTrue(count.get() > 0, served::toString));
+    assertEquals(REQUESTS, served.values().stream().mapToInt(AtomicInteger::get).sum());
+    //Requests are handled on the event loops of all instances
+    assertEquals(instances, eventLoops.size());
+
+    //Undeploying the last instance releases the shared data source
+    vertx.undeploy(deploymentId).toCompletionStage().toCompletableFuture().get();
+    assertTrue(vertx.sharedData().getLocalMap(GraphQLServer.SHARED_DATASOURCE_MAP).isEmpty());
+    return REQUESTS / seconds;
+  }
+
+  @SneakyThrows
+  private static int freePort() {
+    try (ServerSocket socket = new ServerSocket(0)) {
+      return socket.getLocalPort();
+    }
+  }
+
+  private Future<Void> sendNext(WebClient client, AtomicInteger remaining,
+      AtomicInteger succeeded) {
+    if (remaining.getAndDecrement() <= 0) {
+      return Future.succeededFuture();
+    }
+    return client.post(port, "localhost", "/graphql")
+        .sendJsonObject(new JsonObject().put("query", "{ mock }"))
+        .compose(response -> {
+          if (response.statusCode() == 200) {
+            succeeded.incrementAndGet();
+          }
+          return sendNext(client, remaining, succeeded);
+        });
+  }
+
+  private class CountingGraphQLServer extends GraphQLServer {
+
+    CountingGraphQLServer(ServerConfig config) {
+      super(root, config, NameCanonicalizer.SYSTEM, Optional.empty());
+      served.put(this, new AtomicInteger());
+    }
+
+    @Override
+    protected Router createRouter() {
+      Router router = super.createRouter();
+      router.route("/graphql").handler(ctx -> {
+        served.get(this).incrementAndGet();
+        assertTrue(Context.isOnEventLoopThread());
+        eventLoops.add(Thread.currentThread());
+        ctx.next();
+      });
+      return router;
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package com.datasqrl.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datasqrl.canonicalizer.NameCanonicalizer;
+import com.datasqrl.graphql.server.GraphQLEngineBuilder;
+import com.datasqrl.graphql.server.RootGraphqlModel;
+import com.datasqrl.graphql.server.RootGraphqlModel.ArgumentLookupCoords;
+import com.datasqrl.graphql.server.RootGraphqlModel.ArgumentSet;
+import com.datasqrl.graphql.server.RootGraphqlModel.JdbcQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.SourceParameter;
+import com.datasqrl.graphql.server.RootGraphqlModel.StringSchema;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.handler.BodyHandler;
+import io.vertx.ext.web.handler.graphql.GraphQLHandler;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.dataloader.DataLoaderRegistry;
+import org.junit.jupiter.api.Test;
+
+class JdbcBatchLoaderTest {
+
+  static final String ORDERS_SQL = "SELECT id, customerid FROM orders";
+  static final String CUSTOMER_SQL = "SELECT customerid, name FROM customer WHERE customerid = $1";
+
+  static RootGraphqlModel root = RootGraphqlModel.builder()
+      .schema(StringSchema.builder().schema(""
+          + "type Query { orders: [Order] } "
+          + "type Order { id: Int customerid: Int customer: Customer } "
+          + "type Customer { customerid: Int name: String }").build())
+      .coord(ArgumentLookupCoords.builder()
+          .parentType("Query")
+          .fieldName("orders")
+          .match(ArgumentSet.builder()
+              .query(new JdbcQuery(ORDERS_SQL, List.of()))
+              .build())
+          .build())
+      .coord(ArgumentLookupCoords.builder()
+          .parentType("Order")
+          .fieldName("customer")
+          .match(ArgumentSet.builder()
+              .query(new JdbcQuery(CUSTOMER_SQL, List.of(SourceParameter.builder()
+                  .key("customerid")
+                  .build())))
+              .build())
+          .build())
+      .build();
+
+  static final String QUERY = "{ orders { id customer { customerid name } } }";
+
+  AtomicInteger executions = new AtomicInteger();
+  AtomicInteger batchExecutions = new AtomicInteger();
+  Vertx vertx;
+
+  @Test
+  public void testNestedQueryIsBatched() {
+    GraphQL graphQL = createGraphQL();
+
+    ExecutionResult result = graphQL.execute(ExecutionInput.newExecutionInput()
+        .query(QUERY)
+        .dataLoaderRegistry(new DataLoaderRegistry())
+        .build());
+
+    assertTrue(result.getErrors().isEmpty(), result.getErrors().toString());
+    assertBatched(result.getData());
+  }
+
+  @Test
+  public void testNestedQueryIsBatchedThroughHandler() throws Exception {
+    //Runs the request through the GraphQL handler on a Vert.x context like the server does and
+    //completes the queries asynchronously like the database client does
+    vertx = Vertx.vertx();
+    try {
+      GraphQL graphQL = createGraphQL();
+      Router router = Router.router(vertx);
+      router.route().handler(BodyHandler.create());
+      router.route("/graphql").handler(GraphQLHandler.create(graphQL)
+          .beforeExecute(e -> e.builder().dataLoaderRegistry(new DataLoaderRegistry())));
+      HttpServer server = vertx.createHttpServer().requestHandler(router).listen(0)
+          .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+      JsonObject response = WebClient.create(vertx)
+          .post(server.actualPort(), "localhost", "/graphql")
+          .sendJsonObject(new JsonObject().put("query", QUERY))
+          .map(HttpResponse::bodyAsJsonObject)
+          .toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+
+      assertNull(response.getValue("errors"), response.encode());
+      assertBatched(response.getJsonObject("data").getMap());
+    } finally {
+      vertx.close().toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+    }
+  }
+
+  private GraphQL createGraphQL() {
+    //100 orders over 10 customers
+    List<JsonObject> orders = IntStream.range(0, 100)
+        .mapToObj(i -> new JsonObject().put("id", i).put("customerid", i % 10))
+        .collect(Collectors.toList());
+
+    SqlClient client = mock(SqlClient.class);
+    PreparedQuery<RowSet<Row>> ordersQuery = mockQuery(orders);
+    PreparedQuery<RowSet<Row>> customerQuery = mockQuery(List.of());
+    when(client.preparedQuery(ORDERS_SQL)).thenReturn(ordersQuery);
+    when(client.preparedQuery(CUSTOMER_SQL)).thenReturn(customerQuery);
+
+    return root.accept(
+        new GraphQLEngineBuilder.Builder().build(),
+        new VertxContext(new VertxJdbcClient(Map.of("postgres", client)),
+            NameCanonicalizer.SYSTEM)).build();
+  }
+
+  private void assertBatched(Map<String, Object> result) {
+    //One query for the orders and a single batch with one execution per distinct customer
+    assertEquals(1, executions.get());
+    assertEquals(1, batchExecutions.get());
+
+    List<Object> data = toList(result.get("orders"));
+    assertEquals(100, data.size());
+    for (Object orderObj : data) {
+      Map<String, Object> order = toMap(orderObj);
+      Map<String, Object> customer = toMap(order.get("customer"));
+      int id = ((Number) order.get("id")).intValue();
+      assertEquals(id % 10, ((Number) customer.get("customerid")).intValue());
+      assertEquals("customer" + (id % 10), customer.get("name"));
+    }
+  }
+
+  private static List<Object> toList(Object o) {
+    return o instanceof JsonArray ? ((JsonArray) o).getList() : (List<Object>) o;
+  }
+
+  private static Map<String, Object> toMap(Object o) {
+    return o instanceof JsonObject ? ((JsonObject) o).getMap() : (Map<String, Object>) o;
+  }
+
+  private PreparedQuery<RowSet<Row>> mockQuery(List<JsonObject> rows) {
+    PreparedQuery<RowSet<Row>> query = mock(PreparedQuery.class);
+    when(query.execute(any(Tuple.class))).thenAnswer(i -> {
+      executions.incrementAndGet();
+      return complete(rowSet(rows, null));
+    });
+    when(query.executeBatch(anyList())).thenAnswer(i -> {
+      batchExecutions.incrementAndGet();
+      List<Tuple> tuples = i.getArgument(0);
+      //Chain one result per tuple, the customer is derived from the key
+      RowSet<Row> next = null;
+      for (int t = tuples.size() - 1; t >= 0; t--) {
+        int customerid = tuples.get(t).getInteger(0);
+        next = rowSet(List.of(new JsonObject().put("customerid", customerid)
+            .put("name", "customer" + customerid)), next);
+      }
+      assertEquals(10, tuples.size());
+      return complete(next);
+    });
+    return query;
+  }
+
+  private Future<RowSet<Row>> complete(RowSet<Row> rowSet) {
+    if (vertx == null) {
+      return Future.succeededFuture(rowSet);
+    }
+    Promise<RowSet<Row>> promise = Promise.promise();
+    vertx.runOnContext(v -> promise.complete(rowSet));
+    return promise.future();
+  }
+
+  private RowSet<Row> rowSet(List<JsonObject> json, RowSet<Row> next) {
+    List<Row> rows = new ArrayList<>();
+    for (JsonObject o : json) {
+      Row row = mock(Row.class);
+      when(row.toJson()).thenReturn(o);
+      rows.add(row);
+    }
+    RowSet<Row> rowSet = mock(RowSet.class);
+    when(rowSet.spliterator()).thenAnswer(i -> rows.spliterator());
+    when(rowSet.next()).thenReturn(next);
+    return rowSet;
+  }
+}
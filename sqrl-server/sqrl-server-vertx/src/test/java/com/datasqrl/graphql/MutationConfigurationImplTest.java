@@ -0,0 +1,139 @@
+package com.datasqrl.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.datasqrl.canonicalizer.NameCanonicalizer;
+import com.datasqrl.graphql.config.KafkaMutationConfig;
+import com.datasqrl.graphql.config.ServerConfig;
+import com.datasqrl.graphql.kafka.JsonSerializer;
+import com.datasqrl.graphql.server.GraphQLEngineBuilder;
+import com.datasqrl.graphql.server.RootGraphqlModel;
+import com.datasqrl.graphql.server.RootGraphqlModel.KafkaMutationCoords;
+import com.datasqrl.graphql.server.RootGraphqlModel.StringSchema;
+import graphql.ExecutionInput;
+import graphql.ExecutionResult;
+import graphql.GraphQL;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.kafka.client.producer.KafkaProducer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.SneakyThrows;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MutationConfigurationImplTest {
+
+  static final int MUTATIONS = 50;
+
+  static RootGraphqlModel root = RootGraphqlModel.builder()
+      .schema(StringSchema.builder().schema(""
+          + "type Query { customer: Customer } "
+          + "type Mutation { "
+          + "  addCustomer(event: CustomerInput): Customer "
+          + "  addOrder(event: OrderInput): Order "
+          + "} "
+          + "input CustomerInput { customerid: Int } "
+          + "input OrderInput { orderid: Int } "
+          + "type Customer { customerid: Int } "
+          + "type Order { orderid: Int }").build())
+      .mutation(new KafkaMutationCoords("addCustomer", "customer-topic", Map.of()))
+      .mutation(new KafkaMutationCoords("addOrder", "order-topic", Map.of(), List.of("orderid")))
+      .build();
+
+  Vertx vertx;
+  MockProducer<Map, Map> mockProducer;
+  AtomicInteger producersCreated = new AtomicInteger();
+
+  @BeforeEach
+  public void init() {
+    vertx = Vertx.vertx();
+    mockProducer = new MockProducer<>(true, new JsonSerializer(), new JsonSerializer());
+  }
+
+  @SneakyThrows
+  @AfterEach
+  public void teardown() {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+  }
+
+  @SneakyThrows
+  @Test
+  public void testMutationsShareOneProducer() {
+    ServerConfig config = new ServerConfig();
+    config.setKafkaMutationConfig(new KafkaMutationConfig());
+    MutationConfigurationImpl mutationConfiguration = new MutationConfigurationImpl(root, vertx,
+        config) {
+      @Override
+      protected KafkaProducer<Map, Map> createProducer(Map<String, String> sinkConfig) {
+        producersCreated.incrementAndGet();
+        assertEquals("5", sinkConfig.get("linger.ms"));
+        assertEquals("all", sinkConfig.get("acks"));
+        return KafkaProducer.create(vertx, mockProducer);
+      }
+    };
+
+    GraphQL graphQL = root.accept(
+        new GraphQLEngineBuilder.Builder()
+            .withMutationConfiguration(mutationConfiguration)
+            .build(),
+        new VertxContext(new VertxJdbcClient(Map.of()), NameCanonicalizer.SYSTEM))
+        .build();
+
+    List<CompletableFuture<ExecutionResult>> results = new ArrayList<>();
+    for (int i = 0; i < MUTATIONS; i++) {
+      results.add(graphQL.executeAsync(ExecutionInput.newExecutionInput()
+          .query("mutation ($event: CustomerInput!) { addCustomer(event: $event) { customerid } }")
+          .variables(Map.of("event", Map.of("customerid", i)))
+          .build()));
+      results.add(graphQL.executeAsync(ExecutionInput.newExecutionInput()
+          .query("mutation ($event: OrderInput!) { addOrder(event: $event) { orderid } }")
+          .variables(Map.of("event", Map.of("orderid", i)))
+          .build()));
+    }
+    for (CompletableFuture<ExecutionResult> result : results) {
+      ExecutionResult executionResult = result.get();
+      assertTrue(executionResult.getErrors().isEmpty(), executionResult.getErrors().toString());
+    }
+
+    //Both mutations write through the same producer, each to its own topic and only orders keyed
+    assertEquals(1, producersCreated.get());
+    List<ProducerRecord<Map, Map>> history = mockProducer.history();
+    assertEquals(2 * MUTATIONS, history.size());
+    assertEquals(MUTATIONS, history.stream()
+        .filter(r -> r.topic().equals("customer-topic") && r.value().containsKey("customerid")
+            && r.key() == null)
+        .count());
+    assertEquals(MUTATIONS, history.stream()
+        .filter(r -> r.topic().equals("order-topic")
+            && r.key().equals(Map.of("orderid", r.value().get("orderid"))))
+        .count());
+  }
+
+  @Test
+  public void testSinkConfig() {
+    ServerConfig config = new ServerConfig();
+    config.setKafkaMutationConfig(new KafkaMutationConfig(new JsonObject()
+        .put("lingerMs", 20)
+        .put("compressionType", "zstd")
+        .put("acks", "1")
+        .put("properties", new JsonObject().put("linger.ms", 50).put("client.id", "sqrl"))));
+    Map<String, String> sinkConfig = new MutationConfigurationImpl(root, vertx, config)
+        .getSinkConfig();
+    //Additional properties take precedence over the options
+    assertEquals("50", sinkConfig.get("linger.ms"));
+    assertEquals("65536", sinkConfig.get("batch.size"));
+    assertEquals("zstd", sinkConfig.get("compression.type"));
+    assertEquals("1", sinkConfig.get("acks"));
+    //Idempotence requires acks=all
+    assertEquals("false", sinkConfig.get("enable.idempotence"));
+    assertEquals("sqrl", sinkConfig.get("client.id"));
+  }
+}
@@ -0,0 +1,181 @@
+package com.datasqrl.graphql;
+
+import static com.datasqrl.graphql.jdbc.SchemaConstants.AFTER;
+import static com.datasqrl.graphql.jdbc.SchemaConstants.CURSOR;
+import static com.datasqrl.graphql.jdbc.SchemaConstants.LIMIT;
+import static com.datasqrl.graphql.jdbc.SchemaConstants.OFFSET;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.datasqrl.canonicalizer.NameCanonicalizer;
+import com.datasqrl.graphql.jdbc.KeysetPaging;
+import com.datasqrl.graphql.server.RootGraphqlModel.Argument;
+import com.datasqrl.graphql.server.RootGraphqlModel.ArgumentParameter;
+import com.datasqrl.graphql.server.RootGraphqlModel.PagedDuckDbQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.PagedJdbcQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.ResolvedPagedJdbcQuery;
+import com.datasqrl.graphql.server.RootGraphqlModel.VariableArgument;
+import graphql.schema.DataFetchingEnvironment;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.jdbcclient.JDBCConnectOptions;
+import io.vertx.jdbcclient.JDBCPool;
+import io.vertx.sqlclient.PoolOptions;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.Tuple;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.Spliterators;
+import java.util.stream.Collectors;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class VertxQueryExecutionContextTest {
+
+  static final String SQL = "SELECT * FROM orders WHERE customerid = $1";
+
+  List<String> preparedSql = new ArrayList<>();
+  List<String> executedSql = new ArrayList<>();
+  List<Tuple> executed = new ArrayList<>();
+  VertxJdbcClient jdbcClient;
+  VertxContext context;
+  ResolvedPagedJdbcQuery query;
+
+  @BeforeEach
+  public void setup() {
+    RowSet<Row> rowSet = mock(RowSet.class);
+    when(rowSet.spliterator()).thenReturn(Spliterators.emptySpliterator());
+    SqlClient client = mock(SqlClient.class);
+    when(client.preparedQuery(any())).thenAnswer(i -> {
+      String sql = i.getArgument(0);
+      preparedSql.add(sql);
+      PreparedQuery<RowSet<Row>> preparedQuery = mock(PreparedQuery.class);
+      when(preparedQuery.execute(any(Tuple.class))).thenAnswer(e -> {
+        executedSql.add(sql);
+        executed.add(e.getArgument(0));
+        return Future.succeededFuture(rowSet);
+      });
+      return preparedQuery;
+    });
+    jdbcClient = new VertxJdbcClient(Map.of("postgres", client));
+    context = new VertxContext(jdbcClient, NameCanonicalizer.SYSTEM);
+    query = (ResolvedPagedJdbcQuery) jdbcClient.preparePagedQuery(
+        new PagedJdbcQuery(SQL, List.of(new ArgumentParameter("customerid"))), context);
+  }
+
+  @Test
+  public void testPagedQueryIsPreparedOnce() {
+    assertEquals(List.of("SELECT * FROM (" + SQL + ") x LIMIT $2 OFFSET $3"), preparedSql);
+    runPagedQuery(Map.of(LIMIT, 10, OFFSET, 20));
+    runPagedQuery(Map.of(LIMIT, 5));
+    assertEquals(1, preparedSql.size());
+  }
+
+  @Test
+  public void testLimitAndOffsetAreTrailingParameters() {
+    runPagedQuery(Map.of(LIMIT, 10, OFFSET, 20));
+    Tuple tuple = executed.get(0);
+    assertEquals(3, tuple.size());
+    assertEquals(42L, tuple.getValue(0));
+    assertEquals(10L, tuple.getValue(1));
+    assertEquals(20L, tuple.getValue(2));
+  }
+
+  @Test
+  public void testNullLimitIsNoLimit() {
+    runPagedQuery(Map.of());
+    Tuple tuple = executed.get(0);
+    assertEquals(3, tuple.size());
+    assertNull(tuple.getValue(1));
+    assertEquals(0L, tuple.getValue(2));
+  }
+
+  @Test
+  public void testKeysetPagedQuerySeeksPastCursor() {
+    preparedSql.clear();
+    query = (ResolvedPagedJdbcQuery) jdbcClient.preparePagedQuery(
+        new PagedJdbcQuery(SQL, List.of(new ArgumentParameter("customerid")),
+            List.of("time", "orderid")), context);
+    String firstPage = "SELECT * FROM (" + SQL + ") x ORDER BY \"time\", \"orderid\" "
+        + "LIMIT $2 OFFSET $3";
+    String nextPage = "SELECT * FROM (" + SQL + ") x WHERE (\"time\", \"orderid\") > ($2, $3) "
+        + "ORDER BY \"time\", \"orderid\" LIMIT $4 OFFSET $5";
+    assertEquals(List.of(firstPage, nextPage), preparedSql);
+
+    runPagedQuery(Map.of(LIMIT, 10));
+    String cursor = KeysetPaging.toCursor(Map.of("time", "2024-01-01T00:00:00", "orderid", 7),
+        List.of("time", "orderid"));
+    runPagedQuery(Map.of(LIMIT, 10, AFTER, cursor));
+    assertEquals(List.of(firstPage, nextPage), executedSql);
+    assertEquals(List.of(42L, 10L, 0L), values(executed.get(0)));
+    //The key of the cursor is bound between the query parameters and limit + offset
+    assertEquals(List.of(42L, "2024-01-01T00:00:00", 7, 10L, 0L), values(executed.get(1)));
+  }
+
+  @SneakyThrows
+  @Test
+  public void testKeysetPagesOverDuckDb() {
+    Vertx vertx = Vertx.vertx();
+    try {
+      //A single connection, each duckdb connection opens its own in-memory database
+      JDBCPool pool = JDBCPool.pool(vertx, new JDBCConnectOptions().setJdbcUrl("jdbc:duckdb:"),
+          new PoolOptions().setMaxSize(1));
+      pool.query("CREATE TABLE orders (customerid BIGINT, orderid BIGINT, amount DOUBLE)")
+          .execute()
+          .compose(r -> pool.query("INSERT INTO orders VALUES (42, 5, 1.0), (42, 3, 2.0), "
+              + "(7, 4, 3.0), (42, 9, 4.0), (42, 1, 5.0), (42, 8, 6.0)").execute())
+          .toCompletionStage().toCompletableFuture().get();
+      jdbcClient = new VertxJdbcClient(Map.of("duckdb", pool));
+      context = new VertxContext(jdbcClient, NameCanonicalizer.SYSTEM);
+      query = (ResolvedPagedJdbcQuery) jdbcClient.preparePagedQuery(
+          new PagedDuckDbQuery(SQL, List.of(new ArgumentParameter("customerid")),
+              List.of("orderid")), context);
+
+      List<List<Long>> pages = new ArrayList<>();
+      String cursor = null;
+      do {
+        Map<String, Object> pageArguments = new HashMap<>(Map.of(LIMIT, 2));
+        if (cursor != null) {
+          pageArguments.put(AFTER, cursor);
+        }
+        List<JsonObject> rows = (List<JsonObject>) runPagedQuery(pageArguments);
+        pages.add(rows.stream().map(row -> row.getLong("orderid")).collect(Collectors.toList()));
+        cursor = rows.isEmpty() ? null : rows.get(rows.size() - 1).getString(CURSOR);
+      } while (cursor != null);
+
+      assertEquals(List.of(List.of(1L, 3L), List.of(5L, 8L), List.of(9L), List.of()), pages);
+    } finally {
+      vertx.close().toCompletionStage().toCompletableFuture().get();
+    }
+  }
+
+  private static List<Object> values(Tuple tuple) {
+    List<Object> values = new ArrayList<>();
+    for (int i = 0; i < tuple.size(); i++) {
+      values.add(tuple.getValue(i));
+    }
+    return values;
+  }
+
+  @SneakyThrows
+  private Object runPagedQuery(Map<String, Object> pageArguments) {
+    DataFetchingEnvironment environment = mock(DataFetchingEnvironment.class);
+    pageArguments.forEach((name, value) -> when(environment.getArgument(name)).thenReturn(value));
+    Set<Argument> arguments = Set.of(new VariableArgument("customerid", 42L));
+    VertxQueryExecutionContext executionContext = new VertxQueryExecutionContext(context,
+        environment, arguments, Promise.promise());
+    return executionContext.runPagedJdbcQuery(query, true, executionContext).get();
+  }
+}
@@ -0,0 +1,45 @@
+package com.datasqrl.graphql.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class DuckDbConfigTest {
+
+  @Test
+  public void testDefaults() {
+    DuckDbConfig config = new DuckDbConfig(new JsonObject());
+    assertEquals("jdbc:duckdb:", config.getUrl());
+    assertEquals(4, config.getMaxPoolSize());
+    assertNull(config.getThreads());
+    assertEquals(List.of("INSTALL iceberg", "LOAD iceberg", "SET enable_object_cache = true"),
+        config.toInitStatements());
+  }
+
+  @Test
+  public void testFromServerConfig() {
+    ServerConfig serverConfig = new ServerConfig(new JsonObject()
+        .put("duckDbConfig", new JsonObject()
+            .put("url", "jdbc:duckdb:/data/sqrl.duckdb")
+            .put("maxPoolSize", 8)
+            .put("threads", 2)
+            .put("enableObjectCache", false)
+            .put("extensions", new JsonArray().add("httpfs").add("iceberg"))));
+    DuckDbConfig config = serverConfig.getDuckDbConfig();
+    assertEquals("jdbc:duckdb:/data/sqrl.duckdb", config.getUrl());
+    assertEquals(8, config.getMaxPoolSize());
+    assertEquals(List.of("INSTALL httpfs", "LOAD httpfs", "INSTALL iceberg", "LOAD iceberg",
+        "SET threads = 2", "SET enable_object_cache = false"), config.toInitStatements());
+  }
+
+  @Test
+  public void testNoExtensions() {
+    DuckDbConfig config = new DuckDbConfig(new JsonObject()
+        .put("extensions", new JsonArray()));
+    assertEquals(List.of("SET enable_object_cache = true"), config.toInitStatements());
+  }
+}
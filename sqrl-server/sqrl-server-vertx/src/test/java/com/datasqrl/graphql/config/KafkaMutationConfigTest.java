@@ -0,0 +1,44 @@
+package com.datasqrl.graphql.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonObject;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class KafkaMutationConfigTest {
+
+  @Test
+  public void testDefaults() {
+    KafkaMutationConfig config = new ServerConfig(new JsonObject()).getKafkaMutationConfig();
+    assertEquals(5, config.getLingerMs());
+    assertEquals(65536, config.getBatchSize());
+    assertEquals("lz4", config.getCompressionType());
+    assertTrue(config.isEnableIdempotence());
+    assertEquals("all", config.getAcks());
+    assertEquals(Map.of(), config.getProperties());
+  }
+
+  @Test
+  public void testFromServerConfig() {
+    KafkaMutationConfig config = new ServerConfig(new JsonObject()
+        .put("kafkaMutationConfig", new JsonObject()
+            .put("lingerMs", 20)
+            .put("batchSize", 1024)
+            .put("compressionType", "zstd")
+            .put("enableIdempotence", false)
+            .put("acks", "1")
+            .put("properties", new JsonObject()
+                .put("max.in.flight.requests.per.connection", 1)
+                .put("client.id", "sqrl"))))
+        .getKafkaMutationConfig();
+    assertEquals(20, config.getLingerMs());
+    assertEquals(1024, config.getBatchSize());
+    assertEquals("zstd", config.getCompressionType());
+    assertEquals(false, config.isEnableIdempotence());
+    assertEquals("1", config.getAcks());
+    assertEquals(Map.of("max.in.flight.requests.per.connection", "1", "client.id", "sqrl"),
+        config.getProperties());
+  }
+}
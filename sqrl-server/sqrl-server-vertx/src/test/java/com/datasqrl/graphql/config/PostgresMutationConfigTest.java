@@ -0,0 +1,28 @@
+package com.datasqrl.graphql.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.datasqrl.graphql.BatchedInsertWriter;
+import io.vertx.core.json.JsonObject;
+import org.junit.jupiter.api.Test;
+
+class PostgresMutationConfigTest {
+
+  @Test
+  public void testDefaults() {
+    PostgresMutationConfig config = new ServerConfig(new JsonObject()).getPostgresMutationConfig();
+    assertEquals(BatchedInsertWriter.DEFAULT_MAX_BATCH_SIZE, config.getMaxBatchSize());
+    assertEquals(BatchedInsertWriter.DEFAULT_LINGER_MS, config.getLingerMs());
+  }
+
+  @Test
+  public void testFromServerConfig() {
+    PostgresMutationConfig config = new ServerConfig(new JsonObject()
+        .put("postgresMutationConfig", new JsonObject()
+            .put("maxBatchSize", 32)
+            .put("lingerMs", 10)))
+        .getPostgresMutationConfig();
+    assertEquals(32, config.getMaxBatchSize());
+    assertEquals(10, config.getLingerMs());
+  }
+}
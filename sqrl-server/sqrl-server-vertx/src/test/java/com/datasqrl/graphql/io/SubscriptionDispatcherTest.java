@@ -0,0 +1,134 @@
+package com.datasqrl.graphql.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.vertx.core.json.JsonObject;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+class SubscriptionDispatcherTest {
+
+  static final int SUBSCRIBERS = 1000;
+
+  Consumer<Object> listener;
+  Consumer<Throwable> errorHandler;
+  Consumer<Void> endOfStream;
+  int listenCalls = 0;
+
+  SinkConsumer consumer = (listener, errorHandler, endOfStream) -> {
+    this.listener = listener;
+    this.errorHandler = errorHandler;
+    this.endOfStream = endOfStream;
+    listenCalls++;
+  };
+
+  @Test
+  public void testEventsAreRoutedByFilterValue() {
+    SubscriptionDispatcher dispatcher = new SubscriptionDispatcher(consumer,
+        Map.of("customerid", "customerid"));
+
+    List<List<Object>> received = new ArrayList<>();
+    List<Disposable> subscriptions = new ArrayList<>();
+    for (int i = 0; i < SUBSCRIBERS; i++) {
+      List<Object> events = new ArrayList<>();
+      received.add(events);
+      subscriptions.add(Flux.from(dispatcher.subscribe(Map.of("customerid", i)))
+          .subscribe(events::add));
+    }
+    List<Object> unfiltered = new ArrayList<>();
+    Flux.from(dispatcher.subscribe(Map.of())).subscribe(unfiltered::add);
+    assertEquals(1, listenCalls);
+
+    for (int i = 0; i < SUBSCRIBERS; i++) {
+      listener.accept(new JsonObject().put("customerid", i).put("amount", 10));
+    }
+    listener.accept(Map.of("customerid", 5, "amount", 20));
+
+    for (int i = 0; i < SUBSCRIBERS; i++) {
+      List<Object> events = received.get(i);
+      assertEquals(i == 5 ? 2 : 1, events.size());
+      assertEquals(i, ((JsonObject) events.get(0)).getInteger("customerid"));
+    }
+    assertEquals(SUBSCRIBERS + 1, unfiltered.size());
+
+    //Cancelled subscribers no longer receive events
+    subscriptions.get(7).dispose();
+    listener.accept(new JsonObject().put("customerid", 7));
+    assertEquals(1, received.get(7).size());
+    assertEquals(SUBSCRIBERS + 2, unfiltered.size());
+  }
+
+  @Test
+  public void testMissingFilterArgumentMatchesAll() {
+    SubscriptionDispatcher dispatcher = new SubscriptionDispatcher(consumer,
+        Map.of("customerid", "customerid", "status", "status"));
+
+    List<Object> byCustomer = new ArrayList<>();
+    List<Object> byCustomerAndStatus = new ArrayList<>();
+    Flux.from(dispatcher.subscribe(Map.of("customerid", 1))).subscribe(byCustomer::add);
+    Flux.from(dispatcher.subscribe(Map.of("customerid", 1, "status", "open")))
+        .subscribe(byCustomerAndStatus::add);
+
+    listener.accept(Map.of("customerid", 1, "status", "open"));
+    listener.accept(Map.of("customerid", 1, "status", "closed"));
+    listener.accept(Map.of("customerid", 2, "status", "open"));
+
+    assertEquals(2, byCustomer.size());
+    assertEquals(1, byCustomerAndStatus.size());
+    assertTrue(byCustomerAndStatus.get(0).toString().contains("open"));
+  }
+
+  @Test
+  public void testNumericFilterValuesMatchByValue() {
+    SubscriptionDispatcher dispatcher = new SubscriptionDispatcher(consumer,
+        Map.of("customerid", "customerid", "amount", "amount"));
+
+    List<Object> events = new ArrayList<>();
+    Flux.from(dispatcher.subscribe(Map.of("customerid", 42L, "amount", 12.5)))
+        .subscribe(events::add);
+
+    listener.accept(Map.of("customerid", 42, "amount", new BigDecimal("12.50")));
+    listener.accept(Map.of("customerid", 42L, "amount", 12.5));
+    listener.accept(Map.of("customerid", 43, "amount", 12.5));
+    assertEquals(2, events.size());
+  }
+
+  @Test
+  public void testLateSubscribersAreCompleted() {
+    SubscriptionDispatcher dispatcher = new SubscriptionDispatcher(consumer,
+        Map.of("customerid", "customerid"));
+    AtomicBoolean earlyCompleted = new AtomicBoolean();
+    Flux.from(dispatcher.subscribe(Map.of("customerid", 1)))
+        .subscribe(e -> {}, e -> {}, () -> earlyCompleted.set(true));
+    endOfStream.accept(null);
+    assertTrue(earlyCompleted.get());
+
+    AtomicBoolean lateCompleted = new AtomicBoolean();
+    Flux.from(dispatcher.subscribe(Map.of("customerid", 1)))
+        .subscribe(e -> {}, e -> {}, () -> lateCompleted.set(true));
+    assertTrue(lateCompleted.get());
+    assertEquals(1, listenCalls);
+  }
+
+  @Test
+  public void testLateSubscribersAreFailed() {
+    SubscriptionDispatcher dispatcher = new SubscriptionDispatcher(consumer, Map.of());
+    Flux.from(dispatcher.subscribe(Map.of())).subscribe(e -> {}, e -> {});
+    RuntimeException failure = new RuntimeException("consumer failed");
+    errorHandler.accept(failure);
+
+    AtomicReference<Throwable> lateError = new AtomicReference<>();
+    Flux.from(dispatcher.subscribe(Map.of())).subscribe(e -> {}, lateError::set);
+    assertSame(failure, lateError.get());
+  }
+}
@@ -0,0 +1,197 @@
+package com.datasqrl.graphql.postgres_log;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.datasqrl.graphql.VertxJdbcClient;
+import com.datasqrl.graphql.io.SubscriptionDispatcher;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.pgclient.PgNotification;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowIterator;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.SqlClient;
+import io.vertx.sqlclient.Tuple;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+import reactor.core.publisher.Flux;
+
+class PostgresListenNotifyConsumerTest {
+
+  static final String ON_NOTIFY_QUERY = "SELECT * FROM orders WHERE id = $1";
+  static final String ON_NOTIFY_BATCH_QUERY = "SELECT * FROM orders WHERE id = ANY($1::bigint[])";
+  static final List<String> COLUMNS = List.of("id", "customerid", "amount", "time", "day",
+      "status");
+
+  Vertx vertx;
+  List<String> executedSql = new ArrayList<>();
+  List<Tuple> executed = new ArrayList<>();
+  List<Object> events = new CopyOnWriteArrayList<>();
+  PostgresListenNotifyConsumer consumer;
+
+  @BeforeEach
+  public void setup() {
+    vertx = Vertx.vertx();
+    //The rows as decoded by the Postgres client
+    Map<Long, Row> rows = Map.of(5L, row(5L), 6L, row(6L));
+    SqlClient client = mock(SqlClient.class);
+    when(client.preparedQuery(any())).thenAnswer(i -> {
+      String sql = i.getArgument(0);
+      PreparedQuery<RowSet<Row>> preparedQuery = mock(PreparedQuery.class);
+      when(preparedQuery.execute(any(Tuple.class))).thenAnswer(e -> {
+        Tuple tuple = e.getArgument(0);
+        executedSql.add(sql);
+        executed.add(tuple);
+        List<Row> result = new ArrayList<>();
+        if (sql.equals(ON_NOTIFY_QUERY)) {
+          result.add(rows.get(tuple.getLong(0)));
+        } else {
+          for (String id : tuple.getArrayOfStrings(0)) {
+            result.add(rows.get(Long.parseLong(id)));
+          }
+        }
+        return Future.succeededFuture(rowSet(result));
+      });
+      return preparedQuery;
+    });
+    consumer = new PostgresListenNotifyConsumer(
+        new VertxJdbcClient(Map.of("postgres", client)), "LISTEN orders_notify",
+        ON_NOTIFY_QUERY, ON_NOTIFY_BATCH_QUERY, List.of("id"), vertx, null);
+  }
+
+  @SneakyThrows
+  @AfterEach
+  public void teardown() {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+  }
+
+  @Test
+  public void testFullRowMatchesFetchedRow() {
+    //The payload of the trigger as written by to_jsonb(NEW) in a session with a non-UTC time zone
+    notify(new JsonObject().put("$row", new JsonObject("{\"id\": 5, \"customerid\": 42, "
+        + "\"amount\": 12.50, \"time\": \"2024-01-02T02:00:00.123+01:00\", "
+        + "\"day\": \"2024-01-02\", \"status\": \"open\"}")));
+    //Rows that do not fit into the payload are coalesced and fetched
+    notify(new JsonObject().put("id", 5));
+    notify(new JsonObject().put("id", 6));
+    awaitEvents(3);
+
+    assertEquals(List.of(ON_NOTIFY_BATCH_QUERY), executedSql);
+    assertArrayEquals(new String[]{"5", "6"}, executed.get(0).getArrayOfStrings(0));
+
+    JsonObject fullRow = (JsonObject) events.get(0);
+    JsonObject fetchedRow = (JsonObject) events.get(1);
+    assertEquals(fullRow.fieldNames(), fetchedRow.fieldNames());
+    //The formats differ in the types of numbers and in the notation of timestamps...
+    assertEquals(Integer.class, fullRow.getValue("id").getClass());
+    assertEquals(Long.class, fetchedRow.getValue("id").getClass());
+    assertEquals("2024-01-02T02:00:00.123+01:00", fullRow.getString("time"));
+    assertEquals("2024-01-02T01:00:00.123Z", fetchedRow.getString("time"));
+    //...but not in their values
+    for (String column : List.of("id", "customerid", "amount")) {
+      assertEquals(0, new BigDecimal(fullRow.getValue(column).toString())
+          .compareTo(new BigDecimal(fetchedRow.getValue(column).toString())), column);
+    }
+    assertEquals(OffsetDateTime.parse(fullRow.getString("time")).toInstant(),
+        Instant.parse(fetchedRow.getString("time")));
+    assertEquals(fullRow.getString("day"), fetchedRow.getString("day"));
+    assertEquals(fullRow.getString("status"), fetchedRow.getString("status"));
+  }
+
+  @Test
+  public void testFullAndFetchedRowsReachFilteredSubscribers() {
+    AtomicReference<Consumer<Object>> dispatch = new AtomicReference<>();
+    SubscriptionDispatcher dispatcher = new SubscriptionDispatcher(
+        (listener, errorHandler, endOfStream) -> dispatch.set(listener),
+        Map.of("customerid", "customerid"));
+    List<Object> received = new CopyOnWriteArrayList<>();
+    Flux.from(dispatcher.subscribe(Map.of("customerid", 42L))).subscribe(received::add);
+
+    notify(new JsonObject().put("$row", new JsonObject().put("id", 5).put("customerid", 42)),
+        dispatch.get());
+    notify(new JsonObject().put("id", 6), dispatch.get());
+    awaitCondition(() -> received.size() == 2);
+    assertEquals(List.of(ON_NOTIFY_QUERY), executedSql);
+  }
+
+  private void notify(JsonObject payload) {
+    notify(payload, events::add);
+  }
+
+  private void notify(JsonObject payload, Consumer<Object> listener) {
+    consumer.handleNotification(new PgNotification().setChannel("orders_notify")
+        .setPayload(payload.encode()), listener);
+  }
+
+  private void awaitEvents(int count) {
+    awaitCondition(() -> events.size() >= count);
+    assertEquals(count, events.size());
+  }
+
+  @SneakyThrows
+  private static void awaitCondition(BooleanSupplier condition) {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (!condition.getAsBoolean()) {
+      if (System.currentTimeMillis() > deadline) {
+        throw new AssertionError("Timed out waiting for events");
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  private static Row row(long id) {
+    List<Object> values = List.of(id, 42L, new BigDecimal("12.50"),
+        OffsetDateTime.of(2024, 1, 2, 1, 0, 0, 123_000_000, ZoneOffset.UTC),
+        LocalDate.of(2024, 1, 2), "open");
+    Row row = mock(Row.class, withSettings().defaultAnswer(Answers.CALLS_REAL_METHODS));
+    doReturn(COLUMNS.size()).when(row).size();
+    for (int i = 0; i < COLUMNS.size(); i++) {
+      doReturn(COLUMNS.get(i)).when(row).getColumnName(i);
+      doReturn(values.get(i)).when(row).getValue(i);
+    }
+    return row;
+  }
+
+  private static RowSet<Row> rowSet(List<Row> rows) {
+    RowSet<Row> rowSet = mock(RowSet.class);
+    when(rowSet.iterator()).thenAnswer(i -> {
+      Iterator<Row> iterator = rows.iterator();
+      return new RowIterator<Row>() {
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Row next() {
+          return iterator.next();
+        }
+      };
+    });
+    return rowSet;
+  }
+}
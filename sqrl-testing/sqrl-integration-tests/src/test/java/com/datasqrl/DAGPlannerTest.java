@@ -1,6 +1,7 @@
 package com.datasqrl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.datasqrl.cmd.AssertStatusHook;
@@ -8,6 +9,9 @@ import com.datasqrl.util.SnapshotTest.Snapshot;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.SneakyThrows;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -37,6 +41,26 @@ public class DAGPlannerTest extends AbstractAssetSnapshotTest {
     }
   }
 
+  @Test
+  @SneakyThrows
+  void testGlobalStageAssignmentCost() {
+    AssertStatusHook hook = execute(SCRIPT_DIR, "compile", "globalStageAssignmentTest.sqrl",
+        "-c", "package.json", "-c", "package-explain-cost.json", "-t", deployDir.toString(),
+        "--profile", "../../../../../../profiles/default");
+    assertFalse(hook.isFailed(), hook.getFailMessage());
+    //Placing the join in the database is locally cheapest but pulls its consumers along
+    String explain = Files.readString(buildDir.resolve("pipeline_explain.txt"));
+    double chosen = getCost(explain, "Chosen");
+    double greedy = getCost(explain, "Greedy");
+    assertTrue(chosen < greedy, explain);
+  }
+
+  private static double getCost(String explain, String assignment) {
+    Matcher matcher = Pattern.compile(assignment + ": ([0-9.]+)").matcher(explain);
+    assertTrue(matcher.find(), explain);
+    return Double.parseDouble(matcher.group(1));
+  }
+
   @Override
   public Predicate<Path> getBuildDirFilter() {
     return file -> {
@@ -0,0 +1,106 @@
+package com.datasqrl;
+
+import static org.apache.kafka.clients.producer.ProducerConfig.BOOTSTRAP_SERVERS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG;
+import static org.apache.kafka.clients.producer.ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.datasqrl.graphql.kafka.KafkaSinkProducer;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.kafka.client.producer.KafkaProducer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.apache.flink.table.api.EnvironmentSettings;
+import org.apache.flink.table.api.TableEnvironment;
+import org.apache.flink.types.Row;
+import org.apache.flink.util.CloseableIterator;
+import org.apache.kafka.streams.integration.utils.EmbeddedKafkaCluster;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Produces mutations the way the server does and reads them back through a keyed,
+ * multi-partition log the way the compiled Flink job does.
+ */
+public class KeyedMutationLogTest {
+
+  static final String TOPIC = "addcustomer";
+  static final int PARTITIONS = 4;
+  static final int MUTATIONS = 20;
+
+  EmbeddedKafkaCluster cluster = new EmbeddedKafkaCluster(1);
+  Vertx vertx;
+
+  @SneakyThrows
+  @BeforeEach
+  public void init() {
+    cluster.start();
+    cluster.createTopic(TOPIC, PARTITIONS, 1);
+    vertx = Vertx.vertx();
+  }
+
+  @SneakyThrows
+  @AfterEach
+  public void teardown() {
+    vertx.close().toCompletionStage().toCompletableFuture().get();
+    cluster.stop();
+  }
+
+  @SneakyThrows
+  @Test
+  public void testReadKeyedMutations() {
+    Map<String, String> sinkConfig = new HashMap<>();
+    sinkConfig.put(BOOTSTRAP_SERVERS_CONFIG, cluster.bootstrapServers());
+    sinkConfig.put(KEY_SERIALIZER_CLASS_CONFIG, "com.datasqrl.graphql.kafka.JsonSerializer");
+    sinkConfig.put(VALUE_SERIALIZER_CLASS_CONFIG, "com.datasqrl.graphql.kafka.JsonSerializer");
+    KafkaProducer<Map, Map> producer = KafkaProducer.create(vertx, sinkConfig);
+    KafkaSinkProducer sinkProducer = new KafkaSinkProducer(TOPIC, producer, List.of("_uuid"));
+
+    List<Future> sent = new ArrayList<>();
+    Set<Integer> expected = new TreeSet<>();
+    for (int i = 0; i < MUTATIONS; i++) {
+      Map<String, Object> entry = new HashMap<>();
+      entry.put("customerid", i);
+      entry.put("_uuid", UUID.randomUUID());
+      sent.add(sinkProducer.send(entry));
+      expected.add(i);
+    }
+    for (Future future : sent) {
+      future.toCompletionStage().toCompletableFuture().get(30, TimeUnit.SECONDS);
+    }
+    producer.close().toCompletionStage().toCompletableFuture().get();
+
+    //Same connector options as the kafka log connector of a keyed log
+    TableEnvironment tableEnv = TableEnvironment.create(EnvironmentSettings.inStreamingMode());
+    tableEnv.executeSql("CREATE TABLE addcustomer (\n"
+        + "  customerid INT,\n"
+        + "  _uuid STRING\n"
+        + ") WITH (\n"
+        + "  'connector' = 'kafka',\n"
+        + "  'topic' = '" + TOPIC + "',\n"
+        + "  'properties.bootstrap.servers' = '" + cluster.bootstrapServers() + "',\n"
+        + "  'properties.group.id' = 'keyed-mutation-test',\n"
+        + "  'key.format' = 'flexible-json',\n"
+        + "  'key.fields' = '_uuid',\n"
+        + "  'value.format' = 'flexible-json',\n"
+        + "  'scan.startup.mode' = 'earliest-offset',\n"
+        + "  'scan.bounded.mode' = 'latest-offset'\n"
+        + ")");
+
+    Set<Integer> actual = new TreeSet<>();
+    try (CloseableIterator<Row> rows = tableEnv.executeSql(
+        "SELECT customerid, _uuid FROM addcustomer").collect()) {
+      rows.forEachRemaining(row -> actual.add((Integer) row.getField(0)));
+    }
+    assertEquals(expected, actual);
+  }
+}
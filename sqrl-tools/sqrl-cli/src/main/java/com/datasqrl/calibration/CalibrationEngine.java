@@ -0,0 +1,35 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.calibration;
+
+/**
+ * A local engine that the {@link CostCalibrator} runs the micro-queries against.
+ *
+ * Engines have the tables {@code events (id BIGINT, k INT, v DOUBLE)} with one row per id and
+ * {@code dims (k INT, label VARCHAR)} with one row per key.
+ */
+public interface CalibrationEngine extends AutoCloseable {
+
+  /**
+   * @return The engine name or type that the measured weights are configured for in the cost
+   * profile
+   */
+  String getProfileKey();
+
+  /**
+   * @return true if the engine pre-computes results, so queries have no base cost
+   */
+  boolean isPrecomputed();
+
+  /**
+   * Creates the tables with the given number of event rows and distinct keys.
+   */
+  void load(int rows, int keys) throws Exception;
+
+  /**
+   * Executes the query to completion.
+   */
+  void execute(String sql) throws Exception;
+
+}
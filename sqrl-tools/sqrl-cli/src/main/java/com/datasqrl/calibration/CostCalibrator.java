@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.calibration;
+
+import com.datasqrl.plan.rules.CostProfile;
+import com.datasqrl.plan.rules.CostProfile.EngineCost;
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Measures the weights of a {@link CostProfile} by running a fixed suite of micro-queries against
+ * local engines.
+ *
+ * All times are measured net of the engine's overhead for a query that reads no data (e.g. job
+ * submission for Flink) and are relative to the time the baseline database takes to scan the
+ * events table, so the baseline database has a scan weight of 1. Joins, aggregations, and top-n
+ * sorts are weighted by the time they add to that scan. Engines that pre-compute results read
+ * their inputs only once, so they have no base or scan cost and are the only engines that pay for
+ * the state of stateful operators.
+ */
+@Slf4j
+@AllArgsConstructor
+public class CostCalibrator {
+
+  public static final int DEFAULT_ROWS = 100000;
+  public static final int DEFAULT_KEYS = 1000;
+  public static final int DEFAULT_REPETITIONS = 5;
+
+  /**
+   * The join cost of the join micro-query, an equality join of two streams (see
+   * {@link com.datasqrl.plan.rules.SimpleCostModel#joinCost})
+   */
+  public static final double CALIBRATION_JOIN_COST = 200;
+
+  public enum MicroQuery {
+    NOOP("SELECT 1 AS x"),
+    SCAN("SELECT id, k, v FROM events WHERE v >= 0"),
+    AGGREGATE("SELECT k, COUNT(*) AS cnt, SUM(v) AS total FROM events GROUP BY k"),
+    JOIN("SELECT e.id, e.v, d.label FROM events e JOIN dims d ON e.k = d.k"),
+    TOP_N("SELECT id, k, v FROM (SELECT id, k, v, ROW_NUMBER() OVER "
+        + "(PARTITION BY k ORDER BY v DESC) AS rn FROM events) t WHERE rn <= 3");
+
+    final String sql;
+
+    MicroQuery(String sql) {
+      this.sql = sql;
+    }
+  }
+
+  private final int rows;
+  private final int keys;
+  private final int repetitions;
+
+  public CostCalibrator() {
+    this(DEFAULT_ROWS, DEFAULT_KEYS, DEFAULT_REPETITIONS);
+  }
+
+  /**
+   * Measures all engines and returns the cost profile in the format of
+   * {@link CostProfile#fromMap}. The first engine is the baseline database.
+   */
+  public Map<String, Object> calibrate(List<CalibrationEngine> engines) throws Exception {
+    List<Measurement> measurements = new ArrayList<>();
+    for (CalibrationEngine engine : engines) {
+      measurements.add(measure(engine));
+    }
+    return toProfile(measurements);
+  }
+
+  public Measurement measure(CalibrationEngine engine) throws Exception {
+    log.info("Calibrating [{}] with {} rows", engine.getProfileKey(), rows);
+    engine.load(rows, keys);
+    Map<MicroQuery, Double> millis = new EnumMap<>(MicroQuery.class);
+    for (MicroQuery query : MicroQuery.values()) {
+      //Warm up before measuring
+      engine.execute(query.sql);
+      double[] times = new double[repetitions];
+      for (int i = 0; i < repetitions; i++) {
+        long start = System.nanoTime();
+        engine.execute(query.sql);
+        times[i] = (System.nanoTime() - start) / 1e6;
+      }
+      millis.put(query, median(times));
+    }
+    log.info("Measured [{}] in milliseconds: {}", engine.getProfileKey(), millis);
+    return new Measurement(engine.getProfileKey(), engine.isPrecomputed(), millis);
+  }
+
+  private static double median(double[] times) {
+    Arrays.sort(times);
+    int middle = times.length / 2;
+    return times.length % 2 == 1 ? times[middle] : (times[middle - 1] + times[middle]) / 2;
+  }
+
+  public static Map<String, Object> toProfile(List<Measurement> measurements) {
+    Preconditions.checkArgument(!measurements.isEmpty(), "Nothing was measured");
+    Measurement baseline = measurements.get(0);
+    Preconditions.checkArgument(!baseline.isPrecomputed(),
+        "The baseline [%s] must be a database", baseline.getProfileKey());
+    double unit = baseline.net(MicroQuery.SCAN);
+    Preconditions.checkState(unit > 0,
+        "The scan of the baseline [%s] was too fast to measure, increase the number of rows",
+        baseline.getProfileKey());
+
+    Map<String, Object> engines = new LinkedHashMap<>();
+    for (Measurement measurement : measurements) {
+      double scan = measurement.net(MicroQuery.SCAN);
+      Map<String, Object> weights = new LinkedHashMap<>();
+      if (measurement.isPrecomputed()) {
+        weights.put(EngineCost.BASE_KEY, 0.0);
+        weights.put(EngineCost.SCAN_KEY, 0.0);
+      } else {
+        weights.put(EngineCost.BASE_KEY, round(measurement.get(MicroQuery.NOOP) / unit));
+        weights.put(EngineCost.SCAN_KEY, round(scan / unit));
+      }
+      weights.put(EngineCost.JOIN_KEY,
+          round(measurement.added(MicroQuery.JOIN, scan) / unit / CALIBRATION_JOIN_COST));
+      weights.put(EngineCost.AGGREGATE_KEY,
+          round(measurement.added(MicroQuery.AGGREGATE, scan) / unit));
+      weights.put(EngineCost.STATE_KEY, measurement.isPrecomputed()
+          ? round(measurement.added(MicroQuery.TOP_N, scan) / unit) : 0.0);
+      engines.put(measurement.getProfileKey(), weights);
+    }
+    return Map.of(CostProfile.ENGINES_KEY, engines);
+  }
+
+  private static double round(double weight) {
+    return Math.round(weight * 10000) / 10000.0;
+  }
+
+  /**
+   * The median time in milliseconds of each micro-query on an engine
+   */
+  @Value
+  public static class Measurement {
+
+    String profileKey;
+    boolean precomputed;
+    Map<MicroQuery, Double> millis;
+
+    double get(MicroQuery query) {
+      Double time = millis.get(query);
+      Preconditions.checkArgument(time != null, "Missing time for [%s] on [%s]", query,
+          profileKey);
+      return time;
+    }
+
+    /**
+     * The time of the query without the overhead of the engine
+     */
+    double net(MicroQuery query) {
+      return Math.max(0, get(query) - get(MicroQuery.NOOP));
+    }
+
+    /**
+     * The time the query adds to the scan of the events table
+     */
+    double added(MicroQuery query, double scan) {
+      return Math.max(0, net(query) - scan);
+    }
+  }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.calibration;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.CoreOptions;
+import org.apache.flink.table.api.EnvironmentSettings;
+import org.apache.flink.table.api.Schema;
+import org.apache.flink.table.api.Table;
+import org.apache.flink.table.api.TableDescriptor;
+import org.apache.flink.table.api.TableEnvironment;
+
+/**
+ * Runs the micro-queries as streaming jobs on an embedded Flink mini-cluster. The tables are
+ * bounded datagen sources and the results are written to a blackhole sink, so the jobs finish
+ * once all rows are processed.
+ */
+public class FlinkCalibrationEngine implements CalibrationEngine {
+
+  private final TableEnvironment tEnv;
+
+  public FlinkCalibrationEngine() {
+    Configuration config = new Configuration();
+    config.set(CoreOptions.DEFAULT_PARALLELISM, 1);
+    this.tEnv = TableEnvironment.create(EnvironmentSettings.newInstance()
+        .inStreamingMode().withConfiguration(config).build());
+  }
+
+  @Override
+  public String getProfileKey() {
+    return "streams";
+  }
+
+  @Override
+  public boolean isPrecomputed() {
+    return true;
+  }
+
+  @Override
+  public void load(int rows, int keys) {
+    tEnv.executeSql(String.format("CREATE TEMPORARY TABLE events (id BIGINT, k INT, v DOUBLE) "
+        + "WITH ('connector' = 'datagen', 'fields.id.kind' = 'sequence', "
+        + "'fields.id.start' = '1', 'fields.id.end' = '%s', "
+        + "'fields.k.min' = '0', 'fields.k.max' = '%s', "
+        + "'fields.v.min' = '0', 'fields.v.max' = '1000')", rows, keys - 1));
+    tEnv.executeSql(String.format("CREATE TEMPORARY TABLE dims (k INT, label STRING) "
+        + "WITH ('connector' = 'datagen', 'fields.k.kind' = 'sequence', "
+        + "'fields.k.start' = '0', 'fields.k.end' = '%s', "
+        + "'fields.label.length' = '10')", keys - 1));
+  }
+
+  @Override
+  public void execute(String sql) throws Exception {
+    Table query = tEnv.sqlQuery(sql);
+    query.executeInsert(TableDescriptor.forConnector("blackhole")
+        .schema(Schema.newBuilder().fromResolvedSchema(query.getResolvedSchema()).build())
+        .build()).await();
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.calibration;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import lombok.Getter;
+
+/**
+ * Runs the micro-queries against an in-memory database over JDBC. Queries are executed as counts
+ * of their result, so the measurement doesn't include the transfer of the result.
+ */
+public class JdbcCalibrationEngine implements CalibrationEngine {
+
+  private static final int BATCH_SIZE = 1000;
+
+  @Getter
+  private final String profileKey;
+  private final Connection connection;
+
+  public JdbcCalibrationEngine(String profileKey, String url) throws SQLException {
+    this.profileKey = profileKey;
+    this.connection = DriverManager.getConnection(url);
+  }
+
+  /**
+   * H2 in Postgres mode as a stand-in for the database engine. H2 doesn't reuse the results of
+   * repeated queries, so every repetition is measured.
+   */
+  public static JdbcCalibrationEngine h2() throws SQLException {
+    return new JdbcCalibrationEngine("database", "jdbc:h2:mem:calibration" + System.nanoTime()
+        + ";MODE=PostgreSQL;OPTIMIZE_REUSE_RESULTS=0");
+  }
+
+  /**
+   * DuckDB as the query engine of the iceberg table format
+   */
+  public static JdbcCalibrationEngine duckDb() throws SQLException {
+    return new JdbcCalibrationEngine("iceberg", "jdbc:duckdb:");
+  }
+
+  @Override
+  public boolean isPrecomputed() {
+    return false;
+  }
+
+  @Override
+  public void load(int rows, int keys) throws SQLException {
+    try (Statement stmt = connection.createStatement()) {
+      stmt.execute("CREATE TABLE events (id BIGINT, k INT, v DOUBLE)");
+      stmt.execute("CREATE TABLE dims (k INT, label VARCHAR(20))");
+    }
+    Random random = new Random(rows);
+    try (PreparedStatement insert = connection.prepareStatement(
+        "INSERT INTO events VALUES (?, ?, ?)")) {
+      for (int id = 1; id <= rows; id++) {
+        insert.setLong(1, id);
+        insert.setInt(2, random.nextInt(keys));
+        insert.setDouble(3, random.nextDouble() * 1000);
+        insert.addBatch();
+        if (id % BATCH_SIZE == 0) {
+          insert.executeBatch();
+        }
+      }
+      insert.executeBatch();
+    }
+    try (PreparedStatement insert = connection.prepareStatement(
+        "INSERT INTO dims VALUES (?, ?)")) {
+      for (int k = 0; k < keys; k++) {
+        insert.setInt(1, k);
+        insert.setString(2, "key" + k);
+        insert.addBatch();
+      }
+      insert.executeBatch();
+    }
+  }
+
+  @Override
+  public void execute(String sql) throws SQLException {
+    try (Statement stmt = connection.createStatement();
+        ResultSet result = stmt.executeQuery("SELECT COUNT(*) FROM (" + sql + ") q")) {
+      while (result.next()) {
+        result.getLong(1);
+      }
+    }
+  }
+
+  @Override
+  public void close() throws SQLException {
+    connection.close();
+  }
+}
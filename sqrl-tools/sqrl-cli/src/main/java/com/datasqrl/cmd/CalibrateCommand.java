@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2021, DataSQRL. All rights reserved. Use is subject to license terms.
+ */
+package com.datasqrl.cmd;
+
+import com.datasqrl.calibration.CalibrationEngine;
+import com.datasqrl.calibration.CostCalibrator;
+import com.datasqrl.calibration.FlinkCalibrationEngine;
+import com.datasqrl.calibration.JdbcCalibrationEngine;
+import com.datasqrl.config.CompilerConfigImpl;
+import com.datasqrl.config.PackageJsonImpl;
+import com.datasqrl.error.ErrorCollector;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import picocli.CommandLine;
+
+@CommandLine.Command(name = "calibrate",
+    description = "Measures the cost profile of the compiler on local engines")
+@Slf4j
+public class CalibrateCommand extends AbstractCommand {
+
+  public static final Path DEFAULT_OUTPUT = Path.of("cost-profile.json");
+
+  @CommandLine.Option(names = {"-o", "--output"},
+      description = "Package configuration file to write the cost profile to, pass it with -c to compile")
+  protected Path output = DEFAULT_OUTPUT;
+
+  @CommandLine.Option(names = {"--rows"}, description = "Number of rows of the calibration table")
+  protected int rows = CostCalibrator.DEFAULT_ROWS;
+
+  @CommandLine.Option(names = {"--keys"}, description = "Number of distinct keys of the calibration table")
+  protected int keys = CostCalibrator.DEFAULT_KEYS;
+
+  @CommandLine.Option(names = {"--repetitions"}, description = "Number of measurements per query")
+  protected int repetitions = CostCalibrator.DEFAULT_REPETITIONS;
+
+  @Override
+  protected void execute(ErrorCollector errors) throws Exception {
+    errors.checkFatal(rows > 0 && keys > 0 && repetitions > 0,
+        "Rows, keys, and repetitions must be positive");
+    List<CalibrationEngine> engines = new ArrayList<>();
+    try {
+      //The first engine is the baseline database
+      engines.add(JdbcCalibrationEngine.h2());
+      engines.add(JdbcCalibrationEngine.duckDb());
+      engines.add(new FlinkCalibrationEngine());
+      Map<String, Object> profile = new CostCalibrator(rows, keys, repetitions)
+          .calibrate(engines);
+      Path file = root.rootDir.resolve(output);
+      new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(),
+          Map.of(PackageJsonImpl.COMPILER_KEY,
+              Map.of(CompilerConfigImpl.COST_PROFILE_KEY, profile)));
+      log.info("Wrote cost profile to {}", file);
+    } finally {
+      for (CalibrationEngine engine : engines) {
+        engine.close();
+      }
+    }
+  }
+}
@@ -13,7 +13,8 @@ import picocli.CommandLine.ScopeType;
 
 @CommandLine.Command(name = "datasqrl", mixinStandardHelpOptions = true, version = "v0.5.8",
     subcommands = {CompilerCommand.class,
-         PublishCommand.class, TestCommand.class, LoginCommand.class, RunCommand.class})
+         PublishCommand.class, TestCommand.class, LoginCommand.class, RunCommand.class,
+        CalibrateCommand.class})
 @Getter
 public class RootCommand implements Runnable {
 
@@ -0,0 +1,47 @@
+package com.datasqrl.calibration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.datasqrl.calibration.CostCalibrator.Measurement;
+import com.datasqrl.calibration.CostCalibrator.MicroQuery;
+import com.datasqrl.plan.rules.CostProfile;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public class CostCalibratorTest {
+
+  @Test
+  public void testProfileFromMeasurements() {
+    Measurement database = measurement("database", false, 1, 11, 16, 31, 21);
+    Measurement iceberg = measurement("iceberg", false, 2, 7, 7, 12, 8);
+    Measurement streams = measurement("streams", true, 1000, 1050, 1070, 2050, 1090);
+
+    Map<String, Object> profile = CostCalibrator.toProfile(List.of(database, iceberg, streams));
+    //Weights are relative to the net scan of the baseline of 10ms
+    assertEquals(Map.of(CostProfile.ENGINES_KEY, Map.of(
+        "database", Map.of("base", 0.1, "scan", 1.0, "join", 0.01, "aggregate", 0.5,
+            "state", 0.0),
+        "iceberg", Map.of("base", 0.2, "scan", 0.5, "join", 0.0025, "aggregate", 0.0,
+            "state", 0.0),
+        "streams", Map.of("base", 0.0, "scan", 0.0, "join", 0.5, "aggregate", 2.0,
+            "state", 4.0))), profile);
+    //The profile is a valid cost profile
+    CostProfile.fromMap(profile);
+  }
+
+  @Test
+  public void testInvalidMeasurements() {
+    assertThrows(IllegalArgumentException.class, () -> CostCalibrator.toProfile(
+        List.of(measurement("streams", true, 1000, 1050, 1070, 2050, 1090))));
+    assertThrows(IllegalStateException.class, () -> CostCalibrator.toProfile(
+        List.of(measurement("database", false, 1, 1, 1, 1, 1))));
+  }
+
+  private static Measurement measurement(String key, boolean precomputed, double noop,
+      double scan, double aggregate, double join, double topN) {
+    return new Measurement(key, precomputed, Map.of(MicroQuery.NOOP, noop, MicroQuery.SCAN, scan,
+        MicroQuery.AGGREGATE, aggregate, MicroQuery.JOIN, join, MicroQuery.TOP_N, topN));
+  }
+}
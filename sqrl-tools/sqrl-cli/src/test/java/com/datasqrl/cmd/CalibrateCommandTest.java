@@ -0,0 +1,49 @@
+package com.datasqrl.cmd;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.datasqrl.config.EngineFactory.Type;
+import com.datasqrl.engine.ExecutionEngine;
+import com.datasqrl.plan.rules.CostProfile;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+
+public class CalibrateCommandTest {
+
+  @TempDir
+  Path rootDir;
+
+  @Test
+  public void testWritesCostProfile() throws Exception {
+    AssertStatusHook hook = new AssertStatusHook();
+    int exitCode = new RootCommand(rootDir, hook).getCmd().execute("calibrate",
+        "--rows", "20000", "--keys", "100", "--repetitions", "3", "-o", "profile.json");
+    assertEquals(0, exitCode, hook.getFailMessage());
+    assertTrue(hook.isSuccess(), hook.getFailMessage());
+
+    Map<String, Object> config = new ObjectMapper().readValue(
+        rootDir.resolve("profile.json").toFile(), Map.class);
+    Map<String, Object> profile = (Map) ((Map) config.get("compiler")).get("costProfile");
+    Map<String, Map<String, Object>> engines = (Map) profile.get(CostProfile.ENGINES_KEY);
+    assertEquals(3, engines.size());
+    //The database is the baseline and streams have no query-time cost
+    assertEquals(1.0, engines.get("database").get("scan"));
+    assertEquals(0.0, engines.get("streams").get("base"));
+    assertTrue(engines.containsKey("iceberg"));
+
+    CostProfile costProfile = CostProfile.fromMap(profile);
+    assertEquals(1.0, costProfile.getEngineCost(engine("postgres", Type.DATABASE)).getScan());
+  }
+
+  private static ExecutionEngine engine(String name, Type type) {
+    ExecutionEngine engine = Mockito.mock(ExecutionEngine.class);
+    Mockito.when(engine.getName()).thenReturn(name);
+    Mockito.when(engine.getType()).thenReturn(type);
+    return engine;
+  }
+}
@@ -1,11 +1,14 @@
 package com.datasqrl.config;
 
+import java.util.Map;
 import java.util.Optional;
 import lombok.AllArgsConstructor;
 
 @AllArgsConstructor
 public class CompilerConfigImpl implements PackageJson.CompilerConfig {
 
+  public static final String COST_PROFILE_KEY = "costProfile";
+
   SqrlConfig sqrlConfig;
 
   public void setSnapshotPath(String path) {
@@ -26,6 +29,12 @@ public class CompilerConfigImpl implements PackageJson.CompilerConfig {
     return sqrlConfig.hasKey("logger") ? sqrlConfig.asString("logger").get() : "print";
   }
 
+  @Override
+  public Map<String, Object> getCostProfile() {
+    return sqrlConfig.hasSubConfig(COST_PROFILE_KEY) ? sqrlConfig.getSubConfig(COST_PROFILE_KEY).toMap()
+        : Map.of();
+  }
+
   public ExplainConfigImpl getExplain() {
     return new ExplainConfigImpl(sqrlConfig.getSubConfig("explain"));
   }
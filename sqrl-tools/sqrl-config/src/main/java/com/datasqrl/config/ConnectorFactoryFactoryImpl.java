@@ -158,6 +158,16 @@ public class ConnectorFactoryFactoryImpl implements ConnectorFactoryFactory {
 
       builder.copyConnectorConfig(connectorConf1);
       builder.getConnectorConfig().setProperty("topic", map.get("topic"));
+
+      //Key records so that all records with the same key are written to the same partition
+      List<String> keyFields = (List<String>)map.get("key-fields");
+      if (keyFields != null && !keyFields.isEmpty()) {
+        Map<String, Object> conf = connectorConf1.toMap();
+        Object keyFormat = conf.getOrDefault("key.format",
+            conf.getOrDefault("value.format", conf.get("format")));
+        builder.getConnectorConfig().setProperty("key.format", keyFormat);
+        builder.getConnectorConfig().setProperty("key.fields", String.join(";", keyFields));
+      }
       return builder.build();
     };
   }
@@ -44,6 +44,11 @@ public class ExplainConfigImpl implements PackageJson.ExplainConfig {
    */
   @Default
   boolean sorted = true; //TODO: set to false and overwrite in test case injector
+  /**
+   * Whether to print the total cost of the chosen stage assignment and of the greedy assignment
+   */
+  @Default
+  boolean cost = false;
 
   public ExplainConfigImpl(SqrlConfig sqrlConfig) {
     this(
@@ -52,6 +57,7 @@ public class ExplainConfigImpl implements PackageJson.ExplainConfig {
         sqrlConfig.asBool("sql").getOptional().orElse(false),
         sqrlConfig.asBool("logical").getOptional().orElse(true),
         sqrlConfig.asBool("physical").getOptional().orElse(false),
-        sqrlConfig.asBool("sorted").getOptional().orElse(true));
+        sqrlConfig.asBool("sorted").getOptional().orElse(true),
+        sqrlConfig.asBool("cost").getOptional().orElse(false));
   }
 }
@@ -54,8 +54,12 @@ public class WriteDag {
           .build();
       List<Node> nodes = exporter.export(dag);
       if (explainConfig.isSorted()) Collections.sort(nodes); //make order deterministic
-      writeFile(buildDir.getBuildDir().resolve(EXPLAIN_TEXT_FILENAME),nodes.stream().map(SqrlDAGExporter.Node::toString)
-          .collect(Collectors.joining("\n")));
+      String explain = nodes.stream().map(SqrlDAGExporter.Node::toString)
+          .collect(Collectors.joining("\n"));
+      if (explainConfig.isCost()) {
+        explain += exporter.exportCost(dag).map(cost -> "\n" + cost).orElse("");
+      }
+      writeFile(buildDir.getBuildDir().resolve(EXPLAIN_TEXT_FILENAME), explain);
     }
     if (explainConfig.isVisual()) {
       SqrlDAGExporter exporter = SqrlDAGExporter.builder()
@@ -36,6 +36,7 @@ import com.datasqrl.packager.preprocess.JarPreprocessor;
 import com.datasqrl.packager.preprocess.Preprocessor;
 import com.datasqrl.packager.preprocess.ScriptPreprocessor;
 import com.datasqrl.packager.preprocess.TablePreprocessor;
+import com.datasqrl.packager.preprocess.TableStatisticPreprocessor;
 import com.datasqrl.packager.repository.Repository;
 import com.datasqrl.plan.CreateTableResolver;
 import com.datasqrl.plan.CreateTableResolverImpl;
@@ -91,6 +92,7 @@ public class SqrlInjector extends AbstractModule {
     Multibinder<Preprocessor> binder = Multibinder.newSetBinder(binder(), Preprocessor.class);
     binder.addBinding().to(ScriptPreprocessor.class);
     binder.addBinding().to(TablePreprocessor.class);
+    binder.addBinding().to(TableStatisticPreprocessor.class);
     binder.addBinding().to(CopyStaticDataPreprocessor.class);
     binder.addBinding().to(JarPreprocessor.class);
     binder.addBinding().to(DataSystemPreprocessor.class);
@@ -0,0 +1,22 @@
+package com.datasqrl.packager.preprocess;
+
+import com.datasqrl.error.ErrorCollector;
+import com.datasqrl.plan.table.TableStatistic;
+import com.datasqrl.util.FileUtil;
+import java.nio.file.Path;
+import java.util.regex.Pattern;
+
+public class TableStatisticPreprocessor implements Preprocessor {
+  protected static final Pattern STATISTICS_FILE_REGEX = Pattern.compile(".*"+ FileUtil.toRegex(TableStatistic.STATISTICS_FILE_SUFFIX));
+
+  @Override
+  public Pattern getPattern() {
+    // Pattern to match *.stats.json files next to the table configuration
+    return STATISTICS_FILE_REGEX;
+  }
+
+  @Override
+  public void processFile(Path path, ProcessorContext processorContext, ErrorCollector errors) {
+    processorContext.addDependency(path);
+  }
+}
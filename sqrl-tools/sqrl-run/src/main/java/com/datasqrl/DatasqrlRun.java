@@ -294,7 +294,14 @@ public class DatasqrlRun {
     props.put(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, getenv("PROPERTIES_BOOTSTRAP_SERVERS"));
     try (AdminClient adminClient = AdminClient.create(props)) {
       for (Map<String, Object> topic : mutableTopics) {
-        NewTopic newTopic = new NewTopic((String) topic.get("name"), 1, (short) 1);
+        Number numPartitions = (Number) topic.getOrDefault("numPartitions", 1);
+        Number replicationFactor = (Number) topic.getOrDefault("replicationFactor", 1);
+        NewTopic newTopic = new NewTopic((String) topic.get("name"), numPartitions.intValue(),
+            replicationFactor.shortValue());
+        Map<String, String> config = (Map<String, String>) topic.get("config");
+        if (config != null && !config.isEmpty()) {
+          newTopic.configs(config);
+        }
         adminClient.createTopics(Collections.singletonList(newTopic)).all().get();
       }
     }
@@ -369,9 +376,6 @@ public class DatasqrlRun {
           .setDatabase(getenv("PGDATABASE"));
     }
 
-    GraphQLServer server = new GraphQLServer(rootGraphqlModel, serverConfig,
-        NameCanonicalizer.SYSTEM, getSnowflakeUrl());
-
     PrometheusMeterRegistry prometheusMeterRegistry = new PrometheusMeterRegistry(
         PrometheusConfig.DEFAULT);
     MicrometerMetricsOptions metricsOptions = new MicrometerMetricsOptions()
@@ -380,7 +384,8 @@ public class DatasqrlRun {
 
     vertx = Vertx.vertx(new VertxOptions().setMetricsOptions(metricsOptions));
 
-    vertx.deployVerticle(server, res -> {
+    GraphQLServer.deploy(vertx, rootGraphqlModel, serverConfig,
+        NameCanonicalizer.SYSTEM, getSnowflakeUrl()).onComplete(res -> {
       if (res.succeeded()) {
         System.out.println("Deployment id is: " + res.result());
       } else {